@@ -0,0 +1,373 @@
+import es.predictapro.forecast.ForecastModel;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.ForecastEvaluation;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.DataValidationService;
+import es.predictapro.service.ForecastingService;
+import es.predictapro.service.PredictionService;
+import es.predictapro.service.VisualizationService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ServiceBenchmark is an executable micro-benchmark harness for the service hot paths.
+ * <p>
+ * For every dataset size it measures:
+ * - {@link DataCleaningService#cleanData(List)}.
+ * - {@link PredictionService#predict(List)}.
+ * - Every {@link DataStatisticsService} metric, including the single-pass summary.
+ * - {@link DataValidationService#validateData(List)}.
+ * - {@link VisualizationService#generateReport(List)}.
+ * - Loading a repository point by point and with {@code saveAll}.
+ * - The columnar variants of the cleaning, prediction and summary paths.
+ * - Every model of {@link ForecastingService#createModels(int)} forecasting a day of hourly
+ *   values from the same columns, along with the holdout accuracy of each model.
+ * </p>
+ * <p>
+ * Each benchmark runs warmup iterations before the measured ones, and every result is
+ * consumed so the JIT cannot eliminate the work. The harness reports the average time per
+ * operation and, like the JMH GC profiler's {@code gc.alloc.rate.norm}, the bytes allocated
+ * per operation by the benchmark thread. Results are written as JSON or CSV so two runs can
+ * be diffed line by line.
+ * </p>
+ * <p>
+ * Usage:
+ * {@code java -Xmx8g -cp out ServiceBenchmark [--sizes 1000,100000] [--warmup 3] [--iterations 5]
+ * [--format json|csv] [--out results.json]}
+ * </p>
+ * <p>
+ * Sizes up to 100,000,000 points are supported given enough heap (a list of 100M
+ * {@link DataPoint} objects needs roughly 4 GB). Reports are skipped above
+ * {@link #MAX_REPORT_SIZE} points because the result would not fit in a single string.
+ * </p>
+ */
+public class ServiceBenchmark {
+
+    // Default dataset sizes, from 1K to 1M points.
+    private static final String DEFAULT_SIZES = "1000,10000,100000,1000000";
+
+    // Largest dataset for which a full report string is generated.
+    private static final int MAX_REPORT_SIZE = 10_000_000;
+
+    // Minimum duration of a measured iteration, in nanoseconds.
+    private static final long TARGET_ITERATION_NANOS = 200_000_000L;
+
+    // Season length and horizon of the forecasting benchmarks: a day of hourly values.
+    private static final int FORECAST_PERIOD = 24;
+
+    // Sink consuming every result so the JIT cannot discard the benchmarked work.
+    private static volatile Object sink;
+
+
+    /**
+     * The main method to execute the benchmarks.
+     *
+     * @param args Command-line options (see the class documentation).
+     * @throws IOException if the results cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+        String format = options.getOrDefault("format", "json");
+
+        List<Result> results = new ArrayList<>();
+        for (String size : options.getOrDefault("sizes", DEFAULT_SIZES).split(",")) {
+            results.addAll(runAll(Integer.parseInt(size.trim()), warmup, iterations));
+        }
+
+        // Print a human-readable table, then write the machine-readable results
+        System.out.printf(Locale.ROOT, "%-34s %12s %16s %16s%n", "BENCHMARK", "SIZE", "NS/OP", "BYTES/OP");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-34s %12d %16.1f %16.1f%n",
+                    result.benchmark, result.size, result.nanosPerOp, result.bytesPerOp);
+        }
+        System.out.printf(Locale.ROOT, "%n%-58s %12s %12s %12s%n", "FORECAST MODEL", "SIZE", "MAE", "RMSE");
+        for (String size : options.getOrDefault("sizes", DEFAULT_SIZES).split(",")) {
+            printForecastAccuracy(Integer.parseInt(size.trim()));
+        }
+        String output = "csv".equals(format) ? toCsv(results) : toJson(results);
+        if (options.containsKey("out")) {
+            Path path = Paths.get(options.get("out"));
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(output);
+            }
+            System.out.println("Results written to " + path.toAbsolutePath());
+        } else {
+            System.out.println(output);
+        }
+    }
+
+    /**
+     * Runs every benchmark on a dataset of the given size.
+     *
+     * @param size       The number of data points.
+     * @param warmup     The number of warmup iterations.
+     * @param iterations The number of measured iterations.
+     * @return The results of the benchmarks.
+     */
+    private static List<Result> runAll(int size, int warmup, int iterations) {
+        List<DataPoint> data = createData(size);
+        ColumnarRepository repository = new ColumnarRepository();
+        for (DataPoint point : data) {
+            repository.saveData(point);
+        }
+        DataColumns columns = repository.getColumns();
+
+        DataCleaningService cleaningService = new DataCleaningService();
+        PredictionService predictionService = new PredictionService();
+        DataStatisticsService statisticsService = new DataStatisticsService();
+        DataValidationService validationService = new DataValidationService();
+        VisualizationService visualizationService = new VisualizationService();
+        ForecastingService forecastingService = new ForecastingService();
+
+        Map<String, Operation> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("cleaning.cleanData", () -> cleaningService.cleanData(data));
+        benchmarks.put("cleaning.cleanData.columns", () -> cleaningService.cleanData(columns));
+        benchmarks.put("prediction.predict", () -> predictionService.predict(data));
+        benchmarks.put("prediction.predict.columns", () -> predictionService.predict(columns));
+        benchmarks.put("statistics.calculateAverage", () -> statisticsService.calculateAverage(data));
+        benchmarks.put("statistics.findMax", () -> statisticsService.findMax(data));
+        benchmarks.put("statistics.findMin", () -> statisticsService.findMin(data));
+        benchmarks.put("statistics.calculateRange", () -> statisticsService.calculateRange(data));
+        benchmarks.put("statistics.calculateSum", () -> statisticsService.calculateSum(data));
+        benchmarks.put("statistics.countDataPoints", () -> statisticsService.countDataPoints(data));
+        benchmarks.put("statistics.summarize", () -> statisticsService.summarize(data));
+        benchmarks.put("statistics.summarize.columns", () -> statisticsService.summarize(columns));
+        benchmarks.put("validation.validateData", () -> {
+            validationService.validateData(data);
+            return data;
+        });
+        benchmarks.put("repository.saveData", () -> {
+            ColumnarRepository target = new ColumnarRepository();
+            for (DataPoint point : data) {
+                target.saveData(point);
+            }
+            return target;
+        });
+        benchmarks.put("repository.saveAll.columns", () -> {
+            ColumnarRepository target = new ColumnarRepository();
+            target.saveAll(columns);
+            return target;
+        });
+        for (ForecastModel model : ForecastingService.createModels(FORECAST_PERIOD)) {
+            String name = model.getName();
+            int parameters = name.indexOf('(');
+            benchmarks.put("forecast." + (parameters < 0 ? name : name.substring(0, parameters)),
+                    () -> forecastingService.forecast(model, columns, FORECAST_PERIOD));
+        }
+        if (size <= MAX_REPORT_SIZE) {
+            benchmarks.put("visualization.generateReport", () -> visualizationService.generateReport(data));
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Operation> benchmark : benchmarks.entrySet()) {
+            results.add(measure(benchmark.getKey(), size, benchmark.getValue(), warmup, iterations));
+        }
+        return results;
+    }
+
+    /**
+     * Prints the holdout accuracy of every forecasting model on the benchmark dataset.
+     * <p>
+     * Each model forecasts the last day of values from the others, so the models are compared
+     * on the same data as their timings.
+     * </p>
+     *
+     * @param size The number of data points.
+     */
+    private static void printForecastAccuracy(int size) {
+        if (size <= FORECAST_PERIOD * 2) {
+            return;
+        }
+        ColumnarRepository repository = new ColumnarRepository();
+        repository.saveAll(createData(size));
+        List<ForecastEvaluation> evaluations = new ForecastingService().evaluateAll(
+                ForecastingService.createModels(FORECAST_PERIOD), repository.getColumns(), FORECAST_PERIOD);
+        for (ForecastEvaluation evaluation : evaluations) {
+            System.out.printf(Locale.ROOT, "%-58s %12d %12.3f %12.3f%n", evaluation.getModelName(), size,
+                    evaluation.getMeanAbsoluteError(), evaluation.getRootMeanSquaredError());
+        }
+    }
+
+    /**
+     * Measures a single benchmark.
+     *
+     * @param name       The name of the benchmark.
+     * @param size       The number of data points.
+     * @param operation  The operation to measure.
+     * @param warmup     The number of warmup iterations.
+     * @param iterations The number of measured iterations.
+     * @return The result of the benchmark.
+     */
+    private static Result measure(String name, int size, Operation operation, int warmup, int iterations) {
+        // Silence services that log to the console while they are measured
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            // Calibrate the number of operations so each iteration lasts long enough
+            long start = System.nanoTime();
+            sink = operation.run();
+            long single = Math.max(1, System.nanoTime() - start);
+            long opsPerIteration = Math.max(1, TARGET_ITERATION_NANOS / single);
+
+            for (int i = 0; i < warmup; i++) {
+                runIteration(operation, opsPerIteration);
+            }
+
+            long totalOps = 0;
+            long totalNanos = 0;
+            long totalBytes = 0;
+            for (int i = 0; i < iterations; i++) {
+                long bytesBefore = allocatedBytes();
+                long nanos = runIteration(operation, opsPerIteration);
+                totalBytes += allocatedBytes() - bytesBefore;
+                totalNanos += nanos;
+                totalOps += opsPerIteration;
+            }
+            return new Result(name, size, (double) totalNanos / totalOps, (double) totalBytes / totalOps);
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    /**
+     * Runs one iteration of a benchmark.
+     *
+     * @param operation The operation to run.
+     * @param ops       The number of times to run the operation.
+     * @return The elapsed time, in nanoseconds.
+     */
+    private static long runIteration(Operation operation, long ops) {
+        long start = System.nanoTime();
+        for (long i = 0; i < ops; i++) {
+            sink = operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Gets the number of bytes allocated so far by the current thread.
+     *
+     * @return The allocated bytes, or 0 if the JVM does not support allocation tracking.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Creates a deterministic dataset with a trend, noise and a few extreme outliers.
+     *
+     * @param size The number of data points.
+     * @return The generated data points, with unique IDs and increasing timestamps.
+     */
+    private static List<DataPoint> createData(int size) {
+        Random random = new Random(42);
+        List<DataPoint> data = new ArrayList<>(size);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < size; i++) {
+            double value = 100 + i * 0.001 + random.nextGaussian() * 10;
+            if (random.nextInt(1000) == 0) {
+                value *= 50; // Extreme outlier
+            }
+            data.add(new DataPoint(i + 1, value, timestamp + i * 1000L));
+        }
+        return data;
+    }
+
+    /**
+     * Parses options of the form {@code --name value}.
+     *
+     * @param args The command-line arguments.
+     * @return The parsed options.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Formats the results as a JSON array.
+     *
+     * @param results The benchmark results.
+     * @return The JSON document.
+     */
+    private static String toJson(List<Result> results) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                    "  {\"benchmark\": \"%s\", \"size\": %d, \"mode\": \"avgt\", \"unit\": \"ns/op\", "
+                            + "\"score\": %.3f, \"gc.alloc.rate.norm\": %.3f}",
+                    result.benchmark, result.size, result.nanosPerOp, result.bytesPerOp));
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        return json.append("]\n").toString();
+    }
+
+    /**
+     * Formats the results as CSV with a header line.
+     *
+     * @param results The benchmark results.
+     * @return The CSV document.
+     */
+    private static String toCsv(List<Result> results) {
+        StringBuilder csv = new StringBuilder("benchmark,size,mode,unit,score,gc.alloc.rate.norm\n");
+        for (Result result : results) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,avgt,ns/op,%.3f,%.3f%n",
+                    result.benchmark, result.size, result.nanosPerOp, result.bytesPerOp));
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Operation is a single benchmarked call returning a value to consume.
+     */
+    private interface Operation {
+        Object run();
+    }
+
+    /**
+     * Result holds the measurements of one benchmark on one dataset size.
+     */
+    private static class Result {
+        private final String benchmark;
+        private final int size;
+        private final double nanosPerOp;
+        private final double bytesPerOp;
+
+        Result(String benchmark, int size, double nanosPerOp, double bytesPerOp) {
+            this.benchmark = benchmark;
+            this.size = size;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+}
@@ -2,13 +2,19 @@ package es.predictapro;
 
 import es.predictapro.config.AppConfig;
 import es.predictapro.controller.ReportController;
+import es.predictapro.metrics.MetricsReporter;
 import es.predictapro.model.DataPoint;
 import es.predictapro.model.PredictionResult;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.ConcurrentRepository;
+import es.predictapro.server.PredictaServer;
 import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataLoader;
 import es.predictapro.service.DataValidationService;
 import es.predictapro.service.PredictionService;
 import es.predictapro.service.DataStatisticsService;
 
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
@@ -22,6 +28,12 @@ import java.util.List;
  * - Validating, cleaning, predicting, reporting, and analyzing data.
  * - Displaying results in a user-friendly manner.
  * </p>
+ * <p>
+ * Started with {@code --server [port] [maxConcurrentRequests] [dataFile]}, it serves the
+ * controllers over HTTP with a {@link PredictaServer} instead, after bulk-loading the
+ * optional CSV or binary data file with a {@link DataLoader}. Setting the {@code predictapro.metrics.dump}
+ * system property to a file also dumps the hot-path metrics there periodically.
+ * </p>
  */
 public class Main {
 
@@ -34,9 +46,14 @@ public class Main {
      * 3. Processes the data by validating, cleaning, predicting, reporting, and analyzing it.
      * </p>
      *
-     * @param args Command-line arguments (not used in this application).
+     * @param args Command-line arguments: {@code --server [port] [maxConcurrentRequests] [dataFile]} starts the server.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && "--server".equals(args[0])) {
+            startServer(args);
+            return;
+        }
+
         // Initialize services and controllers
         DataCleaningService cleaningService = AppConfig.getDataCleaningService();
         DataValidationService validationService = AppConfig.getDataValidationService();
@@ -51,6 +68,33 @@ public class Main {
         processAndDisplay(rawData, cleaningService, validationService, predictionService, statisticsService, reportController);
     }
 
+    /**
+     * Starts the HTTP server on a concurrent repository and keeps it running.
+     *
+     * @param args Command-line arguments: {@code --server [port] [maxConcurrentRequests] [dataFile]}.
+     */
+    private static void startServer(String[] args) {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int maxConcurrentRequests = args.length > 2 ? Integer.parseInt(args[2])
+                : PredictaServer.DEFAULT_MAX_CONCURRENT_REQUESTS;
+        ConcurrentRepository repository = AppConfig.getConcurrentRepository();
+        if (args.length > 3) {
+            long loaded = AppConfig.getDataLoader().load(Paths.get(args[3]), repository);
+            System.out.println("Loaded " + loaded + " data points from " + args[3]);
+        }
+        PredictaServer server = AppConfig.getPredictaServer(repository, maxConcurrentRequests);
+        int boundPort = server.start(port);
+        MetricsReporter reporter = AppConfig.startMetricsReporter();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            if (reporter != null) {
+                reporter.close();
+            }
+        }));
+        System.out.println("PredictaPro server listening on port " + boundPort + " (max " + maxConcurrentRequests
+                + " concurrent requests, virtual threads: " + PredictaServer.supportsVirtualThreads() + ")");
+    }
+
     /**
      * Simulates a dataset for demonstration purposes.
      *
@@ -177,15 +221,14 @@ public class Main {
         System.out.println("===================================");
         System.out.println("=== Section 5: Data Analysis ===");
         System.out.println("===================================");
-        double average = statisticsService.calculateAverage(cleanedData);
-        double max = statisticsService.findMax(cleanedData);
-        double min = statisticsService.findMin(cleanedData);
-        double range = statisticsService.calculateRange(cleanedData);
-
-        System.out.println("Average Value: " + average);
-        System.out.println("Maximum Value: " + max);
-        System.out.println("Minimum Value: " + min);
-        System.out.println("Range: " + range);
+        // Compute every metric in a single pass over the data
+        StatisticsSummary summary = statisticsService.summarize(cleanedData);
+
+        System.out.println("Average Value: " + summary.getMean());
+        System.out.println("Maximum Value: " + summary.getMax());
+        System.out.println("Minimum Value: " + summary.getMin());
+        System.out.println("Range: " + summary.getRange());
+        System.out.println("Standard Deviation: " + summary.getStandardDeviation());
         System.out.println();
     }
 
@@ -1,17 +1,143 @@
 package es.predictapro.config;
 
+import es.predictapro.controller.DataController;
+import es.predictapro.controller.ReportController;
+import es.predictapro.controller.StatisticsController;
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.MetricsReporter;
+import es.predictapro.repository.CompressedRepository;
+import es.predictapro.repository.ConcurrentRepository;
 import es.predictapro.repository.DataRepository;
 import es.predictapro.repository.DatabaseRepository;
+import es.predictapro.repository.SeriesRepository;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.server.PredictaServer;
 import es.predictapro.service.*;
-import es.predictapro.service.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AppConfig is a configuration class.
  * It provides methods to get instances of services and repositories
  * used across the application.
+ * <p>
+ * The analytics services run sequentially by default. Parallel execution is opted into
+ * with {@link #setParallelism(int)} or the {@code predictapro.parallelism} system property,
+ * and all services then share a single {@link ForkJoinPool}.
+ * </p>
+ * <p>
+ * Hot-path metrics are recorded once enabled with the {@code predictapro.metrics} system
+ * property (see {@link Metrics}), and dumped periodically by {@link #startMetricsReporter()}.
+ * </p>
  */
 public class AppConfig {
 
+    // System property holding the initial parallelism of the analytics services.
+    public static final String PARALLELISM_PROPERTY = "predictapro.parallelism";
+
+    // System property holding the initial chunk size of the analytics services.
+    public static final String CHUNK_SIZE_PROPERTY = "predictapro.chunkSize";
+
+    // System property holding the maximum number of results kept by the shared cache.
+    public static final String CACHE_SIZE_PROPERTY = "predictapro.cacheSize";
+
+    // System property holding the file the metrics are periodically dumped to.
+    public static final String METRICS_DUMP_PROPERTY = "predictapro.metrics.dump";
+
+    // System property holding the time between two metrics dumps, in seconds.
+    public static final String METRICS_PERIOD_PROPERTY = "predictapro.metrics.period";
+
+    // Default time between two metrics dumps, in seconds.
+    public static final int DEFAULT_METRICS_PERIOD_SECONDS = 10;
+
+    // Cache of query results shared by the controllers.
+    private static final ResultCache RESULT_CACHE = new ResultCache(
+            Integer.getInteger(CACHE_SIZE_PROPERTY, ResultCache.DEFAULT_MAX_ENTRIES));
+
+    // Shared executor handed to the analytics services.
+    private static ChunkedExecutor executor = createExecutor(
+            Integer.getInteger(PARALLELISM_PROPERTY, 1),
+            Integer.getInteger(CHUNK_SIZE_PROPERTY, ChunkedExecutor.DEFAULT_CHUNK_SIZE));
+
+    /**
+     * Configures the number of threads used by the analytics services.
+     * <p>
+     * A parallelism of 1 or less keeps every service sequential. Services created
+     * before this call keep their previous configuration, so the previous pool is left
+     * running; its worker threads are daemons and terminate once they stay idle.
+     * </p>
+     *
+     * @param parallelism The number of worker threads of the shared pool.
+     * @param chunkSize   The number of data points processed by each parallel task.
+     */
+    public static synchronized void setParallelism(int parallelism, int chunkSize) {
+        executor = createExecutor(parallelism, chunkSize);
+    }
+
+    /**
+     * Configures the number of threads used by the analytics services with the default chunk size.
+     *
+     * @param parallelism The number of worker threads of the shared pool.
+     */
+    public static void setParallelism(int parallelism) {
+        setParallelism(parallelism, ChunkedExecutor.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns the executor shared by the analytics services.
+     *
+     * @return The configured {@link ChunkedExecutor}.
+     */
+    public static synchronized ChunkedExecutor getChunkedExecutor() {
+        return executor;
+    }
+
+    /**
+     * Creates the shared executor and its pool.
+     *
+     * @param parallelism The number of worker threads, or 1 or less for sequential execution.
+     * @param chunkSize   The number of data points processed by each parallel task.
+     * @return The new {@link ChunkedExecutor}.
+     */
+    private static ChunkedExecutor createExecutor(int parallelism, int chunkSize) {
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        return new ChunkedExecutor(pool, chunkSize);
+    }
+
+    /**
+     * Returns the cache of query results shared by the controllers.
+     *
+     * @return The shared {@link ResultCache}.
+     */
+    public static ResultCache getResultCache() {
+        return RESULT_CACHE;
+    }
+
+    /**
+     * Starts dumping the metrics to the file named by the {@code predictapro.metrics.dump}
+     * system property, every {@code predictapro.metrics.period} seconds.
+     * <p>
+     * Metrics are enabled when a dump file is configured. Files ending in {@code .json} are
+     * written as JSON, any other file as a text table.
+     * </p>
+     *
+     * @return The started {@link MetricsReporter}, or null if no dump file is configured.
+     */
+    public static MetricsReporter startMetricsReporter() {
+        String dump = System.getProperty(METRICS_DUMP_PROPERTY);
+        if (dump == null || dump.isEmpty()) {
+            return null;
+        }
+        Path file = Paths.get(dump);
+        MetricsReporter.Format format = dump.endsWith(".json") ? MetricsReporter.Format.JSON : MetricsReporter.Format.TEXT;
+        Metrics.setEnabled(true);
+        return new MetricsReporter(file, format).start(
+                Integer.getInteger(METRICS_PERIOD_PROPERTY, DEFAULT_METRICS_PERIOD_SECONDS), TimeUnit.SECONDS);
+    }
+
     /**
      * Returns an instance of the DataRepository.
      *
@@ -21,13 +147,98 @@ public class AppConfig {
         return new DatabaseRepository();
     }
 
+    /**
+     * Returns a new thread-safe repository for concurrent ingestion.
+     *
+     * @return {@link ConcurrentRepository} instance.
+     */
+    public static ConcurrentRepository getConcurrentRepository() {
+        return new ConcurrentRepository();
+    }
+
     /**
      * Returns an instance of the DataCleaningService.
      *
      * @return {@link DataCleaningService} instance.
      */
     public static DataCleaningService getDataCleaningService() {
-        return new DataCleaningService();
+        return new DataCleaningService(getChunkedExecutor());
+    }
+
+    /**
+     * Returns a new StreamingOutlierFilter.
+     *
+     * @param windowSize The number of most recent points used to compute the bounds.
+     * @return {@link StreamingOutlierFilter} instance.
+     */
+    public static StreamingOutlierFilter getStreamingOutlierFilter(int windowSize) {
+        return new StreamingOutlierFilter(windowSize);
+    }
+
+    /**
+     * Returns a new repository storing data points in compressed blocks.
+     *
+     * @return {@link CompressedRepository} instance.
+     */
+    public static CompressedRepository getCompressedRepository() {
+        return new CompressedRepository();
+    }
+
+    /**
+     * Returns a new repository answering time-range queries without full scans.
+     *
+     * @return {@link TimeIndexedRepository} instance.
+     */
+    public static TimeIndexedRepository getTimeIndexedRepository() {
+        return new TimeIndexedRepository();
+    }
+
+    /**
+     * Returns a new repository holding many independent series.
+     *
+     * @return {@link SeriesRepository} instance.
+     */
+    public static SeriesRepository getSeriesRepository() {
+        return new SeriesRepository();
+    }
+
+    /**
+     * Returns an instance of the SeriesAnalyticsService.
+     * <p>
+     * Fleet-wide operations fan the series out over the shared executor.
+     * </p>
+     *
+     * @return {@link SeriesAnalyticsService} instance.
+     */
+    public static SeriesAnalyticsService getSeriesAnalyticsService() {
+        return new SeriesAnalyticsService(new DataCleaningService(), new PredictionService(),
+                new DataStatisticsService(), getVisualizationService(), getChunkedExecutor());
+    }
+
+    /**
+     * Returns a new IngestPipeline loading data into the given repository.
+     * <p>
+     * The pipeline starts its stage threads immediately and must be closed once every batch
+     * has been submitted.
+     * </p>
+     *
+     * @param repository The repository receiving the data.
+     * @return {@link IngestPipeline} instance.
+     */
+    public static IngestPipeline getIngestPipeline(DataRepository repository) {
+        return new IngestPipeline(repository, getDataValidationService(), getDataCleaningService());
+    }
+
+    /**
+     * Returns a new DataLoader bulk-loading CSV and binary files.
+     * <p>
+     * Files are parsed in segments over the shared executor.
+     * </p>
+     *
+     * @return {@link DataLoader} instance.
+     */
+    public static DataLoader getDataLoader() {
+        return new DataLoader(getChunkedExecutor());
     }
 
     /**
@@ -36,7 +247,29 @@ public class AppConfig {
      * @return {@link PredictionService} instance.
      */
     public static PredictionService getPredictionService() {
-        return new PredictionService();
+        return new PredictionService(getChunkedExecutor());
+    }
+
+    /**
+     * Returns an instance of the ForecastingService.
+     * <p>
+     * Holdout evaluations of several models run concurrently over the shared executor.
+     * </p>
+     *
+     * @return {@link ForecastingService} instance.
+     */
+    public static ForecastingService getForecastingService() {
+        return new ForecastingService(getChunkedExecutor());
+    }
+
+    /**
+     * Returns a new IncrementalPredictor.
+     *
+     * @param windowSize The number of most recent points used for the regression, or 0 for all points.
+     * @return {@link IncrementalPredictor} instance.
+     */
+    public static IncrementalPredictor getIncrementalPredictor(int windowSize) {
+        return new IncrementalPredictor(windowSize);
     }
 
     /**
@@ -63,6 +296,26 @@ public class AppConfig {
      * @return {@link DataStatisticsService} instance.
      */
     public static DataStatisticsService getDataStatisticsService() {
-        return new DataStatisticsService();
+        return new DataStatisticsService(getChunkedExecutor());
+    }
+
+    /**
+     * Returns a new PredictaServer serving the data of a repository.
+     * <p>
+     * Predictions and statistics go through the shared result cache.
+     * </p>
+     *
+     * @param repository            The thread-safe repository holding the served data.
+     * @param maxConcurrentRequests The maximum number of requests processed at once.
+     * @return {@link PredictaServer} instance, not started yet.
+     */
+    public static PredictaServer getPredictaServer(DataRepository repository, int maxConcurrentRequests) {
+        DataController dataController = new DataController(getDataCleaningService(), getPredictionService(),
+                getResultCache());
+        StatisticsController statisticsController = new StatisticsController(getDataStatisticsService(),
+                getResultCache());
+        ReportController reportController = new ReportController(getVisualizationService());
+        return new PredictaServer(repository, dataController, statisticsController, reportController,
+                maxConcurrentRequests);
     }
 }
@@ -1,13 +1,18 @@
 package es.predictapro.controller;
 
 
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
 import es.predictapro.model.DataPoint;
 import es.predictapro.model.PredictionResult;
+import es.predictapro.repository.DataRepository;
 import es.predictapro.service.DataCleaningService;
 import es.predictapro.service.PredictionService;
+import es.predictapro.service.ResultCache;
 
 
 import java.util.List;
+import java.util.function.Supplier;
 
 
 /**
@@ -20,6 +25,12 @@ import java.util.List;
  * Purpose:
  * - Streamline the workflow between data cleaning and prediction services.
  * - Provide a single entry point for handling prediction requests.
+ *
+ * Predictions on a repository can be kept in a {@link ResultCache}: repeated requests on
+ * unchanged data then cost a lookup, and any save to the repository makes them recomputed.
+ *
+ * Every request is measured by {@link Metrics}. Requests on a repository are recorded with an
+ * input size of 0: the number of points is recorded by the services computing a prediction.
  */
 public class DataController {
 
@@ -32,6 +43,10 @@ public class DataController {
     private final PredictionService predictionService;
 
 
+    // Cache of the predictions on repositories, or null to always recompute them.
+    private final ResultCache cache;
+
+
     /**
      * Constructor for DataController.
      *
@@ -39,8 +54,22 @@ public class DataController {
      * @param predictionService The service used to generate predictions.
      */
     public DataController(DataCleaningService cleaningService, PredictionService predictionService) {
+        this(cleaningService, predictionService, null);
+    }
+
+
+    /**
+     * Constructor for DataController caching the predictions on repositories.
+     *
+     * @param cleaningService   The service used to clean raw data.
+     * @param predictionService The service used to generate predictions.
+     * @param cache             The cache of the predictions, or {@code null} to disable caching.
+     */
+    public DataController(DataCleaningService cleaningService, PredictionService predictionService,
+                          ResultCache cache) {
         this.cleaningService = cleaningService;
         this.predictionService = predictionService;
+        this.cache = cache;
     }
 
 
@@ -56,11 +85,72 @@ public class DataController {
      * @return A {@link PredictionResult} containing the prediction outcome and message.
      */
     public PredictionResult handlePredictionRequest(List<DataPoint> data) {
-        // Step 1: Clean the input data
-        List<DataPoint> cleanedData = cleaningService.cleanData(data);
+        Probe probe = Metrics.start("dataController.predict", data == null ? 0 : data.size());
+        try {
+            // Step 1: Clean the input data
+            List<DataPoint> cleanedData = cleaningService.cleanData(data);
+
+
+            // Step 2: Generate a prediction using the cleaned data
+            return predictionService.predict(cleanedData);
+        } finally {
+            probe.stop();
+        }
+    }
+
 
+    /**
+     * Handles a prediction request on the data recorded within a time window.
+     * <p>
+     * The window is read with {@link DataRepository#getRange(long, long)}, which a
+     * time-indexed repository answers without scanning the whole history. The result is
+     * cached per window while the repository is unchanged.
+     * </p>
+     *
+     * @param repository The repository holding the data.
+     * @param fromMillis The start of the window, in milliseconds (inclusive).
+     * @param toMillis   The end of the window, in milliseconds (exclusive).
+     * @return A {@link PredictionResult} containing the prediction outcome and message.
+     */
+    public PredictionResult handlePredictionRequest(DataRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("dataController.predictRepository", 0);
+        try {
+            return cached(repository, "cleaned-prediction:" + fromMillis + ":" + toMillis,
+                    () -> handlePredictionRequest(repository.getRange(fromMillis, toMillis)));
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Handles a prediction request on all the data of a repository.
+     * <p>
+     * The result is cached while the repository is unchanged.
+     * </p>
+     *
+     * @param repository The repository holding the data.
+     * @return A {@link PredictionResult} containing the prediction outcome and message.
+     */
+    public PredictionResult handlePredictionRequest(DataRepository repository) {
+        Probe probe = Metrics.start("dataController.predictRepository", 0);
+        try {
+            return cached(repository, "cleaned-prediction", () -> handlePredictionRequest(repository.getAllData()));
+        } finally {
+            probe.stop();
+        }
+    }
 
-        // Step 2: Generate a prediction using the cleaned data
-        return predictionService.predict(cleanedData);
+
+    /**
+     * Gets a prediction from the cache, or computes it when caching is disabled or it is missing.
+     *
+     * @param repository The repository the prediction reads.
+     * @param query      The key identifying the prediction.
+     * @param loader     The computation of the prediction.
+     * @return The {@link PredictionResult}.
+     */
+    private PredictionResult cached(DataRepository repository, String query, Supplier<PredictionResult> loader) {
+        return cache == null ? loader.get() : cache.get(repository, query, loader);
     }
-}
\ No newline at end of file
+}
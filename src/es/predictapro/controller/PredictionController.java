@@ -1,12 +1,21 @@
 package es.predictapro.controller;
 
 
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
 import es.predictapro.model.DataPoint;
 import es.predictapro.model.PredictionResult;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.service.IncrementalPredictor;
+import es.predictapro.service.MicroBatcher;
 import es.predictapro.service.PredictionService;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -15,6 +24,20 @@ import java.util.List;
  * This controller acts as an intermediary between the prediction service
  * and the rest of the application, ensuring clean and reusable logic.
  * </p>
+ * <p>
+ * Readings that arrive one at a time can be fed through {@link #handlePrediction(DataPoint)},
+ * which updates an {@link IncrementalPredictor} and answers in constant time regardless
+ * of how much history has been seen.
+ * </p>
+ * <p>
+ * Predictions over time windows of a {@link TimeIndexedRepository} are micro-batched: the
+ * requests arriving within {@link MicroBatcher#DEFAULT_WINDOW_MICROS} microseconds of each
+ * other are answered together with a single scan of the repository, while a request arriving
+ * when no other is in flight is answered at once.
+ * </p>
+ * <p>
+ * Every request is measured by {@link Metrics}, including the time spent waiting for its batch.
+ * </p>
  */
 public class PredictionController {
 
@@ -23,13 +46,34 @@ public class PredictionController {
     private final PredictionService predictionService;
 
 
+    // Predictor updated with each new reading.
+    private final IncrementalPredictor incrementalPredictor;
+
+
+    // Batcher grouping concurrent window predictions.
+    private final MicroBatcher<WindowRequest, PredictionResult> windowBatcher =
+            new MicroBatcher<>(this::predictWindows);
+
+
     /**
      * Constructor for PredictionController.
      *
      * @param predictionService The service used to generate predictions.
      */
     public PredictionController(PredictionService predictionService) {
+        this(predictionService, new IncrementalPredictor());
+    }
+
+
+    /**
+     * Constructor for PredictionController.
+     *
+     * @param predictionService    The service used to generate predictions.
+     * @param incrementalPredictor The predictor updated with each new reading.
+     */
+    public PredictionController(PredictionService predictionService, IncrementalPredictor incrementalPredictor) {
         this.predictionService = predictionService;
+        this.incrementalPredictor = incrementalPredictor;
     }
 
 
@@ -43,6 +87,119 @@ public class PredictionController {
      * @return A {@link PredictionResult} containing the predicted value and related details.
      */
     public PredictionResult handlePrediction(List<DataPoint> data) {
-        return predictionService.predict(data);
+        Probe probe = Metrics.start("predictionController.predict", data == null ? 0 : data.size());
+        try {
+            return predictionService.predict(data);
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Handles a prediction request for a newly received reading.
+     * <p>
+     * The reading is appended to the {@link IncrementalPredictor}, which updates its
+     * regression sums and predicts the next value in constant time.
+     * </p>
+     *
+     * @param newPoint The newly received {@link DataPoint}.
+     * @return A {@link PredictionResult} for the series including the new reading.
+     */
+    public PredictionResult handlePrediction(DataPoint newPoint) {
+        Probe probe = Metrics.start("predictionController.predictIncremental", 1);
+        try {
+            incrementalPredictor.add(newPoint);
+            return incrementalPredictor.predict();
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Handles a prediction request on the data recorded within a time window.
+     * <p>
+     * The request waits briefly for concurrent window requests, and the whole batch is answered
+     * by {@link PredictionService#predictWindows(es.predictapro.model.DataColumns, long[], long[])}
+     * with one scan per repository. The result is identical to predicting the range on its own.
+     * </p>
+     *
+     * @param repository The repository holding the data.
+     * @param fromMillis The start of the window, in milliseconds (inclusive).
+     * @param toMillis   The end of the window, in milliseconds (exclusive).
+     * @return A {@link PredictionResult} for the data of the window.
+     */
+    public PredictionResult handlePrediction(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("predictionController.predictWindow", 0);
+        try {
+            return windowBatcher.execute(new WindowRequest(repository, fromMillis, toMillis));
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Gets the number of batches used to answer window predictions.
+     *
+     * @return The batch count.
+     */
+    public long getWindowBatchCount() {
+        return windowBatcher.getBatchCount();
+    }
+
+
+    /**
+     * Answers a batch of window requests, scanning each repository once.
+     *
+     * @param requests The window requests of the batch.
+     * @return The result of each request, in the same order.
+     */
+    private List<PredictionResult> predictWindows(List<WindowRequest> requests) {
+        // Group the requests by repository
+        Map<TimeIndexedRepository, List<Integer>> byRepository = new IdentityHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            byRepository.computeIfAbsent(requests.get(i).repository, repository -> new ArrayList<>()).add(i);
+        }
+
+        PredictionResult[] results = new PredictionResult[requests.size()];
+        for (Map.Entry<TimeIndexedRepository, List<Integer>> group : byRepository.entrySet()) {
+            List<Integer> positions = group.getValue();
+            long[] from = new long[positions.size()];
+            long[] to = new long[positions.size()];
+            for (int w = 0; w < positions.size(); w++) {
+                from[w] = requests.get(positions.get(w)).fromMillis;
+                to[w] = requests.get(positions.get(w)).toMillis;
+            }
+            // Scan the live columns under the repository's monitor, so concurrent leaders and saves
+            // cannot merge its late points in the meantime
+            TimeIndexedRepository repository = group.getKey();
+            PredictionResult[] groupResults;
+            synchronized (repository) {
+                groupResults = predictionService.predictWindows(repository.getColumns(), from, to);
+            }
+            for (int w = 0; w < positions.size(); w++) {
+                results[positions.get(w)] = groupResults[w];
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+
+    /**
+     * Prediction request over a time window of a repository.
+     */
+    private static final class WindowRequest {
+
+        private final TimeIndexedRepository repository;
+        private final long fromMillis;
+        private final long toMillis;
+
+        private WindowRequest(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+            this.repository = repository;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+        }
     }
 }
@@ -1,11 +1,17 @@
 package es.predictapro.controller;
 
 
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
 import es.predictapro.model.DataPoint;
+import es.predictapro.repository.DataRepository;
+import es.predictapro.service.SingleFlight;
 import es.predictapro.service.VisualizationService;
 
 
+import java.io.Writer;
 import java.util.List;
+import java.util.function.Supplier;
 
 
 /**
@@ -14,6 +20,14 @@ import java.util.List;
  * This controller provides a simple interface for generating visual reports
  * by delegating the task to the {@link VisualizationService}.
  * </p>
+ * <p>
+ * Concurrent requests for the same report of the same repository version share a single
+ * rendering through a {@link SingleFlight}.
+ * </p>
+ * <p>
+ * Every request is measured by {@link Metrics}, with the number of requested rows as input
+ * size when it is known in advance.
+ * </p>
  */
 public class ReportController {
 
@@ -22,6 +36,10 @@ public class ReportController {
     private final VisualizationService visualizationService;
 
 
+    // Renderings of repository reports in progress, shared by concurrent identical requests.
+    private final SingleFlight<ReportKey, String> reportFlights = new SingleFlight<>();
+
+
     /**
      * Constructor for ReportController.
      *
@@ -42,6 +60,131 @@ public class ReportController {
      * @return A {@link String} representing the formatted report.
      */
     public String generateReport(List<DataPoint> data) {
-        return visualizationService.generateReport(data);
+        Probe probe = Metrics.start("reportController.generateReport", data == null ? 0 : data.size());
+        try {
+            return visualizationService.generateReport(data);
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Streams a report of the given data to a character stream.
+     * <p>
+     * This method delegates to the {@link VisualizationService}, which writes the rows
+     * through a bounded buffer so large reports do not need to fit in memory.
+     * </p>
+     *
+     * @param data   A list of {@link DataPoint} objects to be included in the report.
+     * @param writer The stream receiving the formatted report.
+     */
+    public void writeReport(List<DataPoint> data, Writer writer) {
+        Probe probe = Metrics.start("reportController.writeReport", data == null ? 0 : data.size());
+        try {
+            visualizationService.writeReport(data, writer);
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Generates a report of the data recorded within a time window.
+     *
+     * @param repository The repository holding the data.
+     * @param fromMillis The start of the window, in milliseconds (inclusive).
+     * @param toMillis   The end of the window, in milliseconds (exclusive).
+     * @return A {@link String} representing the formatted report.
+     */
+    public String generateReport(DataRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("reportController.generateRepositoryReport", 0);
+        try {
+            return coalesced(new ReportKey(repository, fromMillis, toMillis, -1),
+                    () -> visualizationService.generateReport(repository.getRange(fromMillis, toMillis)));
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Generates a report of the most recent data points.
+     *
+     * @param repository The repository holding the data.
+     * @param count      The maximum number of data points to include.
+     * @return A {@link String} representing the formatted report.
+     */
+    public String generateLatestReport(DataRepository repository, int count) {
+        Probe probe = Metrics.start("reportController.generateRepositoryReport", count);
+        try {
+            return coalesced(new ReportKey(repository, 0, 0, count),
+                    () -> visualizationService.generateReport(repository.getLatest(count)));
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Renders a report, sharing the rendering with concurrent identical requests when the
+     * repository is versioned.
+     *
+     * @param key    The key of the report.
+     * @param render The rendering of the report.
+     * @return A {@link String} representing the formatted report.
+     */
+    private String coalesced(ReportKey key, Supplier<String> render) {
+        return key.version == DataRepository.UNVERSIONED ? render.get() : reportFlights.execute(key, render);
+    }
+
+
+    /**
+     * Gets the number of report requests that shared the rendering of a concurrent identical request.
+     *
+     * @return The coalesced request count.
+     */
+    public long getCoalescedReportCount() {
+        return reportFlights.getCoalescedCount();
+    }
+
+
+    /**
+     * Key of a repository report: the repository, compared by identity, its version and the query.
+     */
+    private static final class ReportKey {
+
+        private final DataRepository repository;
+        private final long version;
+        private final long fromMillis;
+        private final long toMillis;
+        private final int latest;
+
+        private ReportKey(DataRepository repository, long fromMillis, long toMillis, int latest) {
+            this.repository = repository;
+            this.version = repository.getVersion();
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            this.latest = latest;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ReportKey)) {
+                return false;
+            }
+            ReportKey key = (ReportKey) other;
+            return repository == key.repository && version == key.version && fromMillis == key.fromMillis
+                    && toMillis == key.toMillis && latest == key.latest;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(repository);
+            hash = 31 * hash + Long.hashCode(version);
+            hash = 31 * hash + Long.hashCode(fromMillis);
+            hash = 31 * hash + Long.hashCode(toMillis);
+            return 31 * hash + latest;
+        }
     }
-}
\ No newline at end of file
+}
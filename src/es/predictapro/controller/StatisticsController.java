@@ -0,0 +1,89 @@
+package es.predictapro.controller;
+
+
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.RangeAggregate;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.DataRepository;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.ResultCache;
+
+
+/**
+ * StatisticsController handles requests for statistics on the data of a repository.
+ * <p>
+ * Results are kept in a {@link ResultCache} keyed by the version of the repository, so a
+ * dashboard polling the same statistics pays a lookup until new data is saved. Each call
+ * returns a copy of the cached result, which callers are free to modify.
+ * </p>
+ * <p>
+ * Every request is measured by {@link Metrics}, so cache hits and misses show up in the
+ * latency histogram of the request.
+ * </p>
+ */
+public class StatisticsController {
+
+
+    // Service computing the statistics.
+    private final DataStatisticsService statisticsService;
+
+
+    // Cache of the computed statistics.
+    private final ResultCache cache;
+
+
+    /**
+     * Constructor for StatisticsController.
+     *
+     * @param statisticsService The service used to compute the statistics.
+     * @param cache             The cache of the computed statistics.
+     */
+    public StatisticsController(DataStatisticsService statisticsService, ResultCache cache) {
+        this.statisticsService = statisticsService;
+        this.cache = cache;
+    }
+
+
+    /**
+     * Handles a request for the summary statistics of all the data of a repository.
+     *
+     * @param repository The repository holding the data.
+     * @return A {@link StatisticsSummary} of the stored values.
+     */
+    public StatisticsSummary handleSummaryRequest(DataRepository repository) {
+        Probe probe = Metrics.start("statisticsController.summary", 0);
+        try {
+            StatisticsSummary summary = cache.get(repository, "summary",
+                    () -> statisticsService.summarize(repository.getAllData()));
+            StatisticsSummary copy = new StatisticsSummary();
+            copy.merge(summary);
+            return copy;
+        } finally {
+            probe.stop();
+        }
+    }
+
+
+    /**
+     * Handles a request for the statistics of the data recorded within a time window.
+     *
+     * @param repository The time-indexed repository holding the data.
+     * @param fromMillis The start of the window, in milliseconds (inclusive).
+     * @param toMillis   The end of the window, in milliseconds (exclusive).
+     * @return A {@link RangeAggregate} of the values in the window.
+     */
+    public RangeAggregate handleRangeRequest(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("statisticsController.range", 0);
+        try {
+            RangeAggregate aggregate = cache.get(repository, "range:" + fromMillis + ":" + toMillis,
+                    () -> statisticsService.summarizeRange(repository, fromMillis, toMillis));
+            RangeAggregate copy = new RangeAggregate();
+            copy.merge(aggregate);
+            return copy;
+        } finally {
+            probe.stop();
+        }
+    }
+}
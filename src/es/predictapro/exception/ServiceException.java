@@ -17,4 +17,14 @@ public class ServiceException extends RuntimeException {
     public ServiceException(String message) {
         super(message);
     }
+
+    /**
+     * Constructor for ServiceException wrapping the underlying error.
+     *
+     * @param message A detailed message describing the error encountered in the service layer.
+     * @param cause   The underlying error that caused this exception.
+     */
+    public ServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
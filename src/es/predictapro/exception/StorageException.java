@@ -0,0 +1,31 @@
+package es.predictapro.exception;
+
+/**
+ * StorageException is a custom runtime exception.
+ * <p>
+ * This exception is thrown when a repository cannot read or write its underlying storage,
+ * such as a file on disk. It wraps the original I/O error so callers are not forced
+ * to handle checked exceptions.
+ * </p>
+ */
+public class StorageException extends RuntimeException {
+
+    /**
+     * Constructor for StorageException.
+     *
+     * @param message A detailed message describing the storage error.
+     */
+    public StorageException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor for StorageException.
+     *
+     * @param message A detailed message describing the storage error.
+     * @param cause   The underlying error that caused this exception.
+     */
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,95 @@
+package es.predictapro.forecast;
+
+/**
+ * ExponentialSmoothingModel forecasts with simple exponential smoothing.
+ * <p>
+ * The model keeps a single level, a weighted average of the values whose weights decrease
+ * geometrically with their age: {@code level = alpha * value + (1 - alpha) * level}. The
+ * level starts at the first value. The forecast is flat, every step ahead being predicted
+ * as the current level, so the model suits series without trend or seasonality. A larger
+ * smoothing factor follows recent changes faster but filters less noise.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class ExponentialSmoothingModel implements ForecastModel {
+
+    // Weight of the newest value in the level.
+    private final double alpha;
+
+
+    // Smoothed level of the series.
+    private double level;
+
+
+    // Number of values appended.
+    private long count;
+
+
+    /**
+     * Constructor for ExponentialSmoothingModel.
+     *
+     * @param alpha The smoothing factor of the level, in (0, 1].
+     * @throws IllegalArgumentException if the smoothing factor is out of bounds.
+     */
+    public ExponentialSmoothingModel(double alpha) {
+        this.alpha = checkSmoothingFactor("alpha", alpha);
+    }
+
+    /**
+     * Appends a value to the series and updates the level.
+     *
+     * @param value The next value of the series.
+     */
+    @Override
+    public void add(double value) {
+        level = count++ == 0 ? value : alpha * value + (1 - alpha) * level;
+    }
+
+    /**
+     * Predicts the value of the series as the current level.
+     *
+     * @param steps The number of steps ahead, 1 for the next value.
+     * @return The level, or {@code NaN} if the model holds no values.
+     * @throws IllegalArgumentException if the number of steps is not positive.
+     */
+    @Override
+    public double predict(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("The number of steps must be positive: " + steps);
+        }
+        return count == 0 ? Double.NaN : level;
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        level = 0.0;
+        count = 0;
+    }
+
+    @Override
+    public String getName() {
+        return "ses(alpha=" + alpha + ")";
+    }
+
+    /**
+     * Checks that a smoothing factor is within (0, 1].
+     *
+     * @param name  The name of the factor, for the error message.
+     * @param value The smoothing factor.
+     * @return The smoothing factor.
+     * @throws IllegalArgumentException if the smoothing factor is out of bounds.
+     */
+    static double checkSmoothingFactor(String name, double value) {
+        if (!(value > 0.0 && value <= 1.0)) {
+            throw new IllegalArgumentException("The smoothing factor " + name + " must be in (0, 1]: " + value);
+        }
+        return value;
+    }
+}
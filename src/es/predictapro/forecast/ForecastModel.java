@@ -0,0 +1,105 @@
+package es.predictapro.forecast;
+
+/**
+ * ForecastModel is a forecasting model fitted incrementally to a series of values.
+ * <p>
+ * Values are appended in series order, one at a time with {@link #add(double)} or in bulk
+ * from a primitive array with {@link #addAll(double[], int, int)}. Every implementation
+ * updates its state in constant amortized time per value, so fitting a series costs O(n)
+ * and a fitted model keeps up with a live feed without refitting.
+ * </p>
+ * <p>
+ * {@link #predict(int)} estimates the value a given number of steps after the last one
+ * appended, and {@link #forecast(int)} returns every step up to a horizon. A model holding
+ * no values predicts {@code NaN}.
+ * </p>
+ * <p>
+ * Implementations are not thread-safe.
+ * </p>
+ */
+public interface ForecastModel {
+
+    /**
+     * Appends a value to the series and updates the model.
+     *
+     * @param value The next value of the series.
+     */
+    void add(double value);
+
+    /**
+     * Appends a range of values to the series, in order.
+     * <p>
+     * The default implementation calls {@link #add(double)} for each value.
+     * </p>
+     *
+     * @param values The array holding the values.
+     * @param from   The index of the first value to append (inclusive).
+     * @param to     The index of the last value to append (exclusive).
+     */
+    default void addAll(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(values[i]);
+        }
+    }
+
+    /**
+     * Fits the model to a range of values, discarding the values appended before.
+     *
+     * @param values The array holding the values.
+     * @param from   The index of the first value (inclusive).
+     * @param to     The index of the last value (exclusive).
+     */
+    default void fit(double[] values, int from, int to) {
+        reset();
+        addAll(values, from, to);
+    }
+
+    /**
+     * Predicts the value of the series a number of steps after the last value appended.
+     *
+     * @param steps The number of steps ahead, 1 for the next value.
+     * @return The predicted value, or {@code NaN} if the model holds no values.
+     * @throws IllegalArgumentException if the number of steps is not positive.
+     */
+    double predict(int steps);
+
+    /**
+     * Predicts the next values of the series, up to a horizon.
+     * <p>
+     * The default implementation calls {@link #predict(int)} for each step.
+     * </p>
+     *
+     * @param horizon The number of values to predict.
+     * @return The predicted values, the first one being the next value of the series.
+     * @throws IllegalArgumentException if the horizon is not positive.
+     */
+    default double[] forecast(int horizon) {
+        if (horizon < 1) {
+            throw new IllegalArgumentException("The forecast horizon must be positive: " + horizon);
+        }
+        double[] forecast = new double[horizon];
+        for (int step = 1; step <= horizon; step++) {
+            forecast[step - 1] = predict(step);
+        }
+        return forecast;
+    }
+
+    /**
+     * Gets the number of values appended since the model was created or reset.
+     *
+     * @return The number of values.
+     */
+    long size();
+
+    /**
+     * Removes every value from the model.
+     */
+    void reset();
+
+    /**
+     * Gets a short name identifying the model and its parameters, such as {@code ses(alpha=0.3)}.
+     *
+     * @return The name of the model.
+     */
+    String getName();
+}
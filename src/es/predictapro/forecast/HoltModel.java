@@ -0,0 +1,101 @@
+package es.predictapro.forecast;
+
+/**
+ * HoltModel forecasts with Holt's linear exponential smoothing.
+ * <p>
+ * Besides the smoothed level of {@link ExponentialSmoothingModel}, the model keeps a smoothed
+ * trend, the expected change per step:
+ * - {@code level = alpha * value + (1 - alpha) * (level + trend)}
+ * - {@code trend = beta * (level - previousLevel) + (1 - beta) * trend}
+ * </p>
+ * <p>
+ * The level starts at the first value and the trend at the difference of the first two.
+ * A value {@code h} steps ahead is predicted as {@code level + h * trend}. Unlike
+ * {@link LinearTrendModel}, the trend adapts to recent changes of slope.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class HoltModel implements ForecastModel {
+
+    // Weights of the newest observation in the level and in the trend.
+    private final double alpha;
+    private final double beta;
+
+
+    // Smoothed level and trend of the series.
+    private double level;
+    private double trend;
+
+
+    // Number of values appended.
+    private long count;
+
+
+    /**
+     * Constructor for HoltModel.
+     *
+     * @param alpha The smoothing factor of the level, in (0, 1].
+     * @param beta  The smoothing factor of the trend, in (0, 1].
+     * @throws IllegalArgumentException if a smoothing factor is out of bounds.
+     */
+    public HoltModel(double alpha, double beta) {
+        this.alpha = ExponentialSmoothingModel.checkSmoothingFactor("alpha", alpha);
+        this.beta = ExponentialSmoothingModel.checkSmoothingFactor("beta", beta);
+    }
+
+    /**
+     * Appends a value to the series and updates the level and trend.
+     *
+     * @param value The next value of the series.
+     */
+    @Override
+    public void add(double value) {
+        count++;
+        if (count == 1) {
+            level = value;
+            return;
+        }
+        if (count == 2) {
+            trend = value - level;
+            level = value;
+            return;
+        }
+        double previousLevel = level;
+        level = alpha * value + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+    }
+
+    /**
+     * Predicts the value of the series by extending the trend from the level.
+     *
+     * @param steps The number of steps ahead, 1 for the next value.
+     * @return The predicted value, or {@code NaN} if the model holds no values.
+     * @throws IllegalArgumentException if the number of steps is not positive.
+     */
+    @Override
+    public double predict(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("The number of steps must be positive: " + steps);
+        }
+        return count == 0 ? Double.NaN : level + steps * trend;
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        level = 0.0;
+        trend = 0.0;
+        count = 0;
+    }
+
+    @Override
+    public String getName() {
+        return "holt(alpha=" + alpha + ", beta=" + beta + ")";
+    }
+}
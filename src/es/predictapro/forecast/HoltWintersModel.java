@@ -0,0 +1,171 @@
+package es.predictapro.forecast;
+
+/**
+ * HoltWintersModel forecasts with additive Holt-Winters (triple exponential) smoothing.
+ * <p>
+ * On top of the level and trend of {@link HoltModel}, the model keeps one seasonal offset
+ * per position in the season, for series repeating a pattern every {@code period} values,
+ * such as hourly data with a daily cycle. For a value at season position {@code i}:
+ * - {@code level = alpha * (value - season[i]) + (1 - alpha) * (level + trend)}
+ * - {@code trend = beta * (level - previousLevel) + (1 - beta) * trend}
+ * - {@code season[i] = gamma * (value - level) + (1 - gamma) * season[i]}
+ * </p>
+ * <p>
+ * The state is initialized from the first two seasons: the level and trend from the means
+ * of both seasons, and each offset from the average deviation of its two values from that
+ * line. Until two seasons are available, the model predicts the mean of the values, then
+ * the value one season earlier. A value {@code h} steps ahead is predicted as
+ * {@code level + h * trend + season[position of that value]}.
+ * </p>
+ * <p>
+ * Appending a value costs constant time, and the model holds O(period) values.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class HoltWintersModel implements ForecastModel {
+
+    // Weights of the newest observation in the level, the trend and the seasonal offsets.
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+
+
+    // Number of values in a season.
+    private final int period;
+
+
+    // First two seasons of values, used to initialize the state.
+    private final double[] initial;
+
+
+    // Seasonal offset of each position in the season.
+    private final double[] season;
+
+
+    // Smoothed level and trend of the series, once initialized.
+    private double level;
+    private double trend;
+
+
+    // Number of values appended, and the sum of those held by the initial buffer.
+    private long count;
+    private double initialSum;
+
+
+    /**
+     * Constructor for HoltWintersModel.
+     *
+     * @param alpha  The smoothing factor of the level, in (0, 1].
+     * @param beta   The smoothing factor of the trend, in (0, 1].
+     * @param gamma  The smoothing factor of the seasonal offsets, in (0, 1].
+     * @param period The number of values in a season, at least 2.
+     * @throws IllegalArgumentException if a smoothing factor or the period is out of bounds.
+     */
+    public HoltWintersModel(double alpha, double beta, double gamma, int period) {
+        if (period < 2) {
+            throw new IllegalArgumentException("The seasonal period must be at least 2: " + period);
+        }
+        this.alpha = ExponentialSmoothingModel.checkSmoothingFactor("alpha", alpha);
+        this.beta = ExponentialSmoothingModel.checkSmoothingFactor("beta", beta);
+        this.gamma = ExponentialSmoothingModel.checkSmoothingFactor("gamma", gamma);
+        this.period = period;
+        this.initial = new double[2 * period];
+        this.season = new double[period];
+    }
+
+    /**
+     * Appends a value to the series and updates the level, trend and seasonal offset.
+     *
+     * @param value The next value of the series.
+     */
+    @Override
+    public void add(double value) {
+        if (count < initial.length) {
+            initial[(int) count++] = value;
+            initialSum += value;
+            if (count == initial.length) {
+                initialize();
+            }
+            return;
+        }
+        int position = (int) (count++ % period);
+        double previousLevel = level;
+        level = alpha * (value - season[position]) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        season[position] = gamma * (value - level) + (1 - gamma) * season[position];
+    }
+
+    /**
+     * Predicts the value of the series from the level, the trend and the seasonal offset.
+     *
+     * @param steps The number of steps ahead, 1 for the next value.
+     * @return The predicted value, or {@code NaN} if the model holds no values.
+     * @throws IllegalArgumentException if the number of steps is not positive.
+     */
+    @Override
+    public double predict(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("The number of steps must be positive: " + steps);
+        }
+        if (count < initial.length) {
+            if (count < period) {
+                return count == 0 ? Double.NaN : initialSum / count;
+            }
+            // Seasonal naive forecast: the latest value at the same position in the season
+            return initial[(int) (count - period + (steps - 1) % period)];
+        }
+        return level + steps * trend + season[(int) ((count + steps - 1) % period)];
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        level = 0.0;
+        trend = 0.0;
+        count = 0;
+        initialSum = 0.0;
+    }
+
+    @Override
+    public String getName() {
+        return "holt-winters(alpha=" + alpha + ", beta=" + beta + ", gamma=" + gamma + ", period=" + period + ")";
+    }
+
+    /**
+     * Initializes the level, trend and seasonal offsets from the first two seasons.
+     * <p>
+     * Steps:
+     * 1. Computes the mean of each season; the trend is their difference per step.
+     * 2. Sets each offset to the average deviation of its two values from the trend line.
+     * 3. Sets the level to the value of the trend line at the last value.
+     * </p>
+     */
+    private void initialize() {
+        // Step 1: Fit the trend line through the means of both seasons
+        double firstMean = 0.0;
+        double secondMean = 0.0;
+        for (int i = 0; i < period; i++) {
+            firstMean += initial[i];
+            secondMean += initial[period + i];
+        }
+        firstMean /= period;
+        secondMean /= period;
+        trend = (secondMean - firstMean) / period;
+
+        // Step 2: Average the deviations from the line, centered on the middle of each season
+        double center = (period - 1) / 2.0;
+        for (int i = 0; i < period; i++) {
+            double offset = trend * (i - center);
+            season[i] = ((initial[i] - firstMean - offset) + (initial[period + i] - secondMean - offset)) / 2;
+        }
+
+        // Step 3: Place the level at the last value of the second season
+        level = secondMean + trend * center;
+    }
+}
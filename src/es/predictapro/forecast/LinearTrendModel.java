@@ -0,0 +1,83 @@
+package es.predictapro.forecast;
+
+/**
+ * LinearTrendModel fits a straight line to the values against their index.
+ * <p>
+ * It is the model of {@link es.predictapro.service.PredictionService}: the independent
+ * variable is the 1-based index of each value, and the line is fitted by least squares over
+ * the whole series. Only the sums of y and x * y are kept, the sums of the indices depending
+ * on the count alone, so appending a value and predicting both cost constant time.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class LinearTrendModel implements ForecastModel {
+
+    // Number of values appended.
+    private long count;
+
+
+    // Sum of y (values) and of x * y over the values.
+    private double sumY;
+    private double sumXY;
+
+
+    /**
+     * Appends a value to the series.
+     *
+     * @param value The next value of the series.
+     */
+    @Override
+    public void add(double value) {
+        // The new value gets the next index, x = count + 1
+        count++;
+        sumY += value;
+        sumXY += count * value;
+    }
+
+    /**
+     * Predicts the value of the series on the fitted line.
+     * <p>
+     * A single value has no trend and is predicted as is.
+     * </p>
+     *
+     * @param steps The number of steps ahead, 1 for the next value.
+     * @return The predicted value, or {@code NaN} if the model holds no values.
+     * @throws IllegalArgumentException if the number of steps is not positive.
+     */
+    @Override
+    public double predict(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("The number of steps must be positive: " + steps);
+        }
+        if (count < 2) {
+            return count == 0 ? Double.NaN : sumY;
+        }
+
+        // The sums of the indices only depend on the number of values
+        double n = count;
+        double sumX = n * (n + 1) / 2;
+        double sumX2 = n * (n + 1) * (2 * n + 1) / 6;
+        double slope = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+        double intercept = (sumY - slope * sumX) / n;
+        return slope * (n + steps) + intercept;
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        sumY = 0.0;
+        sumXY = 0.0;
+    }
+
+    @Override
+    public String getName() {
+        return "linear";
+    }
+}
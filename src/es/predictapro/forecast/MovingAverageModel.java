@@ -0,0 +1,122 @@
+package es.predictapro.forecast;
+
+/**
+ * MovingAverageModel forecasts the mean of the most recent values.
+ * <p>
+ * The values of the window are kept in a circular buffer along with their running sum, so
+ * appending a value and predicting both cost constant time. The forecast is flat: every
+ * step ahead is predicted as the mean of the window, which suits series without trend or
+ * seasonality, and averages out a seasonal pattern when the window is a whole season.
+ * </p>
+ * <p>
+ * Each eviction subtracts the oldest value from the running sum, so a value much larger than
+ * the rest of the series leaves a rounding error in the mean after it leaves the window. Once
+ * the whole buffer has been replaced, the sum is rebuilt from it, a pass of {@code windowSize}
+ * additions shared by the {@code windowSize} values appended since the last one.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class MovingAverageModel implements ForecastModel {
+
+    // Number of most recent values averaged.
+    private final int windowSize;
+
+
+    // Circular buffer holding the values of the window.
+    private final double[] window;
+
+
+    // Position of the oldest value in the circular buffer.
+    private int head;
+
+
+    // Number of values currently in the window, and the number appended in total.
+    private int windowCount;
+    private long count;
+
+
+    // Sum of the values of the window.
+    private double sum;
+
+
+    // Number of evictions since the sum was last recomputed.
+    private int evictionsSinceRefresh;
+
+
+    /**
+     * Constructor for MovingAverageModel.
+     *
+     * @param windowSize The number of most recent values averaged.
+     * @throws IllegalArgumentException if the window size is not positive.
+     */
+    public MovingAverageModel(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The window size must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.window = new double[windowSize];
+    }
+
+    /**
+     * Appends a value to the series, evicting the oldest value when the window is full.
+     *
+     * @param value The next value of the series.
+     */
+    @Override
+    public void add(double value) {
+        count++;
+        if (windowCount < windowSize) {
+            window[(head + windowCount++) % windowSize] = value;
+            sum += value;
+            return;
+        }
+
+        // Replace the oldest value
+        sum += value - window[head];
+        window[head] = value;
+        head = (head + 1) % windowSize;
+        if (++evictionsSinceRefresh == windowSize) {
+            sum = 0.0;
+            for (double windowValue : window) {
+                sum += windowValue;
+            }
+            evictionsSinceRefresh = 0;
+        }
+    }
+
+    /**
+     * Predicts the value of the series as the mean of the window.
+     *
+     * @param steps The number of steps ahead, 1 for the next value.
+     * @return The mean of the window, or {@code NaN} if the model holds no values.
+     * @throws IllegalArgumentException if the number of steps is not positive.
+     */
+    @Override
+    public double predict(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("The number of steps must be positive: " + steps);
+        }
+        return windowCount == 0 ? Double.NaN : sum / windowCount;
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        head = 0;
+        windowCount = 0;
+        count = 0;
+        sum = 0.0;
+        evictionsSinceRefresh = 0;
+    }
+
+    @Override
+    public String getName() {
+        return "moving-average(window=" + windowSize + ")";
+    }
+}
@@ -0,0 +1,185 @@
+package es.predictapro.forecast;
+
+import java.util.Arrays;
+
+/**
+ * PolynomialModel fits a least-squares polynomial to the values against their index.
+ * <p>
+ * It generalizes {@link LinearTrendModel} to curved trends. Appending a value updates the
+ * sums of {@code x^k} and {@code x^k * y} the normal equations are built from, which costs
+ * O(degree) time. A prediction solves the normal equations once per batch of appended values,
+ * which costs O(degree^3) whatever the length of the series.
+ * </p>
+ * <p>
+ * The equations are solved with the index rescaled to (0, 1], dividing it by the count, which
+ * keeps them well conditioned for long series, by Gaussian elimination with partial pivoting.
+ * While the series holds no more values than the degree, the polynomial of the highest degree
+ * the values determine is used instead. Polynomials of high degree extrapolate poorly, so
+ * forecasts far beyond the series should use a low degree.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class PolynomialModel implements ForecastModel {
+
+    // Highest supported degree.
+    public static final int MAX_DEGREE = 5;
+
+
+    // Degree of the fitted polynomial.
+    private final int degree;
+
+
+    // Sums of x^k for k up to twice the degree, and of x^k * y for k up to the degree.
+    private final double[] powerSums;
+    private final double[] crossSums;
+
+
+    // Number of values appended.
+    private long count;
+
+
+    // Coefficients of the polynomial in the rescaled index, lowest degree first, or null once stale.
+    private double[] coefficients;
+
+
+    /**
+     * Constructor for PolynomialModel.
+     *
+     * @param degree The degree of the polynomial, from 1 to {@link #MAX_DEGREE}.
+     * @throws IllegalArgumentException if the degree is out of bounds.
+     */
+    public PolynomialModel(int degree) {
+        if (degree < 1 || degree > MAX_DEGREE) {
+            throw new IllegalArgumentException("The polynomial degree must be between 1 and " + MAX_DEGREE + ": " + degree);
+        }
+        this.degree = degree;
+        this.powerSums = new double[2 * degree + 1];
+        this.crossSums = new double[degree + 1];
+    }
+
+    /**
+     * Appends a value to the series and updates the sums of the normal equations.
+     *
+     * @param value The next value of the series.
+     */
+    @Override
+    public void add(double value) {
+        // The new value gets the next index, x = count + 1
+        double x = ++count;
+        double power = 1.0;
+        for (int k = 0; k < powerSums.length; k++) {
+            powerSums[k] += power;
+            if (k <= degree) {
+                crossSums[k] += power * value;
+            }
+            power *= x;
+        }
+        coefficients = null;
+    }
+
+    /**
+     * Predicts the value of the series on the fitted polynomial.
+     *
+     * @param steps The number of steps ahead, 1 for the next value.
+     * @return The predicted value, or {@code NaN} if the model holds no values.
+     * @throws IllegalArgumentException if the number of steps is not positive.
+     */
+    @Override
+    public double predict(int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("The number of steps must be positive: " + steps);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (coefficients == null) {
+            coefficients = solve();
+        }
+
+        // Evaluate the polynomial at the rescaled index with Horner's rule
+        double x = (double) (count + steps) / count;
+        double result = 0.0;
+        for (int k = coefficients.length - 1; k >= 0; k--) {
+            result = result * x + coefficients[k];
+        }
+        return result;
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(powerSums, 0.0);
+        Arrays.fill(crossSums, 0.0);
+        count = 0;
+        coefficients = null;
+    }
+
+    @Override
+    public String getName() {
+        return "polynomial(degree=" + degree + ")";
+    }
+
+    /**
+     * Solves the normal equations for the coefficients of the polynomial.
+     * <p>
+     * Steps:
+     * 1. Builds the normal equations in the index divided by the count.
+     * 2. Reduces them to triangular form, pivoting on the largest remaining coefficient.
+     * 3. Solves the triangular system by back substitution.
+     * </p>
+     *
+     * @return The coefficients in the rescaled index, lowest degree first.
+     */
+    private double[] solve() {
+        // Step 1: Build the rescaled equations, sum(x'^(i+j)) * c_j = sum(x'^i * y)
+        int size = (int) Math.min(degree, count - 1) + 1;
+        double[] scales = new double[2 * size - 1];
+        scales[0] = 1.0;
+        for (int k = 1; k < scales.length; k++) {
+            scales[k] = scales[k - 1] / count;
+        }
+        double[][] matrix = new double[size][size + 1];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                matrix[i][j] = powerSums[i + j] * scales[i + j];
+            }
+            matrix[i][size] = crossSums[i] * scales[i];
+        }
+
+        // Step 2: Eliminate below the diagonal with partial pivoting
+        for (int column = 0; column < size; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < size; row++) {
+                if (Math.abs(matrix[row][column]) > Math.abs(matrix[pivot][column])) {
+                    pivot = row;
+                }
+            }
+            double[] swap = matrix[column];
+            matrix[column] = matrix[pivot];
+            matrix[pivot] = swap;
+            for (int row = column + 1; row < size; row++) {
+                double factor = matrix[row][column] / matrix[column][column];
+                for (int j = column; j <= size; j++) {
+                    matrix[row][j] -= factor * matrix[column][j];
+                }
+            }
+        }
+
+        // Step 3: Back-substitute from the highest degree
+        double[] result = new double[size];
+        for (int row = size - 1; row >= 0; row--) {
+            double value = matrix[row][size];
+            for (int j = row + 1; j < size; j++) {
+                value -= matrix[row][j] * result[j];
+            }
+            result[row] = value / matrix[row][row];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+package es.predictapro.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram records non-negative values, such as durations in nanoseconds, in
+ * log-linear buckets.
+ * <p>
+ * Values below {@code 2^(PRECISION_BITS + 1)} get a bucket each. Above that, every power of
+ * two is split into {@code 2^PRECISION_BITS} buckets of equal width, like the buckets of
+ * HdrHistogram. Any value up to {@link Long#MAX_VALUE} is recorded in constant time, in a
+ * fixed array of counters, and every percentile is reported with a relative error below
+ * {@code 2^-PRECISION_BITS} (about 1.6%).
+ * </p>
+ * <p>
+ * This class is thread-safe: values are recorded without locking. A percentile read while
+ * values are being recorded reflects some, but not necessarily all, of them.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    // Number of bits of each value kept by its bucket.
+    public static final int PRECISION_BITS = 6;
+
+    // Number of buckets covering every long value.
+    static final int BUCKET_COUNT = (64 - PRECISION_BITS) << PRECISION_BITS;
+
+
+    // Number of values recorded in each bucket.
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+
+    // Number, sum and extremes of the recorded values.
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+
+    /**
+     * Records a value.
+     *
+     * @param value The value to record; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long recorded = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(recorded));
+        count.incrementAndGet();
+        sum.addAndGet(recorded);
+        long current;
+        while (recorded < (current = min.get()) && !min.compareAndSet(current, recorded)) {
+            // Retry until the minimum is updated or a smaller value wins
+        }
+        while (recorded > (current = max.get()) && !max.compareAndSet(current, recorded)) {
+            // Retry until the maximum is updated or a larger value wins
+        }
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count of values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return The total of the values.
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean, or 0.0 if no value was recorded.
+     */
+    public double getMean() {
+        long values = count.get();
+        return values == 0 ? 0.0 : (double) sum.get() / values;
+    }
+
+    /**
+     * Gets the smallest recorded value.
+     *
+     * @return The minimum, or 0 if no value was recorded.
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum, or 0 if no value was recorded.
+     */
+    public long getMax() {
+        long value = max.get();
+        return value == Long.MIN_VALUE ? 0 : value;
+    }
+
+    /**
+     * Gets the value below which a given percentage of the recorded values fall.
+     * <p>
+     * The result is the highest value of the bucket holding the percentile, capped by the
+     * recorded maximum, so it never underestimates the percentile by more than the width of
+     * a bucket.
+     * </p>
+     *
+     * @param percentile The percentile, between 0.0 and 100.0.
+     * @return The value at the percentile, or 0 if no value was recorded.
+     * @throws IllegalArgumentException if the percentile is out of range.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(bucket), getMax());
+            }
+        }
+        return getMax(); // Values recorded after the count was read
+    }
+
+    /**
+     * Removes every recorded value.
+     * <p>
+     * Values recorded during the reset may be partially kept.
+     * </p>
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Computes the bucket of a value.
+     * <p>
+     * Small values are their own bucket. Larger values are shifted right until
+     * {@code PRECISION_BITS + 1} significant bits remain, and the buckets of each shift follow
+     * the buckets of the previous one.
+     * </p>
+     *
+     * @param value The non-negative value.
+     * @return The index of its bucket.
+     */
+    static int bucketOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - PRECISION_BITS);
+        return (shift << PRECISION_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Computes the highest value recorded in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The largest value whose bucket is the given one.
+     */
+    static long highestValueOf(int bucket) {
+        int shift = Math.max(0, (bucket >>> PRECISION_BITS) - 1);
+        long significand = bucket - ((long) shift << PRECISION_BITS);
+        return ((significand + 1) << shift) - 1;
+    }
+}
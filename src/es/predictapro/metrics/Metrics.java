@@ -0,0 +1,206 @@
+package es.predictapro.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics is the registry of the measurements taken on the hot paths of the services and
+ * controllers.
+ * <p>
+ * Instrumented code measures each call of an operation with a {@link Probe}:
+ * </p>
+ * <pre>
+ *     Probe probe = Metrics.start("prediction.predict", data.size());
+ *     try {
+ *         ...
+ *     } finally {
+ *         probe.stop();
+ *     }
+ * </pre>
+ * <p>
+ * and counts events, such as the points removed by cleaning, with {@link #count(String, long)}.
+ * Latencies, input sizes and the bytes allocated by the calling thread are kept per operation
+ * in {@link OperationMetrics}, and {@link #snapshot()} returns a consistent copy for reports.
+ * Work done by the pool threads of a parallel executor is part of the latency but not of the
+ * allocation of the call.
+ * </p>
+ * <p>
+ * Metrics are disabled by default, and enabled with {@link #setEnabled(boolean)} or the
+ * {@code predictapro.metrics} system property. While disabled, starting a probe costs a
+ * single volatile read and returns a shared probe doing nothing, and counting returns
+ * immediately.
+ * </p>
+ */
+public final class Metrics {
+
+    // System property enabling the metrics when set to true.
+    public static final String ENABLED_PROPERTY = "predictapro.metrics";
+
+    // Whether probes and counters record anything.
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    // Metrics of the measured operations, by name.
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    // Event counters, by name.
+    private static final ConcurrentMap<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    // Bean reading the bytes allocated per thread, or null if the JVM cannot measure them.
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+    /**
+     * Private constructor: this class only has static members.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Checks whether probes and counters record anything.
+     *
+     * @return {@code true} if the metrics are enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the metrics. Measurements taken so far are kept.
+     *
+     * @param enabled Whether probes and counters record anything.
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Starts measuring a call of an operation.
+     *
+     * @param operation The name of the operation, such as {@code "prediction.predict"}.
+     * @param size      The size of the input of the call, such as its number of data points.
+     * @return The probe to stop when the call ends.
+     */
+    public static Probe start(String operation, long size) {
+        if (!enabled) {
+            return Probe.DISABLED;
+        }
+        OperationMetrics metrics = OPERATIONS.get(operation);
+        if (metrics == null) {
+            metrics = OPERATIONS.computeIfAbsent(operation, OperationMetrics::new);
+        }
+        long allocatedBytes = currentThreadAllocatedBytes();
+        return new Probe(metrics, size, System.nanoTime(), allocatedBytes);
+    }
+
+    /**
+     * Adds to an event counter.
+     *
+     * @param counter The name of the counter, such as {@code "cleaning.filteredPoints"}.
+     * @param delta   The number of events.
+     */
+    public static void count(String counter, long delta) {
+        if (!enabled) {
+            return;
+        }
+        LongAdder adder = COUNTERS.get(counter);
+        if (adder == null) {
+            adder = COUNTERS.computeIfAbsent(counter, name -> new LongAdder());
+        }
+        adder.add(delta);
+    }
+
+    /**
+     * Gets the metrics of an operation.
+     *
+     * @param operation The name of the operation.
+     * @return The {@link OperationMetrics}, or null if no call was measured.
+     */
+    public static OperationMetrics getOperation(String operation) {
+        return OPERATIONS.get(operation);
+    }
+
+    /**
+     * Gets the value of an event counter.
+     *
+     * @param counter The name of the counter.
+     * @return The number of events counted, or 0 if none was.
+     */
+    public static long getCount(String counter) {
+        LongAdder adder = COUNTERS.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Takes a copy of every measurement, sorted by name.
+     *
+     * @return The {@link MetricsSnapshot}.
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<String, OperationMetrics> operations = new TreeMap<>(OPERATIONS);
+        List<MetricsSnapshot.Operation> copies = new ArrayList<>(operations.size());
+        for (OperationMetrics operation : operations.values()) {
+            copies.add(new MetricsSnapshot.Operation(operation));
+        }
+        Map<String, Long> counters = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> counter : COUNTERS.entrySet()) {
+            counters.put(counter.getKey(), counter.getValue().sum());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), enabled, copies, counters);
+    }
+
+    /**
+     * Removes every measurement.
+     */
+    public static void reset() {
+        for (OperationMetrics operation : OPERATIONS.values()) {
+            operation.reset();
+        }
+        COUNTERS.clear();
+    }
+
+    /**
+     * Checks whether the JVM can measure the bytes allocated per call.
+     *
+     * @return {@code true} if allocations are measured.
+     */
+    public static boolean isAllocationMeasured() {
+        return ALLOCATION_BEAN != null;
+    }
+
+    /**
+     * Reads the number of bytes allocated by the current thread since it started.
+     *
+     * @return The allocated bytes, or -1 if the JVM cannot measure them.
+     */
+    static long currentThreadAllocatedBytes() {
+        return ALLOCATION_BEAN == null ? -1 : ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Gets the bean reading the bytes allocated per thread, enabling the measurement if needed.
+     *
+     * @return The bean, or null if the JVM cannot measure allocations.
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        try {
+            if (!allocationBean.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+        return allocationBean;
+    }
+}
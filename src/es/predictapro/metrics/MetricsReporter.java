@@ -0,0 +1,155 @@
+package es.predictapro.metrics;
+
+import es.predictapro.exception.StorageException;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * MetricsReporter periodically dumps a {@link MetricsSnapshot} as text or JSON.
+ * <p>
+ * The dump is either printed to a stream, or written to a file that is replaced atomically
+ * on each period, so a local scraper reading the file never sees a partial document. Dumps
+ * run on a single daemon thread, which never delays the instrumented code.
+ * </p>
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    /**
+     * Format of the dumps.
+     */
+    public enum Format {
+        TEXT,
+        JSON
+    }
+
+
+    // Destination of each rendered dump.
+    private final Consumer<String> sink;
+
+
+    // Format of the dumps.
+    private final Format format;
+
+
+    // Thread running the dumps.
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "predictapro-metrics");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+
+    /**
+     * Constructor for a MetricsReporter printing to a stream.
+     *
+     * @param output The stream receiving the dumps.
+     * @param format The format of the dumps.
+     */
+    public MetricsReporter(PrintStream output, Format format) {
+        this(output::println, format);
+    }
+
+    /**
+     * Constructor for a MetricsReporter replacing a file on each dump.
+     *
+     * @param file   The file receiving the dumps.
+     * @param format The format of the dumps.
+     */
+    public MetricsReporter(Path file, Format format) {
+        this(dump -> replace(file, dump), format);
+    }
+
+    /**
+     * Constructor for a MetricsReporter.
+     *
+     * @param sink   The destination of each rendered dump.
+     * @param format The format of the dumps.
+     */
+    private MetricsReporter(Consumer<String> sink, Format format) {
+        this.sink = sink;
+        this.format = format;
+    }
+
+    /**
+     * Starts dumping the metrics periodically, the first time after one period.
+     *
+     * @param period The time between two dumps.
+     * @param unit   The unit of the period.
+     * @return This reporter.
+     * @throws IllegalArgumentException if the period is not positive.
+     */
+    public MetricsReporter start(long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("The reporting period must be positive.");
+        }
+        scheduler.scheduleAtFixedRate(this::reportSafely, period, period, unit);
+        return this;
+    }
+
+    /**
+     * Dumps the current metrics immediately.
+     *
+     * @throws StorageException if the dump cannot be written to its file.
+     */
+    public void report() {
+        MetricsSnapshot snapshot = Metrics.snapshot();
+        sink.accept(format == Format.JSON ? snapshot.toJson() : snapshot.toText());
+    }
+
+    /**
+     * Stops the periodic dumps, after writing a last one.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reportSafely();
+    }
+
+    /**
+     * Dumps the current metrics, keeping the periodic dumps running if one fails.
+     */
+    private void reportSafely() {
+        try {
+            report();
+        } catch (RuntimeException e) {
+            System.err.println("Unable to report the metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the content of a file atomically, through a temporary file in the same directory.
+     *
+     * @param file The file to replace.
+     * @param dump The new content.
+     * @throws StorageException if the file cannot be written.
+     */
+    private static void replace(Path file, String dump) {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try {
+            Files.write(temporary, dump.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Unable to write the metrics to " + file + ".", e);
+        }
+    }
+}
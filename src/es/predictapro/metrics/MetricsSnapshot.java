@@ -0,0 +1,321 @@
+package es.predictapro.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * MetricsSnapshot is an immutable copy of the measurements of {@link Metrics} at one instant.
+ * <p>
+ * It can be rendered as an aligned text table for people, with {@link #toText()}, or as a
+ * JSON document for scrapers, with {@link #toJson()}. Latencies are reported in nanoseconds
+ * in JSON and in microseconds in text.
+ * </p>
+ */
+public class MetricsSnapshot {
+
+    // Percentiles reported for each operation.
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    // Time the snapshot was taken, in milliseconds since the epoch.
+    private final long timestampMillis;
+
+    // Whether the metrics were enabled when the snapshot was taken.
+    private final boolean enabled;
+
+    // Measurements of each operation, sorted by name.
+    private final List<Operation> operations;
+
+    // Event counters, sorted by name.
+    private final Map<String, Long> counters;
+
+    /**
+     * Constructor for MetricsSnapshot.
+     *
+     * @param timestampMillis The time the snapshot was taken, in milliseconds since the epoch.
+     * @param enabled         Whether the metrics were enabled.
+     * @param operations      The measurements of each operation, sorted by name.
+     * @param counters        The event counters, sorted by name.
+     */
+    MetricsSnapshot(long timestampMillis, boolean enabled, List<Operation> operations, Map<String, Long> counters) {
+        this.timestampMillis = timestampMillis;
+        this.enabled = enabled;
+        this.operations = Collections.unmodifiableList(operations);
+        this.counters = Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Gets the time the snapshot was taken.
+     *
+     * @return The time, in milliseconds since the epoch.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Checks whether the metrics were enabled when the snapshot was taken.
+     *
+     * @return {@code true} if the metrics were enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the measurements of each operation.
+     *
+     * @return The operations, sorted by name.
+     */
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Gets the event counters.
+     *
+     * @return The counter values, by name.
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Gets the measurements of an operation.
+     *
+     * @param name The name of the operation.
+     * @return The {@link Operation}, or null if no call was measured.
+     */
+    public Operation getOperation(String name) {
+        for (Operation operation : operations) {
+            if (operation.name.equals(name)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Renders the snapshot as a text table with one row per operation, followed by the counters.
+     *
+     * @return The text report.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-40s %10s %10s %10s %10s %10s %10s %10s %12s %12s%n",
+                "Operation", "Calls", "Mean(us)", "P50(us)", "P90(us)", "P99(us)", "P99.9(us)", "Max(us)",
+                "Avg Size", "Bytes/Call"));
+        for (Operation operation : operations) {
+            text.append(String.format(Locale.ROOT, "%-40s %10d %10.1f", operation.name, operation.calls,
+                    operation.meanNanos / 1000.0));
+            for (long nanos : operation.percentileNanos) {
+                text.append(String.format(Locale.ROOT, " %10.1f", nanos / 1000.0));
+            }
+            text.append(String.format(Locale.ROOT, " %10.1f %12.1f %12.0f%n", operation.maxNanos / 1000.0,
+                    operation.getMeanInputSize(), operation.allocatedBytesPerCall));
+        }
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            text.append(String.format(Locale.ROOT, "%-40s %10d%n", counter.getKey(), counter.getValue()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Renders the snapshot as a JSON document.
+     *
+     * @return The JSON report.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"timestamp\": ").append(timestampMillis)
+                .append(", \"enabled\": ").append(enabled)
+                .append(", \"operations\": {");
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            json.append(i == 0 ? "" : ", ").append('"').append(operation.name).append("\": {")
+                    .append("\"calls\": ").append(operation.calls)
+                    .append(", \"meanNanos\": ").append(format(operation.meanNanos));
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                json.append(", \"p").append(percentileLabel(PERCENTILES[p])).append("Nanos\": ")
+                        .append(operation.percentileNanos[p]);
+            }
+            json.append(", \"maxNanos\": ").append(operation.maxNanos)
+                    .append(", \"totalInputSize\": ").append(operation.totalInputSize)
+                    .append(", \"maxInputSize\": ").append(operation.maxInputSize)
+                    .append(", \"allocatedBytesPerCall\": ").append(format(operation.allocatedBytesPerCall))
+                    .append('}');
+        }
+        json.append("}, \"counters\": {");
+        int c = 0;
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            json.append(c++ == 0 ? "" : ", ").append('"').append(counter.getKey()).append("\": ")
+                    .append(counter.getValue());
+        }
+        return json.append("}}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+
+    /**
+     * Formats a number for JSON with one decimal.
+     *
+     * @param value The number to format.
+     * @return The formatted number.
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    /**
+     * Formats a percentile for a JSON field name, such as {@code 99_9} for 99.9.
+     *
+     * @param percentile The percentile.
+     * @return The label of the percentile.
+     */
+    private static String percentileLabel(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? Long.toString((long) percentile)
+                : Double.toString(percentile).replace('.', '_');
+    }
+
+    /**
+     * Operation holds the measurements of one operation at the time of the snapshot.
+     */
+    public static final class Operation {
+
+        private final String name;
+        private final long calls;
+        private final double meanNanos;
+        private final long[] percentileNanos = new long[PERCENTILES.length];
+        private final long maxNanos;
+        private final long totalInputSize;
+        private final long maxInputSize;
+        private final double allocatedBytesPerCall;
+
+        Operation(OperationMetrics metrics) {
+            LatencyHistogram latency = metrics.getLatency();
+            this.name = metrics.getName();
+            this.calls = latency.getCount();
+            this.meanNanos = latency.getMean();
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                percentileNanos[p] = latency.getValueAtPercentile(PERCENTILES[p]);
+            }
+            this.maxNanos = latency.getMax();
+            this.totalInputSize = metrics.getTotalInputSize();
+            this.maxInputSize = metrics.getMaxInputSize();
+            this.allocatedBytesPerCall = metrics.getAllocatedBytesPerCall();
+        }
+
+        /**
+         * Gets the name of the operation.
+         *
+         * @return The operation name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of measured calls.
+         *
+         * @return The call count.
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Gets the mean latency of the calls.
+         *
+         * @return The mean latency, in nanoseconds.
+         */
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        /**
+         * Gets the median latency of the calls.
+         *
+         * @return The 50th percentile, in nanoseconds.
+         */
+        public long getP50Nanos() {
+            return percentileNanos[0];
+        }
+
+        /**
+         * Gets the 90th percentile of the latency of the calls.
+         *
+         * @return The 90th percentile, in nanoseconds.
+         */
+        public long getP90Nanos() {
+            return percentileNanos[1];
+        }
+
+        /**
+         * Gets the 99th percentile of the latency of the calls.
+         *
+         * @return The 99th percentile, in nanoseconds.
+         */
+        public long getP99Nanos() {
+            return percentileNanos[2];
+        }
+
+        /**
+         * Gets the 99.9th percentile of the latency of the calls.
+         *
+         * @return The 99.9th percentile, in nanoseconds.
+         */
+        public long getP999Nanos() {
+            return percentileNanos[3];
+        }
+
+        /**
+         * Gets the largest latency of the calls.
+         *
+         * @return The maximum latency, in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Gets the total input size of the calls.
+         *
+         * @return The sum of the input sizes.
+         */
+        public long getTotalInputSize() {
+            return totalInputSize;
+        }
+
+        /**
+         * Gets the largest input size of the calls.
+         *
+         * @return The maximum input size.
+         */
+        public long getMaxInputSize() {
+            return maxInputSize;
+        }
+
+        /**
+         * Gets the mean input size of the calls.
+         *
+         * @return The mean input size, or 0.0 if no call was measured.
+         */
+        public double getMeanInputSize() {
+            return calls == 0 ? 0.0 : (double) totalInputSize / calls;
+        }
+
+        /**
+         * Gets the mean number of bytes allocated by the calling thread per call.
+         *
+         * @return The mean allocation, or 0.0 if it was not measured.
+         */
+        public double getAllocatedBytesPerCall() {
+            return allocatedBytesPerCall;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package es.predictapro.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OperationMetrics accumulates the measurements of every call of one operation, such as
+ * {@code "prediction.predict"}.
+ * <p>
+ * Each call records its latency in a {@link LatencyHistogram}, the size of its input (for
+ * example the number of data points), and the bytes allocated by the calling thread while it
+ * ran. Instances are created by {@link Metrics} and are thread-safe.
+ * </p>
+ */
+public class OperationMetrics {
+
+    // Name of the operation.
+    private final String name;
+
+
+    // Latencies of the calls, in nanoseconds.
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+
+    // Total and largest input size of the calls.
+    private final LongAdder inputSize = new LongAdder();
+    private final AtomicLong maxInputSize = new AtomicLong();
+
+
+    // Bytes allocated by the calls, and number of calls whose allocation was measured.
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder allocationSamples = new LongAdder();
+
+
+    /**
+     * Constructor for OperationMetrics.
+     *
+     * @param name The name of the operation.
+     */
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one call of the operation.
+     *
+     * @param nanos      The latency of the call, in nanoseconds.
+     * @param size       The size of the input of the call.
+     * @param allocation The bytes allocated by the call, or a negative value if not measured.
+     */
+    void record(long nanos, long size, long allocation) {
+        latency.record(nanos);
+        inputSize.add(size);
+        long current;
+        while (size > (current = maxInputSize.get()) && !maxInputSize.compareAndSet(current, size)) {
+            // Retry until the maximum is updated or a larger size wins
+        }
+        if (allocation >= 0) {
+            allocatedBytes.add(allocation);
+            allocationSamples.increment();
+        }
+    }
+
+    /**
+     * Gets the name of the operation.
+     *
+     * @return The operation name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the histogram of the latencies of the calls, in nanoseconds.
+     *
+     * @return The latency histogram.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Gets the number of recorded calls.
+     *
+     * @return The call count.
+     */
+    public long getCallCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Gets the total input size of the recorded calls.
+     *
+     * @return The sum of the input sizes.
+     */
+    public long getTotalInputSize() {
+        return inputSize.sum();
+    }
+
+    /**
+     * Gets the largest input size of the recorded calls.
+     *
+     * @return The maximum input size.
+     */
+    public long getMaxInputSize() {
+        return maxInputSize.get();
+    }
+
+    /**
+     * Gets the mean number of bytes allocated per call, over the calls whose allocation
+     * was measured.
+     *
+     * @return The mean allocation, or 0.0 if none was measured.
+     */
+    public double getAllocatedBytesPerCall() {
+        long samples = allocationSamples.sum();
+        return samples == 0 ? 0.0 : (double) allocatedBytes.sum() / samples;
+    }
+
+    /**
+     * Removes every recorded call.
+     */
+    void reset() {
+        latency.reset();
+        inputSize.reset();
+        maxInputSize.set(0);
+        allocatedBytes.reset();
+        allocationSamples.reset();
+    }
+}
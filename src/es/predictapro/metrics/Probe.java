@@ -0,0 +1,65 @@
+package es.predictapro.metrics;
+
+/**
+ * Probe measures one call of an operation, from {@link Metrics#start(String, long)} to
+ * {@link #stop()}.
+ * <p>
+ * Instrumented code stops the probe in a {@code finally} block, so failed calls are measured
+ * as well. While metrics are disabled, {@link Metrics#start(String, long)} returns a shared
+ * probe whose {@link #stop()} does nothing, so no clock or counter is read.
+ * </p>
+ * <p>
+ * A probe must be stopped by the thread that started it.
+ * </p>
+ */
+public final class Probe {
+
+    // Probe returned while metrics are disabled.
+    static final Probe DISABLED = new Probe(null, 0, 0, -1);
+
+
+    // Metrics of the measured operation, or null for the disabled probe.
+    private final OperationMetrics operation;
+
+
+    // Size of the input of the call.
+    private final long size;
+
+
+    // Clock and allocation counter of the thread when the call started.
+    private final long startNanos;
+    private final long startAllocatedBytes;
+
+
+    /**
+     * Constructor for Probe.
+     *
+     * @param operation           The metrics of the measured operation.
+     * @param size                The size of the input of the call.
+     * @param startNanos          The value of {@link System#nanoTime()} when the call started.
+     * @param startAllocatedBytes The bytes allocated by the thread when the call started,
+     *                            or a negative value if allocation is not measured.
+     */
+    Probe(OperationMetrics operation, long size, long startNanos, long startAllocatedBytes) {
+        this.operation = operation;
+        this.size = size;
+        this.startNanos = startNanos;
+        this.startAllocatedBytes = startAllocatedBytes;
+    }
+
+    /**
+     * Records the latency, input size and allocation of the call.
+     */
+    public void stop() {
+        if (operation == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long allocation = -1;
+        if (startAllocatedBytes >= 0) {
+            long allocatedBytes = Metrics.currentThreadAllocatedBytes();
+            allocation = allocatedBytes >= 0 ? allocatedBytes - startAllocatedBytes : -1;
+        }
+        operation.record(nanos, size, allocation);
+    }
+}
@@ -0,0 +1,287 @@
+package es.predictapro.model;
+
+import java.util.Arrays;
+
+/**
+ * ColumnBuffer is a growable, column-oriented store of data points.
+ * <p>
+ * IDs, values and timestamps are kept in parallel primitive arrays split into
+ * fixed-size chunks, so growing the buffer never copies existing chunks and no
+ * {@link DataPoint} object is created per reading. Only the first chunk starts small
+ * and doubles until it reaches the chunk size, which keeps small buffers cheap.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class ColumnBuffer implements DataColumns {
+
+    // Number of bits used to address an entry inside a chunk.
+    public static final int CHUNK_SHIFT = 14;
+
+    // Maximum number of entries held by each chunk.
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    // Mask used to compute the offset of an entry inside its chunk.
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Initial capacity of the first chunk.
+    private static final int INITIAL_CAPACITY = 16;
+
+
+    // Chunks holding the IDs of the data points.
+    private int[][] idChunks = new int[0][];
+
+
+    // Chunks holding the values of the data points.
+    private double[][] valueChunks = new double[0][];
+
+
+    // Chunks holding the timestamps of the data points.
+    private long[][] timestampChunks = new long[0][];
+
+
+    // Number of data points stored in the buffer.
+    private int size;
+
+
+    /**
+     * Appends a data point to the buffer.
+     *
+     * @param id        The unique identifier of the data point.
+     * @param value     The numerical value of the data point.
+     * @param timestamp The time at which the data point was recorded, in milliseconds.
+     */
+    public void append(int id, double value, long timestamp) {
+        int chunk = size >>> CHUNK_SHIFT;
+        int offset = size & CHUNK_MASK;
+        ensureCapacity(chunk, offset, 1);
+
+        idChunks[chunk][offset] = id;
+        valueChunks[chunk][offset] = value;
+        timestampChunks[chunk][offset] = timestamp;
+        size++;
+    }
+
+    /**
+     * Appends a {@link DataPoint} to the buffer, copying its fields into the columns.
+     *
+     * @param dataPoint The data point to append.
+     */
+    public void append(DataPoint dataPoint) {
+        append(dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+    }
+
+    /**
+     * Appends a range of data points held in parallel arrays.
+     * <p>
+     * The range is copied chunk by chunk with {@link System#arraycopy}, so the cost per
+     * point is a fraction of {@link #append(int, double, long)}.
+     * </p>
+     *
+     * @param ids        The IDs of the data points.
+     * @param values     The values of the data points.
+     * @param timestamps The timestamps of the data points, in milliseconds.
+     * @param from       The position of the first data point to append (inclusive).
+     * @param to         The position of the last data point to append (exclusive).
+     */
+    public void append(int[] ids, double[] values, long[] timestamps, int from, int to) {
+        while (from < to) {
+            int chunk = size >>> CHUNK_SHIFT;
+            int offset = size & CHUNK_MASK;
+            int count = Math.min(to - from, CHUNK_SIZE - offset);
+            ensureCapacity(chunk, offset, count);
+
+            System.arraycopy(ids, from, idChunks[chunk], offset, count);
+            System.arraycopy(values, from, valueChunks[chunk], offset, count);
+            System.arraycopy(timestamps, from, timestampChunks[chunk], offset, count);
+            size += count;
+            from += count;
+        }
+    }
+
+    /**
+     * Appends every data point of the given columns to the buffer.
+     *
+     * @param columns The columns to copy.
+     */
+    public void appendAll(DataColumns columns) {
+        for (int c = 0; c < columns.getChunkCount(); c++) {
+            append(columns.getIdChunk(c), columns.getValueChunk(c), columns.getTimestampChunk(c),
+                    0, columns.getChunkLength(c));
+        }
+    }
+
+    /**
+     * Replaces the value and timestamp of the data point at the given position.
+     * <p>
+     * This overwrites a stored entry, so it must not be used on a buffer whose
+     * {@link #snapshot()} is still in use.
+     * </p>
+     *
+     * @param index     The position of the data point.
+     * @param value     The new value of the data point.
+     * @param timestamp The new timestamp of the data point, in milliseconds.
+     */
+    public void set(int index, double value, long timestamp) {
+        checkIndex(index);
+        valueChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+        timestampChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = timestamp;
+    }
+
+    /**
+     * Discards the data points stored at and after the given position.
+     * <p>
+     * The chunks are kept, so appending after truncating reuses them. Because later appends
+     * overwrite the discarded entries, this method must not be used on a buffer whose
+     * {@link #snapshot()} is still in use either.
+     * </p>
+     *
+     * @param newSize The number of data points to keep.
+     * @throws IndexOutOfBoundsException if the new size is negative or larger than the current size.
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("New size: " + newSize + ", Size: " + size);
+        }
+        size = newSize;
+    }
+
+    /**
+     * Gets the ID of the data point at the given position.
+     *
+     * @param index The position of the data point.
+     * @return The ID of the data point.
+     */
+    public int getId(int index) {
+        checkIndex(index);
+        return idChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Gets the value of the data point at the given position.
+     *
+     * @param index The position of the data point.
+     * @return The value of the data point.
+     */
+    public double getValue(int index) {
+        checkIndex(index);
+        return valueChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Gets the timestamp of the data point at the given position.
+     *
+     * @param index The position of the data point.
+     * @return The timestamp of the data point, in milliseconds.
+     */
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        return timestampChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Materializes the data point at the given position as a {@link DataPoint} object.
+     *
+     * @param index The position of the data point.
+     * @return A new {@link DataPoint} holding the stored fields.
+     */
+    public DataPoint toDataPoint(int index) {
+        checkIndex(index);
+        int chunk = index >>> CHUNK_SHIFT;
+        int offset = index & CHUNK_MASK;
+        return new DataPoint(idChunks[chunk][offset], valueChunks[chunk][offset], timestampChunks[chunk][offset]);
+    }
+
+    /**
+     * Takes an immutable snapshot of the data currently in the buffer.
+     * <p>
+     * Only the chunk directories are copied. Appends never overwrite stored entries (a growing
+     * first chunk is copied into a new array), so the snapshot stays valid while the buffer
+     * keeps growing. Callers appending from other threads must take the snapshot under the
+     * same lock as the appends.
+     * </p>
+     *
+     * @return A {@link ColumnSnapshot} of the current content.
+     */
+    public ColumnSnapshot snapshot() {
+        int chunkCount = getChunkCount();
+        if (chunkCount == 0) {
+            return ColumnSnapshot.EMPTY;
+        }
+        int[] lengths = new int[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            lengths[c] = getChunkLength(c);
+        }
+        return new ColumnSnapshot(Arrays.copyOf(idChunks, chunkCount), Arrays.copyOf(valueChunks, chunkCount),
+                Arrays.copyOf(timestampChunks, chunkCount), lengths);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getChunkCount() {
+        return (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+    }
+
+    @Override
+    public int getChunkLength(int chunk) {
+        return Math.min(CHUNK_SIZE, size - (chunk << CHUNK_SHIFT));
+    }
+
+    @Override
+    public int[] getIdChunk(int chunk) {
+        return idChunks[chunk];
+    }
+
+    @Override
+    public double[] getValueChunk(int chunk) {
+        return valueChunks[chunk];
+    }
+
+    @Override
+    public long[] getTimestampChunk(int chunk) {
+        return timestampChunks[chunk];
+    }
+
+    /**
+     * Makes sure the given chunk exists and can hold the given number of entries from the given offset.
+     *
+     * @param chunk  The index of the chunk that will receive the entries.
+     * @param offset The offset of the first entry inside the chunk.
+     * @param count  The number of entries, which must fit in the chunk.
+     */
+    private void ensureCapacity(int chunk, int offset, int count) {
+        if (chunk == idChunks.length) {
+            // Grow the chunk directory; existing chunks are shared, never copied
+            int capacity = chunk == 0 ? Math.min(CHUNK_SIZE, Math.max(INITIAL_CAPACITY, count)) : CHUNK_SIZE;
+            idChunks = Arrays.copyOf(idChunks, chunk + 1);
+            valueChunks = Arrays.copyOf(valueChunks, chunk + 1);
+            timestampChunks = Arrays.copyOf(timestampChunks, chunk + 1);
+            idChunks[chunk] = new int[capacity];
+            valueChunks[chunk] = new double[capacity];
+            timestampChunks[chunk] = new long[capacity];
+        } else if (offset + count > idChunks[chunk].length) {
+            // Only the first chunk starts small; double it up to the full chunk size
+            int capacity = Math.min(CHUNK_SIZE, Math.max(idChunks[chunk].length * 2, offset + count));
+            idChunks[chunk] = Arrays.copyOf(idChunks[chunk], capacity);
+            valueChunks[chunk] = Arrays.copyOf(valueChunks[chunk], capacity);
+            timestampChunks[chunk] = Arrays.copyOf(timestampChunks[chunk], capacity);
+        }
+    }
+
+    /**
+     * Validates that the given position refers to a stored data point.
+     *
+     * @param index The position to validate.
+     * @throws IndexOutOfBoundsException if the position is outside the buffer.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
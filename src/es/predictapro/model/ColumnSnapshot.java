@@ -0,0 +1,154 @@
+package es.predictapro.model;
+
+import java.util.Arrays;
+
+/**
+ * ColumnSnapshot is an immutable, point-in-time view over column chunks.
+ * <p>
+ * A snapshot only copies the chunk directories (one reference per chunk) and the number of
+ * valid entries of each chunk; the primitive arrays themselves are shared with the storage
+ * they were taken from. This is safe because column storage only ever writes past the end
+ * of the data already published, so the entries covered by a snapshot never change.
+ * </p>
+ * <p>
+ * Chunks may hold any number of entries, which lets a snapshot concatenate the chunks of
+ * several buffers without copying them.
+ * </p>
+ */
+public final class ColumnSnapshot implements DataColumns {
+
+    // An empty snapshot.
+    public static final ColumnSnapshot EMPTY = new ColumnSnapshot(new int[0][], new double[0][], new long[0][], new int[0]);
+
+
+    // Chunks holding the IDs of the data points.
+    private final int[][] idChunks;
+
+
+    // Chunks holding the values of the data points.
+    private final double[][] valueChunks;
+
+
+    // Chunks holding the timestamps of the data points.
+    private final long[][] timestampChunks;
+
+
+    // Number of valid entries of each chunk.
+    private final int[] lengths;
+
+
+    // Position of the first entry of each chunk, plus the total size as last element.
+    private final int[] offsets;
+
+
+    /**
+     * Constructor for a ColumnSnapshot over the given chunks.
+     * <p>
+     * The arrays are taken over by the snapshot and must not be modified afterwards.
+     * </p>
+     *
+     * @param idChunks        The chunks holding the IDs.
+     * @param valueChunks     The chunks holding the values.
+     * @param timestampChunks The chunks holding the timestamps.
+     * @param lengths         The number of valid entries of each chunk.
+     */
+    ColumnSnapshot(int[][] idChunks, double[][] valueChunks, long[][] timestampChunks, int[] lengths) {
+        this.idChunks = idChunks;
+        this.valueChunks = valueChunks;
+        this.timestampChunks = timestampChunks;
+        this.lengths = lengths;
+        this.offsets = new int[lengths.length + 1];
+        for (int c = 0; c < lengths.length; c++) {
+            offsets[c + 1] = offsets[c] + lengths[c];
+        }
+    }
+
+    /**
+     * Concatenates several column views into a single snapshot, sharing their chunks.
+     * <p>
+     * Empty chunks are skipped. The given views must not change the entries they expose,
+     * which holds for other snapshots.
+     * </p>
+     *
+     * @param parts The column views to concatenate, in order.
+     * @return A snapshot exposing the chunks of every part.
+     */
+    public static ColumnSnapshot concat(DataColumns... parts) {
+        int chunkCount = 0;
+        for (DataColumns part : parts) {
+            chunkCount += part.getChunkCount();
+        }
+
+        int[][] ids = new int[chunkCount][];
+        double[][] values = new double[chunkCount][];
+        long[][] timestamps = new long[chunkCount][];
+        int[] lengths = new int[chunkCount];
+        int count = 0;
+        for (DataColumns part : parts) {
+            for (int c = 0; c < part.getChunkCount(); c++) {
+                int length = part.getChunkLength(c);
+                if (length > 0) {
+                    ids[count] = part.getIdChunk(c);
+                    values[count] = part.getValueChunk(c);
+                    timestamps[count] = part.getTimestampChunk(c);
+                    lengths[count++] = length;
+                }
+            }
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new ColumnSnapshot(Arrays.copyOf(ids, count), Arrays.copyOf(values, count),
+                Arrays.copyOf(timestamps, count), Arrays.copyOf(lengths, count));
+    }
+
+    /**
+     * Materializes the data point at the given position as a {@link DataPoint} object.
+     *
+     * @param index The position of the data point.
+     * @return A new {@link DataPoint} holding the stored fields.
+     * @throws IndexOutOfBoundsException if the position is outside the snapshot.
+     */
+    public DataPoint toDataPoint(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        // Find the last chunk starting at or before the index
+        int chunk = Arrays.binarySearch(offsets, 0, lengths.length, index);
+        if (chunk < 0) {
+            chunk = -chunk - 2;
+        }
+        int offset = index - offsets[chunk];
+        return new DataPoint(idChunks[chunk][offset], valueChunks[chunk][offset], timestampChunks[chunk][offset]);
+    }
+
+    @Override
+    public int size() {
+        return offsets[lengths.length];
+    }
+
+    @Override
+    public int getChunkCount() {
+        return lengths.length;
+    }
+
+    @Override
+    public int getChunkLength(int chunk) {
+        return lengths[chunk];
+    }
+
+    @Override
+    public int[] getIdChunk(int chunk) {
+        return idChunks[chunk];
+    }
+
+    @Override
+    public double[] getValueChunk(int chunk) {
+        return valueChunks[chunk];
+    }
+
+    @Override
+    public long[] getTimestampChunk(int chunk) {
+        return timestampChunks[chunk];
+    }
+}
@@ -0,0 +1,307 @@
+package es.predictapro.model;
+
+import es.predictapro.util.BitReader;
+import es.predictapro.util.BitWriter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * CompressedBlock is an immutable block of data points encoded in the Gorilla time-series format.
+ * <p>
+ * Each column is encoded into its own bit stream, so a kernel reading only the values never
+ * decodes the IDs or the timestamps:
+ * - Timestamps and IDs store the delta of consecutive deltas. Regular timestamps and
+ *   sequential IDs cost a single bit per point.
+ * - Values store the XOR with the previous value, keeping only its meaningful bits. An
+ *   unchanged value costs a single bit, and a slowly changing one only a few bits.
+ * </p>
+ * <p>
+ * Delta-of-delta encoding, with {@code d} the zigzag-encoded delta of deltas:
+ * - {@code 0}: d is 0.
+ * - {@code 10} + 7 bits, {@code 110} + 9 bits, {@code 1110} + 12 bits: d fits in that width.
+ * - {@code 1111} + 64 bits: any other d.
+ * XOR encoding, with {@code x} the XOR with the previous value:
+ * - {@code 0}: x is 0.
+ * - {@code 10} + meaningful bits: x fits in the meaningful bits of the previous XOR.
+ * - {@code 11} + 5 bits of leading zeros + 6 bits of length + meaningful bits: any other x.
+ * </p>
+ * <p>
+ * Encoding and decoding are exact: every ID, timestamp and value, including {@code NaN}
+ * payloads, is restored bit for bit.
+ * </p>
+ */
+public final class CompressedBlock {
+
+    // Size of the header written before the streams by writeTo: count plus three stream lengths.
+    private static final int HEADER_BYTES = 16;
+
+
+    // Number of data points in the block.
+    private final int size;
+
+
+    // Bit streams of the ID, value and timestamp columns.
+    private final long[] idStream;
+    private final long[] valueStream;
+    private final long[] timestampStream;
+
+
+    /**
+     * Constructor for a CompressedBlock from encoded streams.
+     *
+     * @param size            The number of data points in the block.
+     * @param idStream        The encoded IDs.
+     * @param valueStream     The encoded values.
+     * @param timestampStream The encoded timestamps.
+     */
+    private CompressedBlock(int size, long[] idStream, long[] valueStream, long[] timestampStream) {
+        this.size = size;
+        this.idStream = idStream;
+        this.valueStream = valueStream;
+        this.timestampStream = timestampStream;
+    }
+
+    /**
+     * Encodes a range of columns into a block.
+     *
+     * @param ids        The IDs of the data points.
+     * @param values     The values of the data points.
+     * @param timestamps The timestamps of the data points.
+     * @param from       The first position to encode (inclusive).
+     * @param to         The last position to encode (exclusive).
+     * @return The encoded block.
+     */
+    public static CompressedBlock encode(int[] ids, double[] values, long[] timestamps, int from, int to) {
+        int size = to - from;
+        BitWriter idWriter = new BitWriter(size + 64);
+        BitWriter valueWriter = new BitWriter(size * 8 + 64);
+        BitWriter timestampWriter = new BitWriter(size + 64);
+
+        long previousId = 0;
+        long previousIdDelta = 0;
+        long previousTimestamp = 0;
+        long previousTimestampDelta = 0;
+        long previousBits = 0;
+        int previousLeading = -1; // No XOR window yet
+        int previousTrailing = 0;
+        for (int i = from; i < to; i++) {
+            // IDs and timestamps: delta of deltas
+            long idDelta = ids[i] - previousId;
+            writeDeltaOfDelta(idWriter, idDelta - previousIdDelta);
+            previousId = ids[i];
+            previousIdDelta = idDelta;
+
+            long timestampDelta = timestamps[i] - previousTimestamp;
+            writeDeltaOfDelta(timestampWriter, timestampDelta - previousTimestampDelta);
+            previousTimestamp = timestamps[i];
+            previousTimestampDelta = timestampDelta;
+
+            // Values: XOR with the previous value
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                valueWriter.writeBit(false);
+                continue;
+            }
+            int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                valueWriter.writeBits(0b10, 2);
+                valueWriter.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int length = 64 - leading - trailing;
+                valueWriter.writeBits(0b11, 2);
+                valueWriter.writeBits(leading, 5);
+                valueWriter.writeBits(length - 1, 6);
+                valueWriter.writeBits(xor >>> trailing, length);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        return new CompressedBlock(size, idWriter.toWords(), valueWriter.toWords(), timestampWriter.toWords());
+    }
+
+    /**
+     * Encodes a chunk of columns into a block.
+     *
+     * @param columns The columns holding the data points.
+     * @param chunk   The chunk to encode.
+     * @return The encoded block.
+     */
+    public static CompressedBlock encode(DataColumns columns, int chunk) {
+        return encode(columns.getIdChunk(chunk), columns.getValueChunk(chunk), columns.getTimestampChunk(chunk),
+                0, columns.getChunkLength(chunk));
+    }
+
+    /**
+     * Gets the number of data points in the block.
+     *
+     * @return The size of the block.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes the IDs of the block.
+     *
+     * @return A new array holding the IDs.
+     */
+    public int[] decodeIds() {
+        int[] ids = new int[size];
+        BitReader reader = new BitReader(idStream);
+        long previous = 0;
+        long delta = 0;
+        for (int i = 0; i < size; i++) {
+            delta += readDeltaOfDelta(reader);
+            previous += delta;
+            ids[i] = (int) previous;
+        }
+        return ids;
+    }
+
+    /**
+     * Decodes the timestamps of the block.
+     *
+     * @return A new array holding the timestamps.
+     */
+    public long[] decodeTimestamps() {
+        long[] timestamps = new long[size];
+        BitReader reader = new BitReader(timestampStream);
+        long previous = 0;
+        long delta = 0;
+        for (int i = 0; i < size; i++) {
+            delta += readDeltaOfDelta(reader);
+            previous += delta;
+            timestamps[i] = previous;
+        }
+        return timestamps;
+    }
+
+    /**
+     * Decodes the values of the block.
+     *
+     * @return A new array holding the values.
+     */
+    public double[] decodeValues() {
+        double[] values = new double[size];
+        BitReader reader = new BitReader(valueStream);
+        long bits = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; i < size; i++) {
+            if (reader.readBit()) {
+                if (reader.readBit()) {
+                    leading = (int) reader.readBits(5);
+                    trailing = 64 - leading - ((int) reader.readBits(6) + 1);
+                }
+                bits ^= reader.readBits(64 - leading - trailing) << trailing;
+            }
+            values[i] = Double.longBitsToDouble(bits);
+        }
+        return values;
+    }
+
+    /**
+     * Gets the number of bytes taken by the encoded streams.
+     *
+     * @return The encoded size, in bytes.
+     */
+    public int getEncodedBytes() {
+        return (idStream.length + valueStream.length + timestampStream.length) * Long.BYTES;
+    }
+
+    /**
+     * Gets the number of bytes written by {@link #writeTo(ByteBuffer)}.
+     *
+     * @return The serialized size, in bytes.
+     */
+    public int getSerializedBytes() {
+        return HEADER_BYTES + getEncodedBytes();
+    }
+
+    /**
+     * Writes the block to a buffer, for example a mapped file segment.
+     *
+     * @param buffer The buffer receiving {@link #getSerializedBytes()} bytes at its position.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(size);
+        buffer.putInt(idStream.length);
+        buffer.putInt(valueStream.length);
+        buffer.putInt(timestampStream.length);
+        for (long word : idStream) {
+            buffer.putLong(word);
+        }
+        for (long word : valueStream) {
+            buffer.putLong(word);
+        }
+        for (long word : timestampStream) {
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Reads a block written by {@link #writeTo(ByteBuffer)}.
+     *
+     * @param buffer The buffer holding the block at its position.
+     * @return The block read.
+     */
+    public static CompressedBlock readFrom(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        long[] idStream = new long[buffer.getInt()];
+        long[] valueStream = new long[buffer.getInt()];
+        long[] timestampStream = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(idStream).get(valueStream).get(timestampStream);
+        buffer.position(buffer.position() + (idStream.length + valueStream.length + timestampStream.length) * Long.BYTES);
+        return new CompressedBlock(size, idStream, valueStream, timestampStream);
+    }
+
+    /**
+     * Writes a delta of deltas with the shortest matching prefix.
+     *
+     * @param writer       The stream receiving the bits.
+     * @param deltaOfDelta The value to write.
+     */
+    private static void writeDeltaOfDelta(BitWriter writer, long deltaOfDelta) {
+        long zigzag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+        if (zigzag == 0) {
+            writer.writeBit(false);
+        } else if (zigzag >>> 7 == 0) {
+            writer.writeBits(0b10, 2);
+            writer.writeBits(zigzag, 7);
+        } else if (zigzag >>> 9 == 0) {
+            writer.writeBits(0b110, 3);
+            writer.writeBits(zigzag, 9);
+        } else if (zigzag >>> 12 == 0) {
+            writer.writeBits(0b1110, 4);
+            writer.writeBits(zigzag, 12);
+        } else {
+            writer.writeBits(0b1111, 4);
+            writer.writeBits(zigzag, 64);
+        }
+    }
+
+    /**
+     * Reads a delta of deltas written by {@link #writeDeltaOfDelta(BitWriter, long)}.
+     *
+     * @param reader The stream holding the bits.
+     * @return The value read.
+     */
+    private static long readDeltaOfDelta(BitReader reader) {
+        long zigzag;
+        if (!reader.readBit()) {
+            return 0;
+        } else if (!reader.readBit()) {
+            zigzag = reader.readBits(7);
+        } else if (!reader.readBit()) {
+            zigzag = reader.readBits(9);
+        } else if (!reader.readBit()) {
+            zigzag = reader.readBits(12);
+        } else {
+            zigzag = reader.readBits(64);
+        }
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,81 @@
+package es.predictapro.model;
+
+/**
+ * CompressedColumns is an immutable {@link DataColumns} view over compressed blocks followed
+ * by an optional uncompressed tail.
+ * <p>
+ * Each block is one chunk. Chunks are decoded on request, one column at a time, into new
+ * arrays: a kernel scanning the values only decodes the value streams, one block after the
+ * other, so the decoded data never needs to be held in memory all at once. Callers reading
+ * several columns of the same chunk should keep the arrays rather than request them again.
+ * </p>
+ * <p>
+ * This class is thread-safe: decoding never modifies the blocks.
+ * </p>
+ */
+public final class CompressedColumns implements DataColumns {
+
+    // Compressed chunks, in order.
+    private final CompressedBlock[] blocks;
+
+
+    // Uncompressed last chunk, possibly empty.
+    private final int[] tailIds;
+    private final double[] tailValues;
+    private final long[] tailTimestamps;
+
+
+    // Total number of data points.
+    private final int size;
+
+
+    /**
+     * Constructor for CompressedColumns.
+     *
+     * @param blocks         The compressed chunks, in order.
+     * @param tailIds        The IDs of the uncompressed last chunk.
+     * @param tailValues     The values of the uncompressed last chunk.
+     * @param tailTimestamps The timestamps of the uncompressed last chunk.
+     */
+    public CompressedColumns(CompressedBlock[] blocks, int[] tailIds, double[] tailValues, long[] tailTimestamps) {
+        this.blocks = blocks;
+        this.tailIds = tailIds;
+        this.tailValues = tailValues;
+        this.tailTimestamps = tailTimestamps;
+        int total = tailIds.length;
+        for (CompressedBlock block : blocks) {
+            total += block.size();
+        }
+        this.size = total;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getChunkCount() {
+        return tailIds.length == 0 ? blocks.length : blocks.length + 1;
+    }
+
+    @Override
+    public int getChunkLength(int chunk) {
+        return chunk < blocks.length ? blocks[chunk].size() : tailIds.length;
+    }
+
+    @Override
+    public int[] getIdChunk(int chunk) {
+        return chunk < blocks.length ? blocks[chunk].decodeIds() : tailIds;
+    }
+
+    @Override
+    public double[] getValueChunk(int chunk) {
+        return chunk < blocks.length ? blocks[chunk].decodeValues() : tailValues;
+    }
+
+    @Override
+    public long[] getTimestampChunk(int chunk) {
+        return chunk < blocks.length ? blocks[chunk].decodeTimestamps() : tailTimestamps;
+    }
+}
@@ -0,0 +1,64 @@
+package es.predictapro.model;
+
+/**
+ * DataColumns is a read-only, column-oriented view over a set of data points.
+ * <p>
+ * Instead of exposing one {@link DataPoint} object per reading, the data is split into
+ * consecutive chunks and each chunk exposes three parallel primitive arrays:
+ * - The IDs of the data points.
+ * - The values of the data points.
+ * - The timestamps of the data points (in milliseconds).
+ * </p>
+ * <p>
+ * Only the first {@link #getChunkLength(int)} entries of each returned array are valid.
+ * The arrays are shared with the underlying storage and must not be modified by callers.
+ * </p>
+ */
+public interface DataColumns {
+
+    /**
+     * Gets the total number of data points across all chunks.
+     *
+     * @return The number of data points.
+     */
+    int size();
+
+    /**
+     * Gets the number of chunks in this view.
+     *
+     * @return The number of chunks.
+     */
+    int getChunkCount();
+
+    /**
+     * Gets the number of valid entries in the given chunk.
+     *
+     * @param chunk The index of the chunk.
+     * @return The number of valid entries in the chunk.
+     */
+    int getChunkLength(int chunk);
+
+    /**
+     * Gets the ID column of the given chunk.
+     *
+     * @param chunk The index of the chunk.
+     * @return The array holding the IDs of the chunk.
+     */
+    int[] getIdChunk(int chunk);
+
+    /**
+     * Gets the value column of the given chunk.
+     *
+     * @param chunk The index of the chunk.
+     * @return The array holding the values of the chunk.
+     */
+    double[] getValueChunk(int chunk);
+
+    /**
+     * Gets the timestamp column of the given chunk.
+     *
+     * @param chunk The index of the chunk.
+     * @return The array holding the timestamps of the chunk.
+     */
+    long[] getTimestampChunk(int chunk);
+}
@@ -0,0 +1,128 @@
+package es.predictapro.model;
+
+
+/**
+ * ForecastEvaluation holds the accuracy of a forecasting model on held-out data.
+ * <p>
+ * The model is fitted to the start of a series and forecasts its last values, which were
+ * held out of the fit. The evaluation keeps:
+ * - The name of the model and the sizes of the training and held-out parts.
+ * - The forecast of the held-out values.
+ * - The mean absolute error and the root mean squared error of the forecast.
+ * </p>
+ */
+public class ForecastEvaluation {
+
+
+    // Name of the evaluated model.
+    private final String modelName;
+
+
+    // Number of values the model was fitted to.
+    private final long trainingSize;
+
+
+    // Forecast of the held-out values.
+    private final double[] forecast;
+
+
+    // Mean absolute error and root mean squared error of the forecast.
+    private final double meanAbsoluteError;
+    private final double rootMeanSquaredError;
+
+
+    /**
+     * Constructor for ForecastEvaluation.
+     *
+     * @param modelName    The name of the evaluated model.
+     * @param trainingSize The number of values the model was fitted to.
+     * @param forecast     The forecast of the held-out values.
+     * @param actual       The held-out values, at least as many as forecast.
+     */
+    public ForecastEvaluation(String modelName, long trainingSize, double[] forecast, double[] actual) {
+        this.modelName = modelName;
+        this.trainingSize = trainingSize;
+        this.forecast = forecast.clone();
+        double absoluteErrors = 0.0;
+        double squaredErrors = 0.0;
+        for (int i = 0; i < forecast.length; i++) {
+            double error = forecast[i] - actual[i];
+            absoluteErrors += Math.abs(error);
+            squaredErrors += error * error;
+        }
+        this.meanAbsoluteError = absoluteErrors / forecast.length;
+        this.rootMeanSquaredError = Math.sqrt(squaredErrors / forecast.length);
+    }
+
+
+    /**
+     * Gets the name of the evaluated model.
+     *
+     * @return The model name.
+     */
+    public String getModelName() {
+        return modelName;
+    }
+
+
+    /**
+     * Gets the number of values the model was fitted to.
+     *
+     * @return The training size.
+     */
+    public long getTrainingSize() {
+        return trainingSize;
+    }
+
+
+    /**
+     * Gets the number of held-out values.
+     *
+     * @return The holdout size.
+     */
+    public int getHoldout() {
+        return forecast.length;
+    }
+
+
+    /**
+     * Gets the forecast of the held-out values.
+     *
+     * @return A copy of the forecast, the first value following the training part.
+     */
+    public double[] getForecast() {
+        return forecast.clone();
+    }
+
+
+    /**
+     * Gets the mean absolute error of the forecast.
+     *
+     * @return The mean of the absolute differences between the forecast and the held-out values.
+     */
+    public double getMeanAbsoluteError() {
+        return meanAbsoluteError;
+    }
+
+
+    /**
+     * Gets the root mean squared error of the forecast, which penalizes large errors more.
+     *
+     * @return The square root of the mean squared difference between the forecast and the held-out values.
+     */
+    public double getRootMeanSquaredError() {
+        return rootMeanSquaredError;
+    }
+
+
+    /**
+     * Converts the evaluation to a readable string format.
+     *
+     * @return A string representation of the evaluation.
+     */
+    @Override
+    public String toString() {
+        return "ForecastEvaluation{model='" + modelName + "', trainingSize=" + trainingSize + ", holdout=" + forecast.length
+                + ", mae=" + meanAbsoluteError + ", rmse=" + rootMeanSquaredError + "}";
+    }
+}
@@ -0,0 +1,496 @@
+package es.predictapro.model;
+
+import java.util.Arrays;
+
+/**
+ * QuantileSketch estimates the quantiles of a stream of values in bounded memory.
+ * <p>
+ * It implements the KLL sketch (Karnin, Lang and Liberty, "Optimal Quantile Approximation
+ * in Streams", 2016). Values are kept in a stack of compactors: level {@code h} holds values
+ * standing for {@code 2^h} original values each. Level capacities shrink geometrically by
+ * 2/3 below the top level, which holds {@code k} values. Once the sketch retains as many
+ * values as all its levels can hold, the lowest full level is sorted and every other value,
+ * starting at a random offset, is promoted to the next level while the rest are dropped. A
+ * sketch therefore retains fewer than {@code 3k} values plus a few per level, whatever the
+ * length of the stream.
+ * </p>
+ * <p>
+ * A quantile estimated with {@code k = 200} (the default) has a rank error below about 1.33% of
+ * the count with 99% confidence, and the error shrinks roughly as {@code 1/k}; see
+ * {@link #getNormalizedRankError()}. The sketch is exact until the first compaction, that is
+ * while fewer than {@code k} values were accepted, and the minimum and maximum are always exact.
+ * </p>
+ * <p>
+ * Sketches built over separate parts of a dataset can be combined with
+ * {@link #merge(QuantileSketch)} with the same guarantees. Compactions draw their offsets from
+ * a fixed-seed generator, so the same values accepted and merged in the same order always give
+ * the same sketch. {@code NaN} values are ignored.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class QuantileSketch {
+
+    // Default accuracy parameter: the capacity of the top level.
+    public static final int DEFAULT_K = 200;
+
+    // Smallest capacity of a level.
+    private static final int MIN_LEVEL_CAPACITY = 8;
+
+    // Ratio between the capacities of two consecutive levels.
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    // Seed of the generator drawing the compaction offsets.
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+
+    // Accuracy parameter: the capacity of the top level.
+    private final int k;
+
+
+    // Values retained at each level, a value of level h standing for 2^h values.
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+
+
+    // Number of values retained across all levels, and the number they can hold.
+    private int retained;
+    private int totalCapacity;
+
+
+    // Number of values accepted, including those dropped by compactions.
+    private long count;
+
+
+    // Smallest and largest values accepted.
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+
+    // State of the generator drawing the compaction offsets.
+    private long random = SEED;
+
+
+    // Retained values in increasing order and their cumulative weights, or null once stale.
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+
+    /**
+     * Constructor for a QuantileSketch with the default accuracy.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Constructor for a QuantileSketch.
+     *
+     * @param k The accuracy parameter: larger values lower the error and use more memory.
+     * @throws IllegalArgumentException if {@code k} is lower than 8.
+     */
+    public QuantileSketch(int k) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("The sketch accuracy k must be at least " + MIN_LEVEL_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        this.levels[0] = new double[MIN_LEVEL_CAPACITY];
+        this.totalCapacity = capacity(0);
+    }
+
+    /**
+     * Copy constructor for a QuantileSketch.
+     *
+     * @param other The sketch to copy.
+     */
+    public QuantileSketch(QuantileSketch other) {
+        this.k = other.k;
+        this.levels = new double[other.levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            levels[h] = other.levels[h].clone();
+        }
+        this.levelSizes = other.levelSizes.clone();
+        this.retained = other.retained;
+        this.totalCapacity = other.totalCapacity;
+        this.count = other.count;
+        this.min = other.min;
+        this.max = other.max;
+        this.random = other.random;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value The value to accept; {@code NaN} is ignored.
+     */
+    public void accept(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sortedValues = null;
+        if (levelSizes[0] == levels[0].length) {
+            levels[0] = Arrays.copyOf(levels[0], Math.max(levels[0].length * 2, MIN_LEVEL_CAPACITY));
+        }
+        levels[0][levelSizes[0]++] = value;
+        if (++retained >= totalCapacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds a range of values to the sketch.
+     *
+     * @param values The array holding the values.
+     * @param from   The index of the first value to accept (inclusive).
+     * @param to     The index of the last value to accept (exclusive).
+     */
+    public void accept(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            accept(values[i]);
+        }
+    }
+
+    /**
+     * Merges another sketch into this one.
+     * <p>
+     * After the call, this sketch describes the union of both streams of values.
+     * </p>
+     *
+     * @param other The sketch to merge into this one.
+     * @throws IllegalArgumentException if the sketches have different accuracy parameters.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches of accuracy " + k + " and " + other.k + ".");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        ensureLevels(other.levels.length);
+        for (int h = 0; h < other.levels.length; h++) {
+            append(h, other.levels[h], other.levelSizes[h]);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sortedValues = null;
+        compress();
+    }
+
+    /**
+     * Gets the number of values accepted.
+     *
+     * @return The count of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the smallest value accepted.
+     *
+     * @return The exact minimum, or {@code NaN} if the sketch is empty.
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Gets the largest value accepted.
+     *
+     * @return The exact maximum, or {@code NaN} if the sketch is empty.
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Estimates a quantile of the values.
+     * <p>
+     * The result is the smallest retained value whose estimated rank reaches
+     * {@code fraction * count}, so the median of an even number of values is the lower one.
+     * </p>
+     *
+     * @param fraction The fraction of the values below the quantile, between 0.0 and 1.0.
+     * @return The estimated quantile, the exact minimum for 0.0 and maximum for 1.0,
+     *         or {@code NaN} if the sketch is empty.
+     * @throws IllegalArgumentException if the fraction is not between 0.0 and 1.0.
+     */
+    public double getQuantile(double fraction) {
+        if (!(fraction >= 0.0 && fraction <= 1.0)) {
+            throw new IllegalArgumentException("The quantile fraction must be between 0 and 1: " + fraction);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0.0) {
+            return min;
+        }
+        if (fraction == 1.0) {
+            return max;
+        }
+        sort();
+        double target = fraction * count;
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] >= target) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return sortedValues[low];
+    }
+
+    /**
+     * Estimates the fraction of the values lower than or equal to a given value.
+     *
+     * @param value The value to rank.
+     * @return The estimated fraction, between 0.0 and 1.0, or {@code NaN} if the sketch is empty.
+     */
+    public double getRank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return (double) weightBelow(value, true) / count;
+    }
+
+    /**
+     * Estimates the number of values falling into equal-width bins.
+     * <p>
+     * Bin {@code i} covers {@code [min + i * width, min + (i + 1) * width)}, except the last
+     * one, which also includes {@code max}. Values outside {@code [min, max]} are not counted.
+     * Each count is the difference of two rank estimates, so it is within twice
+     * {@link #getNormalizedRankError()} times the total count of the true count.
+     * </p>
+     *
+     * @param min  The lower edge of the first bin.
+     * @param max  The upper edge of the last bin.
+     * @param bins The number of bins.
+     * @return The estimated count of each bin, all zero if the sketch is empty.
+     * @throws IllegalArgumentException if there are no bins or the edges are not increasing finite values.
+     */
+    public long[] getHistogram(double min, double max, int bins) {
+        if (bins < 1) {
+            throw new IllegalArgumentException("The histogram must have at least one bin: " + bins);
+        }
+        if (!(min < max) || Double.isInfinite(min) || Double.isInfinite(max)) {
+            throw new IllegalArgumentException("The histogram edges must be finite and increasing: " + min + ", " + max);
+        }
+        long[] counts = new long[bins];
+        if (count == 0) {
+            return counts;
+        }
+        double width = (max - min) / bins;
+        long below = weightBelow(min, false);
+        for (int i = 0; i < bins; i++) {
+            long upTo = i == bins - 1 ? weightBelow(max, true) : weightBelow(min + (i + 1) * width, false);
+            counts[i] = upTo - below;
+            below = upTo;
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the accuracy parameter of the sketch.
+     *
+     * @return The capacity of the top level.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Gets the number of values currently retained by the sketch, which bounds its memory.
+     *
+     * @return The retained value count.
+     */
+    public int getRetainedCount() {
+        return retained;
+    }
+
+    /**
+     * Gets the rank error of a single quantile or rank estimate, as a fraction of the count,
+     * that holds with 99% confidence.
+     * <p>
+     * The bound follows the empirical fit of the KLL error published with the Apache
+     * DataSketches implementation, {@code 2.296 / k^0.9723}, about 0.0133 for the default k.
+     * </p>
+     *
+     * @return The normalized rank error, or 0.0 while the sketch is still exact.
+     */
+    public double getNormalizedRankError() {
+        return levels.length == 1 ? 0.0 : 2.296 / Math.pow(k, 0.9723);
+    }
+
+    /**
+     * Compacts levels until the sketch retains fewer values than its levels can hold.
+     * <p>
+     * Steps:
+     * 1. Finds the lowest level at or above its capacity, adding a level on top if needed.
+     * 2. Sorts it and promotes every other value, from a random offset, to the level above.
+     * 3. Keeps the smallest value at its level when the count is odd, so no weight is lost.
+     * </p>
+     */
+    private void compress() {
+        while (retained >= totalCapacity) {
+            int h = 0;
+            while (levelSizes[h] < capacity(h)) {
+                h++;
+            }
+            if (h + 1 == levels.length) {
+                ensureLevels(levels.length + 1);
+            }
+            double[] level = levels[h];
+            int size = levelSizes[h];
+            Arrays.sort(level, 0, size);
+            int start = size & 1;
+            int offset = nextBit();
+            int promoted = (size - start) / 2;
+            double[] selected = new double[promoted];
+            for (int i = 0; i < promoted; i++) {
+                selected[i] = level[start + offset + 2 * i];
+            }
+            levelSizes[h] = start;
+            retained -= size - start;
+            append(h + 1, selected, promoted);
+        }
+    }
+
+    /**
+     * Computes the capacity of a level, which depends on its distance to the top level.
+     *
+     * @param level The level.
+     * @return The number of values the level can hold before it is compacted.
+     */
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_RATIO, depth)));
+    }
+
+    /**
+     * Adds empty levels on top until there are at least the given number of levels.
+     *
+     * @param count The number of levels required.
+     */
+    private void ensureLevels(int count) {
+        int previous = levels.length;
+        if (count <= previous) {
+            return;
+        }
+        levels = Arrays.copyOf(levels, count);
+        levelSizes = Arrays.copyOf(levelSizes, count);
+        for (int h = previous; h < count; h++) {
+            levels[h] = new double[MIN_LEVEL_CAPACITY];
+        }
+        totalCapacity = 0;
+        for (int h = 0; h < count; h++) {
+            totalCapacity += capacity(h);
+        }
+    }
+
+    /**
+     * Appends values to a level, growing it as needed.
+     *
+     * @param level  The level receiving the values.
+     * @param values The array holding the values.
+     * @param length The number of values to append.
+     */
+    private void append(int level, double[] values, int length) {
+        int size = levelSizes[level];
+        if (size + length > levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(size + length, levels[level].length * 2));
+        }
+        System.arraycopy(values, 0, levels[level], size, length);
+        levelSizes[level] = size + length;
+        retained += length;
+    }
+
+    /**
+     * Draws the offset of the next compaction.
+     *
+     * @return 0 or 1.
+     */
+    private int nextBit() {
+        // Xorshift generator: cheap, and deterministic for a given sequence of operations
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) (random >>> 63);
+    }
+
+    /**
+     * Estimates the number of values lower than, or lower than or equal to, a given value.
+     *
+     * @param value     The value to compare with.
+     * @param inclusive Whether values equal to the given one are counted.
+     * @return The estimated number of values, exact below the minimum and above the maximum.
+     */
+    private long weightBelow(double value, boolean inclusive) {
+        if (value < min || (value == min && !inclusive)) {
+            return 0;
+        }
+        if (value > max || (value == max && inclusive)) {
+            return count;
+        }
+        sort();
+        // Number of retained values lower than (or equal to) the value
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedValues[middle] < value || (inclusive && sortedValues[middle] == value)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low == 0 ? 0 : cumulativeWeights[low - 1];
+    }
+
+    /**
+     * Builds the sorted view of the retained values and their cumulative weights, if stale.
+     */
+    private void sort() {
+        if (sortedValues != null) {
+            return;
+        }
+        int retained = getRetainedCount();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int size = 0;
+        for (int h = 0; h < levels.length; h++) {
+            // Merge the sorted values of the level into the values gathered so far
+            double[] level = Arrays.copyOf(levels[h], levelSizes[h]);
+            Arrays.sort(level);
+            long weight = 1L << h;
+            double[] mergedValues = new double[size + level.length];
+            long[] mergedWeights = new long[size + level.length];
+            int i = 0;
+            int j = 0;
+            for (int m = 0; m < mergedValues.length; m++) {
+                if (j == level.length || (i < size && values[i] <= level[j])) {
+                    mergedValues[m] = values[i];
+                    mergedWeights[m] = weights[i++];
+                } else {
+                    mergedValues[m] = level[j++];
+                    mergedWeights[m] = weight;
+                }
+            }
+            values = mergedValues;
+            weights = mergedWeights;
+            size = mergedValues.length;
+        }
+        for (int i = 1; i < size; i++) {
+            weights[i] += weights[i - 1];
+        }
+        cumulativeWeights = weights;
+        sortedValues = values;
+    }
+}
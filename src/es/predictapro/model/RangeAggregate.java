@@ -0,0 +1,169 @@
+package es.predictapro.model;
+
+/**
+ * RangeAggregate holds the mergeable statistics of a set of values: count, sum, mean,
+ * sum of squared deviations from the mean (M2), minimum and maximum.
+ * <p>
+ * Unlike {@link StatisticsSummary}, it only tracks what time buckets need, so aggregates of
+ * buckets can be stored once and merged in any order to describe a longer time range. Values
+ * are added with Welford's update and aggregates are merged with the pairwise formula of Chan
+ * et al., so the variance stays accurate when the values are large compared to their spread.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class RangeAggregate {
+
+    // Number of values aggregated.
+    private long count;
+
+
+    // Sum of the values.
+    private double sum;
+
+
+    // Mean of the values, and sum of the squared deviations from it.
+    private double mean;
+    private double m2;
+
+
+    // Smallest and largest values aggregated.
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+
+    /**
+     * Adds a value to the aggregate.
+     *
+     * @param value The value to aggregate.
+     */
+    public void accept(double value) {
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the statistics of another set of values to the aggregate.
+     *
+     * @param count The number of values.
+     * @param sum   The sum of the values.
+     * @param mean  The mean of the values.
+     * @param m2    The sum of the squared deviations of the values from their mean.
+     * @param min   The smallest value.
+     * @param max   The largest value.
+     */
+    public void add(long count, double sum, double mean, double m2, double min, double max) {
+        if (count == 0) {
+            return;
+        }
+        if (this.count == 0) {
+            this.mean = mean;
+            this.m2 = m2;
+        } else {
+            // Combine the deviations of both sets (Chan et al.)
+            double na = this.count;
+            double nb = count;
+            double n = na + nb;
+            double delta = mean - this.mean;
+            this.m2 += m2 + delta * delta * na * nb / n;
+            this.mean += delta * nb / n;
+        }
+        this.count += count;
+        this.sum += sum;
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+    }
+
+    /**
+     * Merges another aggregate into this one.
+     *
+     * @param other The aggregate to merge into this one.
+     */
+    public void merge(RangeAggregate other) {
+        add(other.count, other.sum, other.mean, other.m2, other.min, other.max);
+    }
+
+    /**
+     * Gets the number of values aggregated.
+     *
+     * @return The count of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the values.
+     *
+     * @return The sum, or 0.0 if the aggregate is empty.
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the sum of the squares of the values, derived from the mean and M2.
+     *
+     * @return The sum of squares, or 0.0 if the aggregate is empty.
+     */
+    public double getSumOfSquares() {
+        return m2 + count * mean * mean;
+    }
+
+    /**
+     * Gets the arithmetic mean of the values.
+     *
+     * @return The mean, or {@code NaN} if the aggregate is empty.
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Gets the smallest value.
+     *
+     * @return The minimum, or {@code NaN} if the aggregate is empty.
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Gets the largest value.
+     *
+     * @return The maximum, or {@code NaN} if the aggregate is empty.
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Gets the population variance of the values.
+     *
+     * @return The variance, or {@code NaN} if the aggregate is empty.
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : Math.max(0.0, m2 / count);
+    }
+
+    /**
+     * Gets the population standard deviation of the values.
+     *
+     * @return The standard deviation, or {@code NaN} if the aggregate is empty.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    @Override
+    public String toString() {
+        return "RangeAggregate{count=" + count + ", sum=" + sum + ", min=" + getMin() + ", max=" + getMax()
+                + ", mean=" + getMean() + "}";
+    }
+}
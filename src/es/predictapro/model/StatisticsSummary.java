@@ -0,0 +1,316 @@
+package es.predictapro.model;
+
+import es.predictapro.util.DoubleKernels;
+
+/**
+ * StatisticsSummary accumulates descriptive statistics over a stream of values in a single pass.
+ * <p>
+ * It tracks:
+ * - The count, sum, minimum and maximum of the values.
+ * - The mean and the second, third and fourth central moments, from which the
+ *   variance, skewness and kurtosis are derived.
+ * </p>
+ * <p>
+ * The sum uses compensated (Kahan-Babuska) summation and the moments use Welford-style
+ * updates, so results stay accurate on long series. Ranges of a primitive array are
+ * summarized in two passes of the lane-split kernels of {@link DoubleKernels}, one for the
+ * sum and one for the deviations from the mean of the range, then merged in, which avoids
+ * the division per value of the Welford update. Partial summaries computed over
+ * separate parts of a dataset can be combined with {@link #merge(StatisticsSummary)}.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class StatisticsSummary {
+
+    // Number of values accumulated.
+    private long count;
+
+
+    // Running sum of the values.
+    private double sum;
+
+
+    // Compensation term holding the rounding error lost by the running sum.
+    private double compensation;
+
+
+    // Running mean used to update the central moments.
+    private double mean;
+
+
+    // Sums of the second, third and fourth powers of the deviations from the mean.
+    private double m2;
+    private double m3;
+    private double m4;
+
+
+    // Smallest and largest values accumulated.
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+
+    /**
+     * Adds a value to the summary.
+     *
+     * @param value The value to accumulate.
+     */
+    public void accept(double value) {
+        addToSum(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        // Update the central moments (Welford / Terriberry)
+        long n1 = count;
+        count++;
+        double n = count;
+        double delta = value - mean;
+        double deltaN = delta / n;
+        double deltaN2 = deltaN * deltaN;
+        double term1 = delta * deltaN * n1;
+        mean += deltaN;
+        m4 += term1 * deltaN2 * (n * n - 3 * n + 3) + 6 * deltaN2 * m2 - 4 * deltaN * m3;
+        m3 += term1 * deltaN * (n - 2) - 3 * deltaN * m2;
+        m2 += term1;
+    }
+
+    /**
+     * Adds a range of values to the summary.
+     * <p>
+     * Steps:
+     * 1. Computes the sum, minimum and maximum of the range with {@link DoubleKernels}.
+     * 2. Computes the sums of the powers of the deviations from the mean of the range,
+     *    corrected for the rounding error of that mean.
+     * 3. Merges the summary of the range into this one.
+     * </p>
+     *
+     * @param values The array holding the values.
+     * @param from   The index of the first value to accumulate (inclusive).
+     * @param to     The index of the last value to accumulate (exclusive).
+     */
+    public void accept(double[] values, int from, int to) {
+        int n = to - from;
+        if (n <= 0) {
+            return;
+        }
+
+        // Step 1: Compute the sum, minimum and maximum of the range
+        StatisticsSummary block = new StatisticsSummary();
+        block.count = n;
+        block.sum = DoubleKernels.sum(values, from, to);
+        block.min = DoubleKernels.min(values, from, to);
+        block.max = DoubleKernels.max(values, from, to);
+
+        // Step 2: Compute the central moments around the mean, shifted by the residual
+        // deviation d of the rounded mean
+        double reference = block.sum / n;
+        double[] powers = DoubleKernels.sumsOfDeviationPowers(values, from, to, reference);
+        double d = powers[0] / n;
+        double d2 = d * d;
+        block.mean = reference + d;
+        block.m2 = powers[1] - n * d2;
+        block.m3 = powers[2] - 3 * d * powers[1] + 2 * n * d2 * d;
+        block.m4 = powers[3] - 4 * d * powers[2] + 6 * d2 * powers[1] - 3 * n * d2 * d2;
+
+        // Step 3: Merge the range into the summary
+        merge(block);
+    }
+
+    /**
+     * Merges another summary into this one.
+     * <p>
+     * After the call, this summary describes the union of both sets of values.
+     * </p>
+     *
+     * @param other The summary to merge into this one.
+     */
+    public void merge(StatisticsSummary other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            copyFrom(other);
+            return;
+        }
+
+        // Combine the central moments (Chan et al. / Pebay)
+        double na = count;
+        double nb = other.count;
+        double n = na + nb;
+        double delta = other.mean - mean;
+        double delta2 = delta * delta;
+        double delta3 = delta2 * delta;
+        double delta4 = delta2 * delta2;
+
+        double combinedM2 = m2 + other.m2 + delta2 * na * nb / n;
+        double combinedM3 = m3 + other.m3
+                + delta3 * na * nb * (na - nb) / (n * n)
+                + 3 * delta * (na * other.m2 - nb * m2) / n;
+        double combinedM4 = m4 + other.m4
+                + delta4 * na * nb * (na * na - na * nb + nb * nb) / (n * n * n)
+                + 6 * delta2 * (na * na * other.m2 + nb * nb * m2) / (n * n)
+                + 4 * delta * (na * other.m3 - nb * m3) / n;
+
+        mean += delta * nb / n;
+        m2 = combinedM2;
+        m3 = combinedM3;
+        m4 = combinedM4;
+        count += other.count;
+        addToSum(other.sum);
+        compensation += other.compensation;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the number of values accumulated.
+     *
+     * @return The count of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the compensated sum of the values.
+     *
+     * @return The sum of the values, or 0.0 if the summary is empty.
+     */
+    public double getSum() {
+        double total = sum + compensation;
+        // The compensation is meaningless once the running sum overflows
+        return Double.isNaN(total) && !Double.isNaN(sum) ? sum : total;
+    }
+
+    /**
+     * Gets the mean of the values, computed from the compensated sum.
+     *
+     * @return The mean, or {@code NaN} if the summary is empty.
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : getSum() / count;
+    }
+
+    /**
+     * Gets the smallest value accumulated.
+     *
+     * @return The minimum, or {@code NaN} if the summary is empty.
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Gets the largest value accumulated.
+     *
+     * @return The maximum, or {@code NaN} if the summary is empty.
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Gets the difference between the largest and smallest values.
+     *
+     * @return The range, or {@code NaN} if the summary is empty.
+     */
+    public double getRange() {
+        return count == 0 ? Double.NaN : max - min;
+    }
+
+    /**
+     * Gets the population variance of the values.
+     *
+     * @return The variance, or {@code NaN} if the summary is empty.
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * Gets the sample (unbiased) variance of the values.
+     *
+     * @return The sample variance, or {@code NaN} if fewer than two values were accumulated.
+     */
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * Gets the population standard deviation of the values.
+     *
+     * @return The standard deviation, or {@code NaN} if the summary is empty.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the population skewness of the values.
+     *
+     * @return The skewness, or {@code NaN} if the summary is empty or all values are equal.
+     */
+    public double getSkewness() {
+        if (count == 0 || m2 == 0) {
+            return Double.NaN;
+        }
+        return Math.sqrt((double) count) * m3 / Math.pow(m2, 1.5);
+    }
+
+    /**
+     * Gets the population excess kurtosis of the values (0 for a normal distribution).
+     *
+     * @return The excess kurtosis, or {@code NaN} if the summary is empty or all values are equal.
+     */
+    public double getKurtosis() {
+        if (count == 0 || m2 == 0) {
+            return Double.NaN;
+        }
+        return count * m4 / (m2 * m2) - 3.0;
+    }
+
+    /**
+     * Adds a value to the running sum, keeping track of the rounding error.
+     *
+     * @param value The value to add.
+     */
+    private void addToSum(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - total) + value;
+        } else {
+            compensation += (value - total) + sum;
+        }
+        sum = total;
+    }
+
+    /**
+     * Copies the state of another summary into this one.
+     *
+     * @param other The summary to copy.
+     */
+    private void copyFrom(StatisticsSummary other) {
+        count = other.count;
+        sum = other.sum;
+        compensation = other.compensation;
+        mean = other.mean;
+        m2 = other.m2;
+        m3 = other.m3;
+        m4 = other.m4;
+        min = other.min;
+        max = other.max;
+    }
+
+    /**
+     * Converts the summary to a readable string format.
+     *
+     * @return A string representation of the main statistics.
+     */
+    @Override
+    public String toString() {
+        return "StatisticsSummary{count=" + count + ", sum=" + getSum() + ", mean=" + getMean()
+                + ", min=" + getMin() + ", max=" + getMax() + ", variance=" + getVariance()
+                + ", skewness=" + getSkewness() + ", kurtosis=" + getKurtosis() + "}";
+    }
+}
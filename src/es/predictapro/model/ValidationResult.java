@@ -0,0 +1,134 @@
+package es.predictapro.model;
+
+/**
+ * ValidationResult represents the outcome of a validation pass over a dataset.
+ * <p>
+ * It encapsulates:
+ * - The number of data points checked.
+ * - The positions of the data points holding invalid values (NaN or infinite).
+ * - The positions of the data points repeating an ID seen earlier in the dataset.
+ * - Whether the pass stopped at the first violation.
+ * </p>
+ * <p>
+ * Positions are kept in primitive arrays, so even a result listing millions of
+ * violations stays compact.
+ * </p>
+ */
+public class ValidationResult {
+
+
+    // Number of data points checked before the pass ended.
+    private final int checkedCount;
+
+
+    // Positions of the data points holding NaN or infinite values.
+    private final int[] invalidValuePositions;
+
+
+    // Positions of the data points whose ID was already seen.
+    private final int[] duplicateIdPositions;
+
+
+    // Whether the pass stopped at the first violation.
+    private final boolean stoppedEarly;
+
+
+    /**
+     * Constructor for ValidationResult.
+     *
+     * @param checkedCount          The number of data points checked.
+     * @param invalidValuePositions The positions of the data points with invalid values.
+     * @param duplicateIdPositions  The positions of the data points with duplicate IDs.
+     * @param stoppedEarly          Whether the pass stopped at the first violation.
+     */
+    public ValidationResult(int checkedCount, int[] invalidValuePositions, int[] duplicateIdPositions, boolean stoppedEarly) {
+        this.checkedCount = checkedCount;
+        this.invalidValuePositions = invalidValuePositions;
+        this.duplicateIdPositions = duplicateIdPositions;
+        this.stoppedEarly = stoppedEarly;
+    }
+
+
+    /**
+     * Checks whether no violation was found.
+     *
+     * @return {@code true} if the dataset is valid.
+     */
+    public boolean isValid() {
+        return invalidValuePositions.length == 0 && duplicateIdPositions.length == 0;
+    }
+
+
+    /**
+     * Gets the number of data points checked.
+     *
+     * @return The number of data points checked before the pass ended.
+     */
+    public int getCheckedCount() {
+        return checkedCount;
+    }
+
+
+    /**
+     * Gets the positions of the data points holding NaN or infinite values.
+     *
+     * @return A copy of the positions, in ascending order.
+     */
+    public int[] getInvalidValuePositions() {
+        return invalidValuePositions.clone();
+    }
+
+
+    /**
+     * Gets the positions of the data points whose ID was already seen earlier in the dataset.
+     *
+     * @return A copy of the positions, in ascending order.
+     */
+    public int[] getDuplicateIdPositions() {
+        return duplicateIdPositions.clone();
+    }
+
+
+    /**
+     * Gets the number of data points holding NaN or infinite values.
+     *
+     * @return The number of invalid values found.
+     */
+    public int getInvalidValueCount() {
+        return invalidValuePositions.length;
+    }
+
+
+    /**
+     * Gets the number of data points whose ID was already seen.
+     *
+     * @return The number of duplicate IDs found.
+     */
+    public int getDuplicateIdCount() {
+        return duplicateIdPositions.length;
+    }
+
+
+    /**
+     * Checks whether the pass stopped at the first violation instead of checking every point.
+     *
+     * @return {@code true} if the pass stopped early.
+     */
+    public boolean isStoppedEarly() {
+        return stoppedEarly;
+    }
+
+
+    /**
+     * Converts the validation result to a readable string format.
+     *
+     * @return A string representation of the result, including the number of violations found.
+     */
+    @Override
+    public String toString() {
+        return "ValidationResult{checked=" + checkedCount
+                + ", invalidValues=" + invalidValuePositions.length
+                + ", duplicateIds=" + duplicateIdPositions.length
+                + ", stoppedEarly=" + stoppedEarly + "}";
+    }
+}
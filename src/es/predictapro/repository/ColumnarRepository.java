@@ -0,0 +1,195 @@
+package es.predictapro.repository;
+
+import es.predictapro.exception.DataNotFoundException;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.util.IntIntHashMap;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * ColumnarRepository is an in-memory implementation of the {@link DataRepository} interface
+ * backed by primitive columns.
+ * <p>
+ * Instead of keeping one {@link DataPoint} object per reading, the IDs, values and timestamps
+ * are stored in a {@link ColumnBuffer}. Services can read the columns directly through
+ * {@link #getColumns()} without materializing any {@link DataPoint}.
+ * </p>
+ * <p>
+ * The repository keeps a primitive index from each ID to its row, updated on every save.
+ * IDs are unique: saving a point whose ID is already stored replaces its value and timestamp
+ * in place (upsert). {@link #findById(int)} and {@link #containsId(int)} cost O(1).
+ * </p>
+ */
+public class ColumnarRepository implements DataRepository {
+
+    // Column storage holding every saved data point.
+    private final ColumnBuffer columns = new ColumnBuffer();
+
+    // Index from each ID to its row in the columns.
+    private final IntIntHashMap rowsById = new IntIntHashMap();
+
+    // Number of save operations performed, used as data version.
+    private long version;
+
+    // Live list view over the columns, materializing data points on access.
+    private final List<DataPoint> view = new ColumnListView();
+
+    /**
+     * Retrieves all stored data points.
+     * <p>
+     * The returned list is a live, read-only view: each {@link DataPoint} is created
+     * on access from the underlying columns.
+     * </p>
+     *
+     * @return A list view of all stored {@link DataPoint} objects.
+     */
+    @Override
+    public List<DataPoint> getAllData() {
+        return view;
+    }
+
+    /**
+     * Saves a data point, replacing the stored one if its ID already exists.
+     *
+     * @param dataPoint The {@link DataPoint} object to be saved.
+     */
+    @Override
+    public void saveData(DataPoint dataPoint) {
+        saveData(dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+    }
+
+    /**
+     * Saves a data point given its fields, replacing the stored one if its ID already exists.
+     *
+     * @param id        The unique identifier of the data point.
+     * @param value     The numerical value of the data point.
+     * @param timestamp The time at which the data point was recorded, in milliseconds.
+     */
+    public void saveData(int id, double value, long timestamp) {
+        if (rowsById.putIfAbsent(id, columns.size())) {
+            columns.append(id, value, timestamp);
+        } else {
+            columns.set(rowsById.get(id, -1), value, timestamp);
+        }
+        version++;
+    }
+
+    /**
+     * Saves a batch of data points, replacing the stored ones whose ID already exists.
+     *
+     * @param dataPoints The {@link DataPoint} objects to be saved.
+     */
+    @Override
+    public void saveAll(List<DataPoint> dataPoints) {
+        for (DataPoint dataPoint : dataPoints) {
+            saveData(dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+        }
+    }
+
+    /**
+     * Saves a batch of data points stored in primitive columns, replacing the stored ones
+     * whose ID already exists.
+     * <p>
+     * Runs of new IDs are copied chunk by chunk; only the points updating an existing ID
+     * interrupt the bulk copy.
+     * </p>
+     *
+     * @param batch The columns holding the data points to be saved.
+     */
+    @Override
+    public void saveAll(DataColumns batch) {
+        for (int c = 0; c < batch.getChunkCount(); c++) {
+            int[] ids = batch.getIdChunk(c);
+            double[] values = batch.getValueChunk(c);
+            long[] timestamps = batch.getTimestampChunk(c);
+            int length = batch.getChunkLength(c);
+            int runStart = 0;
+            for (int i = 0; i < length; i++) {
+                // Index new IDs at the row they will have once the current run is copied
+                if (!rowsById.putIfAbsent(ids[i], columns.size() + i - runStart)) {
+                    columns.append(ids, values, timestamps, runStart, i);
+                    columns.set(rowsById.get(ids[i], -1), values[i], timestamps[i]);
+                    runStart = i + 1;
+                }
+            }
+            columns.append(ids, values, timestamps, runStart, length);
+        }
+        version++;
+    }
+
+    /**
+     * Retrieves the data point with the given ID through the index.
+     *
+     * @param id The ID of the data point.
+     * @return The {@link DataPoint} with the given ID.
+     * @throws DataNotFoundException if no data point has this ID.
+     */
+    @Override
+    public DataPoint findById(int id) {
+        int row = rowsById.get(id, -1);
+        if (row < 0) {
+            throw new DataNotFoundException("No data point found with ID " + id + ".");
+        }
+        return columns.toDataPoint(row);
+    }
+
+    /**
+     * Checks whether a data point with the given ID is stored, through the index.
+     *
+     * @param id The ID to look up.
+     * @return {@code true} if a data point with this ID is stored.
+     */
+    @Override
+    public boolean containsId(int id) {
+        return rowsById.containsKey(id);
+    }
+
+    /**
+     * Checks whether ID lookups use an index, which they always do in this repository.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean hasIdIndex() {
+        return true;
+    }
+
+    /**
+     * Gets the version of the stored data.
+     *
+     * @return The number of save operations performed so far.
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the primitive columns holding the stored data.
+     *
+     * @return The {@link DataColumns} backing this repository.
+     */
+    public DataColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Read-only list view that creates {@link DataPoint} objects on demand.
+     */
+    private class ColumnListView extends AbstractList<DataPoint> implements RandomAccess {
+
+        @Override
+        public DataPoint get(int index) {
+            return columns.toDataPoint(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package es.predictapro.repository;
+
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.CompressedBlock;
+import es.predictapro.model.CompressedColumns;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * CompressedRepository is an in-memory implementation of the {@link DataRepository} interface
+ * storing data points in compressed blocks.
+ * <p>
+ * New points are appended to an uncompressed head. Once the head holds a full block, it is
+ * sealed into a {@link CompressedBlock} and the head is reused. Nearly regular timestamps,
+ * sequential IDs and slowly changing values take a few bits per point instead of the
+ * 20 bytes of the raw columns; {@link #getStoredBytes()} reports the actual footprint.
+ * </p>
+ * <p>
+ * Services read the data through {@link #getColumns()}, which decodes one block at a time
+ * as the kernels reach it. Like {@link DatabaseRepository}, the repository keeps every point
+ * in insertion order and does not check IDs. This class is not thread-safe, but the columns
+ * it returns are immutable and can be processed in parallel.
+ * </p>
+ */
+public class CompressedRepository implements DataRepository {
+
+    // Default number of data points per sealed block.
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    // Size of a raw data point in columns: int ID, double value and long timestamp.
+    private static final int RAW_POINT_BYTES = Integer.BYTES + Double.BYTES + Long.BYTES;
+
+
+    // Number of data points per sealed block.
+    private final int blockSize;
+
+
+    // Sealed blocks, in insertion order.
+    private final List<CompressedBlock> blocks = new ArrayList<>();
+
+
+    // Points saved since the last block was sealed.
+    private final ColumnBuffer head = new ColumnBuffer();
+
+
+    // Bytes taken by the sealed blocks.
+    private long blockBytes;
+
+
+    // Number of save operations performed, used as data version.
+    private long version;
+
+
+    // Most recently decoded block, used by the list view.
+    private int decodedBlock = -1;
+    private int[] decodedIds;
+    private double[] decodedValues;
+    private long[] decodedTimestamps;
+
+
+    // Live list view over the data, decoding blocks on access.
+    private final List<DataPoint> view = new CompressedListView();
+
+
+    /**
+     * Constructor for a CompressedRepository with the default block size.
+     */
+    public CompressedRepository() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor for a CompressedRepository.
+     *
+     * @param blockSize The number of data points per sealed block.
+     * @throws IllegalArgumentException if the block size is not between 1 and {@link ColumnBuffer#CHUNK_SIZE}.
+     */
+    public CompressedRepository(int blockSize) {
+        if (blockSize < 1 || blockSize > ColumnBuffer.CHUNK_SIZE) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + ColumnBuffer.CHUNK_SIZE
+                    + ": " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Retrieves all stored data points.
+     * <p>
+     * The returned list is a live, read-only view. Reading a point decodes its whole block,
+     * which is kept until a point of another block is read, so sequential access costs
+     * one decoding per block.
+     * </p>
+     *
+     * @return A list view of all stored {@link DataPoint} objects.
+     */
+    @Override
+    public List<DataPoint> getAllData() {
+        return view;
+    }
+
+    /**
+     * Saves a data point to the repository.
+     *
+     * @param dataPoint The {@link DataPoint} object to be saved.
+     */
+    @Override
+    public void saveData(DataPoint dataPoint) {
+        saveData(dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+    }
+
+    /**
+     * Saves a data point given its fields.
+     *
+     * @param id        The unique identifier of the data point.
+     * @param value     The numerical value of the data point.
+     * @param timestamp The time at which the data point was recorded, in milliseconds.
+     */
+    public void saveData(int id, double value, long timestamp) {
+        head.append(id, value, timestamp);
+        if (head.size() == blockSize) {
+            seal();
+        }
+        version++;
+    }
+
+    /**
+     * Saves a batch of data points stored in primitive columns.
+     * <p>
+     * The points are copied into the head in runs that fill it up to a full block.
+     * </p>
+     *
+     * @param batch The columns holding the data points to be saved.
+     */
+    @Override
+    public void saveAll(DataColumns batch) {
+        for (int c = 0; c < batch.getChunkCount(); c++) {
+            int[] ids = batch.getIdChunk(c);
+            double[] values = batch.getValueChunk(c);
+            long[] timestamps = batch.getTimestampChunk(c);
+            int length = batch.getChunkLength(c);
+            for (int from = 0; from < length; ) {
+                int to = Math.min(length, from + blockSize - head.size());
+                head.append(ids, values, timestamps, from, to);
+                if (head.size() == blockSize) {
+                    seal();
+                }
+                from = to;
+            }
+        }
+        version++;
+    }
+
+    /**
+     * Gets the version of the stored data.
+     *
+     * @return The number of save operations performed so far.
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the stored data as columns decoded on demand.
+     * <p>
+     * The returned columns are a snapshot: the sealed blocks are shared and the head is copied,
+     * so later saves do not affect them.
+     * </p>
+     *
+     * @return The {@link DataColumns} holding every stored data point.
+     */
+    public DataColumns getColumns() {
+        int length = head.size();
+        if (length == 0) {
+            return new CompressedColumns(blocks.toArray(new CompressedBlock[0]), new int[0], new double[0], new long[0]);
+        }
+        return new CompressedColumns(blocks.toArray(new CompressedBlock[0]),
+                Arrays.copyOf(head.getIdChunk(0), length),
+                Arrays.copyOf(head.getValueChunk(0), length),
+                Arrays.copyOf(head.getTimestampChunk(0), length));
+    }
+
+    /**
+     * Gets the number of stored data points.
+     *
+     * @return The size of the repository.
+     */
+    public int size() {
+        return blocks.size() * blockSize + head.size();
+    }
+
+    /**
+     * Gets the memory taken by the stored data: the encoded blocks plus the raw head.
+     *
+     * @return The stored size, in bytes.
+     */
+    public long getStoredBytes() {
+        return blockBytes + (long) head.size() * RAW_POINT_BYTES;
+    }
+
+    /**
+     * Gets the memory the stored data would take as raw columns.
+     *
+     * @return The raw size, in bytes.
+     */
+    public long getRawBytes() {
+        return (long) size() * RAW_POINT_BYTES;
+    }
+
+    /**
+     * Compresses the head into a new block and empties it.
+     */
+    private void seal() {
+        CompressedBlock block = CompressedBlock.encode(head, 0);
+        blocks.add(block);
+        blockBytes += block.getEncodedBytes();
+        head.truncate(0);
+    }
+
+    /**
+     * Read-only list view that decodes the blocks on demand.
+     */
+    private class CompressedListView extends AbstractList<DataPoint> implements RandomAccess {
+
+        @Override
+        public DataPoint get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            int block = index / blockSize;
+            if (block == blocks.size()) {
+                return head.toDataPoint(index - block * blockSize);
+            }
+            if (block != decodedBlock) {
+                CompressedBlock compressed = blocks.get(block);
+                decodedIds = compressed.decodeIds();
+                decodedValues = compressed.decodeValues();
+                decodedTimestamps = compressed.decodeTimestamps();
+                decodedBlock = block;
+            }
+            int offset = index - block * blockSize;
+            return new DataPoint(decodedIds[offset], decodedValues[offset], decodedTimestamps[offset]);
+        }
+
+        @Override
+        public int size() {
+            return CompressedRepository.this.size();
+        }
+    }
+}
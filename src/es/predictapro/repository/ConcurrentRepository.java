@@ -0,0 +1,307 @@
+package es.predictapro.repository;
+
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.ColumnSnapshot;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConcurrentRepository is a thread-safe, in-memory implementation of the {@link DataRepository}
+ * interface built for many writer threads.
+ * <p>
+ * Writes are spread over several stripes, each holding its own {@link ColumnBuffer} and lock.
+ * Every writer thread is given a home stripe in round-robin order, so up to
+ * {@link #getStripeCount()} writers never wait for each other, and no {@link DataPoint}
+ * is kept per reading.
+ * </p>
+ * <p>
+ * Readers never see the live buffers. {@link #getColumns()} and {@link #getAllData()} return
+ * an immutable {@link ColumnSnapshot} that shares the stored chunks instead of copying them,
+ * so taking a snapshot costs one reference per chunk whatever the size of the dataset.
+ * A snapshot contains every point saved before it was requested.
+ * </p>
+ * <p>
+ * Points saved by the same thread keep their relative order, and a repository written by a
+ * single thread keeps the exact insertion order. Points saved concurrently by different
+ * threads have no global order: a snapshot lists them stripe by stripe. Time queries such as
+ * {@link #getRange(long, long)} sort their results by timestamp, then by ID, so they do not
+ * depend on which thread saved each point.
+ * </p>
+ */
+public class ConcurrentRepository implements DataRepository {
+
+    // Source of the per-thread stripe indexes.
+    private static final AtomicInteger NEXT_THREAD_INDEX = new AtomicInteger();
+
+    // Index assigned to each writer thread, spreading threads evenly across the stripes.
+    private static final ThreadLocal<Integer> THREAD_INDEX =
+            ThreadLocal.withInitial(NEXT_THREAD_INDEX::getAndIncrement);
+
+    // Order of the results of time queries: by timestamp, then by ID.
+    private static final Comparator<DataPoint> TIME_ORDER =
+            Comparator.comparingLong(DataPoint::getTimestamp).thenComparingInt(DataPoint::getId);
+
+
+    // Write stripes, a power of two in number.
+    private final Stripe[] stripes;
+
+
+    // Mask used to map a thread index to a stripe.
+    private final int mask;
+
+
+    /**
+     * Constructor for a ConcurrentRepository with two stripes per available processor.
+     */
+    public ConcurrentRepository() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Constructor for a ConcurrentRepository with the given number of stripes.
+     *
+     * @param stripeCount The minimum number of stripes, rounded up to a power of two.
+     * @throws IllegalArgumentException if the number of stripes is not between 1 and 65536.
+     */
+    public ConcurrentRepository(int stripeCount) {
+        if (stripeCount < 1 || stripeCount > 1 << 16) {
+            throw new IllegalArgumentException("The number of stripes must be between 1 and 65536.");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Retrieves a snapshot of all stored data points.
+     * <p>
+     * The returned list is immutable and is not affected by later writes. Each
+     * {@link DataPoint} is created on access from the snapshot columns.
+     * </p>
+     *
+     * @return A read-only list of the {@link DataPoint} objects stored so far.
+     */
+    @Override
+    public List<DataPoint> getAllData() {
+        return new SnapshotListView(getColumns());
+    }
+
+    /**
+     * Retrieves the data points recorded within a time range, sorted by timestamp.
+     * <p>
+     * The stripes have no common storage order, so points with the same timestamp are
+     * sorted by ID instead.
+     * </p>
+     *
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return The {@link DataPoint} objects recorded within the range.
+     */
+    @Override
+    public List<DataPoint> getRange(long fromMillis, long toMillis) {
+        ColumnSnapshot snapshot = getColumns();
+        List<DataPoint> range = new ArrayList<>();
+        for (int c = 0; c < snapshot.getChunkCount(); c++) {
+            int[] ids = snapshot.getIdChunk(c);
+            double[] values = snapshot.getValueChunk(c);
+            long[] timestamps = snapshot.getTimestampChunk(c);
+            for (int i = 0; i < snapshot.getChunkLength(c); i++) {
+                if (timestamps[i] >= fromMillis && timestamps[i] < toMillis) {
+                    range.add(new DataPoint(ids[i], values[i], timestamps[i]));
+                }
+            }
+        }
+        range.sort(TIME_ORDER);
+        return range;
+    }
+
+    /**
+     * Retrieves the most recent data points, sorted by timestamp, then by ID.
+     *
+     * @param count The maximum number of data points to return.
+     * @return Up to {@code count} {@link DataPoint} objects with the latest timestamps.
+     */
+    @Override
+    public List<DataPoint> getLatest(int count) {
+        List<DataPoint> all = new ArrayList<>(getAllData());
+        all.sort(TIME_ORDER);
+        return all.subList(Math.max(0, all.size() - Math.max(0, count)), all.size());
+    }
+
+    /**
+     * Saves a new data point in a stripe of the repository.
+     * <p>
+     * This method can be called concurrently from any number of threads.
+     * </p>
+     *
+     * @param dataPoint The {@link DataPoint} object to be saved.
+     */
+    @Override
+    public void saveData(DataPoint dataPoint) {
+        saveData(dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+    }
+
+    /**
+     * Saves a new data point given its fields, without requiring a {@link DataPoint} object.
+     *
+     * @param id        The unique identifier of the data point.
+     * @param value     The numerical value of the data point.
+     * @param timestamp The time at which the data point was recorded, in milliseconds.
+     */
+    public void saveData(int id, double value, long timestamp) {
+        Stripe stripe = acquireStripe();
+        try {
+            stripe.buffer.append(id, value, timestamp);
+            stripe.writes++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Saves a batch of data points, locking a stripe once for the whole batch.
+     * <p>
+     * The batch is stored contiguously and in order.
+     * </p>
+     *
+     * @param dataPoints The {@link DataPoint} objects to be saved.
+     */
+    @Override
+    public void saveAll(List<DataPoint> dataPoints) {
+        Stripe stripe = acquireStripe();
+        try {
+            for (DataPoint dataPoint : dataPoints) {
+                stripe.buffer.append(dataPoint);
+            }
+            stripe.writes++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Saves a batch of data points stored in primitive columns, locking a stripe once
+     * and copying the columns chunk by chunk.
+     * <p>
+     * The batch is stored contiguously and in order.
+     * </p>
+     *
+     * @param columns The columns holding the data points to be saved.
+     */
+    @Override
+    public void saveAll(DataColumns columns) {
+        Stripe stripe = acquireStripe();
+        try {
+            stripe.buffer.appendAll(columns);
+            stripe.writes++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes an immutable snapshot of the stored data as primitive columns.
+     * <p>
+     * Each stripe is locked only while its chunk directory is copied, so writers are
+     * blocked for a few nanoseconds per stripe.
+     * </p>
+     *
+     * @return A {@link ColumnSnapshot} of every point saved so far.
+     */
+    public ColumnSnapshot getColumns() {
+        ColumnSnapshot[] parts = new ColumnSnapshot[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            stripe.lock.lock();
+            try {
+                parts[i] = stripe.buffer.snapshot();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return ColumnSnapshot.concat(parts);
+    }
+
+    /**
+     * Gets the version of the stored data.
+     * <p>
+     * The version is the total number of save operations across the stripes. It is read
+     * without locking, and includes every save that completed before the call.
+     * </p>
+     *
+     * @return The number of save operations performed so far.
+     */
+    @Override
+    public long getVersion() {
+        long version = 0;
+        for (Stripe stripe : stripes) {
+            version += stripe.writes;
+        }
+        return version;
+    }
+
+    /**
+     * Gets the number of stripes of the repository.
+     *
+     * @return The number of stripes.
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Locks the home stripe of the current thread.
+     *
+     * @return The locked stripe; the caller must unlock it.
+     */
+    private Stripe acquireStripe() {
+        Stripe stripe = stripes[THREAD_INDEX.get() & mask];
+        stripe.lock.lock();
+        return stripe;
+    }
+
+    /**
+     * Stripe is a column buffer together with the lock guarding it.
+     */
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ColumnBuffer buffer = new ColumnBuffer();
+        private volatile long writes; // Only written while holding the lock
+    }
+
+    /**
+     * Read-only list view over a snapshot, creating {@link DataPoint} objects on demand.
+     */
+    private static class SnapshotListView extends AbstractList<DataPoint> implements RandomAccess {
+
+        private final ColumnSnapshot snapshot;
+
+        SnapshotListView(ColumnSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public DataPoint get(int index) {
+            return snapshot.toDataPoint(index);
+        }
+
+        @Override
+        public int size() {
+            return snapshot.size();
+        }
+    }
+}
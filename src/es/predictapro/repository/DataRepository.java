@@ -1,6 +1,12 @@
 package es.predictapro.repository;
 
+import es.predictapro.exception.DataNotFoundException;
+import es.predictapro.model.DataColumns;
 import es.predictapro.model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -12,6 +18,9 @@ import java.util.List;
  */
 public interface DataRepository {
 
+    // Version returned by repositories that cannot tell when their data changes.
+    long UNVERSIONED = -1;
+
     /**
      * Retrieves all stored data points.
      * <p>
@@ -33,4 +42,160 @@ public interface DataRepository {
      * @param dataPoint The {@link DataPoint} object to be saved.
      */
     void saveData(DataPoint dataPoint);
+
+    /**
+     * Saves a batch of data points to the repository, in order.
+     * <p>
+     * The default implementation calls {@link #saveData(DataPoint)} for each point.
+     * Implementations should override it to pay the per-call costs (locking, growing,
+     * publishing) once per batch instead of once per point.
+     * </p>
+     *
+     * @param dataPoints The {@link DataPoint} objects to be saved.
+     */
+    default void saveAll(List<DataPoint> dataPoints) {
+        for (DataPoint dataPoint : dataPoints) {
+            saveData(dataPoint);
+        }
+    }
+
+    /**
+     * Saves an array of data points to the repository, in order.
+     *
+     * @param dataPoints The {@link DataPoint} objects to be saved.
+     */
+    default void saveAll(DataPoint[] dataPoints) {
+        saveAll(Arrays.asList(dataPoints));
+    }
+
+    /**
+     * Saves a batch of data points stored in primitive columns, in order.
+     * <p>
+     * The default implementation creates one {@link DataPoint} per entry and calls
+     * {@link #saveData(DataPoint)}. Column-oriented implementations should override it
+     * to copy the columns directly.
+     * </p>
+     *
+     * @param columns The columns holding the data points to be saved.
+     */
+    default void saveAll(DataColumns columns) {
+        for (int c = 0; c < columns.getChunkCount(); c++) {
+            int[] ids = columns.getIdChunk(c);
+            double[] values = columns.getValueChunk(c);
+            long[] timestamps = columns.getTimestampChunk(c);
+            int length = columns.getChunkLength(c);
+            for (int i = 0; i < length; i++) {
+                saveData(new DataPoint(ids[i], values[i], timestamps[i]));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the data points recorded within a time range, sorted by timestamp.
+     * <p>
+     * The default implementation scans every stored point and sorts the matches.
+     * Implementations keeping the data ordered by time should override it with a search.
+     * Points with the same timestamp keep their storage order.
+     * </p>
+     *
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return The {@link DataPoint} objects recorded within the range.
+     */
+    default List<DataPoint> getRange(long fromMillis, long toMillis) {
+        List<DataPoint> range = new ArrayList<>();
+        for (DataPoint dataPoint : getAllData()) {
+            if (dataPoint.getTimestamp() >= fromMillis && dataPoint.getTimestamp() < toMillis) {
+                range.add(dataPoint);
+            }
+        }
+        range.sort(Comparator.comparingLong(DataPoint::getTimestamp));
+        return range;
+    }
+
+    /**
+     * Retrieves the most recent data points, sorted by timestamp.
+     * <p>
+     * The default implementation sorts a copy of every stored point. Implementations
+     * keeping the data ordered by time should override it.
+     * </p>
+     *
+     * @param count The maximum number of data points to return.
+     * @return Up to {@code count} {@link DataPoint} objects with the latest timestamps.
+     */
+    default List<DataPoint> getLatest(int count) {
+        List<DataPoint> all = new ArrayList<>(getAllData());
+        all.sort(Comparator.comparingLong(DataPoint::getTimestamp));
+        return all.subList(Math.max(0, all.size() - Math.max(0, count)), all.size());
+    }
+
+    /**
+     * Retrieves the data point with the given ID.
+     * <p>
+     * The default implementation scans every stored point and returns the last one saved
+     * with this ID. Implementations maintaining an ID index should override it.
+     * </p>
+     *
+     * @param id The ID of the data point.
+     * @return The {@link DataPoint} with the given ID.
+     * @throws DataNotFoundException if no data point has this ID.
+     */
+    default DataPoint findById(int id) {
+        DataPoint found = null;
+        for (DataPoint dataPoint : getAllData()) {
+            if (dataPoint.getId() == id) {
+                found = dataPoint;
+            }
+        }
+        if (found == null) {
+            throw new DataNotFoundException("No data point found with ID " + id + ".");
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a data point with the given ID is stored.
+     * <p>
+     * The default implementation scans every stored point. Implementations maintaining
+     * an ID index should override it, together with {@link #hasIdIndex()}.
+     * </p>
+     *
+     * @param id The ID to look up.
+     * @return {@code true} if a data point with this ID is stored.
+     */
+    default boolean containsId(int id) {
+        for (DataPoint dataPoint : getAllData()) {
+            if (dataPoint.getId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether {@link #containsId(int)} is answered from an index rather than a scan.
+     * <p>
+     * Callers looking up many IDs should collect the stored IDs once when it is not.
+     * The default implementation returns {@code false}.
+     * </p>
+     *
+     * @return {@code true} if ID lookups take constant time.
+     */
+    default boolean hasIdIndex() {
+        return false;
+    }
+
+    /**
+     * Gets the version of the stored data.
+     * <p>
+     * The version changes every time data is saved, so a result computed from the data
+     * stays valid as long as the version is unchanged. The default implementation returns
+     * {@link #UNVERSIONED}, meaning results computed from this repository must not be reused.
+     * </p>
+     *
+     * @return The current version, or {@link #UNVERSIONED}.
+     */
+    default long getVersion() {
+        return UNVERSIONED;
+    }
 }
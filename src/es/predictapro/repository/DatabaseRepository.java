@@ -16,6 +16,9 @@ public class DatabaseRepository implements DataRepository {
     // A simple in-memory database to store DataPoint objects.
     private List<DataPoint> database = new ArrayList<>();
 
+    // Number of save operations performed, used as data version.
+    private long version;
+
     /**
      * Retrieves all stored data points.
      *
@@ -34,5 +37,31 @@ public class DatabaseRepository implements DataRepository {
     @Override
     public void saveData(DataPoint dataPoint) {
         database.add(dataPoint);
+        version++;
+    }
+
+    /**
+     * Saves a batch of data points to the database in a single call.
+     *
+     * @param dataPoints The {@link DataPoint} objects to be saved.
+     */
+    @Override
+    public void saveAll(List<DataPoint> dataPoints) {
+        database.addAll(dataPoints);
+        version++;
+    }
+
+    /**
+     * Gets the version of the stored data.
+     * <p>
+     * Only changes made through this repository are tracked; modifying the list returned
+     * by {@link #getAllData()} directly does not change the version.
+     * </p>
+     *
+     * @return The number of save operations performed so far.
+     */
+    @Override
+    public long getVersion() {
+        return version;
     }
 }
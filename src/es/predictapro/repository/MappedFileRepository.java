@@ -0,0 +1,388 @@
+package es.predictapro.repository;
+
+import es.predictapro.exception.StorageException;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+
+/**
+ * MappedFileRepository is a persistent, append-only implementation of the {@link DataRepository} interface.
+ * <p>
+ * Data points are stored as fixed-width records (ID, value, timestamp) in segment files
+ * that are memory-mapped through {@link FileChannel}. Each segment starts with a small header
+ * holding its capacity and the number of records written, so reopening the repository only
+ * maps the existing segments and reads their headers instead of parsing the data.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class MappedFileRepository implements DataRepository, Closeable {
+
+    // Size in bytes of a single record: int ID, double value, long timestamp.
+    public static final int RECORD_SIZE = Integer.BYTES + Double.BYTES + Long.BYTES;
+
+    // Default number of records stored in each segment file.
+    public static final int DEFAULT_SEGMENT_CAPACITY = 1 << 20;
+
+    // Magic number identifying a segment file.
+    private static final int MAGIC = 0x50505347;
+
+    // Size in bytes of the segment header: magic, capacity and record count.
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    // Position of the record count inside the segment header.
+    private static final int COUNT_OFFSET = Integer.BYTES + Integer.BYTES;
+
+    // Prefix and suffix of the segment file names.
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+
+    // Directory holding the segment files.
+    private final Path directory;
+
+
+    // Number of records stored in each segment.
+    private final int segmentCapacity;
+
+
+    // Mapped segments, in the order they were created.
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+
+    // Total number of records stored across all segments.
+    private int size;
+
+
+    // Read-only list view over the mapped records.
+    private final List<DataPoint> view = new MappedListView();
+
+
+    /**
+     * Opens (or creates) a repository in the given directory using the default segment capacity.
+     *
+     * @param directory The directory holding the segment files.
+     * @throws StorageException if the directory or its segments cannot be opened.
+     */
+    public MappedFileRepository(Path directory) {
+        this(directory, DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * Opens (or creates) a repository in the given directory.
+     * <p>
+     * If segments already exist, their stored capacity takes precedence over the given one.
+     * </p>
+     *
+     * @param directory       The directory holding the segment files.
+     * @param segmentCapacity The number of records per segment for a new repository.
+     * @throws StorageException if the directory or its segments cannot be opened.
+     */
+    public MappedFileRepository(Path directory, int segmentCapacity) {
+        if (segmentCapacity <= 0 || (long) segmentCapacity * RECORD_SIZE + HEADER_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment capacity: " + segmentCapacity);
+        }
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            this.segmentCapacity = openSegments(segmentCapacity);
+        } catch (IOException e) {
+            throw new StorageException("Unable to open repository at " + directory, e);
+        }
+    }
+
+    /**
+     * Retrieves all stored data points.
+     * <p>
+     * The returned list is a live, read-only view over the mapped segments: each
+     * {@link DataPoint} is decoded on access and nothing is copied onto the heap upfront.
+     * </p>
+     *
+     * @return A list view of all stored {@link DataPoint} objects.
+     */
+    @Override
+    public List<DataPoint> getAllData() {
+        return view;
+    }
+
+    /**
+     * Appends a new data point to the active segment, creating a new segment when it is full.
+     *
+     * @param dataPoint The {@link DataPoint} object to be saved.
+     * @throws StorageException if a new segment cannot be created.
+     */
+    @Override
+    public void saveData(DataPoint dataPoint) {
+        MappedByteBuffer segment = activeSegment();
+        int offset = size % segmentCapacity;
+
+        // Write the record first, then publish it by updating the record count
+        writeRecord(segment, offset, dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+        segment.putLong(COUNT_OFFSET, offset + 1);
+        size++;
+    }
+
+    /**
+     * Appends a batch of data points, publishing the record count once per segment
+     * instead of once per record.
+     *
+     * @param dataPoints The {@link DataPoint} objects to be saved.
+     * @throws StorageException if a new segment cannot be created.
+     */
+    @Override
+    public void saveAll(List<DataPoint> dataPoints) {
+        MappedByteBuffer segment = null;
+        for (DataPoint dataPoint : dataPoints) {
+            segment = nextSegment(segment);
+            writeRecord(segment, size % segmentCapacity, dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+            size++;
+        }
+        publishCount(segment);
+    }
+
+    /**
+     * Appends a batch of data points stored in primitive columns, publishing the record
+     * count once per segment instead of once per record.
+     *
+     * @param columns The columns holding the data points to be saved.
+     * @throws StorageException if a new segment cannot be created.
+     */
+    @Override
+    public void saveAll(DataColumns columns) {
+        MappedByteBuffer segment = null;
+        for (int c = 0; c < columns.getChunkCount(); c++) {
+            int[] ids = columns.getIdChunk(c);
+            double[] values = columns.getValueChunk(c);
+            long[] timestamps = columns.getTimestampChunk(c);
+            int length = columns.getChunkLength(c);
+            for (int i = 0; i < length; i++) {
+                segment = nextSegment(segment);
+                writeRecord(segment, size % segmentCapacity, ids[i], values[i], timestamps[i]);
+                size++;
+            }
+        }
+        publishCount(segment);
+    }
+
+    /**
+     * Gets the segment receiving the next record, creating a new segment when the last one is full.
+     *
+     * @return The active segment.
+     * @throws StorageException if a new segment cannot be created.
+     */
+    private MappedByteBuffer activeSegment() {
+        if (size % segmentCapacity == 0 && size / segmentCapacity == segments.size()) {
+            segments.add(mapSegment(segmentPath(segments.size()), segmentCapacity));
+        }
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Gets the segment receiving the next record of a batch, publishing the count of the
+     * current segment when the batch moves on to a new one.
+     *
+     * @param current The segment written so far by the batch, or null at the start of the batch.
+     * @return The segment receiving the next record.
+     */
+    private MappedByteBuffer nextSegment(MappedByteBuffer current) {
+        if (current != null && size % segmentCapacity != 0) {
+            return current;
+        }
+        if (current != null) {
+            current.putLong(COUNT_OFFSET, segmentCapacity); // The current segment is full
+        }
+        return activeSegment();
+    }
+
+    /**
+     * Publishes the records written by a batch in the last segment it touched.
+     *
+     * @param segment The last segment written by the batch, or null if the batch was empty.
+     */
+    private void publishCount(MappedByteBuffer segment) {
+        if (segment != null) {
+            segment.putLong(COUNT_OFFSET, (size - 1) % segmentCapacity + 1);
+        }
+    }
+
+    /**
+     * Writes a record at the given offset of a segment, without publishing it.
+     *
+     * @param segment   The segment receiving the record.
+     * @param offset    The offset of the record inside the segment.
+     * @param id        The ID of the data point.
+     * @param value     The value of the data point.
+     * @param timestamp The timestamp of the data point.
+     */
+    private static void writeRecord(MappedByteBuffer segment, int offset, int id, double value, long timestamp) {
+        int position = HEADER_SIZE + offset * RECORD_SIZE;
+        segment.putInt(position, id);
+        segment.putDouble(position + Integer.BYTES, value);
+        segment.putLong(position + Integer.BYTES + Double.BYTES, timestamp);
+    }
+
+    /**
+     * Gets the version of the stored data.
+     * <p>
+     * The repository is append-only, so the number of records identifies its content.
+     * </p>
+     *
+     * @return The number of records stored.
+     */
+    @Override
+    public long getVersion() {
+        return size;
+    }
+
+    /**
+     * Flushes all mapped segments to the storage device.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flushes the repository to disk.
+     * <p>
+     * The mappings themselves are released by the JVM once this repository is garbage collected.
+     * </p>
+     */
+    @Override
+    public void close() {
+        force();
+    }
+
+    /**
+     * Maps every existing segment file and reads the record counts from their headers.
+     *
+     * @param defaultCapacity The capacity to use when no segment exists yet.
+     * @return The segment capacity of the repository.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private int openSegments(int defaultCapacity) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // Sort by segment number: the zero-padded names only sort lexically up to 999999
+        files.sort(Comparator.comparingLong(MappedFileRepository::segmentNumber));
+
+        int capacity = defaultCapacity;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            if (!file.equals(segmentPath(i))) {
+                throw new StorageException("Missing segment " + segmentPath(i));
+            }
+            MappedByteBuffer segment = mapSegment(file, -1);
+            if (segment.capacity() < HEADER_SIZE || segment.getInt(0) != MAGIC) {
+                throw new StorageException("Corrupted segment header in " + file);
+            }
+            if (i > 0 && segment.getInt(Integer.BYTES) != capacity) {
+                throw new StorageException("Inconsistent segment " + file);
+            }
+            capacity = segment.getInt(Integer.BYTES);
+            long count = segment.getLong(COUNT_OFFSET);
+            if (segment.capacity() != HEADER_SIZE + (long) capacity * RECORD_SIZE
+                    || count < 0 || count > capacity || (count < capacity && i < files.size() - 1)) {
+                throw new StorageException("Inconsistent segment " + file);
+            }
+            segments.add(segment);
+            size += (int) count;
+        }
+        return capacity;
+    }
+
+    /**
+     * Resolves the path of the segment file with the given number.
+     *
+     * @param number The number of the segment.
+     * @return The path of the segment file.
+     */
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format(Locale.ROOT, "%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Parses the number of a segment file from its name.
+     *
+     * @param file The segment file.
+     * @return The number of the segment.
+     * @throws StorageException if the name does not hold a segment number.
+     */
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw new StorageException("Unexpected segment file " + file);
+        }
+    }
+
+    /**
+     * Maps the given segment file, creating and initializing it when needed.
+     *
+     * @param file     The segment file.
+     * @param capacity The capacity for a new segment, or -1 to map an existing one as is.
+     * @return The mapped segment.
+     * @throws StorageException if the segment cannot be mapped.
+     */
+    private MappedByteBuffer mapSegment(Path file, int capacity) {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = capacity < 0 ? channel.size() : HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            if (capacity >= 0) {
+                segment.putInt(0, MAGIC);
+                segment.putInt(Integer.BYTES, capacity);
+                segment.putLong(COUNT_OFFSET, 0L);
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new StorageException("Unable to map segment " + file, e);
+        }
+    }
+
+    /**
+     * Read-only list view that decodes {@link DataPoint} objects from the mapped segments on demand.
+     */
+    private class MappedListView extends AbstractList<DataPoint> implements RandomAccess {
+
+        @Override
+        public DataPoint get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            MappedByteBuffer segment = segments.get(index / segmentCapacity);
+            int position = HEADER_SIZE + (index % segmentCapacity) * RECORD_SIZE;
+            return new DataPoint(
+                    segment.getInt(position),
+                    segment.getDouble(position + Integer.BYTES),
+                    segment.getLong(position + Integer.BYTES + Double.BYTES));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
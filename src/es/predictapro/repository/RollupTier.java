@@ -0,0 +1,162 @@
+package es.predictapro.repository;
+
+import es.predictapro.model.RangeAggregate;
+
+import java.util.Arrays;
+
+/**
+ * RollupTier keeps pre-aggregated statistics of the values falling into fixed-width time buckets.
+ * <p>
+ * Buckets are aligned on multiples of the width since the epoch (UTC) and only exist once a
+ * value falls into them. They are kept sorted by start time in parallel primitive arrays, so
+ * adding a value to the latest bucket is O(1), and aggregating a range of buckets costs a
+ * binary search plus one step per bucket.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+class RollupTier {
+
+    // Initial number of buckets.
+    private static final int INITIAL_CAPACITY = 16;
+
+
+    // Width of each bucket, in milliseconds.
+    private final long width;
+
+
+    // Start time of each bucket, in increasing order.
+    private long[] starts = new long[INITIAL_CAPACITY];
+
+
+    // Statistics of each bucket, at the same positions.
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private double[] sums = new double[INITIAL_CAPACITY];
+    private double[] means = new double[INITIAL_CAPACITY];
+    private double[] m2s = new double[INITIAL_CAPACITY];
+    private double[] mins = new double[INITIAL_CAPACITY];
+    private double[] maxs = new double[INITIAL_CAPACITY];
+
+
+    // Number of buckets.
+    private int size;
+
+
+    /**
+     * Constructor for a RollupTier.
+     *
+     * @param width The width of each bucket, in milliseconds.
+     */
+    RollupTier(long width) {
+        this.width = width;
+    }
+
+    /**
+     * Gets the width of the buckets.
+     *
+     * @return The width of each bucket, in milliseconds.
+     */
+    long getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the number of buckets holding at least one value.
+     *
+     * @return The number of buckets.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value to the bucket covering its timestamp.
+     *
+     * @param timestamp The timestamp of the value, in milliseconds.
+     * @param value     The value to add.
+     */
+    void add(long timestamp, double value) {
+        long start = Math.floorDiv(timestamp, width) * width;
+        int bucket;
+        if (size > 0 && starts[size - 1] == start) {
+            bucket = size - 1; // Common case: the latest bucket
+        } else if (size == 0 || start > starts[size - 1]) {
+            bucket = insert(size, start);
+        } else {
+            bucket = Arrays.binarySearch(starts, 0, size, start);
+            if (bucket < 0) {
+                bucket = insert(-bucket - 1, start);
+            }
+        }
+        // Welford's update, so the variance of the bucket does not cancel out for large values
+        long count = ++counts[bucket];
+        double delta = value - means[bucket];
+        sums[bucket] += value;
+        means[bucket] += delta / count;
+        m2s[bucket] += delta * (value - means[bucket]);
+        mins[bucket] = Math.min(mins[bucket], value);
+        maxs[bucket] = Math.max(maxs[bucket], value);
+    }
+
+    /**
+     * Adds the buckets starting within a time range to an aggregate.
+     *
+     * @param from   The start of the range, in milliseconds (inclusive), aligned on the width.
+     * @param to     The end of the range, in milliseconds (exclusive), aligned on the width.
+     * @param target The aggregate receiving the statistics.
+     */
+    void aggregate(long from, long to, RangeAggregate target) {
+        for (int bucket = lowerBound(from); bucket < size && starts[bucket] < to; bucket++) {
+            target.add(counts[bucket], sums[bucket], means[bucket], m2s[bucket], mins[bucket], maxs[bucket]);
+        }
+    }
+
+    /**
+     * Inserts an empty bucket at the given position.
+     *
+     * @param position The position of the new bucket.
+     * @param start    The start time of the new bucket.
+     * @return The position of the new bucket.
+     */
+    private int insert(int position, long start) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            means = Arrays.copyOf(means, capacity);
+            m2s = Arrays.copyOf(m2s, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+        }
+        int moved = size - position;
+        System.arraycopy(starts, position, starts, position + 1, moved);
+        System.arraycopy(counts, position, counts, position + 1, moved);
+        System.arraycopy(sums, position, sums, position + 1, moved);
+        System.arraycopy(means, position, means, position + 1, moved);
+        System.arraycopy(m2s, position, m2s, position + 1, moved);
+        System.arraycopy(mins, position, mins, position + 1, moved);
+        System.arraycopy(maxs, position, maxs, position + 1, moved);
+        starts[position] = start;
+        counts[position] = 0;
+        sums[position] = 0.0;
+        means[position] = 0.0;
+        m2s[position] = 0.0;
+        mins[position] = Double.POSITIVE_INFINITY;
+        maxs[position] = Double.NEGATIVE_INFINITY;
+        size++;
+        return position;
+    }
+
+    /**
+     * Finds the first bucket starting at or after the given time.
+     *
+     * @param time The time to search, in milliseconds.
+     * @return The position found, or the number of buckets if every bucket starts before.
+     */
+    private int lowerBound(long time) {
+        int position = Arrays.binarySearch(starts, 0, size, time);
+        return position >= 0 ? position : -position - 1;
+    }
+}
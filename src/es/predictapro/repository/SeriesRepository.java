@@ -0,0 +1,155 @@
+package es.predictapro.repository;
+
+import es.predictapro.exception.DataNotFoundException;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SeriesRepository stores many independent series of data points, each identified by a key
+ * such as a sensor name.
+ * <p>
+ * Every series has its own {@link ColumnarRepository}, created on its first save, so IDs
+ * only need to be unique within a series and the services can process one series through
+ * its primitive columns without touching the others. Looking up a series costs one hash
+ * lookup on its key.
+ * </p>
+ * <p>
+ * Series are listed in the order they were created. This class is not thread-safe: the
+ * series may be read concurrently, but not while data is being saved.
+ * </p>
+ */
+public class SeriesRepository {
+
+    // Storage of each series, by key.
+    private final Map<String, ColumnarRepository> seriesByKey = new HashMap<>();
+
+
+    // Keys of the series, in creation order.
+    private final List<String> keys = new ArrayList<>();
+
+
+    // Read-only view of the keys.
+    private final List<String> keysView = Collections.unmodifiableList(keys);
+
+
+    /**
+     * Saves a data point into a series, creating the series if needed.
+     *
+     * @param seriesKey The key of the series.
+     * @param dataPoint The {@link DataPoint} object to be saved.
+     */
+    public void saveData(String seriesKey, DataPoint dataPoint) {
+        getOrCreateSeries(seriesKey).saveData(dataPoint);
+    }
+
+    /**
+     * Saves a data point into a series given its fields, creating the series if needed.
+     *
+     * @param seriesKey The key of the series.
+     * @param id        The unique identifier of the data point within the series.
+     * @param value     The numerical value of the data point.
+     * @param timestamp The time at which the data point was recorded, in milliseconds.
+     */
+    public void saveData(String seriesKey, int id, double value, long timestamp) {
+        getOrCreateSeries(seriesKey).saveData(id, value, timestamp);
+    }
+
+    /**
+     * Saves a batch of data points into a series, creating the series if needed.
+     *
+     * @param seriesKey  The key of the series.
+     * @param dataPoints The {@link DataPoint} objects to be saved.
+     */
+    public void saveAll(String seriesKey, List<DataPoint> dataPoints) {
+        getOrCreateSeries(seriesKey).saveAll(dataPoints);
+    }
+
+    /**
+     * Saves a batch of data points stored in primitive columns into a series, creating the
+     * series if needed.
+     *
+     * @param seriesKey The key of the series.
+     * @param batch     The columns holding the data points to be saved.
+     */
+    public void saveAll(String seriesKey, DataColumns batch) {
+        getOrCreateSeries(seriesKey).saveAll(batch);
+    }
+
+    /**
+     * Retrieves the storage of a series.
+     *
+     * @param seriesKey The key of the series.
+     * @return The {@link ColumnarRepository} holding the series.
+     * @throws DataNotFoundException if no series has this key.
+     */
+    public ColumnarRepository getSeries(String seriesKey) {
+        ColumnarRepository series = seriesByKey.get(seriesKey);
+        if (series == null) {
+            throw new DataNotFoundException("No series found with key " + seriesKey + ".");
+        }
+        return series;
+    }
+
+    /**
+     * Checks whether a series exists.
+     *
+     * @param seriesKey The key of the series.
+     * @return {@code true} if at least one data point was saved into the series.
+     */
+    public boolean containsSeries(String seriesKey) {
+        return seriesByKey.containsKey(seriesKey);
+    }
+
+    /**
+     * Gets the keys of every series.
+     *
+     * @return A read-only list of the keys, in creation order.
+     */
+    public List<String> getSeriesKeys() {
+        return keysView;
+    }
+
+    /**
+     * Gets the number of series.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return keys.size();
+    }
+
+    /**
+     * Gets the version of the stored data.
+     *
+     * @return The total number of save operations across every series.
+     */
+    public long getVersion() {
+        long version = 0;
+        for (ColumnarRepository series : seriesByKey.values()) {
+            version += series.getVersion();
+        }
+        return version;
+    }
+
+    /**
+     * Retrieves the storage of a series, creating it on first use.
+     *
+     * @param seriesKey The key of the series.
+     * @return The {@link ColumnarRepository} holding the series.
+     */
+    private ColumnarRepository getOrCreateSeries(String seriesKey) {
+        ColumnarRepository series = seriesByKey.get(seriesKey);
+        if (series == null) {
+            series = new ColumnarRepository();
+            seriesByKey.put(seriesKey, series);
+            keys.add(seriesKey);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,578 @@
+package es.predictapro.repository;
+
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.QuantileSketch;
+import es.predictapro.model.RangeAggregate;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * TimeIndexedRepository is an in-memory implementation of the {@link DataRepository} interface
+ * that keeps the data sorted by timestamp.
+ * <p>
+ * The data is stored in two sorted runs of primitive columns:
+ * - A main {@link ColumnBuffer}, receiving every point at least as recent as the last one stored,
+ *   which is the common case for live feeds and costs a plain append.
+ * - A small pending buffer receiving late points, kept sorted by insertion. When it is full,
+ *   it is merged into the tail of the main buffer, which only rewrites the points more recent
+ *   than the oldest late point.
+ * </p>
+ * <p>
+ * Time queries binary-search both runs and copy only the matching points, so
+ * {@link #getRange(long, long)} and {@link #getLatest(int)} cost O(log n + k) for k results
+ * instead of a scan of the whole history. Points with the same timestamp keep their insertion
+ * order, except late points, which follow the stored points sharing their timestamp.
+ * </p>
+ * <p>
+ * Every save also updates rollup tiers holding the count, sum, mean, sum of squared
+ * deviations, minimum and maximum per minute, hour and day (UTC). {@link #aggregate(long, long)} combines the largest
+ * complete buckets covering a range with raw points at its edges, so aggregating a year of
+ * data reads about a thousand buckets and at most two minutes of raw points.
+ * </p>
+ * <p>
+ * Every save also feeds a {@link QuantileSketch} of all the stored values, so percentiles and
+ * histograms of the whole history are estimated from a few hundred retained values instead of
+ * a sort of every point; see {@link #getSketch()}.
+ * </p>
+ * <p>
+ * Saves and queries synchronize on the repository, so concurrent requests can save to it and
+ * query it. The live views returned by {@link #getAllData()}, {@link #getColumns()} and
+ * {@link #getSketch()} are not protected: while the repository may be written concurrently,
+ * they must only be read while holding its monitor, as in {@code synchronized (repository)}.
+ * </p>
+ */
+public class TimeIndexedRepository implements DataRepository {
+
+    // Default number of late points buffered before they are merged.
+    public static final int DEFAULT_PENDING_CAPACITY = 4096;
+
+    // Widths of the rollup buckets, from the finest to the coarsest, in milliseconds.
+    private static final long[] ROLLUP_WIDTHS = {60_000L, 3_600_000L, 86_400_000L};
+
+
+    // Points in timestamp order, excluding the pending late points.
+    private final ColumnBuffer sorted = new ColumnBuffer();
+
+
+    // Late points in timestamp order, waiting to be merged.
+    private final int[] pendingIds;
+    private final double[] pendingValues;
+    private final long[] pendingTimestamps;
+
+
+    // Number of pending late points.
+    private int pendingSize;
+
+
+    // Rollup tiers, from the finest to the coarsest.
+    private final RollupTier[] tiers = new RollupTier[ROLLUP_WIDTHS.length];
+
+
+    // Quantile sketch of every stored value.
+    private final QuantileSketch sketch = new QuantileSketch();
+
+
+    // Number of save operations performed, used as data version.
+    private long version;
+
+
+    // Live list view over the data in timestamp order.
+    private final List<DataPoint> view = new SortedListView();
+
+
+    /**
+     * Constructor for a TimeIndexedRepository with the default pending capacity.
+     */
+    public TimeIndexedRepository() {
+        this(DEFAULT_PENDING_CAPACITY);
+    }
+
+    /**
+     * Constructor for a TimeIndexedRepository.
+     *
+     * @param pendingCapacity The number of late points buffered before they are merged.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public TimeIndexedRepository(int pendingCapacity) {
+        if (pendingCapacity < 1) {
+            throw new IllegalArgumentException("The pending capacity must be positive.");
+        }
+        this.pendingIds = new int[pendingCapacity];
+        this.pendingValues = new double[pendingCapacity];
+        this.pendingTimestamps = new long[pendingCapacity];
+        for (int t = 0; t < tiers.length; t++) {
+            tiers[t] = new RollupTier(ROLLUP_WIDTHS[t]);
+        }
+    }
+
+    /**
+     * Retrieves all stored data points, sorted by timestamp.
+     * <p>
+     * The returned list is a live, read-only view: each {@link DataPoint} is created
+     * on access, and pending late points are merged before the first access.
+     * </p>
+     *
+     * @return A list view of all stored {@link DataPoint} objects.
+     */
+    @Override
+    public List<DataPoint> getAllData() {
+        return view;
+    }
+
+    /**
+     * Saves a new data point, keeping the data sorted by timestamp.
+     *
+     * @param dataPoint The {@link DataPoint} object to be saved.
+     */
+    @Override
+    public void saveData(DataPoint dataPoint) {
+        saveData(dataPoint.getId(), dataPoint.getValue(), dataPoint.getTimestamp());
+    }
+
+    /**
+     * Saves a new data point given its fields, without requiring a {@link DataPoint} object.
+     *
+     * @param id        The unique identifier of the data point.
+     * @param value     The numerical value of the data point.
+     * @param timestamp The time at which the data point was recorded, in milliseconds.
+     */
+    public synchronized void saveData(int id, double value, long timestamp) {
+        version++;
+        rollup(timestamp, value);
+        if (sorted.size() == 0 || timestamp >= sorted.getTimestamp(sorted.size() - 1)) {
+            sorted.append(id, value, timestamp);
+        } else {
+            addPending(id, value, timestamp);
+        }
+    }
+
+    /**
+     * Saves a batch of data points stored in primitive columns.
+     * <p>
+     * Runs of points that are already in order and not older than the stored data are
+     * copied in bulk; the other points go through {@link #saveData(int, double, long)}.
+     * </p>
+     *
+     * @param columns The columns holding the data points to be saved.
+     */
+    @Override
+    public synchronized void saveAll(DataColumns columns) {
+        version++;
+        for (int c = 0; c < columns.getChunkCount(); c++) {
+            int[] ids = columns.getIdChunk(c);
+            double[] values = columns.getValueChunk(c);
+            long[] timestamps = columns.getTimestampChunk(c);
+            int length = columns.getChunkLength(c);
+            int i = 0;
+            while (i < length) {
+                if (sorted.size() == 0 || timestamps[i] >= sorted.getTimestamp(sorted.size() - 1)) {
+                    // Find the end of the ordered run starting here and copy it at once
+                    int end = i + 1;
+                    while (end < length && timestamps[end] >= timestamps[end - 1]) {
+                        end++;
+                    }
+                    sorted.append(ids, values, timestamps, i, end);
+                    for (; i < end; i++) {
+                        rollup(timestamps[i], values[i]);
+                    }
+                } else {
+                    saveData(ids[i], values[i], timestamps[i]);
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the data points recorded within a time range, sorted by timestamp.
+     *
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return A read-only list of the {@link DataPoint} objects recorded within the range.
+     */
+    @Override
+    public List<DataPoint> getRange(long fromMillis, long toMillis) {
+        return new BufferListView(getRangeColumns(fromMillis, toMillis));
+    }
+
+    /**
+     * Retrieves the data points recorded within a time range as primitive columns.
+     * <p>
+     * Steps:
+     * 1. Binary-searches the bounds of the range in the sorted and pending runs.
+     * 2. Merges the two matching slices into a new buffer, copying whole slices when possible.
+     * </p>
+     *
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return A {@link ColumnBuffer} holding the points recorded within the range, in timestamp order.
+     */
+    public synchronized ColumnBuffer getRangeColumns(long fromMillis, long toMillis) {
+        if (fromMillis >= toMillis) {
+            return new ColumnBuffer();
+        }
+
+        // Step 1: Find the bounds of the range in both runs
+        int sortedFrom = lowerBound(fromMillis);
+        int sortedTo = lowerBound(toMillis);
+        int pendingFrom = pendingLowerBound(fromMillis);
+        int pendingTo = pendingLowerBound(toMillis);
+
+        // Step 2: Merge the slices
+        return merge(sortedFrom, sortedTo, pendingFrom, pendingTo);
+    }
+
+    /**
+     * Retrieves the most recent data points, sorted by timestamp.
+     *
+     * @param count The maximum number of data points to return.
+     * @return A read-only list of up to {@code count} {@link DataPoint} objects with the latest timestamps.
+     */
+    @Override
+    public List<DataPoint> getLatest(int count) {
+        return new BufferListView(getLatestColumns(count));
+    }
+
+    /**
+     * Retrieves the most recent data points as primitive columns.
+     *
+     * @param count The maximum number of data points to return.
+     * @return A {@link ColumnBuffer} holding up to {@code count} points with the latest timestamps.
+     */
+    public synchronized ColumnBuffer getLatestColumns(int count) {
+        // Walk back from the end of both runs, in reverse merge order
+        int sortedFrom = sorted.size();
+        int pendingFrom = pendingSize;
+        for (int remaining = count; remaining > 0 && (sortedFrom > 0 || pendingFrom > 0); remaining--) {
+            if (pendingFrom > 0
+                    && (sortedFrom == 0 || pendingTimestamps[pendingFrom - 1] >= sorted.getTimestamp(sortedFrom - 1))) {
+                pendingFrom--;
+            } else {
+                sortedFrom--;
+            }
+        }
+        return merge(sortedFrom, sorted.size(), pendingFrom, pendingSize);
+    }
+
+    /**
+     * Aggregates the values recorded within a time range.
+     * <p>
+     * Steps:
+     * 1. Clamps the range to the stored data.
+     * 2. Covers the largest aligned part of the range with day buckets, then the remaining
+     *    edges with hour buckets, then minute buckets.
+     * 3. Reads the raw points of the edges shorter than a minute.
+     * </p>
+     *
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return A {@link RangeAggregate} of the values within the range.
+     */
+    public synchronized RangeAggregate aggregate(long fromMillis, long toMillis) {
+        RangeAggregate result = new RangeAggregate();
+        if (sorted.size() == 0) {
+            return result;
+        }
+
+        // Step 1: Clamp the range, which also keeps the bucket arithmetic from overflowing
+        long earliest = pendingSize > 0 ? Math.min(pendingTimestamps[0], sorted.getTimestamp(0)) : sorted.getTimestamp(0);
+        long latest = sorted.getTimestamp(sorted.size() - 1);
+        long from = Math.max(fromMillis, earliest);
+        long to = latest < Long.MAX_VALUE ? Math.min(toMillis, latest + 1) : toMillis;
+
+        // Step 2 and 3: Combine the rollups and the raw edges
+        aggregate(from, to, tiers.length - 1, result);
+        return result;
+    }
+
+    /**
+     * Gets the version of the stored data.
+     *
+     * @return The number of save operations performed so far.
+     */
+    @Override
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the primitive columns holding the stored data, sorted by timestamp.
+     * <p>
+     * Pending late points are merged first. The returned buffer is live and must not be modified;
+     * while the repository may be written concurrently, it must be read holding the repository's
+     * monitor.
+     * </p>
+     *
+     * @return The {@link DataColumns} backing this repository.
+     */
+    public synchronized DataColumns getColumns() {
+        mergePending();
+        return sorted;
+    }
+
+    /**
+     * Gets the quantile sketch of every stored value.
+     * <p>
+     * The sketch is updated by every save, so its size and query cost do not depend on the
+     * number of stored points. The returned sketch is live and must not be modified; while the
+     * repository may be written concurrently, it must be read holding the repository's monitor.
+     * </p>
+     *
+     * @return The {@link QuantileSketch} of the stored values.
+     */
+    public QuantileSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * Adds a value to every rollup tier and to the quantile sketch.
+     *
+     * @param timestamp The timestamp of the value, in milliseconds.
+     * @param value     The value to add.
+     */
+    private void rollup(long timestamp, double value) {
+        for (RollupTier tier : tiers) {
+            tier.add(timestamp, value);
+        }
+        sketch.accept(value);
+    }
+
+    /**
+     * Aggregates a time range with the given tier and the finer ones.
+     *
+     * @param from   The start of the range, in milliseconds (inclusive).
+     * @param to     The end of the range, in milliseconds (exclusive).
+     * @param tier   The coarsest tier to use, or -1 to read the raw points.
+     * @param target The aggregate receiving the statistics.
+     */
+    private void aggregate(long from, long to, int tier, RangeAggregate target) {
+        if (from >= to) {
+            return;
+        }
+        if (tier < 0) {
+            aggregateRaw(from, to, target);
+            return;
+        }
+
+        // Find the complete buckets of this tier inside the range
+        long width = tiers[tier].getWidth();
+        long firstFull = Math.floorDiv(from, width) * width;
+        if (firstFull < from) {
+            firstFull += width;
+        }
+        long lastFull = Math.floorDiv(to, width) * width;
+        if (firstFull >= lastFull) {
+            aggregate(from, to, tier - 1, target);
+            return;
+        }
+        aggregate(from, firstFull, tier - 1, target);
+        tiers[tier].aggregate(firstFull, lastFull, target);
+        aggregate(lastFull, to, tier - 1, target);
+    }
+
+    /**
+     * Aggregates the raw points of a time range, from both runs.
+     *
+     * @param from   The start of the range, in milliseconds (inclusive).
+     * @param to     The end of the range, in milliseconds (exclusive).
+     * @param target The aggregate receiving the values.
+     */
+    private void aggregateRaw(long from, long to, RangeAggregate target) {
+        int index = lowerBound(from);
+        int end = lowerBound(to);
+        while (index < end) {
+            int chunk = index >>> ColumnBuffer.CHUNK_SHIFT;
+            int offset = index & (ColumnBuffer.CHUNK_SIZE - 1);
+            int count = Math.min(end - index, ColumnBuffer.CHUNK_SIZE - offset);
+            double[] values = sorted.getValueChunk(chunk);
+            for (int i = offset; i < offset + count; i++) {
+                target.accept(values[i]);
+            }
+            index += count;
+        }
+        for (int i = pendingLowerBound(from); i < pendingSize && pendingTimestamps[i] < to; i++) {
+            target.accept(pendingValues[i]);
+        }
+    }
+
+    /**
+     * Inserts a late point into the pending run, merging the run first if it is full.
+     *
+     * @param id        The ID of the data point.
+     * @param value     The value of the data point.
+     * @param timestamp The timestamp of the data point.
+     */
+    private void addPending(int id, double value, long timestamp) {
+        if (pendingSize == pendingTimestamps.length) {
+            mergePending();
+            if (timestamp >= sorted.getTimestamp(sorted.size() - 1)) {
+                sorted.append(id, value, timestamp);
+                return;
+            }
+        }
+
+        // Insert after the pending points with the same timestamp to keep the arrival order
+        // (a late point is older than a stored one, so adding 1 cannot overflow)
+        int position = pendingLowerBound(timestamp + 1);
+        int moved = pendingSize - position;
+        System.arraycopy(pendingIds, position, pendingIds, position + 1, moved);
+        System.arraycopy(pendingValues, position, pendingValues, position + 1, moved);
+        System.arraycopy(pendingTimestamps, position, pendingTimestamps, position + 1, moved);
+        pendingIds[position] = id;
+        pendingValues[position] = value;
+        pendingTimestamps[position] = timestamp;
+        pendingSize++;
+    }
+
+    /**
+     * Merges the pending run into the sorted run.
+     * <p>
+     * Only the tail of the sorted run that is more recent than the oldest pending point
+     * is rewritten.
+     * </p>
+     */
+    private void mergePending() {
+        if (pendingSize == 0) {
+            return;
+        }
+
+        // Detach the tail of the sorted run that overlaps the pending points
+        int start = lowerBound(pendingTimestamps[0] + 1);
+        ColumnBuffer tail = merge(start, sorted.size(), 0, pendingSize);
+        sorted.truncate(start);
+        sorted.appendAll(tail);
+        pendingSize = 0;
+    }
+
+    /**
+     * Merges a slice of the sorted run with a slice of the pending run into a new buffer.
+     *
+     * @param sortedFrom  The first position of the sorted slice (inclusive).
+     * @param sortedTo    The last position of the sorted slice (exclusive).
+     * @param pendingFrom The first position of the pending slice (inclusive).
+     * @param pendingTo   The last position of the pending slice (exclusive).
+     * @return A new {@link ColumnBuffer} holding both slices in timestamp order.
+     */
+    private ColumnBuffer merge(int sortedFrom, int sortedTo, int pendingFrom, int pendingTo) {
+        ColumnBuffer result = new ColumnBuffer();
+        int i = sortedFrom;
+        int j = pendingFrom;
+        while (i < sortedTo && j < pendingTo) {
+            if (sorted.getTimestamp(i) <= pendingTimestamps[j]) {
+                result.append(sorted.getId(i), sorted.getValue(i), sorted.getTimestamp(i));
+                i++;
+            } else {
+                result.append(pendingIds[j], pendingValues[j], pendingTimestamps[j]);
+                j++;
+            }
+        }
+        copySorted(result, i, sortedTo);
+        result.append(pendingIds, pendingValues, pendingTimestamps, j, pendingTo);
+        return result;
+    }
+
+    /**
+     * Appends a slice of the sorted run to a buffer, chunk by chunk.
+     *
+     * @param target The buffer receiving the points.
+     * @param from   The first position of the slice (inclusive).
+     * @param to     The last position of the slice (exclusive).
+     */
+    private void copySorted(ColumnBuffer target, int from, int to) {
+        while (from < to) {
+            int chunk = from >>> ColumnBuffer.CHUNK_SHIFT;
+            int offset = from & (ColumnBuffer.CHUNK_SIZE - 1);
+            int count = Math.min(to - from, ColumnBuffer.CHUNK_SIZE - offset);
+            target.append(sorted.getIdChunk(chunk), sorted.getValueChunk(chunk), sorted.getTimestampChunk(chunk),
+                    offset, offset + count);
+            from += count;
+        }
+    }
+
+    /**
+     * Finds the first position of the sorted run with a timestamp not before the given one.
+     *
+     * @param timestamp The timestamp to search, in milliseconds.
+     * @return The position found, or the size of the run if every point is older.
+     */
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.getTimestamp(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first position of the pending run with a timestamp not before the given one.
+     *
+     * @param timestamp The timestamp to search, in milliseconds.
+     * @return The position found, or the size of the run if every point is older.
+     */
+    private int pendingLowerBound(long timestamp) {
+        int low = 0;
+        int high = pendingSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pendingTimestamps[mid] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Read-only list view over the whole repository, merging the pending points on access.
+     */
+    private class SortedListView extends AbstractList<DataPoint> implements RandomAccess {
+
+        @Override
+        public DataPoint get(int index) {
+            synchronized (TimeIndexedRepository.this) {
+                mergePending();
+                return sorted.toDataPoint(index);
+            }
+        }
+
+        @Override
+        public int size() {
+            synchronized (TimeIndexedRepository.this) {
+                return sorted.size() + pendingSize;
+            }
+        }
+    }
+
+    /**
+     * Read-only list view over the result of a query.
+     */
+    private static class BufferListView extends AbstractList<DataPoint> implements RandomAccess {
+
+        private final ColumnBuffer buffer;
+
+        BufferListView(ColumnBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public DataPoint get(int index) {
+            return buffer.toDataPoint(index);
+        }
+
+        @Override
+        public int size() {
+            return buffer.size();
+        }
+    }
+}
@@ -0,0 +1,557 @@
+package es.predictapro.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import es.predictapro.controller.DataController;
+import es.predictapro.controller.ReportController;
+import es.predictapro.controller.StatisticsController;
+import es.predictapro.exception.DataNotFoundException;
+import es.predictapro.exception.ServiceException;
+import es.predictapro.exception.StorageException;
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.MetricsSnapshot;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.PredictionResult;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.DataRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PredictaServer exposes the controllers over HTTP with the JDK {@link HttpServer}.
+ * <p>
+ * Endpoints:
+ * - {@code POST /data}: saves the body, one {@code id,value,timestamp} line per data point.
+ * - {@code GET /predict[?from=&to=]}: cleans the data, optionally within a time window, and
+ *   predicts the next value, as JSON.
+ * - {@code GET /statistics}: summary statistics of the stored values, as JSON.
+ * - {@code GET /report[?latest=n]}: the tabular report of the data, or of its n latest points.
+ * - {@code GET /health}: answers {@code OK}.
+ * - {@code GET /metrics[?format=text]}: a snapshot of the hot-path {@link Metrics}, as JSON or
+ *   as a text table. Like {@code /health}, it is not subject to the concurrency limit, so it can
+ *   be scraped while the server is saturated.
+ * </p>
+ * <p>
+ * Each request runs on its own virtual thread when the JDK provides them (Java 21 and later),
+ * and on a bounded pool of platform threads otherwise, sized to the concurrency limit plus a few
+ * threads for the unlimited endpoints and the rejections. At most a configured number of
+ * requests are processed at once: any request beyond the limit is answered immediately with
+ * {@code 503 Service Unavailable} and a {@code Retry-After} header, so load spikes cost a few
+ * bytes per rejected client instead of queued work and heap. Repeated predictions and
+ * statistics are answered from the controllers' result cache until new data is saved.
+ * </p>
+ * <p>
+ * The repository is written and read by concurrent requests, so it must be thread-safe,
+ * such as a {@link es.predictapro.repository.ConcurrentRepository}. Predictions and reports
+ * read the data in timestamp order with {@link DataRepository#getRange(long, long)}, since a
+ * concurrent repository lists its points in an order that depends on the threads saving them.
+ * </p>
+ */
+public class PredictaServer implements AutoCloseable {
+
+    // Default number of requests processed at once.
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 256;
+
+    // Seconds clients are asked to wait before retrying a rejected request.
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    // Maximum number of pending connections queued by the operating system.
+    private static final int BACKLOG = 4096;
+
+    // Platform threads added to the concurrency limit for the unlimited endpoints and the rejections.
+    private static final int SPARE_THREADS = 8;
+
+    // Seconds an idle platform request thread is kept alive.
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+
+
+    // Repository holding the served data.
+    private final DataRepository repository;
+
+
+    // Controllers answering the requests.
+    private final DataController dataController;
+    private final StatisticsController statisticsController;
+    private final ReportController reportController;
+
+
+    // Permits of the requests being processed.
+    private final Semaphore permits;
+
+
+    // Maximum number of requests processed at once.
+    private final int maxConcurrentRequests;
+
+
+    // Number of requests processed and rejected.
+    private final AtomicLong servedRequests = new AtomicLong();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+
+
+    // Underlying server and its executor, set while running.
+    private HttpServer server;
+    private ExecutorService executor;
+
+
+    /**
+     * Constructor for PredictaServer.
+     *
+     * @param repository            The thread-safe repository holding the served data.
+     * @param dataController        The controller answering prediction requests.
+     * @param statisticsController  The controller answering statistics requests.
+     * @param reportController      The controller answering report requests.
+     * @param maxConcurrentRequests The maximum number of requests processed at once.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public PredictaServer(DataRepository repository, DataController dataController,
+                          StatisticsController statisticsController, ReportController reportController,
+                          int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("The server must accept at least one request at a time.");
+        }
+        this.repository = repository;
+        this.dataController = dataController;
+        this.statisticsController = statisticsController;
+        this.reportController = reportController;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    /**
+     * Starts listening on the given port.
+     *
+     * @param port The port to listen on, or 0 to pick a free one.
+     * @return The port the server listens on.
+     * @throws StorageException if the port cannot be bound.
+     * @throws IllegalStateException if the server is already running.
+     */
+    public synchronized int start(int port) {
+        if (server != null) {
+            throw new IllegalStateException("The server is already running.");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        } catch (IOException e) {
+            throw new StorageException("Cannot listen on port " + port + ".", e);
+        }
+        executor = newRequestExecutor(maxConcurrentRequests);
+        server.setExecutor(executor);
+        server.createContext("/data", limited(this::handleData));
+        server.createContext("/predict", limited(this::handlePredict));
+        server.createContext("/statistics", limited(this::handleStatistics));
+        server.createContext("/report", limited(this::handleReport));
+        server.createContext("/health", exchange -> send(exchange, 200, "text/plain", "OK"));
+        server.createContext("/metrics", this::handleMetrics);
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, waiting up to a second for the requests in progress.
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Gets the number of requests processed, whatever their status.
+     *
+     * @return The served request count.
+     */
+    public long getServedRequests() {
+        return servedRequests.get();
+    }
+
+    /**
+     * Gets the number of requests rejected because the concurrency limit was reached.
+     *
+     * @return The rejected request count.
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    /**
+     * Gets the maximum number of requests processed at once.
+     *
+     * @return The concurrency limit.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Checks whether requests run on virtual threads.
+     *
+     * @return {@code true} if the JDK provides virtual threads.
+     */
+    public static boolean supportsVirtualThreads() {
+        return virtualThreadFactory() != null;
+    }
+
+    /**
+     * Handles {@code POST /data}: parses the body into columns and saves them in one batch.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException if the connection fails.
+     */
+    private void handleData(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, "text/plain", "Use POST to save data.");
+            return;
+        }
+        ColumnBuffer batch = new ColumnBuffer();
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Expected id,value,timestamp but got: " + line);
+            }
+            batch.append(Integer.parseInt(fields[0].trim()), Double.parseDouble(fields[1].trim()),
+                    Long.parseLong(fields[2].trim()));
+        }
+        repository.saveAll(batch);
+        send(exchange, 200, "application/json", "{\"saved\": " + batch.size() + "}");
+    }
+
+    /**
+     * Handles {@code GET /predict}: predicts the next value of the whole data or of a window.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException if the connection fails.
+     */
+    private void handlePredict(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange);
+        // Without a window, the whole data is read in time order, since the regression uses
+        // the position of each point
+        long from = parseLong(query, "from", Long.MIN_VALUE);
+        long to = parseLong(query, "to", Long.MAX_VALUE);
+        PredictionResult result = dataController.handlePredictionRequest(repository, from, to);
+        send(exchange, 200, "application/json", "{\"predictedValue\": " + toJson(result.getPredictedValue())
+                + ", \"message\": \"" + escape(result.getMessage()) + "\"}");
+    }
+
+    /**
+     * Handles {@code GET /statistics}: summarizes the stored values.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException if the connection fails.
+     */
+    private void handleStatistics(HttpExchange exchange) throws IOException {
+        StatisticsSummary summary = statisticsController.handleSummaryRequest(repository);
+        send(exchange, 200, "application/json", "{\"count\": " + summary.getCount()
+                + ", \"mean\": " + toJson(summary.getMean())
+                + ", \"min\": " + toJson(summary.getMin())
+                + ", \"max\": " + toJson(summary.getMax())
+                + ", \"standardDeviation\": " + toJson(summary.getStandardDeviation()) + "}");
+    }
+
+    /**
+     * Handles {@code GET /report}: streams the report of the data or of its latest points.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException if the connection fails.
+     */
+    private void handleReport(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange);
+        if (query.containsKey("latest")) {
+            int count = parseInt(query, "latest", 0);
+            send(exchange, 200, "text/plain", reportController.generateLatestReport(repository, count));
+            return;
+        }
+        // Read the data before the status line, so a failing repository can still be answered with an error
+        List<DataPoint> dataPoints = repository.getRange(Long.MIN_VALUE, Long.MAX_VALUE);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0); // Chunked: the report is written as it is rendered
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            reportController.writeReport(dataPoints, writer);
+        }
+    }
+
+    /**
+     * Handles {@code GET /metrics}: renders a snapshot of the metrics.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException if the connection fails.
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            MetricsSnapshot snapshot = Metrics.snapshot();
+            if ("text".equals(parseQuery(exchange).get("format"))) {
+                send(exchange, 200, "text/plain", snapshot.toText());
+            } else {
+                send(exchange, 200, "application/json", snapshot.toJson());
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, "text/plain", "Invalid request: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Wraps a handler so it only runs while a permit is available, and maps its failures to
+     * error responses.
+     * <p>
+     * Steps:
+     * 1. Rejects the request with 503 if the concurrency limit is reached.
+     * 2. Runs the handler, answering 400 for invalid parameters, 404 for missing data and
+     *    500 for service failures and any other unexpected exception. A failure after the
+     *    handler started its response, such as a streamed report, can only close the exchange.
+     * 3. Releases the permit and closes the exchange.
+     * </p>
+     *
+     * @param handler The handler to wrap.
+     * @return The wrapped handler.
+     */
+    private HttpHandler limited(HttpHandler handler) {
+        return exchange -> {
+            // Step 1: Apply backpressure
+            if (!permits.tryAcquire()) {
+                rejectedRequests.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+                send(exchange, 503, "text/plain", "Server busy, retry later.");
+                return;
+            }
+
+            // Step 2: Run the handler
+            try {
+                handler.handle(exchange);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, "Invalid request: " + e.getMessage());
+            } catch (DataNotFoundException e) {
+                sendError(exchange, 404, e.getMessage());
+            } catch (ServiceException | StorageException e) {
+                sendError(exchange, 500, e.getMessage());
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, "Internal error: " + e);
+            } finally {
+                // Step 3: Release the permit
+                servedRequests.incrementAndGet();
+                permits.release();
+                exchange.close();
+            }
+        };
+    }
+
+    /**
+     * Sends a complete response.
+     *
+     * @param exchange    The request and its response.
+     * @param status      The HTTP status code.
+     * @param contentType The media type of the body.
+     * @param body        The body of the response.
+     * @throws IOException if the connection fails.
+     */
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Parses the query string of a request.
+     *
+     * @param exchange The request.
+     * @return The decoded parameters, by name.
+     */
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        try {
+            for (String parameter : query.split("&")) {
+                int separator = parameter.indexOf('=');
+                String name = separator < 0 ? parameter : parameter.substring(0, separator);
+                String value = separator < 0 ? "" : parameter.substring(separator + 1);
+                parameters.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed query: " + query);
+        }
+        return parameters;
+    }
+
+    /**
+     * Reads a numeric query parameter.
+     *
+     * @param query        The parameters of the request.
+     * @param name         The name of the parameter.
+     * @param defaultValue The value used when the parameter is absent.
+     * @return The value of the parameter.
+     * @throws IllegalArgumentException if the parameter is not a number.
+     */
+    private static long parseLong(Map<String, String> query, String name, long defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number: " + value);
+        }
+    }
+
+    /**
+     * Reads an integer query parameter.
+     *
+     * @param query        The parameters of the request.
+     * @param name         The name of the parameter.
+     * @param defaultValue The value used when the parameter is absent.
+     * @return The value of the parameter.
+     * @throws IllegalArgumentException if the parameter is not an integer or does not fit in an int.
+     */
+    private static int parseInt(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be an integer between "
+                    + Integer.MIN_VALUE + " and " + Integer.MAX_VALUE + ": " + value);
+        }
+    }
+
+    /**
+     * Formats a number as JSON, where non-finite values become {@code null}.
+     *
+     * @param value The number to format.
+     * @return The JSON representation of the number.
+     */
+    private static String toJson(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value);
+    }
+
+    /**
+     * Escapes a string for a JSON string literal.
+     *
+     * @param text The text to escape.
+     * @return The escaped text.
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Answers a failure of a handler, unless the handler already started its response.
+     *
+     * @param exchange The exchange being answered.
+     * @param status   The HTTP status code of the failure.
+     * @param message  The body of the response.
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            // The status line is already sent: closing the exchange is all that is left
+            return;
+        }
+        try {
+            send(exchange, status, "text/plain", message);
+        } catch (IOException e) {
+            // The client is gone, the exchange is closed by the caller
+        }
+    }
+
+    /**
+     * Creates the executor running the requests: one virtual thread per request when available,
+     * or a bounded pool of daemon platform threads.
+     * <p>
+     * The pool holds at most {@code maxConcurrentRequests + SPARE_THREADS} threads, which time
+     * out when idle. Exchanges arriving while all of them are busy wait in a queue as long as
+     * the connection backlog; beyond that, the executor rejects them and the JDK server closes
+     * their connection.
+     * </p>
+     *
+     * @param maxConcurrentRequests The maximum number of requests processed at once.
+     * @return The request executor.
+     */
+    private static ExecutorService newRequestExecutor(int maxConcurrentRequests) {
+        Method factory = virtualThreadFactory();
+        if (factory != null) {
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall back to platform threads
+            }
+        }
+        int threads = maxConcurrentRequests + SPARE_THREADS;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(BACKLOG), runnable -> {
+                    Thread thread = new Thread(runnable, "predictapro-request");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Looks up the virtual-thread executor factory, which only exists from Java 21.
+     *
+     * @return The factory method, or {@code null} if the JDK has no virtual threads.
+     */
+    private static Method virtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
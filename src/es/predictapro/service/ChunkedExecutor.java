@@ -0,0 +1,184 @@
+package es.predictapro.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ChunkedExecutor runs mergeable aggregations over index ranges, optionally in parallel.
+ * <p>
+ * The input range is split into chunks of a fixed size, a partial aggregate is computed
+ * for each chunk and the partials are merged pairwise. The split points and the merge
+ * order only depend on the input size and the chunk size, never on the number of threads
+ * or on scheduling, so the parallel result is identical from run to run.
+ * </p>
+ * <p>
+ * Compared with a single sequential loop, counts, minimums and maximums are exact, while
+ * sums and moments are reassociated per chunk and may differ in the last bits. On
+ * well-conditioned data the relative difference stays below {@link #RELATIVE_TOLERANCE}.
+ * </p>
+ */
+public class ChunkedExecutor {
+
+    // Default number of elements processed by each chunk.
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    // Documented relative tolerance between chunked and single-loop floating-point results.
+    public static final double RELATIVE_TOLERANCE = 1e-12;
+
+    // Shared sequential executor.
+    private static final ChunkedExecutor SEQUENTIAL = new ChunkedExecutor(null, DEFAULT_CHUNK_SIZE);
+
+
+    // Pool running the chunks, or null to stay on the calling thread.
+    private final ForkJoinPool pool;
+
+
+    // Number of elements processed by each chunk.
+    private final int chunkSize;
+
+
+    /**
+     * Constructor for ChunkedExecutor.
+     *
+     * @param pool      The pool running the chunks, or {@code null} for sequential execution.
+     * @param chunkSize The number of elements processed by each chunk.
+     */
+    public ChunkedExecutor(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns an executor that never splits the work.
+     *
+     * @return The shared sequential executor.
+     */
+    public static ChunkedExecutor sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Checks whether an input of the given size would be split across the pool.
+     * <p>
+     * Services use the plain sequential code path whenever this returns {@code false}.
+     * </p>
+     *
+     * @param size The number of elements in the input.
+     * @return {@code true} if the input is processed in parallel chunks.
+     */
+    public boolean isParallel(int size) {
+        return pool != null && size > chunkSize;
+    }
+
+    /**
+     * Gets the number of elements processed by each chunk.
+     *
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Aggregates the range [0, size) using the configured chunk size.
+     *
+     * @param size        The number of elements in the input.
+     * @param aggregation The aggregation computing and merging partial results.
+     * @param <A>         The type of the partial aggregates.
+     * @return The aggregate of the whole range.
+     */
+    public <A> A aggregate(int size, Aggregation<A> aggregation) {
+        return aggregate(size, chunkSize, aggregation);
+    }
+
+    /**
+     * Aggregates the range [0, size) using the given grain as chunk size.
+     *
+     * @param size        The number of elements in the input.
+     * @param grain       The number of elements processed by each chunk.
+     * @param aggregation The aggregation computing and merging partial results.
+     * @param <A>         The type of the partial aggregates.
+     * @return The aggregate of the whole range.
+     */
+    public <A> A aggregate(int size, int grain, Aggregation<A> aggregation) {
+        AggregationTask<A> task = new AggregationTask<>(aggregation, 0, size, Math.max(1, grain), pool != null);
+        return pool == null ? task.compute() : pool.invoke(task);
+    }
+
+    /**
+     * Aggregation computes a partial result over a range of elements and merges two partial results.
+     *
+     * @param <A> The type of the partial aggregates.
+     */
+    public interface Aggregation<A> {
+
+        /**
+         * Computes the partial aggregate of the range [from, to).
+         *
+         * @param from The first index of the range (inclusive).
+         * @param to   The last index of the range (exclusive).
+         * @return The partial aggregate of the range.
+         */
+        A compute(int from, int to);
+
+        /**
+         * Merges two partial aggregates of adjacent ranges.
+         *
+         * @param left  The aggregate of the left range.
+         * @param right The aggregate of the right range.
+         * @return The aggregate of both ranges.
+         */
+        A merge(A left, A right);
+    }
+
+    /**
+     * Recursive task splitting a range at chunk boundaries until it fits in one chunk.
+     *
+     * @param <A> The type of the partial aggregates.
+     */
+    private static class AggregationTask<A> extends RecursiveTask<A> {
+
+        private final Aggregation<A> aggregation;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final boolean parallel;
+
+        AggregationTask(Aggregation<A> aggregation, int from, int to, int grain, boolean parallel) {
+            this.aggregation = aggregation;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected A compute() {
+            int length = to - from;
+            if (length <= grain) {
+                return aggregation.compute(from, to);
+            }
+
+            // Split at a chunk boundary so the tree only depends on size and grain
+            int chunks = (int) ((length + (long) grain - 1) / grain);
+            int middle = from + (int) Math.min(length, (long) ((chunks + 1) / 2) * grain);
+            AggregationTask<A> left = new AggregationTask<>(aggregation, from, middle, grain, parallel);
+            AggregationTask<A> right = new AggregationTask<>(aggregation, middle, to, grain, parallel);
+
+            A leftResult;
+            A rightResult;
+            if (parallel) {
+                right.fork();
+                leftResult = left.compute();
+                rightResult = right.join();
+            } else {
+                leftResult = left.compute();
+                rightResult = right.compute();
+            }
+            return aggregation.merge(leftResult, rightResult);
+        }
+    }
+}
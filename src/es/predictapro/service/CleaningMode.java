@@ -0,0 +1,30 @@
+package es.predictapro.service;
+
+/**
+ * CleaningMode selects the rule {@link DataCleaningService} uses to define outliers.
+ * <p>
+ * The standard deviation rule is the cheapest, but a single extreme value inflates the
+ * deviation enough to hide itself and the other outliers. The median and quartile rules
+ * are robust to up to half and a quarter of the values being outliers, respectively, and
+ * estimate their quantiles with a {@link es.predictapro.model.QuantileSketch}.
+ * </p>
+ */
+public enum CleaningMode {
+
+    /**
+     * Keeps the values within 2 standard deviations of the mean.
+     */
+    STANDARD_DEVIATION,
+
+    /**
+     * Keeps the values within 3 scaled median absolute deviations of the median. The MAD is
+     * scaled by 1.4826, which makes it estimate the standard deviation of normal data.
+     */
+    MEDIAN_ABSOLUTE_DEVIATION,
+
+    /**
+     * Keeps the values within Tukey's fences: 1.5 interquartile ranges below the first
+     * quartile and above the third quartile.
+     */
+    INTERQUARTILE_RANGE
+}
@@ -1,9 +1,17 @@
 package es.predictapro.service;
 
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
 import es.predictapro.model.DataPoint;
+import es.predictapro.model.QuantileSketch;
+import es.predictapro.model.StatisticsSummary;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * DataCleaningService provides methods to clean raw datasets.
@@ -12,16 +20,75 @@ import java.util.List;
  * techniques such as mean and standard deviation. Data points outside of
  * a specified range are excluded.
  * </p>
+ * <p>
+ * The rule is selected per call with a {@link CleaningMode}. The default rule uses the
+ * mean and standard deviation, which a single extreme value can distort; the robust
+ * rules use the median and MAD or the quartiles instead, estimated in bounded memory by
+ * mergeable {@link QuantileSketch} instances, one per chunk in parallel mode. Their bounds
+ * are exact while the input holds fewer than {@link QuantileSketch#DEFAULT_K} points, and
+ * otherwise within the rank error of the sketch. When more than half of the values are
+ * equal, the MAD is 0 and only the values equal to the median are kept.
+ * </p>
+ * <p>
+ * The mean and standard deviation are computed in a single pass with a
+ * {@link StatisticsSummary}, followed by one filtering pass. Callers that only need
+ * to know which points survive can use {@code findInliers}, which returns a compact
+ * bitmap of their positions instead of copying them. For unbounded feeds, see
+ * {@link StreamingOutlierFilter}.
+ * </p>
+ * <p>
+ * When created with a parallel {@link ChunkedExecutor}, large inputs are processed in
+ * chunks: the statistics are merged from per-chunk summaries and each chunk is filtered
+ * independently, keeping the original order of the points.
+ * </p>
+ * <p>
+ * Each call is measured by {@link Metrics}, which also counts the points removed under
+ * {@link #FILTERED_POINTS}.
+ * </p>
  */
 public class DataCleaningService {
 
+    // Name of the metrics counter of the data points removed as outliers.
+    public static final String FILTERED_POINTS = "cleaning.filteredPoints";
+
+    // Number of scaled median absolute deviations kept on each side of the median.
+    private static final double MAD_THRESHOLD = 3.0;
+
+    // Scale making the median absolute deviation estimate the standard deviation of normal data.
+    private static final double MAD_SCALE = 1.4826;
+
+    // Number of interquartile ranges kept below the first and above the third quartile.
+    private static final double IQR_THRESHOLD = 1.5;
+
+    // Executor used to split large inputs into chunks.
+    private final ChunkedExecutor executor;
+
+    // Service computing the single-pass summaries used to define the bounds.
+    private final DataStatisticsService statisticsService;
+
+    /**
+     * Constructor for DataCleaningService using sequential execution.
+     */
+    public DataCleaningService() {
+        this(ChunkedExecutor.sequential());
+    }
+
+    /**
+     * Constructor for DataCleaningService.
+     *
+     * @param executor The executor used to split large inputs into chunks.
+     */
+    public DataCleaningService(ChunkedExecutor executor) {
+        this.executor = executor;
+        this.statisticsService = new DataStatisticsService(executor);
+    }
+
     /**
      * Cleans the input data by removing outliers.
      * <p>
      * Steps:
-     * 1. Calculates the mean (average) of the data values.
-     * 2. Calculates the standard deviation to measure the spread of the data.
-     * 3. Removes data points that fall outside the range defined by
+     * 1. Calculates the mean (average) and the standard deviation of the data values in one pass.
+     * 2. Removes data points that fall outside the range defined by
      *    [mean - 2 * stdDev, mean + 2 * stdDev].
      * </p>
      *
@@ -30,38 +97,394 @@ public class DataCleaningService {
      *         Returns an empty list if the input is null or empty.
      */
     public List<DataPoint> cleanData(List<DataPoint> data) {
-        // Handle null or empty input
-        if (data == null || data.isEmpty()) {
-            return new ArrayList<>(); // Returns an empty list if no data is provided
+        return cleanData(data, CleaningMode.STANDARD_DEVIATION);
+    }
+
+    /**
+     * Cleans the input data by removing the outliers defined by the given rule.
+     * <p>
+     * Steps:
+     * 1. Computes the bounds of the rule: the mean and standard deviation in one pass, or
+     *    the quantiles of one or two passes of a {@link QuantileSketch}.
+     * 2. Removes data points that fall outside the bounds.
+     * </p>
+     *
+     * @param data A list of {@link DataPoint} objects to clean.
+     * @param mode The rule defining the outliers.
+     * @return A list of cleaned {@link DataPoint} objects within the defined range.
+     *         Returns an empty list if the input is null or empty.
+     */
+    public List<DataPoint> cleanData(List<DataPoint> data, CleaningMode mode) {
+        Probe probe = Metrics.start("cleaning.cleanData", data == null ? 0 : data.size());
+        try {
+            // Handle null or empty input
+            if (data == null || data.isEmpty()) {
+                return new ArrayList<>(); // Returns an empty list if no data is provided
+            }
+
+            // Step 1: Define bounds using the rule of the mode
+            double[] bounds = computeBounds(data, mode);
+            double lowerBound = bounds[0];
+            double upperBound = bounds[1];
+
+            // Step 2: Filter each chunk and concatenate the results in order
+            List<DataPoint> cleaned = executor.aggregate(data.size(), chunkSize(data.size()), new ChunkedExecutor.Aggregation<List<DataPoint>>() {
+                @Override
+                public List<DataPoint> compute(int from, int to) {
+                    List<DataPoint> cleanedData = new ArrayList<>();
+                    for (DataPoint point : data.subList(from, to)) {
+                        if (point.getValue() >= lowerBound && point.getValue() <= upperBound) {
+                            cleanedData.add(point);
+                        }
+                    }
+                    return cleanedData;
+                }
+
+                @Override
+                public List<DataPoint> merge(List<DataPoint> left, List<DataPoint> right) {
+                    left.addAll(right);
+                    return left;
+                }
+            });
+            Metrics.count(FILTERED_POINTS, data.size() - cleaned.size());
+            return cleaned;
+        } finally {
+            probe.stop();
         }
+    }
 
-        // Step 1: Calculate the mean (average)
-        double sum = 0.0;
-        for (DataPoint point : data) {
-            sum += point.getValue();
+    /**
+     * Cleans data stored in primitive columns by removing outliers.
+     * <p>
+     * Applies the same rule as {@link #cleanData(List)}, reading the values directly
+     * from the columns and copying the surviving points into a new {@link ColumnBuffer}
+     * without creating any {@link DataPoint} objects.
+     * </p>
+     *
+     * @param columns The columns holding the data to clean.
+     * @return A {@link ColumnBuffer} with the points within the defined range.
+     *         Returns an empty buffer if the input is null or empty.
+     */
+    public ColumnBuffer cleanData(DataColumns columns) {
+        return cleanData(columns, CleaningMode.STANDARD_DEVIATION);
+    }
+
+    /**
+     * Cleans data stored in primitive columns by removing the outliers defined by the given rule.
+     *
+     * @param columns The columns holding the data to clean.
+     * @param mode    The rule defining the outliers.
+     * @return A {@link ColumnBuffer} with the points within the defined range.
+     *         Returns an empty buffer if the input is null or empty.
+     */
+    public ColumnBuffer cleanData(DataColumns columns, CleaningMode mode) {
+        Probe probe = Metrics.start("cleaning.cleanData", columns == null ? 0 : columns.size());
+        try {
+            // Handle null or empty input
+            if (columns == null || columns.size() == 0) {
+                return new ColumnBuffer();
+            }
+
+            // Step 1: Define bounds using the rule of the mode
+            double[] bounds = computeBounds(columns, mode);
+            double lowerBound = bounds[0];
+            double upperBound = bounds[1];
+
+            // Step 2: Filter each group of chunks and concatenate the results in order
+            int grain = executor.isParallel(columns.size())
+                    ? Math.max(1, executor.getChunkSize() / ColumnBuffer.CHUNK_SIZE)
+                    : columns.getChunkCount();
+            ColumnBuffer cleaned = executor.aggregate(columns.getChunkCount(), grain, new ChunkedExecutor.Aggregation<ColumnBuffer>() {
+                @Override
+                public ColumnBuffer compute(int fromChunk, int toChunk) {
+                    ColumnBuffer cleanedData = new ColumnBuffer();
+                    for (int c = fromChunk; c < toChunk; c++) {
+                        int[] ids = columns.getIdChunk(c);
+                        double[] values = columns.getValueChunk(c);
+                        long[] timestamps = columns.getTimestampChunk(c);
+                        int length = columns.getChunkLength(c);
+                        for (int i = 0; i < length; i++) {
+                            if (values[i] >= lowerBound && values[i] <= upperBound) {
+                                cleanedData.append(ids[i], values[i], timestamps[i]);
+                            }
+                        }
+                    }
+                    return cleanedData;
+                }
+
+                @Override
+                public ColumnBuffer merge(ColumnBuffer left, ColumnBuffer right) {
+                    left.appendAll(right);
+                    return left;
+                }
+            });
+            Metrics.count(FILTERED_POINTS, columns.size() - cleaned.size());
+            return cleaned;
+        } finally {
+            probe.stop();
         }
-        double mean = sum / data.size();
+    }
+
+    /**
+     * Finds the positions of the data points that survive cleaning.
+     * <p>
+     * Applies the same rule as {@link #cleanData(List)}, but instead of copying the
+     * surviving points into a new list, sets the bit of each surviving position.
+     * </p>
+     *
+     * @param data A list of {@link DataPoint} objects to clean.
+     * @return A {@link BitSet} where bit {@code i} is set if {@code data.get(i)} is kept.
+     *         Returns an empty bitmap if the input is null or empty.
+     */
+    public BitSet findInliers(List<DataPoint> data) {
+        return findInliers(data, CleaningMode.STANDARD_DEVIATION);
+    }
 
-        // Step 2: Calculate the standard deviation
-        double varianceSum = 0.0;
-        for (DataPoint point : data) {
-            varianceSum += Math.pow(point.getValue() - mean, 2);
+    /**
+     * Finds the positions of the data points that survive cleaning with the given rule.
+     *
+     * @param data A list of {@link DataPoint} objects to clean.
+     * @param mode The rule defining the outliers.
+     * @return A {@link BitSet} where bit {@code i} is set if {@code data.get(i)} is kept.
+     *         Returns an empty bitmap if the input is null or empty.
+     */
+    public BitSet findInliers(List<DataPoint> data, CleaningMode mode) {
+        Probe probe = Metrics.start("cleaning.findInliers", data == null ? 0 : data.size());
+        try {
+            // Handle null or empty input
+            if (data == null || data.isEmpty()) {
+                return new BitSet();
+            }
+
+            // Step 1: Define bounds using the rule of the mode
+            double[] bounds = computeBounds(data, mode);
+            double lowerBound = bounds[0];
+            double upperBound = bounds[1];
+
+            // Step 2: Set the bits of the surviving points; chunks cover whole words so they never overlap
+            long[] words = new long[(data.size() + 63) >>> 6];
+            int grain = (chunkSize(data.size()) + 63) & ~63;
+            executor.aggregate(data.size(), grain, new ChunkedExecutor.Aggregation<Void>() {
+                @Override
+                public Void compute(int from, int to) {
+                    for (int i = from; i < to; i++) {
+                        double value = data.get(i).getValue();
+                        if (value >= lowerBound && value <= upperBound) {
+                            words[i >>> 6] |= 1L << i;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public Void merge(Void left, Void right) {
+                    return null;
+                }
+            });
+            BitSet inliers = BitSet.valueOf(words);
+            Metrics.count(FILTERED_POINTS, data.size() - inliers.cardinality());
+            return inliers;
+        } finally {
+            probe.stop();
         }
-        double stdDev = Math.sqrt(varianceSum / data.size());
+    }
 
-        // Step 3: Define bounds using mean and standard deviation
-        double lowerBound = mean - 2 * stdDev;
-        double upperBound = mean + 2 * stdDev;
+    /**
+     * Finds the positions of the data points stored in primitive columns that survive cleaning.
+     *
+     * @param columns The columns holding the data to clean.
+     * @return A {@link BitSet} where bit {@code i} is set if the point at position {@code i} is kept.
+     *         Returns an empty bitmap if the input is null or empty.
+     */
+    public BitSet findInliers(DataColumns columns) {
+        return findInliers(columns, CleaningMode.STANDARD_DEVIATION);
+    }
 
-        // Step 4: Filter the data to include only points within the bounds
-        List<DataPoint> cleanedData = new ArrayList<>();
-        for (DataPoint point : data) {
-            if (point.getValue() >= lowerBound && point.getValue() <= upperBound) {
-                cleanedData.add(point);
+    /**
+     * Finds the positions of the data points stored in primitive columns that survive
+     * cleaning with the given rule.
+     *
+     * @param columns The columns holding the data to clean.
+     * @param mode    The rule defining the outliers.
+     * @return A {@link BitSet} where bit {@code i} is set if the point at position {@code i} is kept.
+     *         Returns an empty bitmap if the input is null or empty.
+     */
+    public BitSet findInliers(DataColumns columns, CleaningMode mode) {
+        Probe probe = Metrics.start("cleaning.findInliers", columns == null ? 0 : columns.size());
+        try {
+            BitSet inliers = new BitSet(columns == null ? 0 : columns.size());
+
+            // Handle null or empty input
+            if (columns == null || columns.size() == 0) {
+                return inliers;
             }
+
+            // Step 1: Define bounds using the rule of the mode
+            double[] bounds = computeBounds(columns, mode);
+            double lowerBound = bounds[0];
+            double upperBound = bounds[1];
+
+            // Step 2: Set the bits of the surviving points
+            int position = 0;
+            for (int c = 0; c < columns.getChunkCount(); c++) {
+                double[] values = columns.getValueChunk(c);
+                int length = columns.getChunkLength(c);
+                for (int i = 0; i < length; i++, position++) {
+                    if (values[i] >= lowerBound && values[i] <= upperBound) {
+                        inliers.set(position);
+                    }
+                }
+            }
+            Metrics.count(FILTERED_POINTS, columns.size() - inliers.cardinality());
+            return inliers;
+        } finally {
+            probe.stop();
         }
+    }
 
-        // Return the cleaned dataset
-        return cleanedData;
+    /**
+     * Computes the bounds of a dataset under the rule of a cleaning mode.
+     *
+     * @param data The list of data points.
+     * @param mode The rule defining the outliers.
+     * @return The lower and upper bounds, in this order.
+     */
+    private double[] computeBounds(List<DataPoint> data, CleaningMode mode) {
+        switch (mode) {
+            case MEDIAN_ABSOLUTE_DEVIATION:
+                double median = sketch(data, value -> value).getQuantile(0.5);
+                return computeMadBounds(median, sketch(data, value -> Math.abs(value - median)));
+            case INTERQUARTILE_RANGE:
+                return computeIqrBounds(sketch(data, value -> value));
+            default:
+                return computeBounds(statisticsService.summarize(data));
+        }
+    }
+
+    /**
+     * Computes the bounds of a dataset stored in primitive columns under the rule of a cleaning mode.
+     *
+     * @param columns The columns holding the data.
+     * @param mode    The rule defining the outliers.
+     * @return The lower and upper bounds, in this order.
+     */
+    private double[] computeBounds(DataColumns columns, CleaningMode mode) {
+        switch (mode) {
+            case MEDIAN_ABSOLUTE_DEVIATION:
+                double median = sketch(columns, value -> value).getQuantile(0.5);
+                return computeMadBounds(median, sketch(columns, value -> Math.abs(value - median)));
+            case INTERQUARTILE_RANGE:
+                return computeIqrBounds(sketch(columns, value -> value));
+            default:
+                return computeBounds(statisticsService.summarize(columns));
+        }
+    }
+
+    /**
+     * Computes the bounds [median - 3 * 1.4826 * MAD, median + 3 * 1.4826 * MAD] of a dataset.
+     *
+     * @param median     The median of the values.
+     * @param deviations The sketch of the absolute deviations of the values from the median.
+     * @return The lower and upper bounds, in this order.
+     */
+    private static double[] computeMadBounds(double median, QuantileSketch deviations) {
+        double spread = MAD_THRESHOLD * MAD_SCALE * deviations.getQuantile(0.5);
+        return new double[] {median - spread, median + spread};
+    }
+
+    /**
+     * Computes Tukey's fences [Q1 - 1.5 * IQR, Q3 + 1.5 * IQR] of a dataset.
+     *
+     * @param sketch The sketch of the values.
+     * @return The lower and upper bounds, in this order.
+     */
+    private static double[] computeIqrBounds(QuantileSketch sketch) {
+        double firstQuartile = sketch.getQuantile(0.25);
+        double thirdQuartile = sketch.getQuantile(0.75);
+        double spread = IQR_THRESHOLD * (thirdQuartile - firstQuartile);
+        return new double[] {firstQuartile - spread, thirdQuartile + spread};
+    }
+
+    /**
+     * Builds the quantile sketch of a function of the values of the given data points,
+     * merged from per-chunk sketches in parallel mode.
+     *
+     * @param data     The list of data points.
+     * @param function The function applied to each value before it is sketched.
+     * @return The {@link QuantileSketch} of the transformed values.
+     */
+    private QuantileSketch sketch(List<DataPoint> data, DoubleUnaryOperator function) {
+        return executor.aggregate(data.size(), chunkSize(data.size()), new SketchAggregation() {
+            @Override
+            public QuantileSketch compute(int from, int to) {
+                QuantileSketch sketch = new QuantileSketch();
+                for (int i = from; i < to; i++) {
+                    sketch.accept(function.applyAsDouble(data.get(i).getValue()));
+                }
+                return sketch;
+            }
+        });
+    }
+
+    /**
+     * Builds the quantile sketch of a function of the values stored in the given columns,
+     * merged from per-chunk sketches in parallel mode.
+     *
+     * @param columns  The columns holding the data.
+     * @param function The function applied to each value before it is sketched.
+     * @return The {@link QuantileSketch} of the transformed values.
+     */
+    private QuantileSketch sketch(DataColumns columns, DoubleUnaryOperator function) {
+        int grain = executor.isParallel(columns.size())
+                ? Math.max(1, executor.getChunkSize() / ColumnBuffer.CHUNK_SIZE)
+                : columns.getChunkCount();
+        return executor.aggregate(columns.getChunkCount(), grain, new SketchAggregation() {
+            @Override
+            public QuantileSketch compute(int fromChunk, int toChunk) {
+                QuantileSketch sketch = new QuantileSketch();
+                for (int c = fromChunk; c < toChunk; c++) {
+                    double[] values = columns.getValueChunk(c);
+                    int length = columns.getChunkLength(c);
+                    for (int i = 0; i < length; i++) {
+                        sketch.accept(function.applyAsDouble(values[i]));
+                    }
+                }
+                return sketch;
+            }
+        });
+    }
+
+    /**
+     * Computes the bounds [mean - 2 * stdDev, mean + 2 * stdDev] of a dataset.
+     *
+     * @param summary The single-pass summary of the dataset.
+     * @return The lower and upper bounds, in this order.
+     */
+    private static double[] computeBounds(StatisticsSummary summary) {
+        double mean = summary.getMean();
+        double stdDev = summary.getStandardDeviation();
+        return new double[] {mean - 2 * stdDev, mean + 2 * stdDev};
+    }
+
+    /**
+     * Computes the chunk size used to filter an input of the given size.
+     *
+     * @param size The number of data points in the input.
+     * @return The configured chunk size in parallel mode, or the whole input otherwise.
+     */
+    private int chunkSize(int size) {
+        return executor.isParallel(size) ? executor.getChunkSize() : size;
+    }
+
+    /**
+     * Aggregation of per-chunk quantile sketches, merged into the left one.
+     */
+    private abstract static class SketchAggregation implements ChunkedExecutor.Aggregation<QuantileSketch> {
+
+        @Override
+        public QuantileSketch merge(QuantileSketch left, QuantileSketch right) {
+            left.merge(right);
+            return left;
+        }
     }
 }
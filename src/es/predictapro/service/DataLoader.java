@@ -0,0 +1,726 @@
+package es.predictapro.service;
+
+import es.predictapro.exception.StorageException;
+import es.predictapro.exception.ValidationException;
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
+import es.predictapro.repository.DataRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * DataLoader bulk-loads data points from files into a {@link DataRepository}.
+ * <p>
+ * Two formats are supported:
+ * - CSV, one {@code id,value,timestamp} record per line, with an optional header line.
+ *   Lines may end with {@code \n} or {@code \r\n}, and blank lines are ignored.
+ * - Binary, a sequence of fixed-width big-endian records (int ID, double value, long
+ *   timestamp), the record layout of {@link es.predictapro.repository.MappedFileRepository}.
+ *   {@link #writeBinary(DataColumns, Path)} writes this format.
+ * </p>
+ * <p>
+ * Files are read through a {@link FileChannel} with positional reads into direct buffers,
+ * and parsed straight into {@link ColumnBuffer} columns without creating a {@code String}
+ * or a {@link es.predictapro.model.DataPoint} per field. Numbers are parsed by hand; a value
+ * the fast path cannot convert exactly, such as one with more than 15 significant digits,
+ * falls back to {@link Double#parseDouble(String)}, so every value is correctly rounded.
+ * </p>
+ * <p>
+ * The file is split into segments of a fixed number of bytes, parsed as independent tasks
+ * of the {@link ChunkedExecutor}. A CSV record belongs to the segment holding its first
+ * byte: each segment skips the partial line it starts in and reads past its end to finish
+ * its last line. Segments are loaded in batches, and each batch is saved in file order
+ * with {@link DataRepository#saveAll(DataColumns)}, so the memory used does not depend on
+ * the size of the file.
+ * </p>
+ * <p>
+ * Malformed records raise a {@link ValidationException} giving their byte offset, and I/O
+ * errors a {@link StorageException}. Batches saved before the error stay in the repository.
+ * </p>
+ */
+public class DataLoader {
+
+    // Size in bytes of a binary record: int ID, double value, long timestamp.
+    public static final int RECORD_SIZE = Integer.BYTES + Double.BYTES + Long.BYTES;
+
+    // Default number of bytes parsed by each task.
+    public static final int DEFAULT_SEGMENT_SIZE = 8 << 20;
+
+    // Number of segments parsed before their points are saved.
+    private static final int BATCH_SEGMENTS = 16;
+
+    // Size of the direct buffer each thread reads into, and maximum length of a CSV line.
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    // Largest number of significant digits converted exactly by the fast path.
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    // Powers of ten represented exactly as doubles.
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+
+    // Executor running the segment tasks.
+    private final ChunkedExecutor executor;
+
+
+    // Number of bytes parsed by each task.
+    private final int segmentSize;
+
+
+    // Read buffer of each thread, reused across segments and loads.
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(READ_BUFFER_SIZE));
+
+
+    /**
+     * Constructor for a DataLoader parsing on the calling thread.
+     */
+    public DataLoader() {
+        this(ChunkedExecutor.sequential());
+    }
+
+    /**
+     * Constructor for a DataLoader parsing segments in parallel with the given executor.
+     *
+     * @param executor The executor running the segment tasks.
+     */
+    public DataLoader(ChunkedExecutor executor) {
+        this(executor, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor for a DataLoader with a custom segment size.
+     *
+     * @param executor    The executor running the segment tasks.
+     * @param segmentSize The number of bytes parsed by each task.
+     * @throws IllegalArgumentException if the segment size is not positive.
+     */
+    public DataLoader(ChunkedExecutor executor, int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.executor = executor;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Loads a file into a repository, as CSV if its name ends with {@code .csv} and as
+     * binary records otherwise.
+     *
+     * @param file       The file to load.
+     * @param repository The repository receiving the data points.
+     * @return The number of data points loaded.
+     * @throws ValidationException if a record is malformed.
+     * @throws StorageException    if the file cannot be read.
+     */
+    public long load(Path file, DataRepository repository) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? loadCsv(file, repository)
+                : loadBinary(file, repository);
+    }
+
+    /**
+     * Loads a CSV file of {@code id,value,timestamp} records into a repository.
+     * <p>
+     * Steps:
+     * 1. Splits the file into batches of segments.
+     * 2. Parses the segments of each batch in parallel, aligned on line boundaries.
+     * 3. Saves the points of each batch in file order.
+     * </p>
+     *
+     * @param file       The CSV file to load.
+     * @param repository The repository receiving the data points.
+     * @return The number of data points loaded.
+     * @throws ValidationException if a record is malformed or a line is longer than 1 MiB.
+     * @throws StorageException    if the file cannot be read.
+     */
+    public long loadCsv(Path file, DataRepository repository) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            Probe probe = Metrics.start("loader.loadCsv", fileSize);
+            try {
+                return loadSegments(fileSize, segmentSize, repository, new SegmentParser() {
+                    @Override
+                    public void parse(long start, long end, ByteBuffer buffer, ColumnBuffer columns) throws IOException {
+                        parseCsvSegment(channel, fileSize, start, end, buffer, columns);
+                    }
+                });
+            } finally {
+                probe.stop();
+            }
+        } catch (IOException e) {
+            throw new StorageException("Unable to read " + file + ".", e);
+        }
+    }
+
+    /**
+     * Loads a file of binary records into a repository.
+     *
+     * @param file       The binary file to load.
+     * @param repository The repository receiving the data points.
+     * @return The number of data points loaded.
+     * @throws ValidationException if the file size is not a multiple of {@link #RECORD_SIZE}.
+     * @throws StorageException    if the file cannot be read.
+     */
+    public long loadBinary(Path file, DataRepository repository) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize % RECORD_SIZE != 0) {
+                throw new ValidationException("The size of " + file + " (" + fileSize
+                        + " bytes) is not a multiple of the record size (" + RECORD_SIZE + " bytes).");
+            }
+            Probe probe = Metrics.start("loader.loadBinary", fileSize);
+            try {
+                // Segments and reads hold whole records
+                int segmentBytes = Math.max(1, segmentSize / RECORD_SIZE) * RECORD_SIZE;
+                return loadSegments(fileSize, segmentBytes, repository, new SegmentParser() {
+                    @Override
+                    public void parse(long start, long end, ByteBuffer buffer, ColumnBuffer columns) throws IOException {
+                        parseBinarySegment(channel, start, end, buffer, columns);
+                    }
+                });
+            } finally {
+                probe.stop();
+            }
+        } catch (IOException e) {
+            throw new StorageException("Unable to read " + file + ".", e);
+        }
+    }
+
+    /**
+     * Writes data points to a file of binary records, replacing its content.
+     *
+     * @param columns The columns holding the data points.
+     * @param file    The file to write.
+     * @throws StorageException if the file cannot be written.
+     */
+    public static void writeBinary(DataColumns columns, Path file) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE / RECORD_SIZE * RECORD_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int c = 0; c < columns.getChunkCount(); c++) {
+                int[] ids = columns.getIdChunk(c);
+                double[] values = columns.getValueChunk(c);
+                long[] timestamps = columns.getTimestampChunk(c);
+                int length = columns.getChunkLength(c);
+                for (int i = 0; i < length; i++) {
+                    if (buffer.remaining() < RECORD_SIZE) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putInt(ids[i]).putDouble(values[i]).putLong(timestamps[i]);
+                }
+            }
+            drain(channel, buffer);
+        } catch (IOException e) {
+            throw new StorageException("Unable to write " + file + ".", e);
+        }
+    }
+
+    /**
+     * Parses a file in batches of segments and saves each batch.
+     *
+     * @param fileSize     The size of the file, in bytes.
+     * @param segmentBytes The number of bytes parsed by each task.
+     * @param repository   The repository receiving the data points.
+     * @param parser       The parser of one segment.
+     * @return The number of data points loaded.
+     */
+    private long loadSegments(long fileSize, int segmentBytes, DataRepository repository, SegmentParser parser) {
+        long loaded = 0;
+        long batchBytes = (long) segmentBytes * BATCH_SEGMENTS;
+        for (long batchStart = 0; batchStart < fileSize; batchStart += batchBytes) {
+            long batchOffset = batchStart;
+            long batchEnd = Math.min(fileSize, batchStart + batchBytes);
+            int segments = (int) ((batchEnd - batchStart + segmentBytes - 1) / segmentBytes);
+
+            // Parse the segments of the batch, keeping their parts in file order
+            List<ColumnBuffer> parts = executor.aggregate(segments, 1, new ChunkedExecutor.Aggregation<List<ColumnBuffer>>() {
+                @Override
+                public List<ColumnBuffer> compute(int from, int to) {
+                    ByteBuffer buffer = buffers.get();
+                    ColumnBuffer columns = new ColumnBuffer();
+                    try {
+                        for (int s = from; s < to; s++) {
+                            long start = batchOffset + (long) s * segmentBytes;
+                            parser.parse(start, Math.min(batchEnd, start + segmentBytes), buffer, columns);
+                        }
+                    } catch (IOException e) {
+                        throw new StorageException("Unable to read the file to load.", e);
+                    }
+                    List<ColumnBuffer> part = new ArrayList<>();
+                    part.add(columns);
+                    return part;
+                }
+
+                @Override
+                public List<ColumnBuffer> merge(List<ColumnBuffer> left, List<ColumnBuffer> right) {
+                    left.addAll(right);
+                    return left;
+                }
+            });
+
+            // Save the batch
+            for (ColumnBuffer part : parts) {
+                if (part.size() > 0) {
+                    repository.saveAll(part);
+                    loaded += part.size();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Parses the CSV lines starting within a segment of a file.
+     *
+     * @param channel  The channel reading the file.
+     * @param fileSize The size of the file, in bytes.
+     * @param start    The position of the first byte of the segment (inclusive).
+     * @param end      The position of the last byte of the segment (exclusive).
+     * @param buffer   The buffer to read into.
+     * @param columns  The columns receiving the data points.
+     * @throws IOException if the file cannot be read.
+     */
+    private static void parseCsvSegment(FileChannel channel, long fileSize, long start, long end,
+                                        ByteBuffer buffer, ColumnBuffer columns) throws IOException {
+        // The line in progress at the start of the segment belongs to the previous one
+        long position = start == 0 ? 0 : nextLineStart(channel, fileSize, start, buffer);
+        boolean firstLine = start == 0;
+        while (position < end) {
+            int limit = read(channel, buffer, position);
+            boolean lastBuffer = position + limit >= fileSize;
+            int lineStart = 0;
+            while (position + lineStart < end) {
+                int lineEnd = indexOf(buffer, (byte) '\n', lineStart, limit);
+                if (lineEnd < 0) {
+                    if (!lastBuffer) {
+                        // The line continues in the next read
+                        break;
+                    }
+                    lineEnd = limit;
+                }
+                int recordStart = firstLine ? skipByteOrderMark(buffer, lineStart, lineEnd) : lineStart;
+                if (!firstLine || !isHeader(buffer, recordStart, lineEnd)) {
+                    parseCsvLine(buffer, recordStart, lineEnd, position + recordStart, columns);
+                }
+                firstLine = false;
+                lineStart = lineEnd + 1;
+            }
+            if (lineStart == 0) {
+                throw new ValidationException("The CSV line at byte " + position + " is longer than "
+                        + READ_BUFFER_SIZE + " bytes.");
+            }
+            position += lineStart;
+        }
+    }
+
+    /**
+     * Finds the start of the first line beginning at or after a position.
+     *
+     * @param channel  The channel reading the file.
+     * @param fileSize The size of the file, in bytes.
+     * @param position The position to search from, greater than 0.
+     * @param buffer   The buffer to read into.
+     * @return The position of the first byte of the line, or the file size if there is none.
+     * @throws IOException if the file cannot be read.
+     */
+    private static long nextLineStart(FileChannel channel, long fileSize, long position, ByteBuffer buffer) throws IOException {
+        // A line starts at the position if the previous byte ends a line
+        long searched = position - 1;
+        while (searched < fileSize) {
+            int limit = read(channel, buffer, searched);
+            int newline = indexOf(buffer, (byte) '\n', 0, limit);
+            if (newline >= 0) {
+                return searched + newline + 1;
+            }
+            searched += limit;
+        }
+        return fileSize;
+    }
+
+    /**
+     * Parses one CSV line into the columns.
+     *
+     * @param buffer  The buffer holding the line.
+     * @param from    The index of the first byte of the line (inclusive).
+     * @param to      The index of the end of the line (exclusive), without the {@code \n}.
+     * @param offset  The position of the line in the file, for error messages.
+     * @param columns The columns receiving the data point.
+     */
+    private static void parseCsvLine(ByteBuffer buffer, int from, int to, long offset, ColumnBuffer columns) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        if (isBlank(buffer, from, to)) {
+            return;
+        }
+        int idEnd = indexOf(buffer, (byte) ',', from, to);
+        int valueEnd = idEnd < 0 ? -1 : indexOf(buffer, (byte) ',', idEnd + 1, to);
+        if (valueEnd < 0 || indexOf(buffer, (byte) ',', valueEnd + 1, to) >= 0) {
+            throw malformed(buffer, from, to, offset, "expected 3 fields");
+        }
+        try {
+            long id = parseLong(buffer, from, idEnd);
+            if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+                throw malformed(buffer, from, to, offset, "the ID is out of range");
+            }
+            double value = parseDouble(buffer, idEnd + 1, valueEnd);
+            long timestamp = parseLong(buffer, valueEnd + 1, to);
+            columns.append((int) id, value, timestamp);
+        } catch (NumberFormatException e) {
+            throw malformed(buffer, from, to, offset, e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the binary records of a segment of a file.
+     *
+     * @param channel The channel reading the file.
+     * @param start   The position of the first record of the segment (inclusive).
+     * @param end     The position after the last record of the segment (exclusive).
+     * @param buffer  The buffer to read into.
+     * @param columns The columns receiving the data points.
+     * @throws IOException if the file cannot be read.
+     */
+    private static void parseBinarySegment(FileChannel channel, long start, long end,
+                                           ByteBuffer buffer, ColumnBuffer columns) throws IOException {
+        int readSize = buffer.capacity() / RECORD_SIZE * RECORD_SIZE;
+        for (long position = start; position < end; ) {
+            int limit = read(channel, buffer, position, (int) Math.min(readSize, end - position));
+            for (int i = 0; i + RECORD_SIZE <= limit; i += RECORD_SIZE) {
+                columns.append(buffer.getInt(i), buffer.getDouble(i + Integer.BYTES),
+                        buffer.getLong(i + Integer.BYTES + Double.BYTES));
+            }
+            position += limit;
+        }
+    }
+
+    /**
+     * Fills a buffer from a position of a file, up to its capacity or the end of the file.
+     *
+     * @param channel  The channel reading the file.
+     * @param buffer   The buffer to fill, from index 0.
+     * @param position The position of the first byte to read.
+     * @return The number of bytes read.
+     * @throws IOException if the file cannot be read.
+     */
+    private static int read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        return read(channel, buffer, position, buffer.capacity());
+    }
+
+    /**
+     * Fills a buffer from a position of a file, up to a number of bytes or the end of the file.
+     *
+     * @param channel  The channel reading the file.
+     * @param buffer   The buffer to fill, from index 0.
+     * @param position The position of the first byte to read.
+     * @param length   The maximum number of bytes to read.
+     * @return The number of bytes read.
+     * @throws IOException if the file cannot be read.
+     */
+    private static int read(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+        buffer.clear();
+        buffer.limit(Math.min(buffer.capacity(), length));
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        int limit = buffer.position();
+        buffer.clear();
+        return limit;
+    }
+
+    /**
+     * Writes the content of a buffer to a channel and clears it.
+     *
+     * @param channel The channel to write to.
+     * @param buffer  The buffer holding the bytes to write.
+     * @throws IOException if the channel cannot be written.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Parses a decimal integer, allowing surrounding spaces.
+     *
+     * @param buffer The buffer holding the number.
+     * @param from   The index of the first byte of the field (inclusive).
+     * @param to     The index of the end of the field (exclusive).
+     * @return The parsed number.
+     * @throws NumberFormatException if the field is not an integer.
+     */
+    static long parseLong(ByteBuffer buffer, int from, int to) {
+        from = skipSpaces(buffer, from, to);
+        to = trimSpaces(buffer, from, to);
+        int i = from;
+        boolean negative = i < to && buffer.get(i) == '-';
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            i++;
+        }
+        if (i == to || to - i > 18) {
+            // Empty, or possibly too large for the fast path
+            return Long.parseLong(toString(buffer, from, to));
+        }
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + toString(buffer, from, to) + "\"");
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Parses a decimal floating-point number, allowing surrounding spaces.
+     * <p>
+     * A number with at most 15 significant digits and a decimal exponent within [-22, 22]
+     * is the product or quotient of two exactly represented doubles, which a single
+     * correctly rounded operation converts exactly. Any other input, including {@code NaN},
+     * {@code Infinity} and hexadecimal numbers, is handed to {@link Double#parseDouble(String)}.
+     * </p>
+     *
+     * @param buffer The buffer holding the number.
+     * @param from   The index of the first byte of the field (inclusive).
+     * @param to     The index of the end of the field (exclusive).
+     * @return The parsed number.
+     * @throws NumberFormatException if the field is not a number.
+     */
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        from = skipSpaces(buffer, from, to);
+        to = trimSpaces(buffer, from, to);
+        int i = from;
+        boolean negative = i < to && buffer.get(i) == '-';
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            i++;
+        }
+
+        // Significant digits, with the decimal exponent of the last one
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        for (; i < to && isDigit(buffer.get(i)); i++) {
+            anyDigit = true;
+            int digit = buffer.get(i) - '0';
+            if (digits > MAX_EXACT_DIGITS) {
+                exponent++;
+            } else if (mantissa != 0 || digit != 0) {
+                mantissa = mantissa * 10 + digit;
+                digits++;
+            }
+        }
+        if (i < to && buffer.get(i) == '.') {
+            for (i++; i < to && isDigit(buffer.get(i)); i++) {
+                anyDigit = true;
+                int digit = buffer.get(i) - '0';
+                if (digits <= MAX_EXACT_DIGITS && (mantissa != 0 || digit != 0)) {
+                    mantissa = mantissa * 10 + digit;
+                    digits++;
+                    exponent--;
+                } else if (mantissa == 0) {
+                    exponent--;
+                }
+            }
+        }
+        if (anyDigit && i < to && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = j < to && buffer.get(j) == '-';
+            if (j < to && (buffer.get(j) == '-' || buffer.get(j) == '+')) {
+                j++;
+            }
+            int explicit = 0;
+            int start = j;
+            for (; j < to && isDigit(buffer.get(j)) && explicit < 10_000; j++) {
+                explicit = explicit * 10 + (buffer.get(j) - '0');
+            }
+            if (j > start) {
+                exponent += negativeExponent ? -explicit : explicit;
+                i = j;
+            }
+        }
+
+        // Fast path: the whole field was consumed and the conversion is exact
+        if (anyDigit && i == to && digits <= MAX_EXACT_DIGITS) {
+            if (mantissa == 0) {
+                return negative ? -0.0 : 0.0;
+            }
+            if (exponent >= -22 && exponent <= 22) {
+                double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+                return negative ? -value : value;
+            }
+        }
+        return Double.parseDouble(toString(buffer, from, to));
+    }
+
+    /**
+     * Skips the UTF-8 byte order mark some editors write at the start of a file.
+     *
+     * @param buffer The buffer holding the first line of the file.
+     * @param from   The index of the first byte of the line (inclusive).
+     * @param to     The index of the end of the line (exclusive).
+     * @return The index of the first byte following the byte order mark, or {@code from} if there is none.
+     */
+    private static int skipByteOrderMark(ByteBuffer buffer, int from, int to) {
+        if (from + 3 <= to && buffer.get(from) == (byte) 0xEF && buffer.get(from + 1) == (byte) 0xBB
+                && buffer.get(from + 2) == (byte) 0xBF) {
+            return from + 3;
+        }
+        return from;
+    }
+
+    /**
+     * Checks whether a line is a header rather than a record: its first field does not
+     * start like a number.
+     *
+     * @param buffer The buffer holding the line, without byte order mark.
+     * @param from   The index of the first byte of the line (inclusive).
+     * @param to     The index of the end of the line (exclusive).
+     * @return {@code true} if the line is a header.
+     */
+    private static boolean isHeader(ByteBuffer buffer, int from, int to) {
+        int i = skipSpaces(buffer, from, to);
+        if (i == to) {
+            return false;
+        }
+        byte first = buffer.get(i);
+        return !isDigit(first) && first != '-' && first != '+' && first != '.';
+    }
+
+    /**
+     * Checks whether a byte is an ASCII digit.
+     *
+     * @param b The byte to check.
+     * @return {@code true} if the byte is between '0' and '9'.
+     */
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Checks whether a range of bytes only holds spaces and tabs.
+     *
+     * @param buffer The buffer holding the bytes.
+     * @param from   The index of the first byte (inclusive).
+     * @param to     The index of the last byte (exclusive).
+     * @return {@code true} if the range is blank.
+     */
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        return skipSpaces(buffer, from, to) == to;
+    }
+
+    /**
+     * Skips the spaces and tabs at the start of a range of bytes.
+     *
+     * @param buffer The buffer holding the bytes.
+     * @param from   The index of the first byte (inclusive).
+     * @param to     The index of the last byte (exclusive).
+     * @return The index of the first other byte, or {@code to}.
+     */
+    private static int skipSpaces(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) == ' ' || buffer.get(from) == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Skips the spaces and tabs at the end of a range of bytes.
+     *
+     * @param buffer The buffer holding the bytes.
+     * @param from   The index of the first byte (inclusive).
+     * @param to     The index of the last byte (exclusive).
+     * @return The index after the last other byte, or {@code from}.
+     */
+    private static int trimSpaces(ByteBuffer buffer, int from, int to) {
+        while (to > from && (buffer.get(to - 1) == ' ' || buffer.get(to - 1) == '\t')) {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * Finds the first occurrence of a byte in a range.
+     *
+     * @param buffer The buffer to search.
+     * @param target The byte to find.
+     * @param from   The index of the first byte (inclusive).
+     * @param to     The index of the last byte (exclusive).
+     * @return The index of the byte, or -1 if the range does not contain it.
+     */
+    private static int indexOf(ByteBuffer buffer, byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes a range of ASCII bytes.
+     *
+     * @param buffer The buffer holding the bytes.
+     * @param from   The index of the first byte (inclusive).
+     * @param to     The index of the last byte (exclusive).
+     * @return The decoded text.
+     */
+    private static String toString(ByteBuffer buffer, int from, int to) {
+        char[] chars = new char[to - from];
+        for (int i = from; i < to; i++) {
+            chars[i - from] = (char) (buffer.get(i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Creates the exception reported for a malformed CSV line.
+     *
+     * @param buffer The buffer holding the line.
+     * @param from   The index of the first byte of the line (inclusive).
+     * @param to     The index of the end of the line (exclusive).
+     * @param offset The position of the line in the file.
+     * @param reason The reason the line is malformed.
+     * @return The {@link ValidationException} to throw.
+     */
+    private static ValidationException malformed(ByteBuffer buffer, int from, int to, long offset, String reason) {
+        String line = toString(buffer, from, Math.min(to, from + 80));
+        return new ValidationException("Malformed CSV record at byte " + offset + " (" + reason + "): " + line);
+    }
+
+    /**
+     * Parser of the records of one segment of a file.
+     */
+    private interface SegmentParser {
+
+        /**
+         * Parses the records of a segment.
+         *
+         * @param start   The position of the first byte of the segment (inclusive).
+         * @param end     The position of the last byte of the segment (exclusive).
+         * @param buffer  The buffer to read into.
+         * @param columns The columns receiving the data points.
+         * @throws IOException if the file cannot be read.
+         */
+        void parse(long start, long end, ByteBuffer buffer, ColumnBuffer columns) throws IOException;
+    }
+}
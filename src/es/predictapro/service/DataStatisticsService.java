@@ -1,18 +1,78 @@
 package es.predictapro.service;
 
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
 import es.predictapro.model.DataPoint;
+import es.predictapro.model.QuantileSketch;
+import es.predictapro.model.RangeAggregate;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.util.DoubleKernels;
 
 import java.util.List;
+import java.util.function.DoubleBinaryOperator;
 
 /**
  * Service for computing statistical metrics on a dataset.
  * <p>
  * Provides methods to calculate average, maximum, minimum, range, and other
- * key statistical metrics from a list of {@link DataPoint} objects.
+ * key statistical metrics from a list of {@link DataPoint} objects or directly
+ * from primitive {@link DataColumns}.
+ * </p>
+ * <p>
+ * Callers that need several metrics should prefer {@code summarize}, which computes
+ * all of them in a single pass over the data.
+ * </p>
+ * <p>
+ * Metrics over a time range of a {@link TimeIndexedRepository} are answered from its
+ * per-minute, per-hour and per-day rollups instead of a scan of the raw points.
+ * </p>
+ * <p>
+ * Percentiles, quantile ranges and histograms are estimated with a {@link QuantileSketch}.
+ * For lists and columns the sketch is built in one pass over the data, merging one sketch per
+ * chunk. For a {@link TimeIndexedRepository} the sketch it maintains on every save is read
+ * directly, so the cost of a query does not depend on the length of the history. Estimates
+ * are exact for fewer than {@link QuantileSketch#DEFAULT_K} values; beyond that, the rank of a
+ * percentile is within about 1.33% of the count and a histogram bin within about 2.66% of the
+ * count, with 99% confidence.
+ * </p>
+ * <p>
+ * When created with a parallel {@link ChunkedExecutor}, large inputs are split into
+ * chunks whose partial results are merged; see {@link ChunkedExecutor} for the
+ * determinism and tolerance guarantees.
+ * </p>
+ * <p>
+ * Loops over primitive columns run on the lane-split kernels of {@link DoubleKernels}.
+ * </p>
+ * <p>
+ * Every public method is measured by {@link Metrics} under {@code statistics.<method>}, with
+ * the number of values as input size, or 0 for time ranges and repository sketches. A metric
+ * computed from a summary or a sketch is also counted under that operation.
  * </p>
  */
 public class DataStatisticsService {
 
+    // Executor used to split large inputs into chunks.
+    private final ChunkedExecutor executor;
+
+    /**
+     * Constructor for DataStatisticsService using sequential execution.
+     */
+    public DataStatisticsService() {
+        this(ChunkedExecutor.sequential());
+    }
+
+    /**
+     * Constructor for DataStatisticsService.
+     *
+     * @param executor The executor used to split large inputs into chunks.
+     */
+    public DataStatisticsService(ChunkedExecutor executor) {
+        this.executor = executor;
+    }
+
     /**
      * Computes the average of the given data points.
      *
@@ -20,10 +80,18 @@ public class DataStatisticsService {
      * @return The average value, or 0.0 if the list is empty.
      */
     public double calculateAverage(List<DataPoint> dataPoints) {
-        return dataPoints.stream()
-                .mapToDouble(DataPoint::getValue)
-                .average()
-                .orElse(0.0);
+        Probe probe = Metrics.start("statistics.calculateAverage", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            if (executor.isParallel(dataPoints.size())) {
+                return summarize(dataPoints).getMean();
+            }
+            return dataPoints.stream()
+                    .mapToDouble(DataPoint::getValue)
+                    .average()
+                    .orElse(0.0);
+        } finally {
+            probe.stop();
+        }
     }
 
     /**
@@ -33,10 +101,18 @@ public class DataStatisticsService {
      * @return The maximum value, or {@code Double.MIN_VALUE} if the list is empty.
      */
     public double findMax(List<DataPoint> dataPoints) {
-        return dataPoints.stream()
-                .mapToDouble(DataPoint::getValue)
-                .max()
-                .orElse(Double.MIN_VALUE);
+        Probe probe = Metrics.start("statistics.findMax", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            if (executor.isParallel(dataPoints.size())) {
+                return reduceValues(dataPoints, Math::max, Double.NEGATIVE_INFINITY);
+            }
+            return dataPoints.stream()
+                    .mapToDouble(DataPoint::getValue)
+                    .max()
+                    .orElse(Double.MIN_VALUE);
+        } finally {
+            probe.stop();
+        }
     }
 
     /**
@@ -46,10 +122,18 @@ public class DataStatisticsService {
      * @return The minimum value, or {@code Double.MAX_VALUE} if the list is empty.
      */
     public double findMin(List<DataPoint> dataPoints) {
-        return dataPoints.stream()
-                .mapToDouble(DataPoint::getValue)
-                .min()
-                .orElse(Double.MAX_VALUE);
+        Probe probe = Metrics.start("statistics.findMin", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            if (executor.isParallel(dataPoints.size())) {
+                return reduceValues(dataPoints, Math::min, Double.POSITIVE_INFINITY);
+            }
+            return dataPoints.stream()
+                    .mapToDouble(DataPoint::getValue)
+                    .min()
+                    .orElse(Double.MAX_VALUE);
+        } finally {
+            probe.stop();
+        }
     }
 
     /**
@@ -60,10 +144,15 @@ public class DataStatisticsService {
      * @return The range of values, or 0.0 if the list is empty.
      */
     public double calculateRange(List<DataPoint> dataPoints) {
-        if (dataPoints == null || dataPoints.isEmpty()) {
-            return 0.0;
+        Probe probe = Metrics.start("statistics.calculateRange", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            if (dataPoints == null || dataPoints.isEmpty()) {
+                return 0.0;
+            }
+            return summarize(dataPoints).getRange();
+        } finally {
+            probe.stop();
         }
-        return findMax(dataPoints) - findMin(dataPoints);
     }
 
     /**
@@ -73,9 +162,17 @@ public class DataStatisticsService {
      * @return The total sum of values, or 0.0 if the list is empty.
      */
     public double calculateSum(List<DataPoint> dataPoints) {
-        return dataPoints.stream()
-                .mapToDouble(DataPoint::getValue)
-                .sum();
+        Probe probe = Metrics.start("statistics.calculateSum", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            if (executor.isParallel(dataPoints.size())) {
+                return summarize(dataPoints).getSum();
+            }
+            return dataPoints.stream()
+                    .mapToDouble(DataPoint::getValue)
+                    .sum();
+        } finally {
+            probe.stop();
+        }
     }
 
     /**
@@ -85,6 +182,678 @@ public class DataStatisticsService {
      * @return The number of data points, or 0 if the list is null or empty.
      */
     public long countDataPoints(List<DataPoint> dataPoints) {
-        return dataPoints != null ? dataPoints.size() : 0;
+        Probe probe = Metrics.start("statistics.countDataPoints", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            return dataPoints != null ? dataPoints.size() : 0;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Computes the average of the values stored in the given columns.
+     *
+     * @param columns The columns holding the data.
+     * @return The average value, or 0.0 if there is no data.
+     */
+    public double calculateAverage(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.calculateAverage", columns == null ? 0 : columns.size());
+        try {
+            long count = countDataPoints(columns);
+            if (count != 0 && executor.isParallel(columns.size())) {
+                return summarize(columns).getMean();
+            }
+            return count == 0 ? 0.0 : calculateSum(columns) / count;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Finds the maximum value stored in the given columns.
+     *
+     * @param columns The columns holding the data.
+     * @return The maximum value, or {@code Double.MIN_VALUE} if there is no data.
+     */
+    public double findMax(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.findMax", columns == null ? 0 : columns.size());
+        try {
+            if (countDataPoints(columns) == 0) {
+                return Double.MIN_VALUE;
+            }
+            if (executor.isParallel(columns.size())) {
+                return reduceValues(columns, Math::max, (values, length) -> DoubleKernels.max(values, 0, length), Double.NEGATIVE_INFINITY);
+            }
+            double max = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < columns.getChunkCount(); c++) {
+                max = Math.max(max, DoubleKernels.max(columns.getValueChunk(c), 0, columns.getChunkLength(c)));
+            }
+            return max;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Finds the minimum value stored in the given columns.
+     *
+     * @param columns The columns holding the data.
+     * @return The minimum value, or {@code Double.MAX_VALUE} if there is no data.
+     */
+    public double findMin(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.findMin", columns == null ? 0 : columns.size());
+        try {
+            if (countDataPoints(columns) == 0) {
+                return Double.MAX_VALUE;
+            }
+            if (executor.isParallel(columns.size())) {
+                return reduceValues(columns, Math::min, (values, length) -> DoubleKernels.min(values, 0, length), Double.POSITIVE_INFINITY);
+            }
+            double min = Double.POSITIVE_INFINITY;
+            for (int c = 0; c < columns.getChunkCount(); c++) {
+                min = Math.min(min, DoubleKernels.min(columns.getValueChunk(c), 0, columns.getChunkLength(c)));
+            }
+            return min;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Calculates the range of values (difference between max and min)
+     * stored in the given columns.
+     *
+     * @param columns The columns holding the data.
+     * @return The range of values, or 0.0 if there is no data.
+     */
+    public double calculateRange(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.calculateRange", columns == null ? 0 : columns.size());
+        try {
+            if (countDataPoints(columns) == 0) {
+                return 0.0;
+            }
+            return summarize(columns).getRange();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Calculates the sum of all values stored in the given columns.
+     *
+     * @param columns The columns holding the data.
+     * @return The total sum of values, or 0.0 if there is no data.
+     */
+    public double calculateSum(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.calculateSum", columns == null ? 0 : columns.size());
+        try {
+            double sum = 0.0;
+            if (columns == null) {
+                return sum;
+            }
+            if (executor.isParallel(columns.size())) {
+                return summarize(columns).getSum();
+            }
+            // Lanes follow the position of each value, so any chunk layout gives the same sum
+            double[] lanes = new double[DoubleKernels.LANES];
+            long position = 0;
+            for (int c = 0; c < columns.getChunkCount(); c++) {
+                int length = columns.getChunkLength(c);
+                DoubleKernels.sum(columns.getValueChunk(c), 0, length, position, lanes);
+                position += length;
+            }
+            return DoubleKernels.combine(lanes, 0);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Calculates the count of data points stored in the given columns.
+     *
+     * @param columns The columns holding the data.
+     * @return The number of data points, or 0 if the columns are null or empty.
+     */
+    public long countDataPoints(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.countDataPoints", columns == null ? 0 : columns.size());
+        try {
+            return columns != null ? columns.size() : 0;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Computes the average of the values recorded within a time range.
+     *
+     * @param repository The repository holding the data and its rollups.
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return The average value, or 0.0 if there is no data in the range.
+     */
+    public double calculateAverage(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("statistics.calculateAverage", 0);
+        try {
+            RangeAggregate aggregate = summarizeRange(repository, fromMillis, toMillis);
+            return aggregate.getCount() == 0 ? 0.0 : aggregate.getMean();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Finds the maximum value recorded within a time range.
+     *
+     * @param repository The repository holding the data and its rollups.
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return The maximum value, or {@code Double.MIN_VALUE} if there is no data in the range.
+     */
+    public double findMax(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("statistics.findMax", 0);
+        try {
+            RangeAggregate aggregate = summarizeRange(repository, fromMillis, toMillis);
+            return aggregate.getCount() == 0 ? Double.MIN_VALUE : aggregate.getMax();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Finds the minimum value recorded within a time range.
+     *
+     * @param repository The repository holding the data and its rollups.
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return The minimum value, or {@code Double.MAX_VALUE} if there is no data in the range.
+     */
+    public double findMin(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("statistics.findMin", 0);
+        try {
+            RangeAggregate aggregate = summarizeRange(repository, fromMillis, toMillis);
+            return aggregate.getCount() == 0 ? Double.MAX_VALUE : aggregate.getMin();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Calculates the sum of the values recorded within a time range.
+     *
+     * @param repository The repository holding the data and its rollups.
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return The total sum of values, or 0.0 if there is no data in the range.
+     */
+    public double calculateSum(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("statistics.calculateSum", 0);
+        try {
+            return summarizeRange(repository, fromMillis, toMillis).getSum();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Calculates the count of data points recorded within a time range.
+     *
+     * @param repository The repository holding the data and its rollups.
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return The number of data points in the range.
+     */
+    public long countDataPoints(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("statistics.countDataPoints", 0);
+        try {
+            return summarizeRange(repository, fromMillis, toMillis).getCount();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Computes count, sum, mean, minimum, maximum and variance of the values recorded
+     * within a time range from the repository rollups.
+     * <p>
+     * Complete days, hours and minutes of the range are read from the pre-aggregated
+     * buckets, and only the raw points at the edges are scanned, so the cost depends on
+     * the length of the range in buckets rather than on the number of points.
+     * </p>
+     *
+     * @param repository The repository holding the data and its rollups.
+     * @param fromMillis The start of the range, in milliseconds (inclusive).
+     * @param toMillis   The end of the range, in milliseconds (exclusive).
+     * @return A {@link RangeAggregate} of the values within the range.
+     */
+    public RangeAggregate summarizeRange(TimeIndexedRepository repository, long fromMillis, long toMillis) {
+        Probe probe = Metrics.start("statistics.summarizeRange", 0);
+        try {
+            return repository.aggregate(fromMillis, toMillis);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Computes count, sum, mean, minimum, maximum, variance, skewness and kurtosis
+     * of the given data points in a single pass.
+     *
+     * @param dataPoints The list of data points.
+     * @return A {@link StatisticsSummary} of the values; empty if the list is null or empty.
+     */
+    public StatisticsSummary summarize(List<DataPoint> dataPoints) {
+        Probe probe = Metrics.start("statistics.summarize", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            if (dataPoints == null) {
+                return new StatisticsSummary();
+            }
+            return executor.aggregate(dataPoints.size(), new ChunkedExecutor.Aggregation<StatisticsSummary>() {
+                @Override
+                public StatisticsSummary compute(int from, int to) {
+                    StatisticsSummary summary = new StatisticsSummary();
+                    for (DataPoint point : dataPoints.subList(from, to)) {
+                        summary.accept(point.getValue());
+                    }
+                    return summary;
+                }
+
+                @Override
+                public StatisticsSummary merge(StatisticsSummary left, StatisticsSummary right) {
+                    left.merge(right);
+                    return left;
+                }
+            });
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Computes count, sum, mean, minimum, maximum, variance, skewness and kurtosis
+     * of the values stored in the given columns in a single pass.
+     *
+     * @param columns The columns holding the data.
+     * @return A {@link StatisticsSummary} of the values; empty if the columns are null or empty.
+     */
+    public StatisticsSummary summarize(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.summarize", columns == null ? 0 : columns.size());
+        try {
+            if (columns == null) {
+                return new StatisticsSummary();
+            }
+            return executor.aggregate(columns.getChunkCount(), chunkGrain(), new ChunkedExecutor.Aggregation<StatisticsSummary>() {
+                @Override
+                public StatisticsSummary compute(int fromChunk, int toChunk) {
+                    StatisticsSummary summary = new StatisticsSummary();
+                    for (int c = fromChunk; c < toChunk; c++) {
+                        summary.accept(columns.getValueChunk(c), 0, columns.getChunkLength(c));
+                    }
+                    return summary;
+                }
+
+                @Override
+                public StatisticsSummary merge(StatisticsSummary left, StatisticsSummary right) {
+                    left.merge(right);
+                    return left;
+                }
+            });
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates a percentile of the values of the given data points.
+     *
+     * @param dataPoints The list of data points.
+     * @param percentile The percentage of the values below the result, between 0 and 100.
+     * @return The estimated percentile, exact for 0 and 100, or {@code NaN} if the list is null or empty.
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+     */
+    public double calculatePercentile(List<DataPoint> dataPoints, double percentile) {
+        Probe probe = Metrics.start("statistics.calculatePercentile", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            return percentile(sketch(dataPoints), percentile);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates a percentile of the values stored in the given columns.
+     *
+     * @param columns    The columns holding the data.
+     * @param percentile The percentage of the values below the result, between 0 and 100.
+     * @return The estimated percentile, exact for 0 and 100, or {@code NaN} if the columns are null or empty.
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+     */
+    public double calculatePercentile(DataColumns columns, double percentile) {
+        Probe probe = Metrics.start("statistics.calculatePercentile", columns == null ? 0 : columns.size());
+        try {
+            return percentile(sketch(columns), percentile);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates a percentile of all the values stored in a repository from its maintained sketch.
+     *
+     * @param repository The repository holding the data and its sketch.
+     * @param percentile The percentage of the values below the result, between 0 and 100.
+     * @return The estimated percentile, exact for 0 and 100, or {@code NaN} if the repository is empty.
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+     */
+    public double calculatePercentile(TimeIndexedRepository repository, double percentile) {
+        Probe probe = Metrics.start("statistics.calculatePercentile", 0);
+        try {
+            synchronized (repository) {
+                return percentile(repository.getSketch(), percentile);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates the distance between two percentiles of the values of the given data points,
+     * such as the interquartile range for 25 and 75.
+     *
+     * @param dataPoints     The list of data points.
+     * @param lowPercentile  The lower percentile, between 0 and 100.
+     * @param highPercentile The upper percentile, between the lower one and 100.
+     * @return The estimated range, or {@code NaN} if the list is null or empty.
+     * @throws IllegalArgumentException if the percentiles are out of bounds or in decreasing order.
+     */
+    public double calculateQuantileRange(List<DataPoint> dataPoints, double lowPercentile, double highPercentile) {
+        Probe probe = Metrics.start("statistics.calculateQuantileRange", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            return quantileRange(sketch(dataPoints), lowPercentile, highPercentile);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates the distance between two percentiles of the values stored in the given columns.
+     *
+     * @param columns        The columns holding the data.
+     * @param lowPercentile  The lower percentile, between 0 and 100.
+     * @param highPercentile The upper percentile, between the lower one and 100.
+     * @return The estimated range, or {@code NaN} if the columns are null or empty.
+     * @throws IllegalArgumentException if the percentiles are out of bounds or in decreasing order.
+     */
+    public double calculateQuantileRange(DataColumns columns, double lowPercentile, double highPercentile) {
+        Probe probe = Metrics.start("statistics.calculateQuantileRange", columns == null ? 0 : columns.size());
+        try {
+            return quantileRange(sketch(columns), lowPercentile, highPercentile);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates the distance between two percentiles of all the values stored in a repository
+     * from its maintained sketch.
+     *
+     * @param repository     The repository holding the data and its sketch.
+     * @param lowPercentile  The lower percentile, between 0 and 100.
+     * @param highPercentile The upper percentile, between the lower one and 100.
+     * @return The estimated range, or {@code NaN} if the repository is empty.
+     * @throws IllegalArgumentException if the percentiles are out of bounds or in decreasing order.
+     */
+    public double calculateQuantileRange(TimeIndexedRepository repository, double lowPercentile, double highPercentile) {
+        Probe probe = Metrics.start("statistics.calculateQuantileRange", 0);
+        try {
+            synchronized (repository) {
+                return quantileRange(repository.getSketch(), lowPercentile, highPercentile);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates the number of values of the given data points falling into equal-width bins.
+     * <p>
+     * See {@link QuantileSketch#getHistogram(double, double, int)} for the bin edges.
+     * </p>
+     *
+     * @param dataPoints The list of data points.
+     * @param min        The lower edge of the first bin.
+     * @param max        The upper edge of the last bin.
+     * @param bins       The number of bins.
+     * @return The estimated count of each bin.
+     * @throws IllegalArgumentException if there are no bins or the edges are not increasing finite values.
+     */
+    public long[] calculateHistogram(List<DataPoint> dataPoints, double min, double max, int bins) {
+        Probe probe = Metrics.start("statistics.calculateHistogram", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            return sketch(dataPoints).getHistogram(min, max, bins);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates the number of values stored in the given columns falling into equal-width bins.
+     * <p>
+     * See {@link QuantileSketch#getHistogram(double, double, int)} for the bin edges.
+     * </p>
+     *
+     * @param columns The columns holding the data.
+     * @param min     The lower edge of the first bin.
+     * @param max     The upper edge of the last bin.
+     * @param bins    The number of bins.
+     * @return The estimated count of each bin.
+     * @throws IllegalArgumentException if there are no bins or the edges are not increasing finite values.
+     */
+    public long[] calculateHistogram(DataColumns columns, double min, double max, int bins) {
+        Probe probe = Metrics.start("statistics.calculateHistogram", columns == null ? 0 : columns.size());
+        try {
+            return sketch(columns).getHistogram(min, max, bins);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates the number of values stored in a repository falling into equal-width bins
+     * from its maintained sketch.
+     * <p>
+     * See {@link QuantileSketch#getHistogram(double, double, int)} for the bin edges.
+     * </p>
+     *
+     * @param repository The repository holding the data and its sketch.
+     * @param min        The lower edge of the first bin.
+     * @param max        The upper edge of the last bin.
+     * @param bins       The number of bins.
+     * @return The estimated count of each bin.
+     * @throws IllegalArgumentException if there are no bins or the edges are not increasing finite values.
+     */
+    public long[] calculateHistogram(TimeIndexedRepository repository, double min, double max, int bins) {
+        Probe probe = Metrics.start("statistics.calculateHistogram", 0);
+        try {
+            synchronized (repository) {
+                return repository.getSketch().getHistogram(min, max, bins);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Builds a quantile sketch of the values of the given data points, one sketch per chunk.
+     *
+     * @param dataPoints The list of data points.
+     * @return A {@link QuantileSketch} of the values; empty if the list is null or empty.
+     */
+    public QuantileSketch sketch(List<DataPoint> dataPoints) {
+        Probe probe = Metrics.start("statistics.sketch", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            if (dataPoints == null) {
+                return new QuantileSketch();
+            }
+            return executor.aggregate(dataPoints.size(), new ChunkedExecutor.Aggregation<QuantileSketch>() {
+                @Override
+                public QuantileSketch compute(int from, int to) {
+                    QuantileSketch sketch = new QuantileSketch();
+                    for (DataPoint point : dataPoints.subList(from, to)) {
+                        sketch.accept(point.getValue());
+                    }
+                    return sketch;
+                }
+
+                @Override
+                public QuantileSketch merge(QuantileSketch left, QuantileSketch right) {
+                    left.merge(right);
+                    return left;
+                }
+            });
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Builds a quantile sketch of the values stored in the given columns, one sketch per chunk.
+     *
+     * @param columns The columns holding the data.
+     * @return A {@link QuantileSketch} of the values; empty if the columns are null or empty.
+     */
+    public QuantileSketch sketch(DataColumns columns) {
+        Probe probe = Metrics.start("statistics.sketch", columns == null ? 0 : columns.size());
+        try {
+            if (columns == null) {
+                return new QuantileSketch();
+            }
+            return executor.aggregate(columns.getChunkCount(), chunkGrain(), new ChunkedExecutor.Aggregation<QuantileSketch>() {
+                @Override
+                public QuantileSketch compute(int fromChunk, int toChunk) {
+                    QuantileSketch sketch = new QuantileSketch();
+                    for (int c = fromChunk; c < toChunk; c++) {
+                        sketch.accept(columns.getValueChunk(c), 0, columns.getChunkLength(c));
+                    }
+                    return sketch;
+                }
+
+                @Override
+                public QuantileSketch merge(QuantileSketch left, QuantileSketch right) {
+                    left.merge(right);
+                    return left;
+                }
+            });
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Estimates a percentile from a sketch.
+     *
+     * @param sketch     The sketch of the values.
+     * @param percentile The percentage of the values below the result, between 0 and 100.
+     * @return The estimated percentile, or {@code NaN} if the sketch is empty.
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+     */
+    private static double percentile(QuantileSketch sketch, double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100: " + percentile);
+        }
+        return sketch.getQuantile(percentile / 100.0);
+    }
+
+    /**
+     * Estimates the distance between two percentiles from a sketch.
+     *
+     * @param sketch         The sketch of the values.
+     * @param lowPercentile  The lower percentile, between 0 and 100.
+     * @param highPercentile The upper percentile, between the lower one and 100.
+     * @return The estimated range, or {@code NaN} if the sketch is empty.
+     * @throws IllegalArgumentException if the percentiles are out of bounds or in decreasing order.
+     */
+    private static double quantileRange(QuantileSketch sketch, double lowPercentile, double highPercentile) {
+        if (lowPercentile > highPercentile) {
+            throw new IllegalArgumentException("The lower percentile must not exceed the upper one: "
+                    + lowPercentile + " > " + highPercentile);
+        }
+        return percentile(sketch, highPercentile) - percentile(sketch, lowPercentile);
+    }
+
+    /**
+     * Reduces the values of the given data points in parallel chunks.
+     *
+     * @param dataPoints The list of data points.
+     * @param operator   The associative operator combining two values.
+     * @param identity   The identity value of the operator.
+     * @return The reduced value.
+     */
+    private double reduceValues(List<DataPoint> dataPoints, DoubleBinaryOperator operator, double identity) {
+        return executor.aggregate(dataPoints.size(), new ChunkedExecutor.Aggregation<Double>() {
+            @Override
+            public Double compute(int from, int to) {
+                double result = identity;
+                for (DataPoint point : dataPoints.subList(from, to)) {
+                    result = operator.applyAsDouble(result, point.getValue());
+                }
+                return result;
+            }
+
+            @Override
+            public Double merge(Double left, Double right) {
+                return operator.applyAsDouble(left, right);
+            }
+        });
+    }
+
+    /**
+     * Reduces the values stored in the given columns in parallel chunks.
+     *
+     * @param columns  The columns holding the data.
+     * @param operator The associative operator combining two values.
+     * @param kernel   The reduction of the first values of one chunk, consistent with the operator.
+     * @param identity The identity value of the operator.
+     * @return The reduced value.
+     */
+    private double reduceValues(DataColumns columns, DoubleBinaryOperator operator, ChunkKernel kernel, double identity) {
+        return executor.aggregate(columns.getChunkCount(), chunkGrain(), new ChunkedExecutor.Aggregation<Double>() {
+            @Override
+            public Double compute(int fromChunk, int toChunk) {
+                double result = identity;
+                for (int c = fromChunk; c < toChunk; c++) {
+                    result = operator.applyAsDouble(result, kernel.applyAsDouble(columns.getValueChunk(c), columns.getChunkLength(c)));
+                }
+                return result;
+            }
+
+            @Override
+            public Double merge(Double left, Double right) {
+                return operator.applyAsDouble(left, right);
+            }
+        });
+    }
+
+    /**
+     * Computes how many column chunks each parallel task processes.
+     *
+     * @return The number of column chunks per task.
+     */
+    private int chunkGrain() {
+        return Math.max(1, executor.getChunkSize() / ColumnBuffer.CHUNK_SIZE);
+    }
+
+    /**
+     * Reduction of the values of one column chunk.
+     */
+    private interface ChunkKernel {
+
+        /**
+         * Reduces the first values of a chunk.
+         *
+         * @param values The chunk of values.
+         * @param length The number of values in use.
+         * @return The reduced value.
+         */
+        double applyAsDouble(double[] values, int length);
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,16 @@
 package es.predictapro.service;
 
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.DataColumns;
 import es.predictapro.model.DataPoint;
 import es.predictapro.exception.ValidationException;
+import es.predictapro.model.ValidationResult;
+import es.predictapro.repository.DataRepository;
+import es.predictapro.util.IdSet;
+import es.predictapro.util.IntList;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * DataValidationService validates raw data to ensure its quality and consistency.
@@ -16,47 +20,223 @@ import java.util.Set;
  * - If the data contains invalid values (e.g., NaN or infinite).
  * - If there are duplicate IDs in the data.
  * </p>
+ * <p>
+ * Values and IDs are checked together in a single pass. IDs are tracked in a primitive
+ * {@link IdSet} (a bitmap for compact ID ranges, open addressing otherwise), so no
+ * {@link Integer} is boxed and no object is allocated per data point.
+ * </p>
+ * <p>
+ * When new data is validated before being added to a repository, the repository can be
+ * passed along: IDs already stored are then looked up in the repository's own index
+ * (see {@link DataRepository#containsId(int)}) instead of rebuilding a set of every stored ID.
+ * Repositories without an index (see {@link DataRepository#hasIdIndex()}) would scan their
+ * data for every lookup, so their IDs are collected into an {@link IdSet} once per validation.
+ * </p>
+ * <p>
+ * Each validation is measured by {@link Metrics}, which also counts the violations found
+ * under {@link #INVALID_VALUES} and {@link #DUPLICATE_IDS}.
+ * </p>
  */
 public class DataValidationService {
 
+    // Names of the metrics counters of the invalid values and duplicate IDs found.
+    public static final String INVALID_VALUES = "validation.invalidValues";
+    public static final String DUPLICATE_IDS = "validation.duplicateIds";
+
     /**
      * Validates the given list of data points.
      * <p>
      * Steps:
      * 1. Ensures the data list is not null or empty.
-     * 2. Checks for invalid values such as NaN (Not a Number) or infinite values.
-     * 3. Verifies that all data points have unique IDs.
+     * 2. Checks every data point, in order, for invalid values such as NaN (Not a Number)
+     *    or infinite values, and for IDs already seen, stopping at the first violation.
      * </p>
      *
      * @param data A list of {@link DataPoint} objects to validate.
      * @throws ValidationException if the data is null, empty, contains invalid values, or has duplicate IDs.
      */
     public void validateData(List<DataPoint> data) {
-        // Step 1: Check if the data list is null or empty
-        if (data == null || data.isEmpty()) {
-            throw new ValidationException("The data list cannot be null or empty.");
+        // Step 1 and 2: Check the data in a single pass, stopping at the first violation
+        ValidationResult result = validate(data, ValidationMode.FAIL_FAST);
+        if (result.getInvalidValueCount() > 0) {
+            throw new ValidationException("Invalid values (NaN or Infinite) found in the data.");
+        }
+        if (result.getDuplicateIdCount() > 0) {
+            throw new ValidationException("Duplicate IDs found in the data.");
         }
+    }
 
-        // Step 2: Check for invalid values (NaN or infinite)
-        List<DataPoint> invalidValues = new ArrayList<>();
-        for (DataPoint dp : data) {
-            if (Double.isNaN(dp.getValue()) || Double.isInfinite(dp.getValue())) {
-                invalidValues.add(dp);
+    /**
+     * Validates the given list of data points and reports the violations found.
+     *
+     * @param data A list of {@link DataPoint} objects to validate.
+     * @param mode Whether to stop at the first violation or to report all of them.
+     * @return A {@link ValidationResult} describing the violations found.
+     * @throws ValidationException if the data is null or empty.
+     */
+    public ValidationResult validate(List<DataPoint> data, ValidationMode mode) {
+        return validate(data, mode, null);
+    }
+
+    /**
+     * Validates a batch of new data points against the data already stored in a repository.
+     * <p>
+     * IDs repeated within the batch or already stored in the repository are reported as duplicates.
+     * </p>
+     *
+     * @param data     A list of {@link DataPoint} objects to validate.
+     * @param mode     Whether to stop at the first violation or to report all of them.
+     * @param existing The repository the batch will be added to, or null to only check the batch.
+     * @return A {@link ValidationResult} describing the violations found.
+     * @throws ValidationException if the data is null or empty.
+     */
+    public ValidationResult validate(List<DataPoint> data, ValidationMode mode, DataRepository existing) {
+        Probe probe = Metrics.start("validation.validate", data == null ? 0 : data.size());
+        try {
+            if (data == null || data.isEmpty()) {
+                throw new ValidationException("The data list cannot be null or empty.");
             }
+
+            Checker checker = new Checker(data.size(), mode, existing);
+            int position = 0;
+            for (DataPoint dp : data) {
+                if (!checker.check(position++, dp.getId(), dp.getValue())) {
+                    break;
+                }
+            }
+            return checker.toResult();
+        } finally {
+            probe.stop();
         }
-        if (!invalidValues.isEmpty()) {
-            throw new ValidationException("Invalid values (NaN or Infinite) found in the data.");
+    }
+
+    /**
+     * Validates data stored in primitive columns and reports the violations found.
+     *
+     * @param columns The columns holding the data to validate.
+     * @param mode    Whether to stop at the first violation or to report all of them.
+     * @return A {@link ValidationResult} describing the violations found.
+     * @throws ValidationException if the columns are null or empty.
+     */
+    public ValidationResult validate(DataColumns columns, ValidationMode mode) {
+        return validate(columns, mode, null);
+    }
+
+    /**
+     * Validates a batch of new data points stored in primitive columns against the data
+     * already stored in a repository.
+     *
+     * @param columns  The columns holding the data to validate.
+     * @param mode     Whether to stop at the first violation or to report all of them.
+     * @param existing The repository the batch will be added to, or null to only check the batch.
+     * @return A {@link ValidationResult} describing the violations found.
+     * @throws ValidationException if the columns are null or empty.
+     */
+    public ValidationResult validate(DataColumns columns, ValidationMode mode, DataRepository existing) {
+        Probe probe = Metrics.start("validation.validate", columns == null ? 0 : columns.size());
+        try {
+            if (columns == null || columns.size() == 0) {
+                throw new ValidationException("The data list cannot be null or empty.");
+            }
+
+            Checker checker = new Checker(columns.size(), mode, existing);
+            int position = 0;
+            for (int c = 0; c < columns.getChunkCount(); c++) {
+                int[] ids = columns.getIdChunk(c);
+                double[] values = columns.getValueChunk(c);
+                int length = columns.getChunkLength(c);
+                for (int i = 0; i < length; i++) {
+                    if (!checker.check(position++, ids[i], values[i])) {
+                        return checker.toResult();
+                    }
+                }
+            }
+            return checker.toResult();
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Checker holds the state of one validation pass.
+     */
+    private static class Checker {
+
+        private final IdSet seenIds;
+        private final ValidationMode mode;
+        private final DataRepository existing;
+        private final IdSet storedIds;
+        private final IntList invalidValues = new IntList();
+        private final IntList duplicateIds = new IntList();
+        private int checkedCount;
+        private boolean stoppedEarly;
+
+        Checker(int expectedSize, ValidationMode mode, DataRepository existing) {
+            this.seenIds = new IdSet(expectedSize);
+            this.mode = mode;
+            this.existing = existing;
+            this.storedIds = existing == null || existing.hasIdIndex() ? null : collectIds(existing);
         }
 
-        // Step 3: Check for duplicate IDs
-        Set<Integer> uniqueIds = new HashSet<>();
-        for (DataPoint dp : data) {
-            if (!uniqueIds.add(dp.getId())) { // add() returns false if the ID is already in the set
-                throw new ValidationException("Duplicate IDs found in the data.");
+        /**
+         * Collects the IDs stored in a repository without an ID index, in a single scan.
+         *
+         * @param repository The repository to scan.
+         * @return The set of stored IDs.
+         */
+        private static IdSet collectIds(DataRepository repository) {
+            List<DataPoint> stored = repository.getAllData();
+            IdSet ids = new IdSet(stored.size());
+            for (DataPoint dataPoint : stored) {
+                ids.add(dataPoint.getId());
             }
+            return ids;
         }
 
-        // Validation completed successfully
-        System.out.println("Validation completed: No invalid values or duplicate IDs found.");
+        /**
+         * Checks one data point.
+         *
+         * @param position The position of the data point.
+         * @param id       The ID of the data point.
+         * @param value    The value of the data point.
+         * @return {@code false} if the pass must stop.
+         */
+        boolean check(int position, int id, double value) {
+            checkedCount++;
+            boolean valid = true;
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                invalidValues.add(position);
+                valid = false;
+            }
+            // add() returns false if the ID is already in the set
+            if (!seenIds.add(id) || isStored(id)) {
+                duplicateIds.add(position);
+                valid = false;
+            }
+            if (!valid && mode == ValidationMode.FAIL_FAST) {
+                stoppedEarly = true;
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether an ID is already stored in the repository the data is validated against.
+         *
+         * @param id The ID to look up.
+         * @return {@code true} if the repository holds a data point with this ID.
+         */
+        private boolean isStored(int id) {
+            if (storedIds != null) {
+                return storedIds.contains(id);
+            }
+            return existing != null && existing.containsId(id);
+        }
+
+        ValidationResult toResult() {
+            Metrics.count(INVALID_VALUES, invalidValues.size());
+            Metrics.count(DUPLICATE_IDS, duplicateIds.size());
+            return new ValidationResult(checkedCount, invalidValues.toArray(), duplicateIds.toArray(), stoppedEarly);
+        }
     }
 }
@@ -0,0 +1,242 @@
+package es.predictapro.service;
+
+import es.predictapro.forecast.ExponentialSmoothingModel;
+import es.predictapro.forecast.ForecastModel;
+import es.predictapro.forecast.HoltModel;
+import es.predictapro.forecast.HoltWintersModel;
+import es.predictapro.forecast.LinearTrendModel;
+import es.predictapro.forecast.MovingAverageModel;
+import es.predictapro.forecast.PolynomialModel;
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.ForecastEvaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ForecastingService forecasts several values ahead with pluggable {@link ForecastModel}s.
+ * <p>
+ * Where {@link PredictionService} fits a straight line and predicts the next value only, this
+ * service fits any model of the {@code es.predictapro.forecast} package and forecasts up to a
+ * horizon. Every model is fitted in a single O(n) pass over the values, read chunk by chunk
+ * from primitive columns without creating any {@link DataPoint} objects.
+ * </p>
+ * <p>
+ * Models are compared with a holdout evaluation: each model is fitted to the start of the
+ * series and forecasts the held-out end, and the errors of the forecasts are reported. When
+ * created with a parallel {@link ChunkedExecutor}, the models are evaluated concurrently.
+ * </p>
+ * <p>
+ * Models are stateful: the methods of this service reset the model they are given and leave
+ * it fitted to the data, so it can keep following a live feed with {@link ForecastModel#add(double)}.
+ * The latency and input size of forecasts and evaluations are recorded by {@link Metrics}
+ * when enabled.
+ * </p>
+ */
+public class ForecastingService {
+
+    // Executor used to evaluate several models concurrently.
+    private final ChunkedExecutor executor;
+
+    /**
+     * Constructor for ForecastingService using sequential execution.
+     */
+    public ForecastingService() {
+        this(ChunkedExecutor.sequential());
+    }
+
+    /**
+     * Constructor for ForecastingService.
+     *
+     * @param executor The executor used to evaluate several models concurrently.
+     */
+    public ForecastingService(ChunkedExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates one model of each kind, with smoothing factors suited to moderately noisy data.
+     *
+     * @param period The number of values in a season, used by the moving average and Holt-Winters models.
+     * @return New, empty models: linear, quadratic, moving average, simple exponential smoothing,
+     *         Holt and Holt-Winters.
+     */
+    public static List<ForecastModel> createModels(int period) {
+        List<ForecastModel> models = new ArrayList<>();
+        models.add(new LinearTrendModel());
+        models.add(new PolynomialModel(2));
+        models.add(new MovingAverageModel(period));
+        models.add(new ExponentialSmoothingModel(0.3));
+        models.add(new HoltModel(0.3, 0.05));
+        models.add(new HoltWintersModel(0.3, 0.05, 0.2, period));
+        return models;
+    }
+
+    /**
+     * Fits a model to the given data points and forecasts the next values.
+     *
+     * @param model      The model to fit, reset first.
+     * @param dataPoints The list of data points, in series order.
+     * @param horizon    The number of values to forecast.
+     * @return The forecast values, all {@code NaN} if the list is null or empty.
+     * @throws IllegalArgumentException if the horizon is not positive.
+     */
+    public double[] forecast(ForecastModel model, List<DataPoint> dataPoints, int horizon) {
+        Probe probe = Metrics.start("forecast.forecast", dataPoints == null ? 0 : dataPoints.size());
+        try {
+            model.reset();
+            if (dataPoints != null) {
+                for (DataPoint point : dataPoints) {
+                    model.add(point.getValue());
+                }
+            }
+            return model.forecast(horizon);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Fits a model to the values stored in the given columns and forecasts the next values.
+     *
+     * @param model   The model to fit, reset first.
+     * @param columns The columns holding the data, in series order.
+     * @param horizon The number of values to forecast.
+     * @return The forecast values, all {@code NaN} if the columns are null or empty.
+     * @throws IllegalArgumentException if the horizon is not positive.
+     */
+    public double[] forecast(ForecastModel model, DataColumns columns, int horizon) {
+        Probe probe = Metrics.start("forecast.forecast", columns == null ? 0 : columns.size());
+        try {
+            model.reset();
+            if (columns != null) {
+                fit(model, columns, columns.size(), new double[0]);
+            }
+            return model.forecast(horizon);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Evaluates a model by forecasting the last values of the given data points from the others.
+     *
+     * @param model      The model to evaluate, reset first and left fitted to the training part.
+     * @param dataPoints The list of data points, in series order.
+     * @param holdout    The number of values held out of the fit and forecast.
+     * @return The {@link ForecastEvaluation} of the model.
+     * @throws IllegalArgumentException if the holdout leaves no value to fit the model to.
+     */
+    public ForecastEvaluation evaluate(ForecastModel model, List<DataPoint> dataPoints, int holdout) {
+        int size = dataPoints == null ? 0 : dataPoints.size();
+        Probe probe = Metrics.start("forecast.evaluate", size);
+        try {
+            int trainingSize = trainingSize(size, holdout);
+            model.reset();
+            for (DataPoint point : dataPoints.subList(0, trainingSize)) {
+                model.add(point.getValue());
+            }
+            double[] actual = new double[holdout];
+            for (int i = 0; i < holdout; i++) {
+                actual[i] = dataPoints.get(trainingSize + i).getValue();
+            }
+            return new ForecastEvaluation(model.getName(), trainingSize, model.forecast(holdout), actual);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Evaluates a model by forecasting the last values stored in the given columns from the others.
+     *
+     * @param model   The model to evaluate, reset first and left fitted to the training part.
+     * @param columns The columns holding the data, in series order.
+     * @param holdout The number of values held out of the fit and forecast.
+     * @return The {@link ForecastEvaluation} of the model.
+     * @throws IllegalArgumentException if the holdout leaves no value to fit the model to.
+     */
+    public ForecastEvaluation evaluate(ForecastModel model, DataColumns columns, int holdout) {
+        int size = columns == null ? 0 : columns.size();
+        Probe probe = Metrics.start("forecast.evaluate", size);
+        try {
+            int trainingSize = trainingSize(size, holdout);
+            model.reset();
+            double[] actual = new double[holdout];
+            fit(model, columns, trainingSize, actual);
+            return new ForecastEvaluation(model.getName(), trainingSize, model.forecast(holdout), actual);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Evaluates several models on the same data, as {@link #evaluate(ForecastModel, DataColumns, int)}.
+     *
+     * @param models  The models to evaluate, each a distinct instance.
+     * @param columns The columns holding the data, in series order.
+     * @param holdout The number of values held out of the fit and forecast.
+     * @return The {@link ForecastEvaluation} of each model, in the order of the models.
+     * @throws IllegalArgumentException if the holdout leaves no value to fit the models to.
+     */
+    public List<ForecastEvaluation> evaluateAll(List<? extends ForecastModel> models, DataColumns columns, int holdout) {
+        trainingSize(columns == null ? 0 : columns.size(), holdout);
+        return executor.aggregate(models.size(), 1, new ChunkedExecutor.Aggregation<List<ForecastEvaluation>>() {
+            @Override
+            public List<ForecastEvaluation> compute(int from, int to) {
+                List<ForecastEvaluation> evaluations = new ArrayList<>();
+                for (int m = from; m < to; m++) {
+                    evaluations.add(evaluate(models.get(m), columns, holdout));
+                }
+                return evaluations;
+            }
+
+            @Override
+            public List<ForecastEvaluation> merge(List<ForecastEvaluation> left, List<ForecastEvaluation> right) {
+                left.addAll(right);
+                return left;
+            }
+        });
+    }
+
+    /**
+     * Appends the first values stored in the given columns to a model, chunk by chunk, and
+     * copies the values following them.
+     *
+     * @param model     The model receiving the values.
+     * @param columns   The columns holding the data.
+     * @param count     The number of values to append.
+     * @param following The array receiving the values following the appended ones.
+     */
+    private static void fit(ForecastModel model, DataColumns columns, int count, double[] following) {
+        int position = 0;
+        int copied = 0;
+        for (int c = 0; c < columns.getChunkCount() && (position < count || copied < following.length); c++) {
+            double[] values = columns.getValueChunk(c);
+            int length = columns.getChunkLength(c);
+            int appended = Math.max(0, Math.min(length, count - position));
+            model.addAll(values, 0, appended);
+            int copy = Math.min(length - appended, following.length - copied);
+            System.arraycopy(values, appended, following, copied, copy);
+            copied += copy;
+            position += length;
+        }
+    }
+
+    /**
+     * Computes the number of values a model is fitted to in a holdout evaluation.
+     *
+     * @param size    The number of values of the series.
+     * @param holdout The number of values held out of the fit.
+     * @return The number of values left to fit the model to.
+     * @throws IllegalArgumentException if the holdout is not positive or leaves no value to fit the model to.
+     */
+    private static int trainingSize(int size, int holdout) {
+        if (holdout < 1 || holdout >= size) {
+            throw new IllegalArgumentException("The holdout must be between 1 and " + (size - 1) + ": " + holdout);
+        }
+        return size - holdout;
+    }
+}
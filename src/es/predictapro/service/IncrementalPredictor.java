@@ -0,0 +1,184 @@
+package es.predictapro.service;
+
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.PredictionResult;
+
+/**
+ * IncrementalPredictor maintains a linear regression over a growing series of values.
+ * <p>
+ * It applies the same model as {@link PredictionService#predict(java.util.List)}, using the
+ * 1-based index of each point as the independent variable, but keeps the regression sums
+ * up to date as points are appended:
+ * - Appending a point updates the sums in constant time.
+ * - With a window size, the oldest point is evicted once the window is full, also in
+ *   constant time, by shifting the indices of the remaining points.
+ * - A prediction is computed from the sums in constant time.
+ * </p>
+ * <p>
+ * To bound floating-point drift in sliding-window mode, the sums are recomputed from the
+ * window contents after every full turn of the window, which keeps the amortized cost per
+ * point constant. All methods are thread-safe.
+ * </p>
+ * <p>
+ * Appends and predictions are measured by {@link Metrics}; a prediction records the number
+ * of points it covers as input size.
+ * </p>
+ */
+public class IncrementalPredictor {
+
+    // Maximum number of points kept in the window, or 0 for an unbounded series.
+    private final int windowSize;
+
+
+    // Circular buffer holding the values of the window (only used with a window).
+    private final double[] window;
+
+
+    // Position of the oldest value in the circular buffer.
+    private int head;
+
+
+    // Number of points currently covered by the regression.
+    private long count;
+
+
+    // Sum of y (values) and of x * y over the covered points.
+    private double sumY;
+    private double sumXY;
+
+
+    // Number of evictions since the sums were last recomputed.
+    private int evictionsSinceRefresh;
+
+
+    /**
+     * Constructor for an IncrementalPredictor covering every appended point.
+     */
+    public IncrementalPredictor() {
+        this(0);
+    }
+
+    /**
+     * Constructor for IncrementalPredictor.
+     *
+     * @param windowSize The number of most recent points used for the regression,
+     *                   or 0 to use every appended point.
+     */
+    public IncrementalPredictor(int windowSize) {
+        if (windowSize < 0) {
+            throw new IllegalArgumentException("Window size cannot be negative: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.window = new double[windowSize];
+    }
+
+    /**
+     * Appends a data point to the series.
+     *
+     * @param dataPoint The {@link DataPoint} to append.
+     */
+    public void add(DataPoint dataPoint) {
+        add(dataPoint.getValue());
+    }
+
+    /**
+     * Appends a value to the series, evicting the oldest value when the window is full.
+     *
+     * @param value The value to append.
+     */
+    public synchronized void add(double value) {
+        Probe probe = Metrics.start("incrementalPredictor.add", 1);
+        try {
+            if (windowSize > 0) {
+                if (count == windowSize) {
+                    evictOldest();
+                }
+                window[(int) ((head + count) % windowSize)] = value;
+            }
+
+            // The new point gets the next index, x = count + 1
+            count++;
+            sumY += value;
+            sumXY += count * value;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Predicts the next value of the series from the current regression sums.
+     *
+     * @return A {@link PredictionResult} containing the predicted value and a description message.
+     */
+    public synchronized PredictionResult predict() {
+        Probe probe = Metrics.start("incrementalPredictor.predict", count);
+        try {
+            if (count == 0) {
+                return new PredictionResult(0, "Not enough data to make a prediction.");
+            }
+
+            // The sums of the indices only depend on the number of points
+            double n = count;
+            double sumX = n * (n + 1) / 2;
+            double sumX2 = n * (n + 1) * (2 * n + 1) / 6;
+            return PredictionService.predictFromSums(count, sumX, sumY, sumXY, sumX2);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Gets the number of points currently covered by the regression.
+     *
+     * @return The number of points.
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Removes every point from the series.
+     */
+    public synchronized void reset() {
+        head = 0;
+        count = 0;
+        sumY = 0.0;
+        sumXY = 0.0;
+        evictionsSinceRefresh = 0;
+    }
+
+    /**
+     * Evicts the oldest value of the window and shifts the index of every remaining value down by one.
+     */
+    private void evictOldest() {
+        double oldest = window[head];
+        head = (head + 1) % windowSize;
+        count--;
+
+        // Remove the term of the oldest point (x = 1), then decrement every other x:
+        // sum((x - 1) * y) = sum(x * y) - sum(y)
+        sumXY -= oldest;
+        sumY -= oldest;
+        sumXY -= sumY;
+
+        if (++evictionsSinceRefresh == windowSize) {
+            refreshSums();
+        }
+    }
+
+    /**
+     * Recomputes the regression sums from the window contents to discard accumulated rounding errors.
+     */
+    private void refreshSums() {
+        sumY = 0.0;
+        sumXY = 0.0;
+        for (int i = 0; i < count; i++) {
+            double value = window[(head + i) % windowSize];
+            sumY += value;
+            sumXY += (i + 1) * value;
+        }
+        evictionsSinceRefresh = 0;
+    }
+}
@@ -0,0 +1,347 @@
+package es.predictapro.service;
+
+import es.predictapro.exception.ServiceException;
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.ValidationResult;
+import es.predictapro.repository.DataRepository;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * IngestPipeline loads batches of data points into a repository through three overlapping stages.
+ * <p>
+ * Each stage runs on its own thread and hands batches to the next one through a bounded queue:
+ * - Validation, with {@link DataValidationService}. Batches with invalid values or duplicate IDs
+ *   are rejected as a whole and counted.
+ * - Cleaning, with {@link DataCleaningService}. Outliers are detected within each batch.
+ * - Storage, with {@link DataRepository#saveAll(DataColumns)}.
+ * </p>
+ * <p>
+ * While one batch is being stored, the next ones are already being cleaned and validated, so
+ * a bulk load runs at the speed of its slowest stage. The bounded queues apply back-pressure:
+ * {@link #submit(DataColumns)} blocks when the stages fall behind, which caps the memory used
+ * by batches in flight.
+ * </p>
+ * <p>
+ * The storage thread is the only writer of the repository for the lifetime of the pipeline.
+ * The pipeline itself can be fed from several threads, as long as every submission returns
+ * before {@link #close()} is called. If a stage fails, the remaining batches
+ * are discarded and the failure is rethrown as a {@link ServiceException} by the next call to
+ * {@link #submit(DataColumns)} or by {@link #close()}.
+ * </p>
+ * <p>
+ * Submissions are measured by {@link Metrics}, so the time callers spend blocked by
+ * back-pressure shows up in their latency.
+ * </p>
+ */
+public class IngestPipeline implements AutoCloseable {
+
+    // Default number of batches each queue can hold.
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    // Marker batch signaling the end of the input.
+    private static final ColumnBuffer END_OF_INPUT = new ColumnBuffer();
+
+
+    // Repository receiving the stored batches.
+    private final DataRepository repository;
+
+
+    // Service validating each batch.
+    private final DataValidationService validationService;
+
+
+    // Service removing the outliers of each batch.
+    private final DataCleaningService cleaningService;
+
+
+    // Queues connecting the stages.
+    private final BlockingQueue<DataColumns> validationQueue;
+    private final BlockingQueue<DataColumns> cleaningQueue;
+    private final BlockingQueue<DataColumns> storageQueue;
+
+
+    // Threads running the stages.
+    private final Thread[] stages;
+
+
+    // First failure raised by a stage.
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+
+    // Counters describing the ingested data.
+    private final AtomicLong rejectedBatchCount = new AtomicLong();
+    private final AtomicLong rejectedPointCount = new AtomicLong();
+    private final AtomicLong removedOutlierCount = new AtomicLong();
+    private final AtomicLong storedPointCount = new AtomicLong();
+
+
+    // Whether the end of the input has been signaled.
+    private boolean closed;
+
+
+    /**
+     * Constructor for an IngestPipeline with the default queue capacity.
+     *
+     * @param repository        The repository receiving the data.
+     * @param validationService The service validating each batch.
+     * @param cleaningService   The service removing the outliers of each batch.
+     */
+    public IngestPipeline(DataRepository repository, DataValidationService validationService,
+                          DataCleaningService cleaningService) {
+        this(repository, validationService, cleaningService, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor for an IngestPipeline, starting the stage threads.
+     *
+     * @param repository        The repository receiving the data.
+     * @param validationService The service validating each batch.
+     * @param cleaningService   The service removing the outliers of each batch.
+     * @param queueCapacity     The number of batches each queue can hold.
+     */
+    public IngestPipeline(DataRepository repository, DataValidationService validationService,
+                          DataCleaningService cleaningService, int queueCapacity) {
+        this.repository = repository;
+        this.validationService = validationService;
+        this.cleaningService = cleaningService;
+        this.validationQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.cleaningQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.storageQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.stages = new Thread[] {
+                new Thread(() -> runStage(validationQueue, cleaningQueue, this::validate), "predictapro-ingest-validate"),
+                new Thread(() -> runStage(cleaningQueue, storageQueue, this::clean), "predictapro-ingest-clean"),
+                new Thread(() -> runStage(storageQueue, null, this::store), "predictapro-ingest-store")
+        };
+        for (Thread stage : stages) {
+            stage.setDaemon(true);
+            stage.start();
+        }
+    }
+
+    /**
+     * Submits a batch of data points stored in primitive columns.
+     * <p>
+     * The batch must not be modified after it is submitted. Empty batches are ignored.
+     * This method blocks while the validation queue is full.
+     * </p>
+     *
+     * @param batch The columns holding the data points to ingest.
+     * @throws ServiceException if the pipeline is closed, a stage has failed or the caller is interrupted.
+     */
+    public void submit(DataColumns batch) {
+        Probe probe = Metrics.start("ingest.submit", batch == null ? 0 : batch.size());
+        try {
+            checkFailure();
+            synchronized (this) {
+                if (closed) {
+                    throw new ServiceException("The ingest pipeline is closed.");
+                }
+            }
+            if (batch == null || batch.size() == 0) {
+                return;
+            }
+            try {
+                validationQueue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceException("Interrupted while submitting a batch.", e);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Submits a batch of data points, copying them into primitive columns.
+     *
+     * @param batch The {@link DataPoint} objects to ingest.
+     * @throws ServiceException if the pipeline is closed, a stage has failed or the caller is interrupted.
+     */
+    public void submit(List<DataPoint> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        ColumnBuffer columns = new ColumnBuffer();
+        for (DataPoint dataPoint : batch) {
+            columns.append(dataPoint);
+        }
+        submit(columns);
+    }
+
+    /**
+     * Signals the end of the input and waits until every submitted batch has been stored.
+     * <p>
+     * Calling this method more than once has no further effect.
+     * </p>
+     *
+     * @throws ServiceException if a stage has failed or the caller is interrupted while waiting.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            validationQueue.put(END_OF_INPUT);
+            for (Thread stage : stages) {
+                stage.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while waiting for the ingest pipeline.", e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Gets the number of batches rejected by the validation stage.
+     *
+     * @return The number of rejected batches.
+     */
+    public long getRejectedBatchCount() {
+        return rejectedBatchCount.get();
+    }
+
+    /**
+     * Gets the number of data points contained in the rejected batches.
+     *
+     * @return The number of rejected data points.
+     */
+    public long getRejectedPointCount() {
+        return rejectedPointCount.get();
+    }
+
+    /**
+     * Gets the number of outliers removed by the cleaning stage.
+     *
+     * @return The number of removed data points.
+     */
+    public long getRemovedOutlierCount() {
+        return removedOutlierCount.get();
+    }
+
+    /**
+     * Gets the number of data points saved to the repository.
+     *
+     * @return The number of stored data points.
+     */
+    public long getStoredPointCount() {
+        return storedPointCount.get();
+    }
+
+    /**
+     * Runs a stage until the end of the input.
+     * <p>
+     * Steps:
+     * 1. Takes the next batch from the input queue.
+     * 2. Forwards the end-of-input marker to the next stage and stops when it is received.
+     * 3. Processes the batch, unless a stage has already failed, and hands the result to the next stage.
+     * </p>
+     *
+     * @param input  The queue feeding the stage.
+     * @param output The queue of the next stage, or null for the last stage.
+     * @param stage  The processing applied to each batch.
+     */
+    private void runStage(BlockingQueue<DataColumns> input, BlockingQueue<DataColumns> output, Stage stage) {
+        try {
+            while (true) {
+                // Step 1 and 2: Take the next batch, stopping at the end of the input
+                DataColumns batch = input.take();
+                if (batch == END_OF_INPUT) {
+                    if (output != null) {
+                        output.put(END_OF_INPUT);
+                    }
+                    return;
+                }
+
+                // Step 3: Process the batch, discarding it after a failure
+                if (failure.get() != null) {
+                    continue;
+                }
+                DataColumns result;
+                try {
+                    result = stage.process(batch);
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                    continue;
+                }
+                if (result != null && output != null) {
+                    output.put(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Validates a batch, rejecting it if any of its points is invalid.
+     *
+     * @param batch The batch to validate.
+     * @return The batch, or null if it was rejected.
+     */
+    private DataColumns validate(DataColumns batch) {
+        ValidationResult result = validationService.validate(batch, ValidationMode.FAIL_FAST);
+        if (!result.isValid()) {
+            rejectedBatchCount.incrementAndGet();
+            rejectedPointCount.addAndGet(batch.size());
+            return null;
+        }
+        return batch;
+    }
+
+    /**
+     * Removes the outliers of a batch.
+     *
+     * @param batch The batch to clean.
+     * @return The cleaned batch.
+     */
+    private DataColumns clean(DataColumns batch) {
+        ColumnBuffer cleaned = cleaningService.cleanData(batch);
+        removedOutlierCount.addAndGet(batch.size() - cleaned.size());
+        return cleaned;
+    }
+
+    /**
+     * Saves a batch to the repository.
+     *
+     * @param batch The batch to store.
+     * @return Always null, as storage is the last stage.
+     */
+    private DataColumns store(DataColumns batch) {
+        repository.saveAll(batch);
+        storedPointCount.addAndGet(batch.size());
+        return null;
+    }
+
+    /**
+     * Throws the failure of a stage, if any.
+     *
+     * @throws ServiceException if a stage has failed.
+     */
+    private void checkFailure() {
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new ServiceException("The ingest pipeline failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Stage is the processing applied to each batch by one thread of the pipeline.
+     */
+    private interface Stage {
+        DataColumns process(DataColumns batch);
+    }
+}
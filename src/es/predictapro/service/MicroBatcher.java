@@ -0,0 +1,230 @@
+package es.predictapro.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * MicroBatcher groups the requests arriving within a short window and answers them with a
+ * single call of a batch function.
+ * <p>
+ * The first request of a batch becomes its leader: it waits for the window to elapse, or for
+ * the batch to fill up, then runs the batch function on its own thread and completes the
+ * futures of every request in the batch. No background thread is involved. Under a burst, the
+ * work of many requests is done in one pass, for example one scan of the data for every
+ * requested time window.
+ * </p>
+ * <p>
+ * The window is only waited for under contention, when the previous request arrived less than
+ * a window earlier or other requests are in flight. Otherwise the leader runs its batch at
+ * once, so a service receiving sparse requests answers them without added latency; only the
+ * first request of a burst is answered alone.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @param <R> The type of the requests.
+ * @param <V> The type of the results.
+ */
+public class MicroBatcher<R, V> {
+
+    // Default time the first request of a batch waits for others, in microseconds.
+    public static final long DEFAULT_WINDOW_MICROS = 500;
+
+    // Default maximum number of requests per batch.
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+
+    // Function answering a batch of requests with one result per request, in the same order.
+    private final Function<List<R>, List<V>> batchFunction;
+
+
+    // Time the leader of a batch waits for other requests, in nanoseconds.
+    private final long windowNanos;
+
+
+    // Maximum number of requests per batch.
+    private final int maxBatchSize;
+
+
+    // Batch accepting new requests, or null; guarded by this batcher.
+    private Batch<R, V> open;
+
+
+    // Number of requests submitted and not answered yet; guarded by this batcher.
+    private int inFlight;
+
+
+    // Time of the latest submission, in nanoseconds; guarded by this batcher.
+    private long lastSubmitNanos;
+
+
+    // Number of batches run and of requests answered.
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+
+    /**
+     * Constructor for a MicroBatcher with the default window and batch size.
+     *
+     * @param batchFunction The function answering a batch of requests.
+     */
+    public MicroBatcher(Function<List<R>, List<V>> batchFunction) {
+        this(batchFunction, DEFAULT_WINDOW_MICROS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor for a MicroBatcher.
+     *
+     * @param batchFunction The function answering a batch of requests with one result per request,
+     *                      in the same order.
+     * @param windowMicros  The time the first request of a batch waits for others, in microseconds.
+     * @param maxBatchSize  The maximum number of requests per batch.
+     * @throws IllegalArgumentException if the window is negative or the batch size is not positive.
+     */
+    public MicroBatcher(Function<List<R>, List<V>> batchFunction, long windowMicros, int maxBatchSize) {
+        if (windowMicros < 0 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid batching window " + windowMicros
+                    + " or batch size " + maxBatchSize + ".");
+        }
+        this.batchFunction = batchFunction;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.lastSubmitNanos = System.nanoTime() - this.windowNanos - 1;
+    }
+
+    /**
+     * Adds a request to the open batch, leading a new batch if none is open.
+     *
+     * @param request The request to answer.
+     * @return The future result of the request.
+     */
+    public CompletableFuture<V> submit(R request) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        Batch<R, V> batch;
+        boolean leader = false;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (open == null || open.requests.size() >= maxBatchSize) {
+                open = new Batch<>();
+                open.contended = inFlight > 0 || now - lastSubmitNanos < windowNanos;
+                leader = true;
+            }
+            lastSubmitNanos = now;
+            batch = open;
+            inFlight++;
+            batch.requests.add(request);
+            batch.futures.add(future);
+            if (batch.requests.size() >= maxBatchSize) {
+                notifyAll(); // Wake up the leader of the full batch
+            }
+        }
+        if (leader) {
+            lead(batch);
+        }
+        return future;
+    }
+
+    /**
+     * Answers a request, possibly together with concurrent ones.
+     *
+     * @param request The request to answer.
+     * @return The result of the request.
+     * @throws RuntimeException the exception thrown by the batch function, if any.
+     */
+    public V execute(R request) {
+        return SingleFlight.await(submit(request));
+    }
+
+    /**
+     * Gets the number of batches run.
+     *
+     * @return The batch count.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Gets the number of requests answered.
+     *
+     * @return The request count.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Waits for the batch to be complete, then answers all its requests.
+     * <p>
+     * Steps:
+     * 1. Waits until the window elapses or the batch is full, unless the batch is uncontended,
+     *    then closes the batch.
+     * 2. Runs the batch function once and checks that it answered every request.
+     * 3. Completes the future of every request with its result, or with the failure.
+     * </p>
+     *
+     * @param batch The batch led by the calling thread.
+     */
+    private void lead(Batch<R, V> batch) {
+        // Step 1: Collect the requests of the window, if other requests are likely to join
+        synchronized (this) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining;
+            while (batch.contended && batch.requests.size() < maxBatchSize
+                    && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (open == batch) {
+                open = null;
+            }
+        }
+
+        // Step 2: Answer the whole batch at once
+        int size = batch.requests.size();
+        batches.incrementAndGet();
+        requests.addAndGet(size);
+        List<V> results;
+        try {
+            results = batchFunction.apply(batch.requests);
+            if (results == null || results.size() != size) {
+                throw new IllegalStateException("The batch function returned " + (results == null ? "no" : results.size())
+                        + " results for " + size + " requests.");
+            }
+        } catch (RuntimeException | Error e) {
+            for (CompletableFuture<V> future : batch.futures) {
+                future.completeExceptionally(e);
+            }
+            return;
+        } finally {
+            synchronized (this) {
+                inFlight -= size;
+            }
+        }
+
+        // Step 3: Hand out the results
+        for (int i = 0; i < size; i++) {
+            batch.futures.get(i).complete(results.get(i));
+        }
+    }
+
+    /**
+     * Requests of a batch and their futures, at the same positions, and whether the leader
+     * waits for the window.
+     */
+    private static final class Batch<R, V> {
+
+        private final List<R> requests = new ArrayList<>();
+        private final List<CompletableFuture<V>> futures = new ArrayList<>();
+        private boolean contended;
+    }
+}
@@ -1,8 +1,14 @@
 package es.predictapro.service;
 
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
 import es.predictapro.model.DataPoint;
 import es.predictapro.model.PredictionResult;
+import es.predictapro.util.DoubleKernels;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -12,9 +18,42 @@ import java.util.List;
  * - Using indices as independent variables (x).
  * - Applying linear regression to estimate the next value in the sequence.
  * </p>
+ * <p>
+ * The regression sums are accumulated in independent lanes by {@link DoubleKernels}, so the
+ * loops over primitive columns are not bound by the latency of each addition. Every input
+ * form, {@code List}, columns of any chunk size or time windows, places each point in the
+ * same lane, so they all predict exactly the same value for the same series.
+ * </p>
+ * <p>
+ * When created with a parallel {@link ChunkedExecutor}, the regression sums of large
+ * inputs are computed per chunk and added together.
+ * </p>
+ * <p>
+ * The latency, input size and allocation of every prediction are recorded by {@link Metrics}
+ * when enabled.
+ * </p>
  */
 public class PredictionService {
 
+    // Executor used to split large inputs into chunks.
+    private final ChunkedExecutor executor;
+
+    /**
+     * Constructor for PredictionService using sequential execution.
+     */
+    public PredictionService() {
+        this(ChunkedExecutor.sequential());
+    }
+
+    /**
+     * Constructor for PredictionService.
+     *
+     * @param executor The executor used to split large inputs into chunks.
+     */
+    public PredictionService(ChunkedExecutor executor) {
+        this.executor = executor;
+    }
+
     /**
      * Predicts the next value in the dataset using linear regression.
      * <p>
@@ -28,39 +67,225 @@ public class PredictionService {
      * @return A {@link PredictionResult} containing the predicted value and a description message.
      */
     public PredictionResult predict(List<DataPoint> data) {
-        // Step 1: Validate the input data
-        if (data == null || data.isEmpty()) {
-            return new PredictionResult(0, "Not enough data to make a prediction.");
+        Probe probe = Metrics.start("prediction.predict", data == null ? 0 : data.size());
+        try {
+            // Step 1: Validate the input data
+            if (data == null || data.isEmpty()) {
+                return new PredictionResult(0, "Not enough data to make a prediction.");
+            }
+            if (executor.isParallel(data.size())) {
+                return predictFromLanes(data.size(), executor.aggregate(data.size(), new LanesAggregation() {
+                    @Override
+                    public double[] compute(int from, int to) {
+                        double[] lanes = new double[DoubleKernels.REGRESSION_LANES];
+                        for (int i = from; i < to; i++) {
+                            DoubleKernels.addRegressionTerm(lanes, i, data.get(i).getValue());
+                        }
+                        return lanes;
+                    }
+                }));
+            }
+
+            // Step 2: Compute the necessary sums, using the index as the independent variable
+            int n = data.size(); // Number of data points
+            double[] lanes = new double[DoubleKernels.REGRESSION_LANES];
+            for (int i = 0; i < n; i++) {
+                DoubleKernels.addRegressionTerm(lanes, i, data.get(i).getValue());
+            }
+
+            // Step 3: Calculate the regression line and predict the next value (for x = n + 1)
+            return predictFromLanes(n, lanes);
+        } finally {
+            probe.stop();
         }
+    }
+
+    /**
+     * Predicts the next value of data stored in primitive columns using linear regression.
+     * <p>
+     * Applies the same model as {@link #predict(List)}, reading the values directly
+     * from the columns without creating any {@link DataPoint} objects.
+     * </p>
+     *
+     * @param columns The columns holding the dataset.
+     * @return A {@link PredictionResult} containing the predicted value and a description message.
+     */
+    public PredictionResult predict(DataColumns columns) {
+        Probe probe = Metrics.start("prediction.predict", columns == null ? 0 : columns.size());
+        try {
+            // Step 1: Validate the input data
+            if (columns == null || columns.size() == 0) {
+                return new PredictionResult(0, "Not enough data to make a prediction.");
+            }
+            if (executor.isParallel(columns.size())) {
+                // Position of the first point of each chunk, as used by the sequential loop
+                long[] offsets = new long[columns.getChunkCount()];
+                for (int c = 1; c < offsets.length; c++) {
+                    offsets[c] = offsets[c - 1] + columns.getChunkLength(c - 1);
+                }
+                int grain = Math.max(1, executor.getChunkSize() / ColumnBuffer.CHUNK_SIZE);
+                return predictFromLanes(columns.size(), executor.aggregate(columns.getChunkCount(), grain, new LanesAggregation() {
+                    @Override
+                    public double[] compute(int fromChunk, int toChunk) {
+                        return regressionLanes(columns, fromChunk, toChunk, offsets[fromChunk]);
+                    }
+                }));
+            }
 
-        // Initialize variables for linear regression calculations
-        int n = data.size(); // Number of data points
-        double sumX = 0.0; // Sum of x (indices)
-        double sumY = 0.0; // Sum of y (values)
-        double sumXY = 0.0; // Sum of x * y
-        double sumX2 = 0.0; // Sum of x^2
-
-        // Step 2: Compute the necessary sums
-        for (int i = 0; i < n; i++) {
-            double x = i + 1; // Use the index as the independent variable
-            double y = data.get(i).getValue(); // The dependent variable (data value)
-
-            sumX += x;
-            sumY += y;
-            sumXY += x * y;
-            sumX2 += x * x;
+            // Step 2: Compute the necessary sums, chunk by chunk
+            double[] lanes = regressionLanes(columns, 0, columns.getChunkCount(), 0);
+
+            // Step 3: Calculate the regression line and predict the next value (for x = n + 1)
+            return predictFromLanes(columns.size(), lanes);
+        } finally {
+            probe.stop();
         }
+    }
 
-        // Step 3: Calculate the slope (m) and intercept (b) for the regression line
+    /**
+     * Predicts the next value of several time windows of the same data in a single pass.
+     * <p>
+     * Each window gets the result {@link #predict(List)} would return for the points whose
+     * timestamp is within [from, to), in timestamp order. The windows are swept together:
+     * every point is read once and added to the regression sums of the windows covering it,
+     * and chunks before the first window are skipped.
+     * </p>
+     * <p>
+     * Steps:
+     * 1. Orders the windows by start time.
+     * 2. Scans the points, opening the windows they reach and closing the ones they pass.
+     * 3. Predicts the next value of each window from its sums.
+     * </p>
+     *
+     * @param sortedColumns The columns holding the dataset, sorted by timestamp.
+     * @param fromMillis    The start of each window, in milliseconds (inclusive).
+     * @param toMillis      The end of each window, in milliseconds (exclusive).
+     * @return The {@link PredictionResult} of each window, in the order of the windows.
+     */
+    public PredictionResult[] predictWindows(DataColumns sortedColumns, long[] fromMillis, long[] toMillis) {
+        Probe probe = Metrics.start("prediction.predictWindows", sortedColumns.size());
+        try {
+            // Step 1: Order the windows by start time
+            int windows = fromMillis.length;
+            Integer[] order = new Integer[windows];
+            for (int w = 0; w < windows; w++) {
+                order[w] = w;
+            }
+            Arrays.sort(order, (left, right) -> Long.compare(fromMillis[left], fromMillis[right]));
+
+            // Step 2: Sweep the points once, updating the windows covering each of them
+            long[] counts = new long[windows];
+            double[][] lanes = new double[windows][DoubleKernels.REGRESSION_LANES];
+            int[] active = new int[windows];
+            int activeCount = 0;
+            int next = 0;
+            for (int c = 0; c < sortedColumns.getChunkCount() && (next < windows || activeCount > 0); c++) {
+                int length = sortedColumns.getChunkLength(c);
+                long[] timestamps = sortedColumns.getTimestampChunk(c);
+                if (length == 0 || (activeCount == 0 && timestamps[length - 1] < fromMillis[order[next]])) {
+                    continue; // No window covers this chunk
+                }
+                double[] values = sortedColumns.getValueChunk(c);
+                for (int i = 0; i < length; i++) {
+                    long timestamp = timestamps[i];
+                    while (next < windows && fromMillis[order[next]] <= timestamp) {
+                        active[activeCount++] = order[next++];
+                    }
+                    for (int a = 0; a < activeCount; ) {
+                        int w = active[a];
+                        if (timestamp >= toMillis[w]) {
+                            active[a] = active[--activeCount]; // Passed the end of the window
+                            continue;
+                        }
+                        DoubleKernels.addRegressionTerm(lanes[w], counts[w]++, values[i]);
+                        a++;
+                    }
+                }
+            }
+
+            // Step 3: Predict each window
+            PredictionResult[] results = new PredictionResult[windows];
+            for (int w = 0; w < windows; w++) {
+                results[w] = counts[w] == 0
+                        ? new PredictionResult(0, "Not enough data to make a prediction.")
+                        : predictFromLanes(counts[w], lanes[w]);
+            }
+            return results;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Computes the regression lanes of a range of column chunks.
+     *
+     * @param columns   The columns holding the dataset.
+     * @param fromChunk The first chunk (inclusive).
+     * @param toChunk   The last chunk (exclusive).
+     * @param position  The position of the first point of the range in the dataset (0-based).
+     * @return The {@link DoubleKernels#REGRESSION_LANES} accumulators of the regression sums.
+     */
+    private static double[] regressionLanes(DataColumns columns, int fromChunk, int toChunk, long position) {
+        double[] lanes = new double[DoubleKernels.REGRESSION_LANES];
+        for (int c = fromChunk; c < toChunk; c++) {
+            int length = columns.getChunkLength(c);
+            DoubleKernels.regressionSums(columns.getValueChunk(c), 0, length, position, lanes);
+            position += length;
+        }
+        return lanes;
+    }
+
+    /**
+     * Calculates the regression line from the lane accumulators of its sums and predicts the
+     * next value.
+     *
+     * @param n     The number of data points.
+     * @param lanes The {@link DoubleKernels#REGRESSION_LANES} accumulators of the sums of x, y,
+     *              x * y and x^2, in this order.
+     * @return A {@link PredictionResult} containing the predicted value and a description message.
+     */
+    private static PredictionResult predictFromLanes(long n, double[] lanes) {
+        int group = DoubleKernels.LANES;
+        return predictFromSums(n, DoubleKernels.combine(lanes, 0), DoubleKernels.combine(lanes, group),
+                DoubleKernels.combine(lanes, 2 * group), DoubleKernels.combine(lanes, 3 * group));
+    }
+
+    /**
+     * Calculates the regression line from precomputed sums and predicts the next value.
+     * <p>
+     * The independent variable is the 1-based index of each point, so the prediction is
+     * made for x = n + 1.
+     * </p>
+     *
+     * @param n     The number of data points.
+     * @param sumX  The sum of x (indices).
+     * @param sumY  The sum of y (values).
+     * @param sumXY The sum of x * y.
+     * @param sumX2 The sum of x^2.
+     * @return A {@link PredictionResult} containing the predicted value and a description message.
+     */
+    static PredictionResult predictFromSums(long n, double sumX, double sumY, double sumXY, double sumX2) {
+        // Calculate the slope (m) and intercept (b) for the regression line
         double m = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
         double b = (sumY - m * sumX) / n;
 
-        // Step 4: Predict the next value (for x = n + 1)
+        // Predict the next value (for x = n + 1)
         double nextX = n + 1;
         double predictedValue = m * nextX + b;
-
-        // Step 5: Return the prediction result
         return new PredictionResult(predictedValue, "Prediction calculated using simple linear regression.");
     }
-}
 
+    /**
+     * Aggregation of partial regression lanes, merged lane by lane.
+     */
+    private abstract static class LanesAggregation implements ChunkedExecutor.Aggregation<double[]> {
+
+        @Override
+        public double[] merge(double[] left, double[] right) {
+            for (int i = 0; i < left.length; i++) {
+                left[i] += right[i];
+            }
+            return left;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package es.predictapro.service;
+
+import es.predictapro.util.DecimalFormatter;
+import es.predictapro.util.TimestampFormatter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * ReportWriter formats the rows of a tabular report into a bounded buffer.
+ * <p>
+ * Rows are appended to a reusable {@link StringBuilder} that is flushed to the destination
+ * whenever it grows past a fixed threshold, so the memory used does not depend on the
+ * number of rows. Values are formatted with {@link DecimalFormatter} and timestamps with a
+ * {@link TimestampFormatter}, so formatting a row allocates nothing in the common case.
+ * </p>
+ */
+class ReportWriter {
+
+    // Header of the report table.
+    static final String HEADER = "ID  | VALUE    | TIMESTAMP\n-------------------------------\n";
+
+    // Message written when there is no data to report.
+    static final String EMPTY_MESSAGE = "No data available to generate the report.";
+
+    // Number of buffered characters that triggers a flush.
+    private static final int FLUSH_THRESHOLD = 8192;
+
+
+    // Buffer holding the formatted rows not yet flushed.
+    private final StringBuilder buffer;
+
+
+    // Destination of the flushed rows, or null when the buffer is the destination.
+    private final Sink sink;
+
+
+    // Formatter of the timestamps, confined to this writer.
+    private final TimestampFormatter timestampFormatter = new TimestampFormatter();
+
+
+    /**
+     * Creates a writer appending every row directly to the given builder.
+     *
+     * @param out The builder receiving the report.
+     */
+    ReportWriter(StringBuilder out) {
+        this.buffer = out;
+        this.sink = null;
+    }
+
+    /**
+     * Creates a writer flushing the rows to a character stream.
+     *
+     * @param writer The stream receiving the report.
+     */
+    ReportWriter(Writer writer) {
+        this.buffer = new StringBuilder(FLUSH_THRESHOLD + 64);
+        char[] chars = new char[FLUSH_THRESHOLD + 64];
+        this.sink = text -> {
+            int length = text.length();
+            char[] target = length <= chars.length ? chars : new char[length];
+            text.getChars(0, length, target, 0);
+            writer.write(target, 0, length);
+        };
+    }
+
+    /**
+     * Creates a writer flushing the rows to a byte channel as ASCII.
+     *
+     * @param channel The channel receiving the report.
+     */
+    ReportWriter(WritableByteChannel channel) {
+        this.buffer = new StringBuilder(FLUSH_THRESHOLD + 64);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(FLUSH_THRESHOLD + 64);
+        this.sink = text -> {
+            for (int start = 0; start < text.length(); ) {
+                bytes.clear();
+                int end = Math.min(text.length(), start + bytes.capacity());
+                for (int i = start; i < end; i++) {
+                    char c = text.charAt(i);
+                    bytes.put(c < 0x80 ? (byte) c : (byte) '?');
+                }
+                bytes.flip();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                start = end;
+            }
+        };
+    }
+
+    /**
+     * Writes raw text, such as the header or the empty-data message.
+     *
+     * @param text The text to write.
+     * @throws IOException if the destination cannot be written.
+     */
+    void writeText(String text) throws IOException {
+        buffer.append(text);
+        flushIfNeeded();
+    }
+
+    /**
+     * Writes one row of the report.
+     *
+     * @param id        The ID of the data point.
+     * @param value     The value of the data point.
+     * @param timestamp The timestamp of the data point, in milliseconds.
+     * @throws IOException if the destination cannot be written.
+     */
+    void writeRow(int id, double value, long timestamp) throws IOException {
+        buffer.append(id).append("   | ");
+        DecimalFormatter.appendFixed(buffer, value, 2).append("   | ");
+        timestampFormatter.append(buffer, timestamp).append('\n');
+        flushIfNeeded();
+    }
+
+    /**
+     * Flushes every buffered character to the destination.
+     *
+     * @throws IOException if the destination cannot be written.
+     */
+    void flush() throws IOException {
+        if (sink != null && buffer.length() > 0) {
+            sink.write(buffer);
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Flushes the buffer once it grows past the threshold.
+     *
+     * @throws IOException if the destination cannot be written.
+     */
+    private void flushIfNeeded() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * Sink receives the buffered characters of the report.
+     */
+    private interface Sink {
+        void write(StringBuilder text) throws IOException;
+    }
+}
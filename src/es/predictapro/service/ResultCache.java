@@ -0,0 +1,286 @@
+package es.predictapro.service;
+
+import es.predictapro.repository.DataRepository;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ResultCache keeps the results of queries on repositories so that repeated queries on
+ * unchanged data cost a lookup instead of a recomputation.
+ * <p>
+ * Each result is stored under its repository and a query key, such as {@code "summary"} or
+ * {@code "predict:1000:2000"}, together with the {@link DataRepository#getVersion() version}
+ * of the data it was computed from. A lookup only hits when the repository is still at that
+ * version: any save makes the previous results stale, and they are replaced on their next
+ * lookup. Repositories returning {@link DataRepository#UNVERSIONED} are never cached.
+ * </p>
+ * <p>
+ * The cache holds at most a fixed number of results and evicts the least recently used one
+ * when full. Hits, misses and evictions are counted to check how effective the cache is.
+ * </p>
+ * <p>
+ * This class is thread-safe. Results are computed outside the lock, and threads missing the
+ * same key at the same version share a single computation through a {@link SingleFlight}.
+ * Cached results are shared between callers and must not be modified.
+ * </p>
+ */
+public class ResultCache {
+
+    // Default maximum number of cached results.
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+
+    // Maximum number of cached results.
+    private final int maxEntries;
+
+
+    // Cached results in access order, least recently used first.
+    private final LinkedHashMap<Key, Entry> entries;
+
+
+    // Computations of missing results in progress, by key and version.
+    private final SingleFlight<Entry, Object> flights = new SingleFlight<>();
+
+
+    // Statistics of the cache, guarded by the cache lock.
+    private long hits;
+    private long misses;
+    private long evictions;
+
+
+    /**
+     * Constructor for a ResultCache with the default size.
+     */
+    public ResultCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Constructor for a ResultCache.
+     *
+     * @param maxEntries The maximum number of cached results.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    public ResultCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one result.");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ResultCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the result of a query, computing it only if no result is cached for the current
+     * version of the repository.
+     * <p>
+     * Steps:
+     * 1. Reads the version of the repository before computing anything.
+     * 2. Returns the cached result if it was computed at that version.
+     * 3. Otherwise computes the result, or joins a concurrent computation of the same key and
+     *    version, and caches it under that version.
+     * </p>
+     * <p>
+     * A query key must always produce results of the same type.
+     * </p>
+     *
+     * @param repository The repository the query reads.
+     * @param query      The key identifying the query and its parameters.
+     * @param loader     The computation of the result.
+     * @param <T>        The type of the result.
+     * @return The cached or newly computed result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(DataRepository repository, String query, Supplier<T> loader) {
+        // Step 1: Read the version first, so data saved during the computation makes the result stale
+        long version = repository.getVersion();
+        if (version == DataRepository.UNVERSIONED) {
+            synchronized (this) {
+                misses++;
+            }
+            return loader.get();
+        }
+
+        // Step 2: Look for a result computed at this version
+        Key key = new Key(repository, query);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == version) {
+                hits++;
+                return (T) entry.result;
+            }
+            misses++;
+        }
+
+        // Step 3: Compute the result outside the lock and cache it, unless a newer one was cached meanwhile
+        return (T) flights.execute(new Entry(version, key), () -> {
+            T result = loader.get();
+            synchronized (this) {
+                Entry current = entries.get(key);
+                if (current == null || current.version < version) {
+                    entries.put(key, new Entry(version, result));
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Removes every result cached for a repository.
+     *
+     * @param repository The repository whose results are removed.
+     */
+    public synchronized void invalidate(DataRepository repository) {
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().repository == repository) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached result. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached results, including stale ones not yet replaced.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the maximum number of cached results.
+     *
+     * @return The capacity of the cache.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The hit count.
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that had to compute their result.
+     *
+     * @return The miss count.
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of results evicted to make room for newer ones.
+     *
+     * @return The eviction count.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of misses that joined a computation started by a concurrent lookup.
+     *
+     * @return The coalesced lookup count.
+     */
+    public long getCoalescedCount() {
+        return flights.getCoalescedCount();
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the cache.
+     *
+     * @return The hit rate between 0.0 and 1.0, or 0.0 if no lookup was made.
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultCache{size=" + entries.size() + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + "}";
+    }
+
+    /**
+     * Key of a cached result: a repository, compared by identity, and a query.
+     */
+    private static final class Key {
+
+        private final DataRepository repository;
+        private final String query;
+
+        private Key(DataRepository repository, String query) {
+            this.repository = repository;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return repository == key.repository && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(repository) + query.hashCode();
+        }
+    }
+
+    /**
+     * Cached result and the version of the data it was computed from. With a key as result,
+     * it also identifies a computation in progress.
+     */
+    private static final class Entry {
+
+        private final long version;
+        private final Object result;
+
+        private Entry(long version, Object result) {
+            this.version = version;
+            this.result = result;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) other;
+            return version == entry.version && result.equals(entry.result);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(version) + result.hashCode();
+        }
+    }
+}
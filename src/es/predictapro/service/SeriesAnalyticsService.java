@@ -0,0 +1,223 @@
+package es.predictapro.service;
+
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.PredictionResult;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.SeriesRepository;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * SeriesAnalyticsService cleans, predicts, summarizes and reports the series of a
+ * {@link SeriesRepository}, one series at a time or across the whole fleet.
+ * <p>
+ * Each series is processed through its primitive columns by the regular services. The
+ * fleet-wide operations fan the series out over a {@link ChunkedExecutor}: with a parallel
+ * executor, groups of series are processed as independent tasks on its pool, so a full
+ * refresh scales with the number of cores. Results are returned in series creation order
+ * and do not depend on the number of threads.
+ * </p>
+ * <p>
+ * The repository must not be written while a fleet-wide operation runs.
+ * </p>
+ * <p>
+ * Fleet-wide operations are measured by {@link Metrics} with the number of series as input
+ * size; the work on each series is measured by the services doing it.
+ * </p>
+ */
+public class SeriesAnalyticsService {
+
+    // Number of series processed by each fan-out task.
+    private static final int SERIES_PER_TASK = 4;
+
+
+    // Service removing the outliers of a series.
+    private final DataCleaningService cleaningService;
+
+
+    // Service predicting the next value of a series.
+    private final PredictionService predictionService;
+
+
+    // Service summarizing a series.
+    private final DataStatisticsService statisticsService;
+
+
+    // Service rendering the report of a series.
+    private final VisualizationService visualizationService;
+
+
+    // Executor fanning the series out.
+    private final ChunkedExecutor executor;
+
+
+    /**
+     * Constructor for SeriesAnalyticsService using sequential execution.
+     */
+    public SeriesAnalyticsService() {
+        this(new DataCleaningService(), new PredictionService(), new DataStatisticsService(),
+                new VisualizationService(), ChunkedExecutor.sequential());
+    }
+
+    /**
+     * Constructor for SeriesAnalyticsService.
+     *
+     * @param cleaningService      The service used to remove the outliers of a series.
+     * @param predictionService    The service used to predict the next value of a series.
+     * @param statisticsService    The service used to summarize a series.
+     * @param visualizationService The service used to render the report of a series.
+     * @param executor             The executor fanning the series out.
+     */
+    public SeriesAnalyticsService(DataCleaningService cleaningService, PredictionService predictionService,
+                                  DataStatisticsService statisticsService,
+                                  VisualizationService visualizationService, ChunkedExecutor executor) {
+        this.cleaningService = cleaningService;
+        this.predictionService = predictionService;
+        this.statisticsService = statisticsService;
+        this.visualizationService = visualizationService;
+        this.executor = executor;
+    }
+
+    /**
+     * Removes the outliers of a series.
+     *
+     * @param repository The repository holding the series.
+     * @param seriesKey  The key of the series.
+     * @return The clean data points of the series.
+     * @throws es.predictapro.exception.DataNotFoundException if no series has this key.
+     */
+    public ColumnBuffer cleanData(SeriesRepository repository, String seriesKey) {
+        return cleaningService.cleanData(repository.getSeries(seriesKey).getColumns());
+    }
+
+    /**
+     * Predicts the next value of a series from its clean data points.
+     *
+     * @param repository The repository holding the series.
+     * @param seriesKey  The key of the series.
+     * @return A {@link PredictionResult} for the series.
+     * @throws es.predictapro.exception.DataNotFoundException if no series has this key.
+     */
+    public PredictionResult predict(SeriesRepository repository, String seriesKey) {
+        return predict(repository.getSeries(seriesKey).getColumns());
+    }
+
+    /**
+     * Summarizes the values of a series.
+     *
+     * @param repository The repository holding the series.
+     * @param seriesKey  The key of the series.
+     * @return A {@link StatisticsSummary} of the series.
+     * @throws es.predictapro.exception.DataNotFoundException if no series has this key.
+     */
+    public StatisticsSummary summarize(SeriesRepository repository, String seriesKey) {
+        return statisticsService.summarize(repository.getSeries(seriesKey).getColumns());
+    }
+
+    /**
+     * Generates the report of a series.
+     *
+     * @param repository The repository holding the series.
+     * @param seriesKey  The key of the series.
+     * @return The formatted report of the series.
+     * @throws es.predictapro.exception.DataNotFoundException if no series has this key.
+     */
+    public String generateReport(SeriesRepository repository, String seriesKey) {
+        StringWriter writer = new StringWriter();
+        visualizationService.writeReport(repository.getSeries(seriesKey).getColumns(), writer);
+        return writer.toString();
+    }
+
+    /**
+     * Predicts the next value of every series from its clean data points.
+     *
+     * @param repository The repository holding the series.
+     * @return The prediction of each series, by key, in series creation order.
+     */
+    public Map<String, PredictionResult> predictAll(SeriesRepository repository) {
+        Probe probe = Metrics.start("seriesAnalytics.predictAll", repository.getSeriesCount());
+        try {
+            return fanOut(repository, this::predict);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Summarizes the values of every series.
+     *
+     * @param repository The repository holding the series.
+     * @return The summary of each series, by key, in series creation order.
+     */
+    public Map<String, StatisticsSummary> summarizeAll(SeriesRepository repository) {
+        Probe probe = Metrics.start("seriesAnalytics.summarizeAll", repository.getSeriesCount());
+        try {
+            return fanOut(repository, statisticsService::summarize);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Cleans the columns of a series and predicts its next value.
+     *
+     * @param columns The columns of the series.
+     * @return A {@link PredictionResult} for the series.
+     */
+    private PredictionResult predict(DataColumns columns) {
+        return predictionService.predict(cleaningService.cleanData(columns));
+    }
+
+    /**
+     * Applies a task to every series, in parallel chunks of series when the executor allows it.
+     * <p>
+     * Steps:
+     * 1. Takes the keys of the series so every task sees the same list.
+     * 2. Runs the task on each series, storing its result at the position of the series.
+     * 3. Collects the results by key in series order.
+     * </p>
+     *
+     * @param repository The repository holding the series.
+     * @param task       The task computing the result of one series from its columns.
+     * @param <R>        The type of the results.
+     * @return The result of each series, by key.
+     */
+    private <R> Map<String, R> fanOut(SeriesRepository repository, Function<DataColumns, R> task) {
+        // Step 1: Snapshot the keys
+        List<String> keys = new ArrayList<>(repository.getSeriesKeys());
+        Object[] results = new Object[keys.size()];
+
+        // Step 2: Process the series, each task writing its own slots of the results
+        executor.aggregate(keys.size(), SERIES_PER_TASK, new ChunkedExecutor.Aggregation<Void>() {
+            @Override
+            public Void compute(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    results[i] = task.apply(repository.getSeries(keys.get(i)).getColumns());
+                }
+                return null;
+            }
+
+            @Override
+            public Void merge(Void left, Void right) {
+                return null;
+            }
+        });
+
+        // Step 3: Collect the results in series order
+        Map<String, R> resultsByKey = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+        for (int i = 0; i < keys.size(); i++) {
+            @SuppressWarnings("unchecked")
+            R result = (R) results[i];
+            resultsByKey.put(keys.get(i), result);
+        }
+        return resultsByKey;
+    }
+}
@@ -0,0 +1,121 @@
+package es.predictapro.service;
+
+import es.predictapro.exception.ServiceException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight coalesces concurrent computations of the same key into a single one.
+ * <p>
+ * The first caller of a key runs the computation on its own thread and publishes its result
+ * through a {@link CompletableFuture}. Callers asking for the same key while it is in flight
+ * receive that future instead of computing again. Once the computation completes, the key is
+ * released: later callers start a new computation. Results are not kept; combine it with a
+ * {@link ResultCache} for that.
+ * </p>
+ * <p>
+ * Keys should identify the data version as well as the query, so callers never share a
+ * computation started before the data they expect was saved. This class is thread-safe.
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the results.
+ */
+public class SingleFlight<K, V> {
+
+    // Futures of the computations in progress, by key.
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+
+    // Number of computations run, and of calls that joined one in progress.
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+
+    /**
+     * Starts the computation of a key, or joins the one already in flight.
+     * <p>
+     * When this call starts the computation, it runs it before returning, so the future is
+     * already complete; otherwise the future completes when the running computation does.
+     * </p>
+     *
+     * @param key         The key identifying the computation.
+     * @param computation The computation of the result.
+     * @return The future result of the computation.
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> computation) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running;
+        }
+        executions.incrementAndGet();
+        try {
+            future.complete(computation.get());
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+        return future;
+    }
+
+    /**
+     * Computes the result of a key, or waits for the computation already in flight.
+     *
+     * @param key         The key identifying the computation.
+     * @param computation The computation of the result.
+     * @return The result of the computation.
+     * @throws RuntimeException the exception thrown by the computation, if any.
+     */
+    public V execute(K key, Supplier<V> computation) {
+        return await(submit(key, computation));
+    }
+
+    /**
+     * Gets the number of computations run.
+     *
+     * @return The execution count.
+     */
+    public long getExecutionCount() {
+        return executions.get();
+    }
+
+    /**
+     * Gets the number of calls served by a computation started by another caller.
+     *
+     * @return The coalesced call count.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Waits for a future and returns its result, rethrowing the failure of the computation
+     * as it was thrown.
+     *
+     * @param future The future to wait for.
+     * @param <V>    The type of the result.
+     * @return The result of the future.
+     */
+    static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ServiceException("Shared computation failed.", cause);
+        }
+    }
+}
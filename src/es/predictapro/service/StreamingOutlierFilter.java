@@ -0,0 +1,212 @@
+package es.predictapro.service;
+
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.DataPoint;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * StreamingOutlierFilter removes outliers from an unbounded feed of data points, one point at a time.
+ * <p>
+ * It applies the rule of {@link DataCleaningService} to a rolling window instead of the whole
+ * dataset: each new point is added to the window (evicting the oldest one when the window is
+ * full) and is kept if it lies within [mean - 2 * stdDev, mean + 2 * stdDev] of the window.
+ * The mean and variance are maintained with Welford updates for both insertions and evictions,
+ * so each point costs constant time and the memory used is bounded by the window size.
+ * </p>
+ * <p>
+ * As with the batch rule, a window of five points or fewer can never reject a value, since no
+ * point can then deviate by more than two standard deviations from the mean. The window
+ * statistics are recomputed from its contents after every full turn to bound rounding drift.
+ * </p>
+ * <p>
+ * Single values and whole feeds are measured by {@link Metrics}; a feed records its size
+ * when it is a {@link Collection}.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class StreamingOutlierFilter {
+
+    // Circular buffer holding the values of the window.
+    private final double[] window;
+
+
+    // Position of the oldest value in the circular buffer.
+    private int head;
+
+
+    // Number of values currently in the window.
+    private int count;
+
+
+    // Mean of the window and sum of squared deviations from it.
+    private double mean;
+    private double m2;
+
+
+    // Number of evictions since the statistics were last recomputed.
+    private int evictionsSinceRefresh;
+
+
+    /**
+     * Constructor for StreamingOutlierFilter.
+     *
+     * @param windowSize The number of most recent points used to compute the bounds.
+     */
+    public StreamingOutlierFilter(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.window = new double[windowSize];
+    }
+
+    /**
+     * Processes the next data point of the feed.
+     *
+     * @param dataPoint The next {@link DataPoint} of the feed.
+     * @return {@code true} if the point is kept, {@code false} if it is an outlier.
+     */
+    public boolean accept(DataPoint dataPoint) {
+        return accept(dataPoint.getValue());
+    }
+
+    /**
+     * Processes the next value of the feed.
+     *
+     * @param value The next value of the feed.
+     * @return {@code true} if the value is kept, {@code false} if it is an outlier.
+     */
+    public boolean accept(double value) {
+        Probe probe = Metrics.start("streamingOutlierFilter.accept", 1);
+        try {
+            return slide(value);
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Filters a feed of data points, forwarding the kept ones to the given consumer.
+     *
+     * @param feed The feed of {@link DataPoint} objects to filter.
+     * @param sink The consumer receiving the kept data points, in feed order.
+     * @return The number of data points removed as outliers.
+     */
+    public long filter(Iterable<DataPoint> feed, Consumer<DataPoint> sink) {
+        long size = feed instanceof Collection ? ((Collection<?>) feed).size() : 0;
+        Probe probe = Metrics.start("streamingOutlierFilter.filter", size);
+        try {
+            long removed = 0;
+            for (DataPoint dataPoint : feed) {
+                if (slide(dataPoint.getValue())) {
+                    sink.accept(dataPoint);
+                } else {
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Gets the number of values currently in the window.
+     *
+     * @return The number of values in the window.
+     */
+    public int getWindowCount() {
+        return count;
+    }
+
+    /**
+     * Gets the mean of the current window.
+     *
+     * @return The mean of the window, or 0.0 if it is empty.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the population standard deviation of the current window.
+     *
+     * @return The standard deviation of the window, or 0.0 if it is empty.
+     */
+    public double getStandardDeviation() {
+        return count == 0 ? 0.0 : Math.sqrt(Math.max(0.0, m2) / count);
+    }
+
+    /**
+     * Adds a value to the window and checks it against the bounds of the window.
+     * <p>
+     * Steps:
+     * 1. Slides the window, evicting the oldest value when it is full.
+     * 2. Updates the mean and the sum of squared deviations.
+     * 3. Keeps the value if it lies within the bounds of the window.
+     * </p>
+     *
+     * @param value The next value of the feed.
+     * @return {@code true} if the value is kept, {@code false} if it is an outlier.
+     */
+    private boolean slide(double value) {
+        // Step 1: Slide the window
+        if (count == window.length) {
+            evictOldest();
+        }
+        window[(head + count) % window.length] = value;
+        count++;
+
+        // Step 2: Update the mean and the sum of squared deviations (Welford)
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        // Step 3: Keep the value if it lies within the bounds of the window
+        double stdDev = Math.sqrt(Math.max(0.0, m2) / count);
+        return value >= mean - 2 * stdDev && value <= mean + 2 * stdDev;
+    }
+
+    /**
+     * Removes the oldest value from the window, reversing its Welford update.
+     */
+    private void evictOldest() {
+        double oldest = window[head];
+        head = (head + 1) % window.length;
+        count--;
+
+        if (count == 0) {
+            mean = 0.0;
+            m2 = 0.0;
+        } else {
+            double delta = oldest - mean;
+            mean -= delta / count;
+            m2 -= delta * (oldest - mean);
+        }
+
+        if (++evictionsSinceRefresh == window.length) {
+            refreshStatistics();
+        }
+    }
+
+    /**
+     * Recomputes the window statistics from its contents to discard accumulated rounding errors.
+     */
+    private void refreshStatistics() {
+        double sum = 0.0;
+        for (int i = 0; i < count; i++) {
+            sum += window[(head + i) % window.length];
+        }
+        mean = count == 0 ? 0.0 : sum / count;
+        m2 = 0.0;
+        for (int i = 0; i < count; i++) {
+            double deviation = window[(head + i) % window.length] - mean;
+            m2 += deviation * deviation;
+        }
+        evictionsSinceRefresh = 0;
+    }
+}
@@ -0,0 +1,13 @@
+package es.predictapro.service;
+
+/**
+ * ValidationMode selects how far {@link DataValidationService} goes once a violation is found.
+ */
+public enum ValidationMode {
+
+    // Stop at the first invalid value or duplicate ID.
+    FAIL_FAST,
+
+    // Check every data point and report all violations.
+    COLLECT_ALL
+}
@@ -1,9 +1,14 @@
 package es.predictapro.service;
 
+import es.predictapro.exception.ServiceException;
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.DataColumns;
 import es.predictapro.model.DataPoint;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 /**
@@ -12,9 +17,27 @@ import java.util.List;
  * This service creates tabular reports that display data points in a structured and
  * human-readable format.
  * </p>
+ * <p>
+ * Besides building the report as a {@link String}, the report can be streamed to a
+ * {@link Writer} or a {@link WritableByteChannel}. Streaming uses a bounded buffer, so a
+ * report of millions of rows never needs to fit in memory. Values are always formatted
+ * with a dot as decimal separator, like {@code String.format(Locale.ROOT, "%.2f", value)}.
+ * The report does not follow the default locale: where it uses a decimal comma, the values
+ * differ from those of a locale-sensitive {@code String.format("%.2f", value)}.
+ * </p>
+ * <p>
+ * Each report is measured by {@link Metrics}, with its number of rows as input size.
+ * </p>
  */
 public class VisualizationService {
 
+    // Estimated number of characters of a report row, used to presize the report.
+    private static final int ROW_LENGTH = 40;
+
+    // Largest presized report, in characters; the largest array most JVMs can allocate.
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+
     /**
      * Generates a tabular report from a list of data points.
      * <p>
@@ -30,28 +53,157 @@ public class VisualizationService {
      * @return A {@link String} representing the tabular report.
      */
     public String generateReport(List<DataPoint> data) {
-        // Handle null or empty data input
-        if (data == null || data.isEmpty()) {
-            return "No data available to generate the report.";
+        Probe probe = Metrics.start("visualization.generateReport", data == null ? 0 : data.size());
+        try {
+            // Handle null or empty data input
+            if (data == null || data.isEmpty()) {
+                return ReportWriter.EMPTY_MESSAGE;
+            }
+
+            // Format the rows directly into the builder holding the report
+            long capacity = ReportWriter.HEADER.length() + (long) data.size() * ROW_LENGTH;
+            StringBuilder table = new StringBuilder((int) Math.min(capacity, MAX_CAPACITY));
+            try {
+                writeTable(data, new ReportWriter(table));
+            } catch (IOException e) {
+                throw new ServiceException("Unable to generate the report.", e); // Not reachable with a builder
+            }
+            return table.toString();
+        } finally {
+            probe.stop();
         }
+    }
 
-        // Initialize a StringBuilder for the report
-        StringBuilder table = new StringBuilder();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    /**
+     * Streams a tabular report of a list of data points to a character stream.
+     * <p>
+     * The output is identical to {@link #generateReport(List)}. The writer is flushed
+     * but not closed.
+     * </p>
+     *
+     * @param data   A list of {@link DataPoint} objects to be displayed in the report.
+     * @param writer The stream receiving the report.
+     * @throws ServiceException if the report cannot be written.
+     */
+    public void writeReport(List<DataPoint> data, Writer writer) {
+        Probe probe = Metrics.start("visualization.writeReport", data == null ? 0 : data.size());
+        try {
+            try {
+                writeTable(data, new ReportWriter(writer));
+                writer.flush();
+            } catch (IOException e) {
+                throw new ServiceException("Unable to write the report.", e);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
 
-        // Add table header
-        table.append("ID  | VALUE    | TIMESTAMP\n");
-        table.append("-------------------------------\n");
+    /**
+     * Streams a tabular report of a list of data points to a byte channel, encoded as ASCII.
+     * <p>
+     * The output is identical to {@link #generateReport(List)}. The channel is not closed.
+     * </p>
+     *
+     * @param data    A list of {@link DataPoint} objects to be displayed in the report.
+     * @param channel The channel receiving the report.
+     * @throws ServiceException if the report cannot be written.
+     */
+    public void writeReport(List<DataPoint> data, WritableByteChannel channel) {
+        Probe probe = Metrics.start("visualization.writeReport", data == null ? 0 : data.size());
+        try {
+            try {
+                writeTable(data, new ReportWriter(channel));
+            } catch (IOException e) {
+                throw new ServiceException("Unable to write the report.", e);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Streams a tabular report of data stored in primitive columns to a character stream.
+     *
+     * @param columns The columns holding the data to be displayed in the report.
+     * @param writer  The stream receiving the report.
+     * @throws ServiceException if the report cannot be written.
+     */
+    public void writeReport(DataColumns columns, Writer writer) {
+        Probe probe = Metrics.start("visualization.writeReport", columns == null ? 0 : columns.size());
+        try {
+            try {
+                writeTable(columns, new ReportWriter(writer));
+                writer.flush();
+            } catch (IOException e) {
+                throw new ServiceException("Unable to write the report.", e);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Streams a tabular report of data stored in primitive columns to a byte channel, encoded as ASCII.
+     *
+     * @param columns The columns holding the data to be displayed in the report.
+     * @param channel The channel receiving the report.
+     * @throws ServiceException if the report cannot be written.
+     */
+    public void writeReport(DataColumns columns, WritableByteChannel channel) {
+        Probe probe = Metrics.start("visualization.writeReport", columns == null ? 0 : columns.size());
+        try {
+            try {
+                writeTable(columns, new ReportWriter(channel));
+            } catch (IOException e) {
+                throw new ServiceException("Unable to write the report.", e);
+            }
+        } finally {
+            probe.stop();
+        }
+    }
 
-        // Add table rows for each data point
-        for (DataPoint dp : data) {
-            String timestamp = dateFormat.format(new Date(dp.getTimestamp()));
-            table.append(dp.getId()).append("   | ")
-                    .append(String.format("%.2f", dp.getValue())).append("   | ")
-                    .append(timestamp).append("\n");
+    /**
+     * Writes the header and one row per data point.
+     *
+     * @param data   The data points to report.
+     * @param report The writer formatting the report.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void writeTable(List<DataPoint> data, ReportWriter report) throws IOException {
+        if (data == null || data.isEmpty()) {
+            report.writeText(ReportWriter.EMPTY_MESSAGE);
+        } else {
+            report.writeText(ReportWriter.HEADER);
+            for (DataPoint dp : data) {
+                report.writeRow(dp.getId(), dp.getValue(), dp.getTimestamp());
+            }
         }
+        report.flush();
+    }
 
-        // Return the complete table as a string
-        return table.toString();
+    /**
+     * Writes the header and one row per data point stored in the columns.
+     *
+     * @param columns The columns holding the data to report.
+     * @param report  The writer formatting the report.
+     * @throws IOException if the destination cannot be written.
+     */
+    private void writeTable(DataColumns columns, ReportWriter report) throws IOException {
+        if (columns == null || columns.size() == 0) {
+            report.writeText(ReportWriter.EMPTY_MESSAGE);
+        } else {
+            report.writeText(ReportWriter.HEADER);
+            for (int c = 0; c < columns.getChunkCount(); c++) {
+                int[] ids = columns.getIdChunk(c);
+                double[] values = columns.getValueChunk(c);
+                long[] timestamps = columns.getTimestampChunk(c);
+                int length = columns.getChunkLength(c);
+                for (int i = 0; i < length; i++) {
+                    report.writeRow(ids[i], values[i], timestamps[i]);
+                }
+            }
+        }
+        report.flush();
     }
 }
@@ -0,0 +1,62 @@
+package es.predictapro.util;
+
+/**
+ * BitReader reads values of any width, from 1 to 64 bits, from a bit stream written by
+ * {@link BitWriter}.
+ * <p>
+ * This class is not thread-safe; the words it reads are never modified.
+ * </p>
+ */
+public class BitReader {
+
+    // Words holding the stream.
+    private final long[] words;
+
+
+    // Position of the next bit to read.
+    private long position;
+
+
+    /**
+     * Constructor for a BitReader starting at the first bit of the stream.
+     *
+     * @param words The words holding the stream.
+     */
+    public BitReader(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Reads a single bit.
+     *
+     * @return {@code true} if the bit is a one.
+     */
+    public boolean readBit() {
+        long word = words[(int) (position >>> 6)];
+        boolean bit = (word << (position & 63)) < 0;
+        position++;
+        return bit;
+    }
+
+    /**
+     * Reads a value stored most significant bit first.
+     *
+     * @param count The number of bits to read, from 1 to 64.
+     * @return The value, in the lowest bits of the result.
+     */
+    public long readBits(int count) {
+        int word = (int) (position >>> 6);
+        int used = (int) (position & 63);
+        int available = 64 - used;
+        long value;
+        if (count <= available) {
+            value = (words[word] << used) >>> (64 - count);
+        } else {
+            // Join the end of this word with the start of the next one
+            int overflow = count - available;
+            value = ((words[word] << used) >>> (64 - count)) | (words[word + 1] >>> (64 - overflow));
+        }
+        position += count;
+        return value;
+    }
+}
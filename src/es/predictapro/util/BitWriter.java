@@ -0,0 +1,87 @@
+package es.predictapro.util;
+
+import java.util.Arrays;
+
+/**
+ * BitWriter appends values of any width, from 1 to 64 bits, to a growable bit stream.
+ * <p>
+ * Bits are packed most significant first into {@code long} words, which {@link BitReader}
+ * reads back in the same order. The backing array doubles when full.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class BitWriter {
+
+    // Words holding the bits written so far.
+    private long[] words;
+
+
+    // Number of bits written.
+    private long bitLength;
+
+
+    /**
+     * Constructor for a BitWriter sized for the given number of bits.
+     *
+     * @param expectedBits The number of bits expected to be written without resizing.
+     */
+    public BitWriter(int expectedBits) {
+        words = new long[Math.max(1, (expectedBits + 63) >>> 6)];
+    }
+
+    /**
+     * Appends a single bit.
+     *
+     * @param bit {@code true} to append a one, {@code false} to append a zero.
+     */
+    public void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Appends the lowest bits of a value, most significant first.
+     *
+     * @param value The value holding the bits in its lowest positions.
+     * @param count The number of bits to append, from 1 to 64.
+     */
+    public void writeBits(long value, int count) {
+        if (count < 64) {
+            value &= (1L << count) - 1;
+        }
+        int word = (int) (bitLength >>> 6);
+        int used = (int) (bitLength & 63);
+        if (word + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2 + 2);
+        }
+        int free = 64 - used;
+        if (count <= free) {
+            words[word] |= value << (free - count);
+        } else {
+            // Split the value across two words
+            int overflow = count - free;
+            words[word] |= value >>> overflow;
+            words[word + 1] |= value << (64 - overflow);
+        }
+        bitLength += count;
+    }
+
+    /**
+     * Gets the number of bits written.
+     *
+     * @return The length of the stream, in bits.
+     */
+    public long getBitLength() {
+        return bitLength;
+    }
+
+    /**
+     * Copies the written bits into an array of the exact number of words.
+     *
+     * @return The words holding the stream.
+     */
+    public long[] toWords() {
+        return Arrays.copyOf(words, (int) ((bitLength + 63) >>> 6));
+    }
+}
@@ -0,0 +1,82 @@
+package es.predictapro.util;
+
+import java.util.Locale;
+
+/**
+ * DecimalFormatter appends doubles with a fixed number of decimals without creating strings.
+ * <p>
+ * The output matches {@code String.format(Locale.ROOT, "%.Nf", value)}: values are rounded
+ * half-up, negative values (including negative zero) keep their sign, and the decimal
+ * separator is always a dot. Values that are not finite, too large for the fast path, or too
+ * close to a rounding tie to be decided safely in floating point are delegated to
+ * {@link String#format}, which keeps the result identical in every case.
+ * </p>
+ */
+public final class DecimalFormatter {
+
+    // Largest number of decimals supported by the fast path.
+    public static final int MAX_DECIMALS = 6;
+
+    // Powers of ten used to scale the values.
+    private static final long[] POWERS = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    // Largest scaled value handled by the fast path, where the fraction is still accurate.
+    private static final double MAX_SCALED = 1e9;
+
+    // Distance from a rounding tie below which the exact formatter is used.
+    private static final double TIE_MARGIN = 1e-6;
+
+    private DecimalFormatter() {
+    }
+
+    /**
+     * Appends a value rounded to the given number of decimals.
+     *
+     * @param out      The builder receiving the formatted value.
+     * @param value    The value to format.
+     * @param decimals The number of decimals, between 0 and {@link #MAX_DECIMALS}.
+     * @return The given builder.
+     */
+    public static StringBuilder appendFixed(StringBuilder out, double value, int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Unsupported number of decimals: " + decimals);
+        }
+        long power = POWERS[decimals];
+        double scaled = Math.abs(value) * power;
+        if (!(scaled < MAX_SCALED)) {
+            return appendExact(out, value, decimals); // NaN, infinite or very large values
+        }
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+            return appendExact(out, value, decimals);
+        }
+
+        long units = (long) floor + (fraction > 0.5 ? 1 : 0);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append('-');
+        }
+        out.append(units / power);
+        if (decimals > 0) {
+            out.append('.');
+            long remainder = units % power;
+            for (long digit = power / 10; digit > remainder && digit > 1; digit /= 10) {
+                out.append('0'); // Leading zeros of the decimal part
+            }
+            out.append(remainder);
+        }
+        return out;
+    }
+
+    /**
+     * Appends a value using the exact (slow) JDK formatter.
+     *
+     * @param out      The builder receiving the formatted value.
+     * @param value    The value to format.
+     * @param decimals The number of decimals.
+     * @return The given builder.
+     */
+    private static StringBuilder appendExact(StringBuilder out, double value, int decimals) {
+        return out.append(String.format(Locale.ROOT, "%." + decimals + "f", value));
+    }
+}
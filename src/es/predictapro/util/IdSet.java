@@ -0,0 +1,93 @@
+package es.predictapro.util;
+
+/**
+ * IdSet is a set of {@code int} identifiers optimized for compact ID ranges.
+ * <p>
+ * IDs in the dense range [0, denseLimit) are tracked with one bit each in a {@code long[]}
+ * bitmap, which is the common case for sequential IDs. Any other ID falls back to an
+ * {@link IntHashSet} that is only created when such an ID is first seen. Every ID maps to
+ * exactly one of the two structures, so no migration is ever needed.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class IdSet {
+
+    // Bitmap of the IDs in the dense range.
+    private final long[] dense;
+
+
+    // Exclusive upper bound of the dense range.
+    private final int denseLimit;
+
+
+    // IDs outside the dense range, created on first use.
+    private IntHashSet sparse;
+
+
+    // Number of IDs in the set.
+    private int size;
+
+
+    /**
+     * Constructor for an IdSet sized for the given number of IDs.
+     * <p>
+     * The dense range covers four times the expected number of IDs, which costs half a byte
+     * per expected ID.
+     * </p>
+     *
+     * @param expectedSize The number of IDs expected to be added.
+     */
+    public IdSet(int expectedSize) {
+        long limit = Math.max(64L, (long) expectedSize * 4);
+        this.denseLimit = (int) Math.min(Integer.MAX_VALUE, limit);
+        this.dense = new long[(int) ((denseLimit + 63L) >>> 6)];
+    }
+
+    /**
+     * Adds an ID to the set.
+     *
+     * @param id The ID to add.
+     * @return {@code true} if the ID was added, {@code false} if it was already present.
+     */
+    public boolean add(int id) {
+        boolean added;
+        if (id >= 0 && id < denseLimit) {
+            long bit = 1L << id;
+            added = (dense[id >>> 6] & bit) == 0;
+            dense[id >>> 6] |= bit;
+        } else {
+            if (sparse == null) {
+                sparse = new IntHashSet();
+            }
+            added = sparse.add(id);
+        }
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Checks whether an ID is in the set.
+     *
+     * @param id The ID to look up.
+     * @return {@code true} if the ID is present.
+     */
+    public boolean contains(int id) {
+        if (id >= 0 && id < denseLimit) {
+            return (dense[id >>> 6] & (1L << id)) != 0;
+        }
+        return sparse != null && sparse.contains(id);
+    }
+
+    /**
+     * Gets the number of IDs in the set.
+     *
+     * @return The size of the set.
+     */
+    public int size() {
+        return size;
+    }
+}
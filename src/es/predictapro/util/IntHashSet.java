@@ -0,0 +1,164 @@
+package es.predictapro.util;
+
+import java.util.Arrays;
+
+/**
+ * IntHashSet is a set of primitive {@code int} values using open addressing.
+ * <p>
+ * Values are stored directly in an {@code int[]} table with linear probing, so adding a
+ * value never boxes it into an {@link Integer} nor allocates an entry object. The table
+ * doubles when it becomes half full. Values cannot be removed individually.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class IntHashSet {
+
+    // Marker of an empty slot; the value itself is tracked separately.
+    private static final int FREE = 0;
+
+    // Minimum capacity of the table.
+    private static final int MIN_CAPACITY = 16;
+
+
+    // Open-addressing table holding the values.
+    private int[] table;
+
+
+    // Whether the value equal to the free marker is in the set.
+    private boolean containsFree;
+
+
+    // Number of values in the set.
+    private int size;
+
+
+    /**
+     * Constructor for an empty IntHashSet.
+     */
+    public IntHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor for an IntHashSet sized for the given number of values.
+     *
+     * @param expectedSize The number of values expected to be added without resizing.
+     */
+    public IntHashSet(int expectedSize) {
+        table = new int[tableSizeFor(expectedSize)];
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value The value to add.
+     * @return {@code true} if the value was added, {@code false} if it was already present.
+     */
+    public boolean add(int value) {
+        if (value == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size++;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        int slot = mix(value) & mask;
+        while (table[slot] != FREE) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        if (++size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a value is in the set.
+     *
+     * @param value The value to look up.
+     * @return {@code true} if the value is present.
+     */
+    public boolean contains(int value) {
+        if (value == FREE) {
+            return containsFree;
+        }
+        int mask = table.length - 1;
+        int slot = mix(value) & mask;
+        while (table[slot] != FREE) {
+            if (table[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of values in the set.
+     *
+     * @return The size of the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every value from the set, keeping the allocated table for reuse.
+     */
+    public void clear() {
+        Arrays.fill(table, FREE);
+        containsFree = false;
+        size = 0;
+    }
+
+    /**
+     * Moves every value into a new table of the given capacity.
+     *
+     * @param capacity The new capacity, a power of two.
+     */
+    private void rehash(int capacity) {
+        int[] previous = table;
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int value : previous) {
+            if (value != FREE) {
+                int slot = mix(value) & mask;
+                while (table[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    /**
+     * Scrambles the bits of a value so that sequential IDs spread across the table.
+     *
+     * @param value The value to hash.
+     * @return The hash of the value.
+     */
+    static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Computes the table size needed to hold the given number of values at half load.
+     *
+     * @param expectedSize The number of values.
+     * @return A power of two of at least {@link #MIN_CAPACITY}.
+     */
+    static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 2);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+}
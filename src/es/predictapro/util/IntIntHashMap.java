@@ -0,0 +1,178 @@
+package es.predictapro.util;
+
+import java.util.Arrays;
+
+/**
+ * IntIntHashMap is a map from primitive {@code int} keys to primitive {@code int} values
+ * using open addressing.
+ * <p>
+ * Keys and values are stored directly in two parallel {@code int[]} tables with linear
+ * probing, so neither is boxed and no entry object is allocated. Lookups and insertions
+ * cost O(1) on average. The tables double when they become half full. Entries cannot be
+ * removed individually.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class IntIntHashMap {
+
+    // Marker of an empty slot; the key itself is tracked separately.
+    private static final int FREE = 0;
+
+
+    // Open-addressing table holding the keys.
+    private int[] keys;
+
+
+    // Values of the keys, at the same slots.
+    private int[] values;
+
+
+    // Whether the key equal to the free marker is in the map, and its value.
+    private boolean containsFree;
+    private int freeValue;
+
+
+    // Number of entries in the map.
+    private int size;
+
+
+    /**
+     * Constructor for an empty IntIntHashMap.
+     */
+    public IntIntHashMap() {
+        this(0);
+    }
+
+    /**
+     * Constructor for an IntIntHashMap sized for the given number of entries.
+     *
+     * @param expectedSize The number of entries expected to be added without resizing.
+     */
+    public IntIntHashMap(int expectedSize) {
+        int capacity = IntHashSet.tableSizeFor(expectedSize);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key          The key to look up.
+     * @param defaultValue The value returned when the key is absent.
+     * @return The value of the key, or {@code defaultValue} if the key is absent.
+     */
+    public int get(int key, int defaultValue) {
+        if (key == FREE) {
+            return containsFree ? freeValue : defaultValue;
+        }
+        int mask = keys.length - 1;
+        int slot = IntHashSet.mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     *
+     * @param key The key to look up.
+     * @return {@code true} if the key is present.
+     */
+    public boolean containsKey(int key) {
+        if (key == FREE) {
+            return containsFree;
+        }
+        int mask = keys.length - 1;
+        int slot = IntHashSet.mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Associates a value with a key only if the key is absent.
+     *
+     * @param key   The key to add.
+     * @param value The value of the key.
+     * @return {@code true} if the key was added, {@code false} if it was already present
+     *         (its value is then left unchanged).
+     */
+    public boolean putIfAbsent(int key, int value) {
+        if (key == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            freeValue = value;
+            size++;
+            return true;
+        }
+
+        int mask = keys.length - 1;
+        int slot = IntHashSet.mix(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return The size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry from the map, keeping the allocated tables for reuse.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        containsFree = false;
+        size = 0;
+    }
+
+    /**
+     * Moves every entry into new tables of the given capacity.
+     *
+     * @param capacity The new capacity, a power of two.
+     */
+    private void rehash(int capacity) {
+        int[] previousKeys = keys;
+        int[] previousValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < previousKeys.length; i++) {
+            int key = previousKeys[i];
+            if (key != FREE) {
+                int slot = IntHashSet.mix(key) & mask;
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = previousValues[i];
+            }
+        }
+    }
+}
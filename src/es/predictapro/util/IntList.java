@@ -0,0 +1,66 @@
+package es.predictapro.util;
+
+import java.util.Arrays;
+
+/**
+ * IntList is a growable list of primitive {@code int} values.
+ * <p>
+ * It avoids boxing each value into an {@link Integer}; the backing array doubles when full.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class IntList {
+
+    // Array holding the values.
+    private int[] values = new int[8];
+
+
+    // Number of values in the list.
+    private int size;
+
+
+    /**
+     * Appends a value to the list.
+     *
+     * @param value The value to append.
+     */
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Gets the value at the given position.
+     *
+     * @param index The position of the value.
+     * @return The value.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Gets the number of values in the list.
+     *
+     * @return The size of the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the values into an array of the exact size.
+     *
+     * @return A new array holding the values, in insertion order.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
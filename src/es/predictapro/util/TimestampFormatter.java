@@ -0,0 +1,140 @@
+package es.predictapro.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * TimestampFormatter appends millisecond timestamps as {@code yyyy-MM-dd HH:mm:ss} in a time zone.
+ * <p>
+ * The date part is formatted by a shared, thread-safe {@link DateTimeFormatter} and cached
+ * together with the interval of instants that share the same local date and UTC offset. While
+ * consecutive timestamps stay within that interval, which is the common case for sorted
+ * series, the time of day is computed arithmetically and nothing is allocated.
+ * </p>
+ * <p>
+ * The shared formatter can be used from any thread; instances of this class hold the cache
+ * and are not thread-safe, so each report or thread should use its own instance.
+ * </p>
+ */
+public class TimestampFormatter {
+
+    // Shared, thread-safe formatter of the date part.
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+
+    // Rules of the time zone used to compute the local date and offset.
+    private final ZoneRules rules;
+
+
+    // Zone in which the timestamps are displayed.
+    private final ZoneId zone;
+
+
+    // Interval [cacheStart, cacheEnd) of instants sharing the cached date and offset.
+    private long cacheStart = Long.MAX_VALUE;
+    private long cacheEnd = Long.MIN_VALUE;
+
+
+    // Instant of local midnight of the cached date, under the cached offset.
+    private long cachedMidnight;
+
+
+    // Formatted date of the cached interval, followed by a space.
+    private String cachedDate;
+
+
+    /**
+     * Constructor for a TimestampFormatter using the system default time zone.
+     */
+    public TimestampFormatter() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructor for TimestampFormatter.
+     *
+     * @param zone The time zone in which the timestamps are displayed.
+     */
+    public TimestampFormatter(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+    }
+
+    /**
+     * Appends a timestamp formatted as {@code yyyy-MM-dd HH:mm:ss}.
+     *
+     * @param out    The builder receiving the formatted timestamp.
+     * @param millis The timestamp, in milliseconds since the epoch.
+     * @return The given builder.
+     */
+    public StringBuilder append(StringBuilder out, long millis) {
+        if (millis < cacheStart || millis >= cacheEnd) {
+            refresh(millis);
+        }
+        int secondOfDay = (int) ((millis - cachedMidnight) / 1000);
+        out.append(cachedDate);
+        appendTwoDigits(out, secondOfDay / 3600).append(':');
+        appendTwoDigits(out, secondOfDay / 60 % 60).append(':');
+        return appendTwoDigits(out, secondOfDay % 60);
+    }
+
+    /**
+     * Formats a timestamp as {@code yyyy-MM-dd HH:mm:ss}.
+     *
+     * @param millis The timestamp, in milliseconds since the epoch.
+     * @return The formatted timestamp.
+     */
+    public String format(long millis) {
+        return append(new StringBuilder(19), millis).toString();
+    }
+
+    /**
+     * Recomputes the cached date and the interval of instants sharing it.
+     *
+     * @param millis The timestamp that fell outside the cached interval.
+     */
+    private void refresh(long millis) {
+        Instant instant = Instant.ofEpochMilli(millis);
+        ZonedDateTime dateTime = instant.atZone(zone);
+        ZoneOffset offset = dateTime.getOffset();
+        LocalDate date = dateTime.toLocalDate();
+
+        // Local midnight and the next one, both under the current offset
+        cachedMidnight = date.atStartOfDay().toEpochSecond(offset) * 1000;
+        cacheStart = cachedMidnight;
+        cacheEnd = cachedMidnight + MILLIS_PER_DAY;
+
+        // Shrink the interval to the period where the offset stays the same
+        ZoneOffsetTransition previous = rules.previousTransition(instant);
+        if (previous != null) {
+            cacheStart = Math.max(cacheStart, previous.getInstant().toEpochMilli());
+        }
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        if (next != null) {
+            cacheEnd = Math.min(cacheEnd, next.getInstant().toEpochMilli());
+        }
+        if (millis < cacheStart) {
+            cacheStart = millis; // The transition is exactly at this instant
+        }
+        cachedDate = DATE_FORMAT.format(date) + " ";
+    }
+
+    /**
+     * Appends a number between 0 and 99 with two digits.
+     *
+     * @param out   The builder receiving the digits.
+     * @param value The number to append.
+     * @return The given builder.
+     */
+    private static StringBuilder appendTwoDigits(StringBuilder out, int value) {
+        return out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,231 @@
+import es.predictapro.controller.PredictionController;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.PredictionResult;
+import es.predictapro.repository.DatabaseRepository;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.service.MicroBatcher;
+import es.predictapro.service.PredictionService;
+import es.predictapro.service.ResultCache;
+import es.predictapro.service.SingleFlight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CoalescingTest is a simple executable test class for the {@link SingleFlight} and the
+ * {@link MicroBatcher}.
+ * <p>
+ * This class demonstrates the coalescing of concurrent requests by:
+ * - Sharing one computation between concurrent identical requests.
+ * - Sharing one cache miss between concurrent lookups.
+ * - Answering a burst of window predictions with a single batch.
+ * - Answering window predictions while late points are saved concurrently.
+ * </p>
+ */
+public class CoalescingTest {
+
+    // Number of concurrent clients.
+    private static final int CLIENTS = 8;
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Runs the same slow computation from several threads at once.
+     * 2. Looks up the same missing result from several threads at once.
+     * 3. Submits a burst of requests to a batcher with a long window, a lone request, and a
+     *    burst to a batcher answering too few results.
+     * 4. Compares batched window predictions with individual range predictions.
+     * 5. Requests windows while late points are saved, then compares them with a plain repository.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     * @throws Exception if a client thread fails.
+     */
+    public static void main(String[] args) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CyclicBarrier start = new CyclicBarrier(CLIENTS);
+
+        // Step 1: Run the same computation concurrently
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        List<Integer> flightResults = runConcurrently(clients, start, () -> flight.execute("regression", () -> {
+            computations.incrementAndGet();
+            sleep(200);
+            return 42;
+        }));
+        System.out.println("Coalescing Test:");
+        System.out.println("Shared Computations: " + computations.get() + " (Expected: 1)");
+        System.out.println("Coalesced Calls: " + flight.getCoalescedCount() + " (Expected: " + (CLIENTS - 1) + ")");
+        System.out.println("All Results Equal: " + flightResults.stream().allMatch(r -> r == 42) + " (Expected: true)");
+
+        // Step 2: Miss the same cache entry concurrently
+        TimeIndexedRepository repository = new TimeIndexedRepository();
+        Random random = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            repository.saveData(new DataPoint(i, 50 + i * 0.01 + random.nextGaussian(), i * 1000L));
+        }
+        ResultCache cache = new ResultCache();
+        AtomicInteger loads = new AtomicInteger();
+        runConcurrently(clients, start, () -> cache.get(repository, "slow", () -> {
+            loads.incrementAndGet();
+            sleep(200);
+            return "result";
+        }));
+        System.out.println("Cache Loads: " + loads.get() + " (Expected: 1)");
+        System.out.println("Cache Coalesced: " + cache.getCoalescedCount() + " (Expected: " + (CLIENTS - 1) + ")");
+
+        // Step 3: Submit a burst within a long window
+        MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>(requests -> {
+            List<Integer> doubled = new ArrayList<>();
+            for (Integer request : requests) {
+                doubled.add(request * 2);
+            }
+            return doubled;
+        }, 200_000, 64);
+        AtomicInteger nextRequest = new AtomicInteger();
+        List<Integer> batched = runConcurrently(clients, start, () -> {
+            int request = nextRequest.getAndIncrement();
+            return batcher.execute(request) - request * 2;
+        });
+        // The first request may arrive alone and be answered without waiting for the others
+        System.out.println("Batches For Burst: " + (batcher.getBatchCount() <= 2) + " (Expected: true)");
+        System.out.println("Batched Results Correct: " + batched.stream().allMatch(r -> r == 0) + " (Expected: true)");
+        MicroBatcher<Integer, Integer> idle = new MicroBatcher<>(requests -> requests, 200_000, 64);
+        long loneStart = System.nanoTime();
+        idle.execute(1);
+        long loneMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loneStart);
+        System.out.println("Lone Request Skips Window: " + (loneMillis < 100) + " (Expected: true)");
+        MicroBatcher<Integer, Integer> shortAnswers = new MicroBatcher<>(requests -> new ArrayList<>(), 200_000, 64);
+        List<Integer> failures = runConcurrently(clients, start, () -> {
+            try {
+                shortAnswers.execute(1);
+                return 0;
+            } catch (IllegalStateException e) {
+                return 1;
+            }
+        });
+        System.out.println("Missing Results Fail Every Request: " + failures.stream().mapToInt(Integer::intValue).sum()
+                + " (Expected: " + CLIENTS + ")");
+
+        // Step 4: Compare batched window predictions with individual ones
+        PredictionService predictionService = new PredictionService();
+        PredictionController controller = new PredictionController(predictionService);
+        AtomicInteger nextWindow = new AtomicInteger();
+        List<Integer> mismatches = runConcurrently(clients, start, () -> {
+            int wrong = 0;
+            for (int q = 0; q < 50; q++) {
+                long from = (nextWindow.getAndIncrement() * 7919L % 100_000) * 1000L;
+                long to = from + 3_600_000L;
+                PredictionResult batchedResult = controller.handlePrediction(repository, from, to);
+                PredictionResult individual;
+                synchronized (repository) {
+                    individual = predictionService.predict(repository.getRange(from, to));
+                }
+                wrong += batchedResult.getPredictedValue() == individual.getPredictedValue() ? 0 : 1;
+            }
+            return wrong;
+        });
+        System.out.println("Window Mismatches: " + mismatches.stream().mapToInt(Integer::intValue).sum() + " (Expected: 0)");
+        System.out.println("Window Batches: " + controller.getWindowBatchCount() + " for " + CLIENTS * 50 + " requests");
+        System.out.println("Empty Window: " + controller.handlePrediction(repository, -10, -5).getMessage()
+                + " (Expected: Not enough data to make a prediction.)");
+
+        // Step 5: Request windows while late points are saved, then compare with a plain repository
+        TimeIndexedRepository late = new TimeIndexedRepository(64);
+        DatabaseRepository plain = new DatabaseRepository();
+        for (int i = 0; i < 20_000; i++) {
+            DataPoint point = new DataPoint(i, 50 + i * 0.01 + random.nextGaussian(), i * 1000L);
+            late.saveData(point);
+            plain.saveData(point);
+        }
+        Thread writer = new Thread(() -> {
+            Random lateness = new Random(11);
+            for (int i = 0; i < 20_000; i++) {
+                DataPoint point = new DataPoint(20_000 + i, 40 + lateness.nextGaussian(), lateness.nextInt(20_000) * 1000L + 1);
+                late.saveData(point);
+                plain.saveData(point); // Only read once the writer is done
+            }
+        });
+        PredictionController lateController = new PredictionController(predictionService);
+        AtomicInteger nextLateWindow = new AtomicInteger();
+        writer.start();
+        List<Integer> lateFailures = runConcurrently(clients, start, () -> {
+            int failed = 0;
+            for (int q = 0; q < 200; q++) {
+                long from = (nextLateWindow.getAndIncrement() * 7919L % 20_000) * 1000L;
+                try {
+                    lateController.handlePrediction(late, from, from + 600_000L);
+                } catch (RuntimeException e) {
+                    failed++;
+                }
+            }
+            return failed;
+        });
+        writer.join();
+        List<Integer> lateMismatches = runConcurrently(clients, start, () -> {
+            int wrong = 0;
+            for (int q = 0; q < 50; q++) {
+                long from = (nextLateWindow.getAndIncrement() * 7919L % 20_000) * 1000L;
+                long to = from + 600_000L;
+                double batchedValue = lateController.handlePrediction(late, from, to).getPredictedValue();
+                double individualValue = predictionService.predict(plain.getRange(from, to)).getPredictedValue();
+                wrong += Math.abs(batchedValue - individualValue) <= 1e-9 * Math.abs(individualValue) ? 0 : 1;
+            }
+            return wrong;
+        });
+        System.out.println("Failed Windows During Late Saves: " + lateFailures.stream().mapToInt(Integer::intValue).sum()
+                + " (Expected: 0)");
+        System.out.println("Late Point Count: " + late.getAllData().size() + " (Expected: 40000)");
+        System.out.println("Late Window Mismatches: " + lateMismatches.stream().mapToInt(Integer::intValue).sum()
+                + " (Expected: 0)");
+        clients.shutdown();
+    }
+
+    /**
+     * Runs a task on every client thread, starting them together.
+     *
+     * @param clients The client threads.
+     * @param start   The barrier releasing the clients together.
+     * @param task    The task of each client.
+     * @param <T>     The type of the results.
+     * @return The result of each client.
+     * @throws Exception if a client fails.
+     */
+    private static <T> List<T> runConcurrently(ExecutorService clients, CyclicBarrier start, Callable<T> task)
+            throws Exception {
+        List<Future<T>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    /**
+     * Sleeps without throwing a checked exception.
+     *
+     * @param millis The time to sleep, in milliseconds.
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
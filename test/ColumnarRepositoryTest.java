@@ -0,0 +1,80 @@
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.PredictionService;
+
+import java.util.List;
+
+/**
+ * ColumnarRepositoryTest is a simple executable test class for the {@link ColumnarRepository}.
+ * <p>
+ * This class demonstrates the functionality of the columnar repository by:
+ * - Saving data points that span several column chunks.
+ * - Reading them back through the list view and the primitive columns.
+ * - Running the services directly on the columns.
+ * </p>
+ */
+public class ColumnarRepositoryTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Fills a {@link ColumnarRepository} with more points than fit in one chunk.
+     * 2. Reads the data back through {@link ColumnarRepository#getAllData()}.
+     * 3. Runs statistics, cleaning and prediction on the columns.
+     * 4. Outputs the results to the console.
+     * 5. Looks up and updates points by ID.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Fill the repository with a linear series spanning several chunks
+        ColumnarRepository repository = new ColumnarRepository();
+        int size = ColumnBuffer.CHUNK_SIZE * 2 + 10;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            repository.saveData(new DataPoint(i + 1, i + 1, now + i));
+        }
+
+        // Step 2: Read the data back through the list view
+        List<DataPoint> data = repository.getAllData();
+        DataColumns columns = repository.getColumns();
+        System.out.println("ColumnarRepository Test:");
+        System.out.println("Size: " + data.size() + " (Expected: " + size + ")");
+        System.out.println("Chunks: " + columns.getChunkCount() + " (Expected: 3)");
+        System.out.println("Last Point: " + data.get(size - 1));
+
+        // Step 3: Run the services on the columns
+        DataStatisticsService statisticsService = new DataStatisticsService();
+        DataCleaningService cleaningService = new DataCleaningService();
+        PredictionService predictionService = new PredictionService();
+
+        // Step 4: Display the results
+        System.out.println("Average: " + statisticsService.calculateAverage(columns)
+                + " (Expected: " + statisticsService.calculateAverage(data) + ")");
+        System.out.println("Max: " + statisticsService.findMax(columns) + " (Expected: " + size + ".0)");
+        System.out.println("Min: " + statisticsService.findMin(columns) + " (Expected: 1.0)");
+        System.out.println("Cleaned Size: " + cleaningService.cleanData(columns).size()
+                + " (Expected: " + cleaningService.cleanData(data).size() + ")");
+        System.out.println("Predicted Value: " + predictionService.predict(columns).getPredictedValue()
+                + " (Expected: " + predictionService.predict(data).getPredictedValue() + ")");
+
+        // Step 5: Look up and update points by ID
+        repository.saveData(new DataPoint(5, -1.0, now));
+        ColumnBuffer batch = new ColumnBuffer();
+        batch.append(size + 1, 7.0, now);
+        batch.append(6, -2.0, now);
+        batch.append(size + 1, 8.0, now);
+        repository.saveAll(batch);
+        System.out.println("Found By ID: " + repository.findById(5).getValue() + " (Expected: -1.0)");
+        System.out.println("Upserted In Batch: " + repository.findById(6).getValue()
+                + ", " + repository.findById(size + 1).getValue() + " (Expected: -2.0, 8.0)");
+        System.out.println("Size After Upserts: " + data.size() + " (Expected: " + (size + 1) + ")");
+        System.out.println("Contains Missing ID: " + repository.containsId(-5) + " (Expected: false)");
+    }
+}
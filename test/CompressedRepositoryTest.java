@@ -0,0 +1,104 @@
+import es.predictapro.model.CompressedBlock;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.repository.CompressedRepository;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.PredictionService;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * CompressedRepositoryTest is a simple executable test class for the {@link CompressedRepository}.
+ * <p>
+ * This class demonstrates the functionality of the compressed storage by:
+ * - Restoring every data point exactly, including edge values.
+ * - Running the services on the compressed columns.
+ * - Reporting the compression ratio of a typical sensor feed.
+ * </p>
+ */
+public class CompressedRepositoryTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Saves a sensor feed in a compressed and a columnar repository.
+     * 2. Compares the stored points and the service results of both repositories.
+     * 3. Encodes a block of edge values and serializes it.
+     * 4. Outputs the footprint of the compressed feed.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Save a feed sampled every second, with a slowly changing reading and some jitter
+        Random random = new Random(11);
+        CompressedRepository compressed = new CompressedRepository();
+        ColumnarRepository columnar = new ColumnarRepository();
+        int size = 200_000;
+        double reading = 20.0;
+        for (int i = 0; i < size; i++) {
+            if (i % 30 == 0) {
+                reading = Math.round((reading + random.nextGaussian() * 0.5) * 10) / 10.0;
+            }
+            long timestamp = 1_700_000_000_000L + i * 1000L + (random.nextInt(50) == 0 ? random.nextInt(20) : 0);
+            compressed.saveData(i, reading, timestamp);
+            columnar.saveData(i, reading, timestamp);
+        }
+
+        // Step 2: Compare the stored points and the service results
+        List<DataPoint> expected = columnar.getAllData();
+        List<DataPoint> actual = compressed.getAllData();
+        boolean pointsMatch = actual.size() == expected.size();
+        for (int i = 0; pointsMatch && i < size; i++) {
+            pointsMatch = actual.get(i).getId() == expected.get(i).getId()
+                    && actual.get(i).getValue() == expected.get(i).getValue()
+                    && actual.get(i).getTimestamp() == expected.get(i).getTimestamp();
+        }
+        DataStatisticsService statisticsService = new DataStatisticsService();
+        PredictionService predictionService = new PredictionService();
+        DataColumns columns = compressed.getColumns();
+
+        System.out.println("CompressedRepository Test:");
+        System.out.println("Size: " + actual.size() + " (Expected: " + size + ")");
+        System.out.println("Points Match: " + pointsMatch + " (Expected: true)");
+        System.out.println("Average Matches: " + (statisticsService.calculateAverage(columns)
+                == statisticsService.calculateAverage(columnar.getColumns())) + " (Expected: true)");
+        System.out.println("Prediction Matches: " + (predictionService.predict(columns).getPredictedValue()
+                == predictionService.predict(columnar.getColumns()).getPredictedValue()) + " (Expected: true)");
+
+        CompressedRepository batched = new CompressedRepository(1000);
+        batched.saveAll(columnar.getColumns());
+        System.out.println("Batch Sum Matches: " + (statisticsService.calculateSum(batched.getColumns())
+                == statisticsService.calculateSum(columnar.getColumns())) + " (Expected: true)");
+
+        // Step 3: Encode edge values and serialize the block
+        int[] ids = {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 7};
+        double[] values = {Double.NaN, -0.0, Double.MAX_VALUE, Double.MIN_VALUE, Double.NEGATIVE_INFINITY};
+        long[] timestamps = {Long.MIN_VALUE, Long.MAX_VALUE, 0, -1_000, 1L << 40};
+        CompressedBlock block = CompressedBlock.encode(ids, values, timestamps, 0, ids.length);
+        ByteBuffer buffer = ByteBuffer.allocate(block.getSerializedBytes());
+        block.writeTo(buffer);
+        buffer.flip();
+        CompressedBlock restored = CompressedBlock.readFrom(buffer);
+        boolean edgesMatch = restored.size() == ids.length;
+        int[] restoredIds = restored.decodeIds();
+        double[] restoredValues = restored.decodeValues();
+        long[] restoredTimestamps = restored.decodeTimestamps();
+        for (int i = 0; edgesMatch && i < ids.length; i++) {
+            edgesMatch = restoredIds[i] == ids[i] && restoredTimestamps[i] == timestamps[i]
+                    && Double.doubleToRawLongBits(restoredValues[i]) == Double.doubleToRawLongBits(values[i]);
+        }
+        System.out.println("Edge Values Match: " + edgesMatch + " (Expected: true)");
+        System.out.println("Buffer Consumed: " + !buffer.hasRemaining() + " (Expected: true)");
+
+        // Step 4: Display the footprint
+        double ratio = (double) compressed.getRawBytes() / compressed.getStoredBytes();
+        System.out.printf("Footprint: %d bytes raw, %d bytes compressed (%.1fx)%n",
+                compressed.getRawBytes(), compressed.getStoredBytes(), ratio);
+        System.out.println("Compressed 10x Or More: " + (ratio >= 10) + " (Expected: true)");
+    }
+}
@@ -0,0 +1,99 @@
+import es.predictapro.model.ColumnSnapshot;
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.ConcurrentRepository;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.util.IdSet;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrentRepositoryTest is a simple executable test class for the {@link ConcurrentRepository}.
+ * <p>
+ * This class demonstrates the functionality of the concurrent repository by:
+ * - Saving data points from several threads at the same time.
+ * - Taking snapshots while the writers are running.
+ * - Checking that no point is lost or duplicated and that snapshots never change.
+ * </p>
+ */
+public class ConcurrentRepositoryTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Starts several writer threads, each saving a disjoint range of IDs.
+     * 2. Takes snapshots while the writers are running and checks they stay unchanged.
+     * 3. Checks the final content of the repository.
+     * 4. Checks that a single writer keeps the insertion order.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     * @throws InterruptedException if the test is interrupted while waiting for the writers.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        // Step 1: Start the writers
+        int writers = 4;
+        int pointsPerWriter = 500_000;
+        ConcurrentRepository repository = new ConcurrentRepository(writers);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        long startNanos = System.nanoTime();
+        for (int w = 0; w < writers; w++) {
+            int firstId = w * pointsPerWriter;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < pointsPerWriter; i++) {
+                    repository.saveData(firstId + i, 1.0, i);
+                }
+            });
+        }
+        start.countDown();
+
+        // Step 2: Take snapshots while writing and check they do not change afterwards
+        boolean snapshotsStable = true;
+        for (int s = 0; s < 20; s++) {
+            ColumnSnapshot snapshot = repository.getColumns();
+            double sum = new DataStatisticsService().calculateSum(snapshot);
+            Thread.sleep(1);
+            snapshotsStable &= sum == snapshot.size()
+                    && sum == new DataStatisticsService().calculateSum(snapshot);
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        // Step 3: Check the final content
+        List<DataPoint> data = repository.getAllData();
+        IdSet ids = new IdSet(data.size());
+        for (DataPoint point : data) {
+            ids.add(point.getId());
+        }
+        System.out.println("ConcurrentRepository Test:");
+        System.out.println("Stripes: " + repository.getStripeCount() + " (Expected: 4)");
+        System.out.println("Size: " + data.size() + " (Expected: " + writers * pointsPerWriter + ")");
+        System.out.println("Distinct IDs: " + ids.size() + " (Expected: " + writers * pointsPerWriter + ")");
+        System.out.println("Snapshots Stable: " + snapshotsStable + " (Expected: true)");
+        System.out.printf("Throughput: %.1f million saves/s%n", writers * pointsPerWriter * 1e3 / elapsedNanos);
+
+        // Step 4: A single writer keeps the insertion order
+        ConcurrentRepository single = new ConcurrentRepository();
+        for (int i = 0; i < 40_000; i++) {
+            single.saveData(new DataPoint(i, i, i));
+        }
+        List<DataPoint> ordered = single.getAllData();
+        boolean inOrder = true;
+        for (int i = 0; i < ordered.size(); i++) {
+            inOrder &= ordered.get(i).getId() == i;
+        }
+        System.out.println("Single Writer In Order: " + inOrder + " (Expected: true)");
+    }
+}
@@ -1,8 +1,15 @@
+import es.predictapro.service.ChunkedExecutor;
+import es.predictapro.service.CleaningMode;
 import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.StreamingOutlierFilter;
 import es.predictapro.model.DataPoint;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * DataCleaningServiceTest is a simple executable test class for the {@link DataCleaningService}.
@@ -11,6 +18,8 @@ import java.util.List;
  * - Creating a sample dataset with valid and invalid values.
  * - Cleaning the dataset using the service.
  * - Printing the results of the cleaning process to the console.
+ * - Comparing them with the inlier bitmap and the streaming filter.
+ * - Cleaning with the robust median/MAD and interquartile range rules.
  * </p>
  */
 public class DataCleaningServiceTest {
@@ -45,6 +54,58 @@ public class DataCleaningServiceTest {
         for (DataPoint dp : cleanedData) {
             System.out.println("ID: " + dp.getId() + ", VALUE: " + dp.getValue() + ", TIMESTAMP: " + dp.getTimestamp());
         }
+
+        // Step 5: Find the surviving positions without copying the points
+        BitSet inliers = cleaningService.findInliers(data);
+        System.out.println("Inlier Bitmap: " + inliers + " (Expected: " + cleanedData.size() + " positions)");
+
+        // Step 6: Filter a feed with a single extreme outlier through a rolling window
+        StreamingOutlierFilter filter = new StreamingOutlierFilter(50);
+        List<DataPoint> feed = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            double value = i == 150 ? 1000.0 : 10.0 + (i % 5);
+            feed.add(new DataPoint(i, value, System.currentTimeMillis()));
+        }
+        List<DataPoint> kept = new ArrayList<>();
+        long removed = filter.filter(feed, kept::add);
+        System.out.println("Streaming Filter Removed: " + removed + " (Expected: 1)");
+        System.out.println("Streaming Filter Kept: " + kept.size() + " (Expected: 199)");
+
+        // Step 7: Clean a sample with one extreme outlier with each rule
+        List<DataPoint> sample = Arrays.asList(
+                new DataPoint(1, 10.5, 0), new DataPoint(2, -50.0, 0), new DataPoint(3, 20.0, 0),
+                new DataPoint(4, 1000.0, 0), new DataPoint(5, 15.0, 0), new DataPoint(6, 12.0, 0));
+        System.out.println("\nCleaning Modes Test:");
+        System.out.println("Standard Deviation Kept: " + cleaningService.cleanData(sample, CleaningMode.STANDARD_DEVIATION).size()
+                + " (Expected: 5)");
+        System.out.println("Median/MAD Kept: " + cleaningService.cleanData(sample, CleaningMode.MEDIAN_ABSOLUTE_DEVIATION).size()
+                + " (Expected: 4)");
+        System.out.println("Interquartile Range Kept: " + cleaningService.cleanData(sample, CleaningMode.INTERQUARTILE_RANGE).size()
+                + " (Expected: 4)");
+
+        // Step 8: Clean a large noisy series sequentially and in parallel chunks
+        Random random = new Random(3);
+        List<DataPoint> series = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            double value = i % 1000 == 0 ? 1e6 : 100 + random.nextGaussian();
+            series.add(new DataPoint(i, value, i));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        DataCleaningService parallelService = new DataCleaningService(new ChunkedExecutor(pool, 10_000));
+        List<DataPoint> robust = cleaningService.cleanData(series, CleaningMode.MEDIAN_ABSOLUTE_DEVIATION);
+        BitSet robustInliers = parallelService.findInliers(series, CleaningMode.MEDIAN_ABSOLUTE_DEVIATION);
+        boolean outliersRemoved = true;
+        for (DataPoint point : robust) {
+            outliersRemoved &= point.getValue() < 1e6;
+        }
+        System.out.println("Median/MAD Removes Outliers: " + outliersRemoved + " (Expected: true)");
+        System.out.println("Median/MAD Kept Near 99.7%: " + (Math.abs(robust.size() - 0.997 * 199_800) < 600)
+                + " (Expected: true)");
+        System.out.println("Parallel Sketches Close: " + (Math.abs(robustInliers.cardinality() - robust.size()) < 600)
+                + " (Expected: true)");
+        System.out.println("Interquartile Range Removes Outliers: "
+                + (parallelService.cleanData(series, CleaningMode.INTERQUARTILE_RANGE).size() < 199_800) + " (Expected: true)");
+        pool.shutdown();
     }
 }
 
@@ -0,0 +1,205 @@
+import es.predictapro.exception.ValidationException;
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.service.ChunkedExecutor;
+import es.predictapro.service.DataLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * DataLoaderTest is a simple executable test class for the {@link DataLoader}.
+ * <p>
+ * This class demonstrates the bulk loader by:
+ * - Loading a CSV file with a header, CRLF line endings, blank lines and varied number formats.
+ * - Checking that small segments split mid-line, sequential or parallel, give the same points.
+ * - Round-tripping data points through the binary format.
+ * - Reporting malformed records with their byte offset.
+ * - Skipping the UTF-8 byte order mark, with or without a header.
+ * </p>
+ */
+public class DataLoaderTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Writes a CSV file and the data points it holds.
+     * 2. Loads it with large and tiny segments, sequentially and in parallel.
+     * 3. Writes and loads the binary format.
+     * 4. Loads malformed files.
+     * 5. Loads files starting with a byte order mark.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     * @throws Exception if a temporary file cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        // Step 1: Write a CSV file with values in many formats
+        Random random = new Random(5);
+        ColumnarRepository expected = new ColumnarRepository();
+        StringBuilder csv = new StringBuilder("id,value,timestamp\r\n");
+        int size = 5_000;
+        for (int i = 0; i < size; i++) {
+            double value;
+            String text;
+            switch (i % 5) {
+                case 0:
+                    value = random.nextGaussian() * 1e6;
+                    text = Double.toString(value);
+                    break;
+                case 1:
+                    value = Math.round(random.nextDouble() * 10_000) / 100.0;
+                    text = Double.toString(value);
+                    break;
+                case 2:
+                    text = (random.nextInt(2000) - 1000) + "e" + (random.nextInt(40) - 20);
+                    value = Double.parseDouble(text);
+                    break;
+                case 3:
+                    text = "-0.000" + random.nextInt(1000);
+                    value = Double.parseDouble(text);
+                    break;
+                default:
+                    text = " " + random.nextInt(100) + " ";
+                    value = Double.parseDouble(text);
+                    break;
+            }
+            long timestamp = 1_700_000_000_000L + i * 1000L;
+            expected.saveData(i - size / 2, value, timestamp);
+            csv.append(i - size / 2).append(',').append(text).append(',').append(timestamp)
+                    .append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 101 == 0) {
+                csv.append("\n");
+            }
+        }
+        csv.append("2147483647,1.7976931348623157E308,-1"); // No final newline
+        expected.saveData(Integer.MAX_VALUE, Double.MAX_VALUE, -1);
+        Path csvFile = Files.createTempFile("points", ".csv");
+        Files.write(csvFile, csv.toString().getBytes(StandardCharsets.US_ASCII));
+
+        // Step 2: Load it with large and tiny segments, sequentially and in parallel
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ColumnarRepository whole = new ColumnarRepository();
+        long loaded = new DataLoader().load(csvFile, whole);
+        ColumnarRepository tiny = new ColumnarRepository();
+        new DataLoader(ChunkedExecutor.sequential(), 37).loadCsv(csvFile, tiny);
+        ColumnarRepository parallel = new ColumnarRepository();
+        new DataLoader(new ChunkedExecutor(pool, 1), 1000).loadCsv(csvFile, parallel);
+        System.out.println("DataLoader Test:");
+        System.out.println("Loaded: " + loaded + " (Expected: " + (size + 1) + ")");
+        System.out.println("Points Match: " + same(expected.getAllData(), whole.getAllData()) + " (Expected: true)");
+        System.out.println("Tiny Segments Match: " + same(expected.getAllData(), tiny.getAllData()) + " (Expected: true)");
+        System.out.println("Parallel Segments Match: " + same(expected.getAllData(), parallel.getAllData())
+                + " (Expected: true)");
+
+        // Step 3: Write and load the binary format
+        Path binaryFile = Files.createTempFile("points", ".bin");
+        DataLoader.writeBinary(expected.getColumns(), binaryFile);
+        TimeIndexedRepository indexed = new TimeIndexedRepository();
+        ColumnarRepository binary = new ColumnarRepository();
+        new DataLoader(new ChunkedExecutor(pool, 1), 999).load(binaryFile, binary);
+        new DataLoader().loadBinary(binaryFile, indexed);
+        List<DataPoint> latest = indexed.getLatest(1);
+        System.out.println("\nBinary Test:");
+        System.out.println("File Size: " + Files.size(binaryFile) + " (Expected: " + (size + 1) * DataLoader.RECORD_SIZE + ")");
+        System.out.println("Binary Points Match: " + same(expected.getAllData(), binary.getAllData()) + " (Expected: true)");
+        System.out.println("Indexed Size: " + indexed.getAllData().size() + " (Expected: " + (size + 1) + ")");
+        System.out.println("Latest ID: " + latest.get(0).getId() + " (Expected: " + (size - 1 - size / 2) + ")");
+
+        // Step 4: Load malformed files
+        System.out.println("\nMalformed Test:");
+        System.out.println("Bad Value: " + loadError("1,2.0,3\n2,abc,4\n") + " (Expected: Malformed CSV record at byte 8)");
+        System.out.println("Missing Field: " + loadError("1,2.0\n") + " (Expected: Malformed CSV record at byte 0)");
+        System.out.println("ID Out Of Range: " + loadError("3000000000,1,1\n") + " (Expected: Malformed CSV record at byte 0)");
+        Files.write(binaryFile, new byte[DataLoader.RECORD_SIZE + 3]);
+        String binaryError;
+        try {
+            new DataLoader().loadBinary(binaryFile, new ColumnarRepository());
+            binaryError = "none";
+        } catch (ValidationException e) {
+            binaryError = e.getMessage().contains("not a multiple") ? "size rejected" : e.getMessage();
+        }
+        System.out.println("Truncated Binary: " + binaryError + " (Expected: size rejected)");
+
+        // Step 5: Load files starting with a byte order mark
+        byte[] byteOrderMark = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        ColumnarRepository headerless = new ColumnarRepository();
+        Files.write(csvFile, concat(byteOrderMark, "1,2.5,10\n2,3,20\n".getBytes(StandardCharsets.US_ASCII)));
+        new DataLoader().loadCsv(csvFile, headerless);
+        ColumnarRepository withHeader = new ColumnarRepository();
+        Files.write(csvFile, concat(byteOrderMark, "id,value,timestamp\n1,2.5,10\n2,3,20\n".getBytes(StandardCharsets.US_ASCII)));
+        new DataLoader().loadCsv(csvFile, withHeader);
+        System.out.println("\nByte Order Mark Test:");
+        System.out.println("Headerless Points: " + headerless.getAllData().size() + " (Expected: 2)");
+        System.out.println("First Value: " + headerless.getAllData().get(0).getValue() + " (Expected: 2.5)");
+        System.out.println("Points After Header: " + withHeader.getAllData().size() + " (Expected: 2)");
+
+        pool.shutdown();
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(binaryFile);
+    }
+
+    /**
+     * Concatenates two byte arrays.
+     *
+     * @param first  The leading bytes.
+     * @param second The trailing bytes.
+     * @return A new array holding both.
+     */
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Checks that two lists hold exactly the same data points.
+     *
+     * @param expected The expected data points.
+     * @param actual   The loaded data points.
+     * @return {@code true} if every ID, value and timestamp matches, in order.
+     */
+    private static boolean same(List<DataPoint> expected, List<DataPoint> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            DataPoint left = expected.get(i);
+            DataPoint right = actual.get(i);
+            if (left.getId() != right.getId() || left.getTimestamp() != right.getTimestamp()
+                    || Double.doubleToLongBits(left.getValue()) != Double.doubleToLongBits(right.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Loads a CSV text and returns the start of the error it raises.
+     *
+     * @param text The content of the CSV file.
+     * @return The error message up to the byte offset, or "none".
+     * @throws Exception if the temporary file cannot be written.
+     */
+    private static String loadError(String text) throws Exception {
+        Path file = Files.createTempFile("malformed", ".csv");
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+        try {
+            new DataLoader().loadCsv(file, new ColumnarRepository());
+            return "none";
+        } catch (ValidationException e) {
+            String message = e.getMessage();
+            int end = message.indexOf(" (");
+            return end < 0 ? message : message.substring(0, end);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 import es.predictapro.model.DataPoint;
+import es.predictapro.model.QuantileSketch;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.TimeIndexedRepository;
 import es.predictapro.service.DataStatisticsService;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Unit test class for {@link DataStatisticsService}.
@@ -22,6 +26,7 @@ public class DataStatisticsServiceTest {
      * - Correct determination of maximum and minimum values.
      * - Proper calculation of range.
      * - Handling of edge cases such as empty or single data point lists.
+     * - Approximate percentiles and histograms within their error bounds.
      * </p>
      *
      * @param args Command-line arguments (not used in this test).
@@ -37,6 +42,12 @@ public class DataStatisticsServiceTest {
 
         // Test 3: Single data point
         testWithSingleDataPoint();
+
+        // Test 4: Single-pass summary and merged partial summaries
+        testSummary();
+
+        // Test 5: Percentiles and histograms from sketches
+        testPercentiles();
     }
 
     /**
@@ -117,5 +128,106 @@ public class DataStatisticsServiceTest {
         System.out.println("Range: " + range + " (Expected: 0.0)");
         System.out.println();
     }
-}
 
+    /**
+     * Tests the single-pass summary and the merging of partial summaries.
+     */
+    private static void testSummary() {
+        DataStatisticsService statisticsService = new DataStatisticsService();
+
+        // Define test data
+        List<DataPoint> data = Arrays.asList(
+                new DataPoint(1, 2.0, System.currentTimeMillis()),
+                new DataPoint(2, 4.0, System.currentTimeMillis()),
+                new DataPoint(3, 4.0, System.currentTimeMillis()),
+                new DataPoint(4, 4.0, System.currentTimeMillis()),
+                new DataPoint(5, 5.0, System.currentTimeMillis()),
+                new DataPoint(6, 5.0, System.currentTimeMillis()),
+                new DataPoint(7, 7.0, System.currentTimeMillis()),
+                new DataPoint(8, 9.0, System.currentTimeMillis())
+        );
+
+        // Summarize the whole dataset, then each half separately and merge them
+        StatisticsSummary summary = statisticsService.summarize(data);
+        StatisticsSummary merged = statisticsService.summarize(data.subList(0, 3));
+        merged.merge(statisticsService.summarize(data.subList(3, data.size())));
+
+        // Print results
+        System.out.println("Test 4: Summary");
+        System.out.println("Count: " + summary.getCount() + " (Expected: 8)");
+        System.out.println("Mean: " + summary.getMean() + " (Expected: 5.0)");
+        System.out.println("Variance: " + summary.getVariance() + " (Expected: 4.0)");
+        System.out.println("Skewness: " + summary.getSkewness() + " (Expected: 0.65625)");
+        System.out.println("Kurtosis: " + summary.getKurtosis() + " (Expected: -0.21875)");
+        System.out.println("Range: " + summary.getRange() + " (Expected: 7.0)");
+        System.out.println("Merged: " + merged);
+        System.out.println();
+    }
+
+    /**
+     * Tests percentiles, quantile ranges and histograms, exact on small data and within the
+     * sketch error bound on a repository holding a large history.
+     */
+    private static void testPercentiles() {
+        DataStatisticsService statisticsService = new DataStatisticsService();
+
+        // Small data is summarized exactly
+        List<DataPoint> data = Arrays.asList(
+                new DataPoint(1, 2.0, 0), new DataPoint(2, 4.0, 0), new DataPoint(3, 4.0, 0),
+                new DataPoint(4, 4.0, 0), new DataPoint(5, 5.0, 0), new DataPoint(6, 5.0, 0),
+                new DataPoint(7, 7.0, 0), new DataPoint(8, 9.0, 0)
+        );
+        System.out.println("Test 5: Percentiles");
+        System.out.println("Median: " + statisticsService.calculatePercentile(data, 50) + " (Expected: 4.0)");
+        System.out.println("P100: " + statisticsService.calculatePercentile(data, 100) + " (Expected: 9.0)");
+        System.out.println("Interquartile Range: " + statisticsService.calculateQuantileRange(data, 25, 75)
+                + " (Expected: 1.0)");
+        System.out.println("Histogram: " + Arrays.toString(statisticsService.calculateHistogram(data, 0, 10, 5))
+                + " (Expected: [0, 1, 5, 1, 1])");
+        System.out.println("Empty Median: " + statisticsService.calculatePercentile(Arrays.<DataPoint>asList(), 50)
+                + " (Expected: NaN)");
+
+        // A large history is answered from the sketch the repository maintains
+        int size = 500_000;
+        double[] values = new double[size];
+        Random random = new Random(11);
+        TimeIndexedRepository repository = new TimeIndexedRepository();
+        for (int i = 0; i < size; i++) {
+            values[i] = 100 + 15 * random.nextGaussian();
+            repository.saveData(i, values[i], i * 1000L);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        QuantileSketch sketch = repository.getSketch();
+        double bound = sketch.getNormalizedRankError();
+        boolean percentilesWithin = true;
+        for (double percentile : new double[] {50, 95, 99}) {
+            double estimate = statisticsService.calculatePercentile(repository, percentile);
+            double rank = (double) Arrays.binarySearch(sorted, estimate) / size;
+            percentilesWithin &= Math.abs(rank - percentile / 100) <= bound;
+        }
+        long[] histogram = statisticsService.calculateHistogram(repository, 40, 160, 12);
+        boolean binsWithin = true;
+        for (int bin = 0; bin < histogram.length; bin++) {
+            long exact = countBelow(sorted, 40 + (bin + 1) * 10) - countBelow(sorted, 40 + bin * 10);
+            binsWithin &= Math.abs(histogram[bin] - exact) <= 2 * bound * size;
+        }
+        System.out.println("Sketch Count: " + sketch.getCount() + " (Expected: " + size + ")");
+        System.out.println("P50/P95/P99 Within Bound: " + percentilesWithin + " (Expected: true)");
+        System.out.println("Histogram Within Bound: " + binsWithin + " (Expected: true)");
+        System.out.println("Sketch Size Bounded: " + (sketch.getRetainedCount() < 1000) + " (Expected: true)");
+        System.out.println();
+    }
+
+    /**
+     * Counts the sorted values lower than a given value.
+     *
+     * @param sorted The values, sorted.
+     * @param value  The value to compare with.
+     * @return The number of values lower than the given one.
+     */
+    private static long countBelow(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        return index >= 0 ? index : -index - 1;
+    }
+}
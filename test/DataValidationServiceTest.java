@@ -0,0 +1,76 @@
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.ValidationResult;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.repository.DatabaseRepository;
+import es.predictapro.service.DataValidationService;
+import es.predictapro.service.ValidationMode;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DataValidationServiceTest is a simple executable test class for the {@link DataValidationService}.
+ * <p>
+ * This class demonstrates the functionality of the validation service by:
+ * - Validating a dataset with invalid values and duplicate IDs.
+ * - Comparing the fail-fast and collect-all modes.
+ * - Printing the results of the validation to the console.
+ * </p>
+ */
+public class DataValidationServiceTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Defines a dataset with one NaN value and two duplicate IDs, one of them far from the others.
+     * 2. Validates it in both modes.
+     * 3. Outputs the results to the console.
+     * 4. Validates a new batch against an indexed and an unindexed repository already holding one of its IDs.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Create an instance of the DataValidationService and define test data
+        DataValidationService validationService = new DataValidationService();
+        List<DataPoint> data = Arrays.asList(
+                new DataPoint(1, 10.5, System.currentTimeMillis()),
+                new DataPoint(2, Double.NaN, System.currentTimeMillis()),         // Invalid value
+                new DataPoint(1_000_000, 20.0, System.currentTimeMillis()),
+                new DataPoint(1, 12.0, System.currentTimeMillis()),               // Duplicate ID
+                new DataPoint(1_000_000, 15.0, System.currentTimeMillis())        // Duplicate sparse ID
+        );
+
+        // Step 2: Validate in both modes
+        ValidationResult failFast = validationService.validate(data, ValidationMode.FAIL_FAST);
+        ValidationResult collectAll = validationService.validate(data, ValidationMode.COLLECT_ALL);
+
+        // Step 3: Display the results
+        System.out.println("DataValidationService Test:");
+        System.out.println("Fail Fast: " + failFast + " (Expected: checked=2, stoppedEarly=true)");
+        System.out.println("Collect All Invalid Values: " + Arrays.toString(collectAll.getInvalidValuePositions())
+                + " (Expected: [1])");
+        System.out.println("Collect All Duplicate IDs: " + Arrays.toString(collectAll.getDuplicateIdPositions())
+                + " (Expected: [3, 4])");
+        // Step 4: Validate a new batch against the IDs already stored in a repository
+        ColumnarRepository repository = new ColumnarRepository();
+        repository.saveData(new DataPoint(7, 1.0, 0));
+        List<DataPoint> batch = Arrays.asList(new DataPoint(8, 1.0, 0), new DataPoint(7, 2.0, 0));
+        ValidationResult againstRepository = validationService.validate(batch, ValidationMode.COLLECT_ALL, repository);
+        System.out.println("Duplicates Of Stored IDs: " + Arrays.toString(againstRepository.getDuplicateIdPositions())
+                + " (Expected: [1])");
+        DatabaseRepository unindexed = new DatabaseRepository();
+        unindexed.saveData(new DataPoint(7, 1.0, 0));
+        ValidationResult againstUnindexed = validationService.validate(batch, ValidationMode.COLLECT_ALL, unindexed);
+        System.out.println("Duplicates Of Unindexed IDs: " + Arrays.toString(againstUnindexed.getDuplicateIdPositions())
+                + " (Expected: [1])");
+
+        try {
+            validationService.validateData(data);
+            System.out.println("Validation Error: none (Expected: an exception)");
+        } catch (Exception e) {
+            System.out.println("Validation Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.PredictionService;
+import es.predictapro.util.DoubleKernels;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * DoubleKernelsTest is a simple executable test class for the {@link DoubleKernels} reductions.
+ * <p>
+ * This class demonstrates the lane-split kernels by:
+ * - Checking that sums and regression sums do not depend on how a series is split into chunks.
+ * - Checking the minimum and maximum on empty, short and {@code NaN} ranges.
+ * - Comparing the summary of a primitive array with the summary of the same values one by one.
+ * - Comparing the statistics and predictions of a list and of columns holding the same series.
+ * </p>
+ */
+public class DoubleKernelsTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Sums a series in one piece and in uneven pieces.
+     * 2. Reduces edge-case ranges.
+     * 3. Summarizes a series with the kernels and value by value.
+     * 4. Computes statistics and predictions from a list and from columns.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        Random random = new Random(11);
+        double[] values = new double[10_007];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + 100 * random.nextGaussian();
+        }
+
+        // Step 1: Sum the series in one piece and in uneven pieces
+        double[] whole = new double[DoubleKernels.LANES];
+        DoubleKernels.sum(values, 0, values.length, 0, whole);
+        double[] pieces = new double[DoubleKernels.LANES];
+        double[] regressionWhole = new double[DoubleKernels.REGRESSION_LANES];
+        DoubleKernels.regressionSums(values, 0, values.length, 0, regressionWhole);
+        double[] regressionPieces = new double[DoubleKernels.REGRESSION_LANES];
+        double[] regressionTerms = new double[DoubleKernels.REGRESSION_LANES];
+        for (int from = 0, step = 1; from < values.length; from += step, step = step * 3 % 97 + 1) {
+            int to = Math.min(values.length, from + step);
+            DoubleKernels.sum(values, from, to, from, pieces);
+            DoubleKernels.regressionSums(values, from, to, from, regressionPieces);
+        }
+        for (int i = 0; i < values.length; i++) {
+            DoubleKernels.addRegressionTerm(regressionTerms, i, values[i]);
+        }
+        double sequential = 0.0;
+        for (double value : values) {
+            sequential += value;
+        }
+        System.out.println("Chunking Test:");
+        System.out.println("Sum Independent Of Chunks: " + (DoubleKernels.combine(whole, 0) == DoubleKernels.combine(pieces, 0))
+                + " (Expected: true)");
+        System.out.println("Sum Close To Sequential: " + (Math.abs(DoubleKernels.combine(whole, 0) - sequential) < 1e-6)
+                + " (Expected: true)");
+        System.out.println("Regression Independent Of Chunks: " + Arrays.equals(regressionWhole, regressionPieces)
+                + " (Expected: true)");
+        System.out.println("Regression Matches Terms: " + Arrays.equals(regressionWhole, regressionTerms)
+                + " (Expected: true)");
+
+        // Step 2: Reduce edge-case ranges
+        double[] edge = {3.0, -2.0, 7.0, Double.NaN, 5.0};
+        System.out.println("\nEdge Case Test:");
+        System.out.println("Empty Min: " + DoubleKernels.min(edge, 2, 2) + " (Expected: Infinity)");
+        System.out.println("Empty Max: " + DoubleKernels.max(edge, 2, 2) + " (Expected: -Infinity)");
+        System.out.println("Empty Sum: " + DoubleKernels.sum(edge, 2, 2) + " (Expected: 0.0)");
+        System.out.println("Short Min: " + DoubleKernels.min(edge, 0, 3) + " (Expected: -2.0)");
+        System.out.println("Short Max: " + DoubleKernels.max(edge, 0, 3) + " (Expected: 7.0)");
+        System.out.println("NaN Max: " + DoubleKernels.max(edge, 0, 5) + " (Expected: NaN)");
+
+        // Step 3: Summarize the series with the kernels and value by value
+        StatisticsSummary blocks = new StatisticsSummary();
+        blocks.accept(values, 0, 5_000);
+        blocks.accept(values, 5_000, values.length);
+        StatisticsSummary single = new StatisticsSummary();
+        for (double value : values) {
+            single.accept(value);
+        }
+        System.out.println("\nSummary Test:");
+        System.out.println("Count: " + blocks.getCount() + " (Expected: " + single.getCount() + ")");
+        System.out.println("Min And Max Match: " + (blocks.getMin() == single.getMin() && blocks.getMax() == single.getMax())
+                + " (Expected: true)");
+        System.out.println("Mean Close: " + close(blocks.getMean(), single.getMean()) + " (Expected: true)");
+        System.out.println("Variance Close: " + close(blocks.getVariance(), single.getVariance()) + " (Expected: true)");
+        System.out.println("Skewness Close: " + (Math.abs(blocks.getSkewness() - single.getSkewness()) < 1e-9)
+                + " (Expected: true)");
+        System.out.println("Kurtosis Close: " + close(blocks.getKurtosis(), single.getKurtosis()) + " (Expected: true)");
+
+        // Step 4: Compute statistics and predictions from a list and from columns
+        List<DataPoint> data = new ArrayList<>(values.length);
+        ColumnBuffer columns = new ColumnBuffer();
+        for (int i = 0; i < values.length; i++) {
+            data.add(new DataPoint(i, values[i], 1_700_000_000_000L + i * 1000L));
+            columns.append(i, values[i], 1_700_000_000_000L + i * 1000L);
+        }
+        DataStatisticsService statisticsService = new DataStatisticsService();
+        PredictionService predictionService = new PredictionService();
+        System.out.println("\nColumns Test:");
+        System.out.println("Max Matches: " + (statisticsService.findMax(columns) == statisticsService.findMax(data))
+                + " (Expected: true)");
+        System.out.println("Min Matches: " + (statisticsService.findMin(columns) == statisticsService.findMin(data))
+                + " (Expected: true)");
+        System.out.println("Sum Close: " + close(statisticsService.calculateSum(columns), statisticsService.calculateSum(data))
+                + " (Expected: true)");
+        System.out.println("Prediction Matches: " + (predictionService.predict(columns).getPredictedValue()
+                == predictionService.predict(data).getPredictedValue()) + " (Expected: true)");
+    }
+
+    /**
+     * Checks that two statistics agree to a relative precision of 1e-9.
+     *
+     * @param actual   The value computed by the kernels.
+     * @param expected The reference value.
+     * @return {@code true} if the values are close.
+     */
+    private static boolean close(double actual, double expected) {
+        return Math.abs(actual - expected) <= 1e-9 * Math.max(1.0, Math.abs(expected));
+    }
+}
@@ -0,0 +1,191 @@
+import es.predictapro.forecast.ExponentialSmoothingModel;
+import es.predictapro.forecast.ForecastModel;
+import es.predictapro.forecast.HoltModel;
+import es.predictapro.forecast.HoltWintersModel;
+import es.predictapro.forecast.LinearTrendModel;
+import es.predictapro.forecast.MovingAverageModel;
+import es.predictapro.forecast.PolynomialModel;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.ForecastEvaluation;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.service.ChunkedExecutor;
+import es.predictapro.service.ForecastingService;
+import es.predictapro.service.PredictionService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ForecastingServiceTest is a simple executable test class for the {@link ForecastingService}
+ * and the models of the {@code es.predictapro.forecast} package.
+ * <p>
+ * This class demonstrates the forecasting engine by:
+ * - Checking that each model extends the series it is designed for exactly.
+ * - Checking that the linear model agrees with the {@link PredictionService}.
+ * - Comparing the models with a holdout evaluation on noisy seasonal data.
+ * - Checking that lists, multi-chunk columns and parallel evaluations give the same forecasts.
+ * </p>
+ */
+public class ForecastingServiceTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Fits each model to a series it describes exactly.
+     * 2. Compares the linear model with the prediction service.
+     * 3. Evaluates every model on noisy seasonal data.
+     * 4. Forecasts the same data from a list and from columns, sequentially and in parallel.
+     * 5. Checks the rejected arguments.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        ForecastingService forecastingService = new ForecastingService();
+
+        // Step 1: Fit each model to a series it describes exactly
+        double[] constant = new double[50];
+        double[] line = new double[50];
+        double[] parabola = new double[50];
+        double[] seasonal = new double[96];
+        Arrays.fill(constant, 7.0);
+        for (int i = 0; i < line.length; i++) {
+            line[i] = 3.0 + 2.0 * i;
+            parabola[i] = 1.0 + 0.5 * i * i;
+        }
+        for (int i = 0; i < seasonal.length; i++) {
+            seasonal[i] = 100.0 + 0.5 * i + 10.0 * ((i % 12) - 5.5);
+        }
+        System.out.println("Exact Series Test:");
+        System.out.println("SES Constant: " + fitted(new ExponentialSmoothingModel(0.3), constant).predict(5) + " (Expected: 7.0)");
+        System.out.println("Moving Average: " + fitted(new MovingAverageModel(4), line).predict(1) + " (Expected: 98.0)");
+        System.out.println("Holt Line: " + close(fitted(new HoltModel(0.5, 0.5), line).predict(3), 3.0 + 2.0 * 52)
+                + " (Expected: true)");
+        System.out.println("Linear Line: " + close(fitted(new LinearTrendModel(), line).predict(10), 3.0 + 2.0 * 59)
+                + " (Expected: true)");
+        System.out.println("Polynomial Parabola: " + close(fitted(new PolynomialModel(2), parabola).predict(5), 1.0 + 0.5 * 54 * 54)
+                + " (Expected: true)");
+        double[] seasonalForecast = fitted(new HoltWintersModel(0.3, 0.1, 0.3, 12), seasonal).forecast(12);
+        boolean seasonalExact = true;
+        for (int h = 0; h < seasonalForecast.length; h++) {
+            int i = seasonal.length + h;
+            seasonalExact &= close(seasonalForecast[h], 100.0 + 0.5 * i + 10.0 * ((i % 12) - 5.5));
+        }
+        System.out.println("Holt-Winters Season: " + seasonalExact + " (Expected: true)");
+        System.out.println("Empty Model: " + new HoltModel(0.3, 0.1).predict(1) + " (Expected: NaN)");
+
+        // Step 2: Compare the linear model with the prediction service
+        List<DataPoint> data = createSeasonalData(40_000, 24);
+        double linear = forecastingService.forecast(new LinearTrendModel(), data, 1)[0];
+        double predicted = new PredictionService().predict(data).getPredictedValue();
+        System.out.println("\nLinear Model Test:");
+        System.out.println("Matches PredictionService: " + close(linear, predicted) + " (Expected: true)");
+
+        // Step 3: Evaluate every model on noisy seasonal data
+        ColumnarRepository repository = new ColumnarRepository();
+        repository.saveAll(data);
+        List<ForecastModel> models = ForecastingService.createModels(24);
+        List<ForecastEvaluation> evaluations = forecastingService.evaluateAll(models, repository.getColumns(), 48);
+        ForecastEvaluation best = evaluations.get(0);
+        System.out.println("\nHoldout Evaluation Test:");
+        for (ForecastEvaluation evaluation : evaluations) {
+            System.out.printf("%-58s MAE %8.3f RMSE %8.3f%n", evaluation.getModelName(),
+                    evaluation.getMeanAbsoluteError(), evaluation.getRootMeanSquaredError());
+            if (evaluation.getRootMeanSquaredError() < best.getRootMeanSquaredError()) {
+                best = evaluation;
+            }
+        }
+        System.out.println("Evaluations: " + evaluations.size() + " (Expected: 6)");
+        System.out.println("Best Model Is Seasonal: " + best.getModelName().startsWith("holt-winters") + " (Expected: true)");
+        System.out.println("Training Size: " + best.getTrainingSize() + " (Expected: " + (data.size() - 48) + ")");
+
+        // Step 4: Forecast from a list and from columns, sequentially and in parallel
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ForecastingService parallelService = new ForecastingService(new ChunkedExecutor(pool, 1));
+        List<ForecastEvaluation> parallel = parallelService.evaluateAll(ForecastingService.createModels(24),
+                repository.getColumns(), 48);
+        boolean sameForecasts = true;
+        boolean sameEvaluations = true;
+        for (int m = 0; m < models.size(); m++) {
+            double[] fromList = forecastingService.forecast(models.get(m), data, 30);
+            double[] fromColumns = forecastingService.forecast(models.get(m), repository.getColumns(), 30);
+            sameForecasts &= Arrays.equals(fromList, fromColumns);
+            sameEvaluations &= Arrays.equals(evaluations.get(m).getForecast(), parallel.get(m).getForecast())
+                    && evaluations.get(m).getModelName().equals(parallel.get(m).getModelName());
+        }
+        ForecastEvaluation fromList = forecastingService.evaluate(new HoltWintersModel(0.3, 0.05, 0.2, 24), data, 48);
+        System.out.println("\nConsistency Test:");
+        System.out.println("List And Columns Forecasts Match: " + sameForecasts + " (Expected: true)");
+        System.out.println("Parallel Evaluations Match: " + sameEvaluations + " (Expected: true)");
+        System.out.println("List Evaluation Matches: " + (fromList.getRootMeanSquaredError() == best.getRootMeanSquaredError())
+                + " (Expected: true)");
+        pool.shutdown();
+
+        // Step 5: Check the rejected arguments
+        System.out.println("\nArguments Test:");
+        System.out.println("Holdout Too Large: " + rejected(() -> forecastingService.evaluate(new LinearTrendModel(), data, data.size()))
+                + " (Expected: true)");
+        System.out.println("Zero Horizon: " + rejected(() -> new LinearTrendModel().forecast(0)) + " (Expected: true)");
+        System.out.println("Bad Smoothing Factor: " + rejected(() -> new ExponentialSmoothingModel(1.5)) + " (Expected: true)");
+        System.out.println("Bad Degree: " + rejected(() -> new PolynomialModel(PolynomialModel.MAX_DEGREE + 1)) + " (Expected: true)");
+    }
+
+    /**
+     * Fits a model to the given values.
+     *
+     * @param model  The model to fit.
+     * @param values The values of the series.
+     * @return The fitted model.
+     */
+    private static ForecastModel fitted(ForecastModel model, double[] values) {
+        model.fit(values, 0, values.length);
+        return model;
+    }
+
+    /**
+     * Checks that two values agree up to rounding errors.
+     *
+     * @param actual   The computed value.
+     * @param expected The expected value.
+     * @return {@code true} if the values are within a relative tolerance of 1e-6.
+     */
+    private static boolean close(double actual, double expected) {
+        return Math.abs(actual - expected) <= 1e-6 * Math.max(1.0, Math.abs(expected));
+    }
+
+    /**
+     * Runs an action and checks that it throws an IllegalArgumentException.
+     *
+     * @param action The action to run.
+     * @return {@code true} if the action was rejected.
+     */
+    private static boolean rejected(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Creates a deterministic series with a trend, a seasonal cycle and noise.
+     *
+     * @param size   The number of data points.
+     * @param period The number of points in a season.
+     * @return The generated data points, with unique IDs and increasing timestamps.
+     */
+    private static List<DataPoint> createSeasonalData(int size, int period) {
+        Random random = new Random(3);
+        List<DataPoint> data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double value = 50 + i * 0.002 + 20 * Math.sin(2 * Math.PI * i / period) + random.nextGaussian() * 2;
+            data.add(new DataPoint(i + 1, value, 1_700_000_000_000L + i * 3_600_000L));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,64 @@
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.PredictionResult;
+import es.predictapro.service.IncrementalPredictor;
+import es.predictapro.service.PredictionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * IncrementalPredictorTest is a simple executable test class for the {@link IncrementalPredictor}.
+ * <p>
+ * This class demonstrates the functionality of the incremental predictor by:
+ * - Feeding it a stream of readings one by one.
+ * - Comparing its predictions with the batch {@link PredictionService}.
+ * - Printing the results to the console.
+ * </p>
+ */
+public class IncrementalPredictorTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Feeds a linear series to an unbounded predictor.
+     * 2. Feeds a noisy series to a sliding-window predictor.
+     * 3. Compares both with the batch service on the same points.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        PredictionService predictionService = new PredictionService();
+
+        // Step 1: Unbounded predictor on the series 10, 20, 30
+        IncrementalPredictor predictor = new IncrementalPredictor();
+        predictor.add(new DataPoint(1, 10.0, System.currentTimeMillis()));
+        predictor.add(new DataPoint(2, 20.0, System.currentTimeMillis()));
+        predictor.add(new DataPoint(3, 30.0, System.currentTimeMillis()));
+        System.out.println("IncrementalPredictor Test:");
+        System.out.println("Predicted Value: " + predictor.predict().getPredictedValue() + " (Expected: 40.0)");
+
+        // Step 2: Sliding window of 100 points over 10,000 noisy readings
+        int windowSize = 100;
+        IncrementalPredictor windowed = new IncrementalPredictor(windowSize);
+        List<DataPoint> history = new ArrayList<>();
+        Random random = new Random(7);
+        double maxError = 0.0;
+        for (int i = 0; i < 10_000; i++) {
+            DataPoint point = new DataPoint(i, i * 0.5 + random.nextGaussian(), i);
+            history.add(point);
+            windowed.add(point);
+
+            // Step 3: Compare with the batch service on the same window
+            if (i % 997 == 0 && history.size() > 1) {
+                List<DataPoint> window = history.subList(Math.max(0, history.size() - windowSize), history.size());
+                PredictionResult expected = predictionService.predict(window);
+                maxError = Math.max(maxError, Math.abs(expected.getPredictedValue() - windowed.predict().getPredictedValue()));
+            }
+        }
+        System.out.println("Window Size: " + windowed.size() + " (Expected: " + windowSize + ")");
+        System.out.println("Max Difference From Batch: " + maxError + " (Expected: < 1.0E-6)");
+    }
+}
@@ -0,0 +1,93 @@
+import es.predictapro.exception.ServiceException;
+import es.predictapro.model.ColumnBuffer;
+import es.predictapro.model.DataColumns;
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.repository.DatabaseRepository;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataValidationService;
+import es.predictapro.service.IngestPipeline;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * IngestPipelineTest is a simple executable test class for the {@link IngestPipeline}
+ * and the batch {@code saveAll} methods of the repositories.
+ * <p>
+ * This class demonstrates the functionality of the pipeline by:
+ * - Saving batches directly with {@code saveAll}.
+ * - Loading many batches through the validation, cleaning and storage stages.
+ * - Rejecting an invalid batch and reporting a failing repository.
+ * </p>
+ */
+public class IngestPipelineTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Saves a batch with {@code saveAll} on two repositories.
+     * 2. Loads valid batches and one invalid batch through a pipeline.
+     * 3. Loads a batch into a repository that fails and checks the failure is reported.
+     * 4. Outputs the results to the console.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Save a batch directly
+        List<DataPoint> points = Arrays.asList(
+                new DataPoint(1, 10.0, 1000),
+                new DataPoint(2, 20.0, 2000),
+                new DataPoint(3, 30.0, 3000));
+        DatabaseRepository databaseRepository = new DatabaseRepository();
+        databaseRepository.saveAll(points);
+        ColumnarRepository columnarRepository = new ColumnarRepository();
+        columnarRepository.saveAll(points.toArray(new DataPoint[0]));
+        System.out.println("IngestPipeline Test:");
+        System.out.println("Database saveAll Size: " + databaseRepository.getAllData().size() + " (Expected: 3)");
+        System.out.println("Columnar saveAll Last: " + columnarRepository.getAllData().get(2)
+                + " (Expected: ID 3, value 30.0)");
+
+        // Step 2: Load 100 valid batches and one batch containing a NaN value
+        int batches = 100;
+        int batchSize = 10_000;
+        Random random = new Random(42);
+        ColumnarRepository repository = new ColumnarRepository();
+        IngestPipeline pipeline = new IngestPipeline(repository, new DataValidationService(), new DataCleaningService());
+        for (int b = 0; b < batches; b++) {
+            ColumnBuffer batch = new ColumnBuffer();
+            for (int i = 0; i < batchSize; i++) {
+                batch.append(b * batchSize + i, 100 + random.nextGaussian(), b * batchSize + i);
+            }
+            pipeline.submit(batch);
+        }
+        ColumnBuffer invalid = new ColumnBuffer();
+        invalid.append(-1, Double.NaN, 0);
+        pipeline.submit(invalid);
+        pipeline.close();
+
+        long expectedStored = (long) batches * batchSize - pipeline.getRemovedOutlierCount();
+        System.out.println("Rejected Batches: " + pipeline.getRejectedBatchCount() + " (Expected: 1)");
+        System.out.println("Rejected Points: " + pipeline.getRejectedPointCount() + " (Expected: 1)");
+        System.out.println("Stored Points: " + pipeline.getStoredPointCount() + " (Expected: " + expectedStored + ")");
+        System.out.println("Repository Size: " + repository.getColumns().size() + " (Expected: " + expectedStored + ")");
+
+        // Step 3: A failing repository makes close() report the failure
+        IngestPipeline failing = new IngestPipeline(new DatabaseRepository() {
+            @Override
+            public void saveAll(DataColumns columns) {
+                throw new IllegalStateException("disk full");
+            }
+        }, new DataValidationService(), new DataCleaningService());
+        failing.submit(points);
+        try {
+            failing.close();
+            System.out.println("Failure Reported: false (Expected: true)");
+        } catch (ServiceException e) {
+            System.out.println("Failure Reported: true (Expected: true) - " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.MappedFileRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MappedFileRepositoryTest is a simple executable test class for the {@link MappedFileRepository}.
+ * <p>
+ * This class demonstrates the functionality of the persistent repository by:
+ * - Saving data points across several segment files.
+ * - Reopening the repository from the same directory.
+ * - Printing the restored data to the console.
+ * </p>
+ */
+public class MappedFileRepositoryTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Creates a repository in a temporary directory with small segments.
+     * 2. Saves data points that span more than one segment.
+     * 3. Reopens the repository and reads the data back.
+     * 4. Outputs the restored data to the console.
+     * 5. Keeps appending after the restart.
+     * 6. Checks the segment names under a default locale with non-ASCII digits.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     * @throws IOException if the temporary directory cannot be created.
+     */
+    public static void main(String[] args) throws IOException {
+        // Step 1: Create a repository with segments of 4 records
+        Path directory = Files.createTempDirectory("predictapro-mapped");
+        MappedFileRepository repository = new MappedFileRepository(directory, 4);
+
+        // Step 2: Save 10 data points (3 segments)
+        long now = System.currentTimeMillis();
+        for (int i = 1; i <= 10; i++) {
+            repository.saveData(new DataPoint(i, i * 1.5, now + i));
+        }
+        repository.close();
+
+        // Step 3: Reopen the repository from the same directory
+        MappedFileRepository reopened = new MappedFileRepository(directory);
+        List<DataPoint> data = reopened.getAllData();
+
+        // Step 4: Display the restored data
+        System.out.println("MappedFileRepository Test:");
+        System.out.println("Restored Size: " + data.size() + " (Expected: 10)");
+        System.out.println("First Point: " + data.get(0) + " (Expected value: 1.5)");
+        System.out.println("Last Point: " + data.get(9) + " (Expected value: 15.0)");
+
+        // Step 5: Keep appending after the restart
+        reopened.saveData(new DataPoint(11, 16.5, now + 11));
+        System.out.println("Size After Append: " + data.size() + " (Expected: 11)");
+        reopened.close();
+
+        // Step 6: Name the segments under a default locale with Devanagari digits
+        Locale defaultLocale = Locale.getDefault();
+        Path localized = Files.createTempDirectory("predictapro-mapped");
+        try {
+            Locale.setDefault(Locale.forLanguageTag("hi-IN-u-nu-deva"));
+            MappedFileRepository repositoryInLocale = new MappedFileRepository(localized, 4);
+            repositoryInLocale.saveData(new DataPoint(1, 1.5, now));
+            repositoryInLocale.close();
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        System.out.println("Localized Segment Name: " + Files.exists(localized.resolve("segment-000000.dat"))
+                + " (Expected: true)");
+    }
+}
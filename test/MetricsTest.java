@@ -0,0 +1,181 @@
+import es.predictapro.controller.StatisticsController;
+import es.predictapro.metrics.LatencyHistogram;
+import es.predictapro.metrics.Metrics;
+import es.predictapro.metrics.MetricsReporter;
+import es.predictapro.metrics.MetricsSnapshot;
+import es.predictapro.metrics.Probe;
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.IncrementalPredictor;
+import es.predictapro.service.PredictionService;
+import es.predictapro.service.ResultCache;
+import es.predictapro.service.StreamingOutlierFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * MetricsTest is a simple executable test class for the {@link Metrics} registry.
+ * <p>
+ * This class demonstrates the hot-path metrics by:
+ * - Checking the precision of the percentiles of a {@link LatencyHistogram}.
+ * - Checking that nothing is recorded while metrics are disabled.
+ * - Measuring services and controllers, and counting the points removed by cleaning.
+ * - Rendering a snapshot as text and JSON, and dumping it to a file.
+ * </p>
+ */
+public class MetricsTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Records known values in a histogram and reads its percentiles.
+     * 2. Calls the services with metrics disabled.
+     * 3. Calls the services and a controller with metrics enabled.
+     * 4. Renders and dumps a snapshot.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     * @throws Exception if the dump file cannot be read.
+     */
+    public static void main(String[] args) throws Exception {
+        // Step 1: Check the percentiles of a histogram
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        System.out.println("Histogram Test:");
+        System.out.println("Count: " + histogram.getCount() + " (Expected: 100000)");
+        System.out.println("P50 Within 1.6%: " + within(histogram.getValueAtPercentile(50), 50_000) + " (Expected: true)");
+        System.out.println("P99 Within 1.6%: " + within(histogram.getValueAtPercentile(99), 99_000) + " (Expected: true)");
+        System.out.println("P100: " + histogram.getValueAtPercentile(100) + " (Expected: 100000)");
+        System.out.println("Mean: " + histogram.getMean() + " (Expected: 50000.5)");
+        histogram.record(Long.MAX_VALUE);
+        System.out.println("Largest Value: " + (histogram.getValueAtPercentile(100) == Long.MAX_VALUE) + " (Expected: true)");
+
+        // Step 2: Call the services with metrics disabled
+        List<DataPoint> data = createData(10_000);
+        DataCleaningService cleaningService = new DataCleaningService();
+        PredictionService predictionService = new PredictionService();
+        Metrics.setEnabled(false);
+        Metrics.reset();
+        predictionService.predict(cleaningService.cleanData(data));
+        System.out.println("\nDisabled Test:");
+        System.out.println("Operations Recorded: " + Metrics.snapshot().getOperations().size() + " (Expected: 0)");
+        System.out.println("Shared Probe: " + (Metrics.start("a", 1) == Metrics.start("b", 2)) + " (Expected: true)");
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000_000; i++) {
+            Probe probe = Metrics.start("disabled", i);
+            probe.stop();
+        }
+        System.out.printf("Disabled Probe Cost: %.2f ns%n", (System.nanoTime() - start) / 10_000_000.0);
+
+        // Step 3: Call the services and a controller with metrics enabled
+        Metrics.setEnabled(true);
+        List<DataPoint> cleaned = null;
+        for (int i = 0; i < 20; i++) {
+            cleaned = cleaningService.cleanData(data);
+            predictionService.predict(cleaned);
+        }
+        TimeIndexedRepository repository = new TimeIndexedRepository();
+        repository.saveAll(data);
+        StatisticsController statisticsController = new StatisticsController(new DataStatisticsService(), new ResultCache());
+        for (int i = 0; i < 5; i++) {
+            statisticsController.handleSummaryRequest(repository);
+        }
+        DataStatisticsService statisticsService = new DataStatisticsService();
+        statisticsService.findMax(data);
+        statisticsService.calculatePercentile(repository, 50);
+        IncrementalPredictor incrementalPredictor = new IncrementalPredictor(100);
+        StreamingOutlierFilter outlierFilter = new StreamingOutlierFilter(100);
+        for (DataPoint point : data.subList(0, 1000)) {
+            incrementalPredictor.add(point);
+            outlierFilter.accept(point);
+        }
+        incrementalPredictor.predict();
+        outlierFilter.filter(data, point -> { });
+        MetricsSnapshot snapshot = Metrics.snapshot();
+        MetricsSnapshot.Operation cleaning = snapshot.getOperation("cleaning.cleanData");
+        System.out.println("\nEnabled Test:");
+        System.out.println("Cleaning Calls: " + cleaning.getCalls() + " (Expected: 20)");
+        System.out.println("Cleaning Mean Input Size: " + cleaning.getMeanInputSize() + " (Expected: 10000.0)");
+        System.out.println("Cleaning P50 <= P99 <= Max: " + (cleaning.getP50Nanos() <= cleaning.getP99Nanos()
+                && cleaning.getP99Nanos() <= cleaning.getMaxNanos()) + " (Expected: true)");
+        System.out.println("Cleaning Allocates: " + (!Metrics.isAllocationMeasured() || cleaning.getAllocatedBytesPerCall() > 0)
+                + " (Expected: true)");
+        System.out.println("Filtered Points: " + Metrics.getCount(DataCleaningService.FILTERED_POINTS)
+                + " (Expected: " + 20 * (data.size() - cleaned.size()) + ")");
+        System.out.println("Prediction Calls: " + snapshot.getOperation("prediction.predict").getCalls() + " (Expected: 20)");
+        System.out.println("Summary Requests: " + snapshot.getOperation("statisticsController.summary").getCalls()
+                + " (Expected: 5)");
+        System.out.println("Summaries Computed: " + snapshot.getOperation("statistics.summarize").getCalls()
+                + " (Expected: 21)");
+        System.out.println("Max Input Size: " + snapshot.getOperation("statistics.findMax").getMeanInputSize()
+                + " (Expected: 10000.0)");
+        System.out.println("Percentile Calls: " + snapshot.getOperation("statistics.calculatePercentile").getCalls()
+                + " (Expected: 1)");
+        System.out.println("Incremental Appends: " + snapshot.getOperation("incrementalPredictor.add").getCalls()
+                + " (Expected: 1000)");
+        System.out.println("Incremental Prediction Size: " + snapshot.getOperation("incrementalPredictor.predict")
+                .getMeanInputSize() + " (Expected: 100.0)");
+        System.out.println("Streaming Accepts: " + snapshot.getOperation("streamingOutlierFilter.accept").getCalls()
+                + " (Expected: 1000)");
+        System.out.println("Streaming Feed Size: " + snapshot.getOperation("streamingOutlierFilter.filter")
+                .getMeanInputSize() + " (Expected: 10000.0)");
+
+        // Step 4: Render and dump a snapshot
+        String json = snapshot.toJson();
+        String text = snapshot.toText();
+        System.out.println("\nSnapshot Test:");
+        System.out.println("JSON Has Cleaning: " + json.contains("\"cleaning.cleanData\": {\"calls\": 20") + " (Expected: true)");
+        System.out.println("JSON Has Counter: " + json.contains("\"" + DataCleaningService.FILTERED_POINTS + "\": ")
+                + " (Expected: true)");
+        System.out.println("Text Has Prediction: " + text.contains("prediction.predict") + " (Expected: true)");
+        Path file = Files.createTempFile("metrics", ".json");
+        try (MetricsReporter reporter = new MetricsReporter(file, MetricsReporter.Format.JSON)) {
+            reporter.report();
+        }
+        String dumped = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        System.out.println("Dump Has Operations: " + dumped.startsWith("{\"timestamp\": ") + " (Expected: true)");
+        Files.deleteIfExists(file);
+        System.out.println();
+        System.out.print(text);
+
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    /**
+     * Checks that a percentile is within the precision of the histogram.
+     *
+     * @param actual   The value reported by the histogram.
+     * @param expected The exact percentile.
+     * @return {@code true} if the relative error is below 2^-6.
+     */
+    private static boolean within(long actual, long expected) {
+        return Math.abs(actual - expected) <= expected / 64.0;
+    }
+
+    /**
+     * Creates a noisy series with a few extreme outliers.
+     *
+     * @param size The number of data points.
+     * @return The data points, with unique IDs and increasing timestamps.
+     */
+    private static List<DataPoint> createData(int size) {
+        Random random = new Random(7);
+        List<DataPoint> data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double value = i % 500 == 0 ? 1_000 : 50 + random.nextGaussian();
+            data.add(new DataPoint(i, value, 1_700_000_000_000L + i * 1000L));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,98 @@
+import es.predictapro.config.AppConfig;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.service.ChunkedExecutor;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.PredictionService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ParallelExecutionTest is a simple executable test class for the parallel mode of the services.
+ * <p>
+ * This class demonstrates that the chunked parallel execution:
+ * - Produces the same results as the sequential services within the documented tolerance.
+ * - Produces bit-identical results on every run, regardless of the number of threads.
+ * - Keeps working in services created before the shared parallelism is reconfigured.
+ * </p>
+ */
+public class ParallelExecutionTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Generates a large random dataset.
+     * 2. Runs the services sequentially and with two different pools.
+     * 3. Outputs the comparison to the console.
+     * 4. Reconfigures the shared parallelism and reuses a service created before.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Generate a dataset spanning many chunks
+        Random random = new Random(42);
+        List<DataPoint> data = new ArrayList<>();
+        for (int i = 0; i < 500_000; i++) {
+            data.add(new DataPoint(i, 100 + random.nextGaussian() * 15, i));
+        }
+
+        // Step 2: Run the services sequentially and in parallel
+        ChunkedExecutor sequential = ChunkedExecutor.sequential();
+        ChunkedExecutor twoThreads = new ChunkedExecutor(new ForkJoinPool(2), 4096);
+        ChunkedExecutor eightThreads = new ChunkedExecutor(new ForkJoinPool(8), 4096);
+
+        double sequentialAverage = new DataStatisticsService(sequential).calculateAverage(data);
+        double parallelAverage = new DataStatisticsService(twoThreads).calculateAverage(data);
+        StatisticsSummary summaryTwo = new DataStatisticsService(twoThreads).summarize(data);
+        StatisticsSummary summaryEight = new DataStatisticsService(eightThreads).summarize(data);
+
+        int sequentialCleaned = new DataCleaningService(sequential).cleanData(data).size();
+        int parallelCleaned = new DataCleaningService(eightThreads).cleanData(data).size();
+
+        double sequentialPrediction = new PredictionService(sequential).predict(data).getPredictedValue();
+        double parallelPrediction = new PredictionService(eightThreads).predict(data).getPredictedValue();
+
+        // Step 3: Display the comparison
+        System.out.println("ParallelExecution Test:");
+        System.out.println("Average Relative Error: " + relativeError(sequentialAverage, parallelAverage)
+                + " (Expected: < " + ChunkedExecutor.RELATIVE_TOLERANCE + ")");
+        System.out.println("Max: " + new DataStatisticsService(eightThreads).findMax(data)
+                + " (Expected: " + new DataStatisticsService(sequential).findMax(data) + ")");
+        System.out.println("Summary Identical Across Pools: "
+                + summaryTwo.toString().equals(summaryEight.toString()) + " (Expected: true)");
+        System.out.println("Cleaned Size: " + parallelCleaned + " (Expected: " + sequentialCleaned + ")");
+        System.out.println("Prediction Relative Error: " + relativeError(sequentialPrediction, parallelPrediction)
+                + " (Expected: < " + ChunkedExecutor.RELATIVE_TOLERANCE + ")");
+
+        // Step 4: Reconfigure the shared parallelism and reuse a service created before
+        AppConfig.setParallelism(2, 4096);
+        DataStatisticsService configured = AppConfig.getDataStatisticsService();
+        AppConfig.setParallelism(4, 4096);
+        String reused;
+        try {
+            reused = Boolean.toString(relativeError(sequentialAverage, configured.calculateAverage(data))
+                    < ChunkedExecutor.RELATIVE_TOLERANCE);
+        } catch (RuntimeException e) {
+            reused = e.getClass().getSimpleName();
+        }
+        AppConfig.setParallelism(1);
+        System.out.println("Service Reused After Reconfiguration: " + reused + " (Expected: true)");
+    }
+
+    /**
+     * Computes the relative difference between two values.
+     *
+     * @param expected The reference value.
+     * @param actual   The value to compare.
+     * @return The relative difference.
+     */
+    private static double relativeError(double expected, double actual) {
+        return Math.abs(expected - actual) / Math.abs(expected);
+    }
+}
@@ -0,0 +1,146 @@
+import es.predictapro.config.AppConfig;
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.ConcurrentRepository;
+import es.predictapro.server.PredictaServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * PredictaServerTest is a simple executable test class for the {@link PredictaServer}.
+ * <p>
+ * This class demonstrates the functionality of the server by:
+ * - Saving data and answering prediction, statistics and report requests.
+ * - Rejecting invalid requests.
+ * - Answering 503 once the concurrency limit is reached.
+ * - Answering 500 when a request fails unexpectedly.
+ * </p>
+ */
+public class PredictaServerTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Starts a server accepting one request at a time on a free port.
+     * 2. Saves data and queries every endpoint.
+     * 3. Sends invalid requests.
+     * 4. Holds the only permit with a slow upload and sends another request.
+     * 5. Queries a server whose repository fails unexpectedly.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     * @throws Exception if the connection to the server fails.
+     */
+    public static void main(String[] args) throws Exception {
+        // Step 1: Start the server
+        ConcurrentRepository repository = AppConfig.getConcurrentRepository();
+        try (PredictaServer server = AppConfig.getPredictaServer(repository, 1)) {
+            int port = server.start(0);
+            String base = "http://localhost:" + port;
+
+            // Step 2: Save data and query every endpoint
+            System.out.println("PredictaServer Test:");
+            System.out.println("Health: " + request("GET", base + "/health", null) + " (Expected: 200 OK)");
+            System.out.println("Save: " + request("POST", base + "/data", "3,30.0,3000\n")
+                    + " (Expected: 200 {\"saved\": 1})");
+            System.out.println("Save Earlier: " + request("POST", base + "/data", "1,10.0,1000\n2,20.0,2000\n")
+                    + " (Expected: 200 {\"saved\": 2})");
+            System.out.println("Predict: " + request("GET", base + "/predict", null)
+                    + " (Expected: 200 with predictedValue 40.0)");
+            System.out.println("Predict Window: " + request("GET", base + "/predict?from=0&to=2500", null)
+                    + " (Expected: 200 with predictedValue 30.0)");
+            System.out.println("Statistics: " + request("GET", base + "/statistics", null)
+                    + " (Expected: 200 with count 3 and mean 20.0)");
+            String report = request("GET", base + "/report", null);
+            System.out.println("Report Rows: " + (report.split("\n").length - 2) + " (Expected: 3)");
+            System.out.println("Report In Time Order: " + (report.indexOf("10.00") < report.indexOf("30.00"))
+                    + " (Expected: true)");
+            System.out.println("Latest Report Rows: " + (request("GET", base + "/report?latest=1", null).split("\n").length - 2)
+                    + " (Expected: 1)");
+            System.out.println("Metrics: " + request("GET", base + "/metrics", null).startsWith("200 {\"timestamp\": ")
+                    + " (Expected: true)");
+
+            // Step 3: Send invalid requests
+            System.out.println("Bad Line: " + request("POST", base + "/data", "1;2;3").substring(0, 3) + " (Expected: 400)");
+            System.out.println("Bad Parameter: " + request("GET", base + "/predict?from=abc", null).substring(0, 3)
+                    + " (Expected: 400)");
+            System.out.println("Overflowing Latest: " + request("GET", base + "/report?latest=4294967297", null).substring(0, 3)
+                    + " (Expected: 400)");
+            System.out.println("Wrong Method: " + request("GET", base + "/data", null).substring(0, 3) + " (Expected: 405)");
+
+            // Step 4: Hold the only permit with an upload that never completes, then send another request
+            try (Socket slow = new Socket("localhost", port)) {
+                OutputStream output = slow.getOutputStream();
+                output.write(("POST /data HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n\r\n4,40.0,4000\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                output.flush();
+                String busy = "";
+                for (int attempt = 0; attempt < 50 && !busy.startsWith("503"); attempt++) {
+                    Thread.sleep(20); // Let the server pick up the slow upload first
+                    busy = request("GET", base + "/statistics", null);
+                }
+                System.out.println("Busy: " + busy + " (Expected: 503 Server busy, retry later.)");
+            }
+            System.out.println("Rejected Requests: " + (server.getRejectedRequests() >= 1) + " (Expected: true)");
+            System.out.println("Virtual Threads: " + PredictaServer.supportsVirtualThreads()
+                    + " (Expected: true on Java 21+)");
+        }
+
+        // Step 5: Query a server whose repository fails unexpectedly
+        ConcurrentRepository failing = new ConcurrentRepository() {
+            @Override
+            public List<DataPoint> getRange(long fromMillis, long toMillis) {
+                throw new IllegalStateException("broken repository");
+            }
+        };
+        try (PredictaServer server = AppConfig.getPredictaServer(failing, 1)) {
+            String base = "http://localhost:" + server.start(0);
+            System.out.println("Unexpected Failure: " + request("GET", base + "/report", null).substring(0, 3)
+                    + " (Expected: 500)");
+            System.out.println("Permit Released: " + request("GET", base + "/statistics", null).substring(0, 3)
+                    + " (Expected: 200)");
+        }
+    }
+
+    /**
+     * Sends a request and reads the status and body of the response.
+     *
+     * @param method The HTTP method.
+     * @param url    The URL of the request.
+     * @param body   The body to send, or {@code null}.
+     * @return The status code followed by the body.
+     * @throws IOException if the connection fails.
+     */
+    private static String request(String method, String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream input = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        if (input != null) {
+            try (InputStream stream = input) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = stream.read(buffer)) > 0) {
+                    response.write(buffer, 0, read);
+                }
+            }
+        }
+        connection.disconnect();
+        return status + " " + response.toString("UTF-8");
+    }
+}
@@ -0,0 +1,95 @@
+import es.predictapro.model.QuantileSketch;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * QuantileSketchTest is a simple executable test class for the {@link QuantileSketch}.
+ * <p>
+ * This class demonstrates the quantile sketch by:
+ * - Checking that small streams are summarized exactly.
+ * - Measuring the rank error of the quantiles of a large stream against a full sort.
+ * - Checking that merging sketches of parts keeps the error within the bound.
+ * - Checking that the memory used stays bounded.
+ * </p>
+ */
+public class QuantileSketchTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Sketches a few values.
+     * 2. Sketches a large stream and compares its quantiles with the exact ones.
+     * 3. Merges sketches of parts of the stream.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Sketch a few values
+        QuantileSketch small = new QuantileSketch();
+        for (double value : new double[] {10.5, -50.0, 20.0, 1000.0, 15.0, 12.0, Double.NaN}) {
+            small.accept(value);
+        }
+        System.out.println("Small Stream Test:");
+        System.out.println("Count: " + small.getCount() + " (Expected: 6)");
+        System.out.println("Median: " + small.getQuantile(0.5) + " (Expected: 12.0)");
+        System.out.println("Min: " + small.getQuantile(0.0) + " (Expected: -50.0)");
+        System.out.println("Max: " + small.getQuantile(1.0) + " (Expected: 1000.0)");
+        System.out.println("Rank Of 15: " + small.getRank(15.0) + " (Expected: " + 4 / 6.0 + ")");
+        System.out.println("Empty Median: " + new QuantileSketch().getQuantile(0.5) + " (Expected: NaN)");
+
+        // Step 2: Sketch a large stream and compare with a full sort
+        int size = 1_000_000;
+        double[] values = new double[size];
+        Random random = new Random(17);
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+            sketch.accept(values[i]);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double bound = sketch.getNormalizedRankError();
+        System.out.println("\nLarge Stream Test:");
+        System.out.printf("Rank Error Bound: %.4f%n", bound);
+        System.out.println("Quantiles Within Bound: " + withinBound(sketch, sorted, bound) + " (Expected: true)");
+        System.out.println("Retained Values Bounded: " + (sketch.getRetainedCount() < 3 * QuantileSketch.DEFAULT_K + 200)
+                + " (Expected: true)");
+
+        // Step 3: Merge sketches of parts of the stream
+        QuantileSketch merged = new QuantileSketch();
+        for (int part = 0; part < 10; part++) {
+            QuantileSketch partial = new QuantileSketch();
+            partial.accept(values, part * (size / 10), (part + 1) * (size / 10));
+            merged.merge(partial);
+        }
+        QuantileSketch copy = new QuantileSketch(merged);
+        System.out.println("\nMerge Test:");
+        System.out.println("Merged Count: " + merged.getCount() + " (Expected: " + size + ")");
+        System.out.println("Merged Quantiles Within Bound: " + withinBound(merged, sorted, bound) + " (Expected: true)");
+        System.out.println("Copy Median Matches: " + (copy.getQuantile(0.5) == merged.getQuantile(0.5)) + " (Expected: true)");
+        System.out.println("Exact Extremes: " + (merged.getMin() == sorted[0] && merged.getMax() == sorted[size - 1])
+                + " (Expected: true)");
+    }
+
+    /**
+     * Checks the rank error of the percentiles of a sketch against the sorted values.
+     *
+     * @param sketch The sketch of the values.
+     * @param sorted The values, sorted.
+     * @param bound  The largest acceptable rank error, as a fraction of the count.
+     * @return {@code true} if every percentile from 1 to 99 is within the bound.
+     */
+    private static boolean withinBound(QuantileSketch sketch, double[] sorted, double bound) {
+        for (int percentile = 1; percentile < 100; percentile++) {
+            double estimate = sketch.getQuantile(percentile / 100.0);
+            int rank = Arrays.binarySearch(sorted, estimate);
+            if (Math.abs((double) rank / sorted.length - percentile / 100.0) > bound) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
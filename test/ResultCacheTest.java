@@ -0,0 +1,108 @@
+import es.predictapro.controller.DataController;
+import es.predictapro.controller.StatisticsController;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.repository.DataRepository;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.PredictionService;
+import es.predictapro.service.ResultCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ResultCacheTest is a simple executable test class for the {@link ResultCache}.
+ * <p>
+ * This class demonstrates the functionality of the result cache by:
+ * - Answering repeated queries from the cache.
+ * - Recomputing them after new data is saved.
+ * - Evicting the least recently used results.
+ * </p>
+ */
+public class ResultCacheTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Polls the same statistics and prediction several times on an unchanged repository.
+     * 2. Saves a new point and checks that the results are recomputed.
+     * 3. Fills a small cache to check the eviction of the least recently used result.
+     * 4. Checks that repositories without a version are never cached.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Poll the same queries on an unchanged repository
+        TimeIndexedRepository repository = new TimeIndexedRepository();
+        for (int i = 0; i < 1000; i++) {
+            repository.saveData(new DataPoint(i, i % 10, i * 1000L));
+        }
+        ResultCache cache = new ResultCache(16);
+        StatisticsController statisticsController = new StatisticsController(new DataStatisticsService(), cache);
+        DataController dataController = new DataController(new DataCleaningService(), new PredictionService(), cache);
+        for (int poll = 0; poll < 10; poll++) {
+            statisticsController.handleSummaryRequest(repository);
+            statisticsController.handleRangeRequest(repository, 0, 500_000);
+            dataController.handlePredictionRequest(repository);
+        }
+
+        System.out.println("ResultCache Test:");
+        System.out.println("Misses After Polling: " + cache.getMissCount() + " (Expected: 3)");
+        System.out.println("Hits After Polling: " + cache.getHitCount() + " (Expected: 27)");
+
+        // Step 2: Save a point and poll again
+        StatisticsSummary summary = statisticsController.handleSummaryRequest(repository);
+        summary.accept(1_000_000); // Modifying the returned copy must not affect the cache
+        repository.saveData(new DataPoint(1000, 100, 1_000_000L));
+        long count = statisticsController.handleSummaryRequest(repository).getCount();
+        long rangeCount = statisticsController.handleRangeRequest(repository, 0, 2_000_000).getCount();
+        System.out.println("Count After Save: " + count + " (Expected: 1001)");
+        System.out.println("Range Count After Save: " + rangeCount + " (Expected: 1001)");
+        System.out.println("Misses After Save: " + cache.getMissCount() + " (Expected: 5)");
+
+        // Step 3: Fill a small cache
+        ResultCache small = new ResultCache(2);
+        ColumnarRepository columnar = new ColumnarRepository();
+        columnar.saveData(new DataPoint(1, 1.0, 1L));
+        small.get(columnar, "a", () -> "A");
+        small.get(columnar, "b", () -> "B");
+        small.get(columnar, "a", () -> "A"); // "b" becomes the least recently used
+        small.get(columnar, "c", () -> "C");
+        String b = small.get(columnar, "b", () -> "B recomputed");
+        String c = small.get(columnar, "c", () -> "C recomputed");
+        System.out.println("Evicted Result: " + b + " (Expected: B recomputed)");
+        System.out.println("Kept Result: " + c + " (Expected: C)");
+        System.out.println("Evictions: " + small.getEvictionCount() + " (Expected: 2)");
+        small.invalidate(columnar);
+        System.out.println("Size After Invalidate: " + small.size() + " (Expected: 0)");
+
+        // Step 4: Query a repository without version
+        DataRepository unversioned = new UnversionedRepository();
+        small.get(unversioned, "a", () -> "A");
+        small.get(unversioned, "a", () -> "A");
+        System.out.println("Unversioned Cached: " + small.size() + " (Expected: 0)");
+    }
+
+    /**
+     * Minimal repository that does not track its version.
+     */
+    private static class UnversionedRepository implements DataRepository {
+
+        private final List<DataPoint> data = new ArrayList<>();
+
+        @Override
+        public List<DataPoint> getAllData() {
+            return data;
+        }
+
+        @Override
+        public void saveData(DataPoint dataPoint) {
+            data.add(dataPoint);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import es.predictapro.exception.DataNotFoundException;
+import es.predictapro.model.PredictionResult;
+import es.predictapro.model.StatisticsSummary;
+import es.predictapro.repository.SeriesRepository;
+import es.predictapro.service.ChunkedExecutor;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.PredictionService;
+import es.predictapro.service.SeriesAnalyticsService;
+import es.predictapro.service.VisualizationService;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * SeriesAnalyticsServiceTest is a simple executable test class for the {@link SeriesRepository}
+ * and the {@link SeriesAnalyticsService}.
+ * <p>
+ * This class demonstrates the functionality of the multi-series model by:
+ * - Storing thousands of independent series.
+ * - Predicting and summarizing a single series.
+ * - Refreshing the forecast of the whole fleet sequentially and in parallel.
+ * </p>
+ */
+public class SeriesAnalyticsServiceTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Saves 10,000 series of 200 points, each with its own trend.
+     * 2. Predicts, summarizes and reports a single series.
+     * 3. Predicts every series sequentially and with a pool of 4 threads, and compares both.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Save the series, reusing the same IDs in every series
+        Random random = new Random(3);
+        SeriesRepository repository = new SeriesRepository();
+        int seriesCount = 10_000;
+        int pointsPerSeries = 200;
+        for (int s = 0; s < seriesCount; s++) {
+            String key = "sensor-" + s;
+            double slope = s % 7;
+            for (int i = 0; i < pointsPerSeries; i++) {
+                repository.saveData(key, i, slope * i + random.nextGaussian(), i * 1000L);
+            }
+        }
+
+        System.out.println("SeriesAnalyticsService Test:");
+        System.out.println("Series Count: " + repository.getSeriesCount() + " (Expected: " + seriesCount + ")");
+        System.out.println("Series Size: " + repository.getSeries("sensor-42").getAllData().size()
+                + " (Expected: " + pointsPerSeries + ")");
+
+        // Step 2: Process a single series
+        SeriesAnalyticsService sequential = new SeriesAnalyticsService();
+        PredictionResult prediction = sequential.predict(repository, "sensor-3");
+        StatisticsSummary summary = sequential.summarize(repository, "sensor-3");
+        System.out.println("Single Prediction Near 600: " + (Math.abs(prediction.getPredictedValue() - 600) < 5)
+                + " (Expected: true)");
+        System.out.println("Single Summary Count: " + summary.getCount() + " (Expected: " + pointsPerSeries + ")");
+        System.out.println("Report Rows: " + (sequential.generateReport(repository, "sensor-3").split("\n").length - 2)
+                + " (Expected: " + pointsPerSeries + ")");
+        try {
+            sequential.predict(repository, "unknown");
+            System.out.println("Unknown Series: no exception (Expected: DataNotFoundException)");
+        } catch (DataNotFoundException e) {
+            System.out.println("Unknown Series: " + e.getMessage() + " (Expected: No series found with key unknown.)");
+        }
+
+        // Step 3: Refresh the whole fleet sequentially and in parallel
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SeriesAnalyticsService parallel = new SeriesAnalyticsService(new DataCleaningService(),
+                new PredictionService(), new DataStatisticsService(), new VisualizationService(),
+                new ChunkedExecutor(pool, ChunkedExecutor.DEFAULT_CHUNK_SIZE));
+        for (int warmup = 0; warmup < 3; warmup++) {
+            sequential.predictAll(repository);
+            parallel.predictAll(repository);
+        }
+        long start = System.nanoTime();
+        Map<String, PredictionResult> sequentialResults = sequential.predictAll(repository);
+        long sequentialNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        Map<String, PredictionResult> parallelResults = parallel.predictAll(repository);
+        long parallelNanos = System.nanoTime() - start;
+
+        boolean identical = sequentialResults.keySet().equals(parallelResults.keySet());
+        for (Map.Entry<String, PredictionResult> entry : sequentialResults.entrySet()) {
+            identical &= entry.getValue().getPredictedValue()
+                    == parallelResults.get(entry.getKey()).getPredictedValue();
+        }
+        System.out.println("Fleet Results: " + parallelResults.size() + " (Expected: " + seriesCount + ")");
+        System.out.println("First Key: " + parallelResults.keySet().iterator().next() + " (Expected: sensor-0)");
+        System.out.println("Parallel Matches Sequential: " + identical + " (Expected: true)");
+        System.out.printf("Fleet Refresh: %.1f ms sequential, %.1f ms with 4 threads%n",
+                sequentialNanos / 1e6, parallelNanos / 1e6);
+        System.out.println("Summaries: " + parallel.summarizeAll(repository).size() + " (Expected: " + seriesCount + ")");
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,135 @@
+import es.predictapro.controller.DataController;
+import es.predictapro.controller.ReportController;
+import es.predictapro.model.DataPoint;
+import es.predictapro.model.RangeAggregate;
+import es.predictapro.repository.DatabaseRepository;
+import es.predictapro.repository.TimeIndexedRepository;
+import es.predictapro.service.DataCleaningService;
+import es.predictapro.service.DataStatisticsService;
+import es.predictapro.service.PredictionService;
+import es.predictapro.service.VisualizationService;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * TimeIndexedRepositoryTest is a simple executable test class for the {@link TimeIndexedRepository}.
+ * <p>
+ * This class demonstrates the functionality of the time-indexed repository by:
+ * - Saving a feed where some points arrive late.
+ * - Comparing range and latest queries with a full scan of a plain repository.
+ * - Running the controllers on a time window.
+ * - Answering statistics over time ranges from the rollups.
+ * - Keeping the variance of the rollups accurate for large values.
+ * </p>
+ */
+public class TimeIndexedRepositoryTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Saves the same feed, with 5% of late points, in a time-indexed and a plain repository.
+     * 2. Compares random range queries and latest queries between both repositories.
+     * 3. Runs the controllers on a window of the time-indexed repository.
+     * 4. Compares the rollup aggregates with a scan of the raw points.
+     * 5. Compares the variance of large values over several days with a scan.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Save a feed with one point per second, delaying some of them
+        Random random = new Random(7);
+        TimeIndexedRepository indexed = new TimeIndexedRepository(256);
+        DatabaseRepository plain = new DatabaseRepository();
+        int size = 100_000;
+        for (int i = 0; i < size; i++) {
+            long timestamp = i * 1000L;
+            if (random.nextInt(20) == 0) {
+                timestamp -= 1 + random.nextInt(500_000); // Late by up to 500 seconds
+            }
+            DataPoint point = new DataPoint(i, i % 100, timestamp);
+            indexed.saveData(point);
+            plain.saveData(point);
+        }
+
+        // Step 2: Compare the queries with a full scan
+        boolean rangesMatch = true;
+        for (int q = 0; q < 200; q++) {
+            long from = random.nextInt(size) * 1000L - 250_000;
+            long to = from + random.nextInt(3_600_000);
+            rangesMatch &= sameTimestamps(indexed.getRange(from, to), plain.getRange(from, to));
+        }
+        boolean latestMatch = sameTimestamps(indexed.getLatest(5000), plain.getLatest(5000));
+        List<DataPoint> all = indexed.getAllData();
+        boolean sorted = true;
+        for (int i = 1; i < all.size(); i++) {
+            sorted &= all.get(i - 1).getTimestamp() <= all.get(i).getTimestamp();
+        }
+
+        System.out.println("TimeIndexedRepository Test:");
+        System.out.println("Size: " + all.size() + " (Expected: " + size + ")");
+        System.out.println("Sorted: " + sorted + " (Expected: true)");
+        System.out.println("Ranges Match Scan: " + rangesMatch + " (Expected: true)");
+        System.out.println("Latest Match Scan: " + latestMatch + " (Expected: true)");
+        System.out.println("Empty Range: " + indexed.getRange(5000, 5000).size() + " (Expected: 0)");
+
+        // Step 3: Run the controllers on the last 10 seconds
+        DataController dataController = new DataController(new DataCleaningService(), new PredictionService());
+        ReportController reportController = new ReportController(new VisualizationService());
+        long end = size * 1000L;
+        System.out.println("Window Prediction: "
+                + dataController.handlePredictionRequest(indexed, end - 10_000, end).getPredictedValue());
+        System.out.print(reportController.generateLatestReport(indexed, 3));
+
+        // Step 4: Compare the rollup aggregates with a scan of the raw points
+        DataStatisticsService statisticsService = new DataStatisticsService();
+        boolean aggregatesMatch = true;
+        for (int q = 0; q < 200; q++) {
+            long from = random.nextInt(size) * 1000L - 250_000 + random.nextInt(1000);
+            long to = from + random.nextInt(50_000_000);
+            List<DataPoint> range = plain.getRange(from, to);
+            RangeAggregate aggregate = statisticsService.summarizeRange(indexed, from, to);
+            aggregatesMatch &= aggregate.getCount() == range.size()
+                    && Math.abs(aggregate.getSum() - statisticsService.calculateSum(range)) < 1e-6
+                    && (range.isEmpty() || aggregate.getMax() == statisticsService.findMax(range))
+                    && (range.isEmpty() || aggregate.getMin() == statisticsService.findMin(range));
+        }
+        System.out.println("Aggregates Match Scan: " + aggregatesMatch + " (Expected: true)");
+        System.out.println("All-Time Average: " + statisticsService.calculateAverage(indexed, Long.MIN_VALUE, Long.MAX_VALUE)
+                + " (Expected: " + statisticsService.calculateAverage(plain.getAllData()) + ")");
+
+        // Step 5: Aggregate large values with a small spread, one point per minute over three days
+        TimeIndexedRepository large = new TimeIndexedRepository();
+        DatabaseRepository largePlain = new DatabaseRepository();
+        for (int i = 0; i < 3 * 24 * 60; i++) {
+            DataPoint point = new DataPoint(i, 1e9 + random.nextGaussian() * 0.01, i * 60_000L);
+            large.saveData(point);
+            largePlain.saveData(point);
+        }
+        double rollupVariance = statisticsService.summarizeRange(large, 0, Long.MAX_VALUE).getVariance();
+        double scanVariance = statisticsService.summarize(largePlain.getAllData()).getVariance();
+        System.out.println("Large Values Variance Matches Scan: "
+                + (Math.abs(rollupVariance - scanVariance) <= 1e-6 * scanVariance) + " (Expected: true)");
+    }
+
+    /**
+     * Checks that two lists hold the same timestamps in the same order.
+     *
+     * @param actual   The list to check.
+     * @param expected The reference list.
+     * @return {@code true} if both lists match.
+     */
+    private static boolean sameTimestamps(List<DataPoint> actual, List<DataPoint> expected) {
+        if (actual.size() != expected.size()) {
+            return false;
+        }
+        for (int i = 0; i < actual.size(); i++) {
+            if (actual.get(i).getTimestamp() != expected.get(i).getTimestamp()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
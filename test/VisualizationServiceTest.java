@@ -0,0 +1,73 @@
+import es.predictapro.model.DataPoint;
+import es.predictapro.repository.ColumnarRepository;
+import es.predictapro.service.VisualizationService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * VisualizationServiceTest is a simple executable test class for the {@link VisualizationService}.
+ * <p>
+ * This class demonstrates the functionality of the VisualizationService by:
+ * - Generating a report as a string.
+ * - Streaming the same report to a writer, a byte channel and from primitive columns.
+ * - Checking that every output is identical.
+ * </p>
+ */
+public class VisualizationServiceTest {
+
+    /**
+     * The main method to execute the test.
+     * <p>
+     * Steps:
+     * 1. Initializes the {@link VisualizationService} and a sample dataset.
+     * 2. Generates the report as a string.
+     * 3. Streams the report to the other destinations and compares the outputs.
+     * 4. Generates a report for an empty dataset.
+     * </p>
+     *
+     * @param args Command-line arguments (not used in this test).
+     */
+    public static void main(String[] args) {
+        // Step 1: Create the service and the test data, including values needing rounding
+        VisualizationService visualizationService = new VisualizationService();
+        List<DataPoint> data = Arrays.asList(
+                new DataPoint(1, 10.0, 1_700_000_000_000L),
+                new DataPoint(2, -0.004, 1_700_000_060_000L),
+                new DataPoint(3, 1234.567, 1_700_086_400_000L)
+        );
+
+        // Step 2: Generate the report as a string
+        String report = visualizationService.generateReport(data);
+        System.out.println("VisualizationService Test:");
+        System.out.print(report);
+
+        // Step 3: Stream the report and compare the outputs
+        StringWriter writer = new StringWriter();
+        visualizationService.writeReport(data, writer);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        visualizationService.writeReport(data, Channels.newChannel(bytes));
+
+        ColumnarRepository repository = new ColumnarRepository();
+        for (DataPoint point : data) {
+            repository.saveData(point);
+        }
+        StringWriter columnsWriter = new StringWriter();
+        visualizationService.writeReport(repository.getColumns(), columnsWriter);
+
+        System.out.println("Writer Matches: " + report.equals(writer.toString()) + " (Expected: true)");
+        System.out.println("Channel Matches: "
+                + report.equals(new String(bytes.toByteArray(), StandardCharsets.US_ASCII)) + " (Expected: true)");
+        System.out.println("Columns Match: " + report.equals(columnsWriter.toString()) + " (Expected: true)");
+
+        // Step 4: Generate a report for an empty dataset
+        System.out.println("Empty Report: " + visualizationService.generateReport(new ArrayList<>())
+                + " (Expected: No data available to generate the report.)");
+    }
+}